@@ -24,12 +24,32 @@ android {
 
     buildTypes {
         release {
-            isMinifyEnabled = false
+            // R8 full mode is switched on in gradle.properties (android.enableR8.fullMode)
+            isMinifyEnabled = true
+            isShrinkResources = true
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
                 "proguard-rules.pro"
             )
         }
+        
+        // Release with R8, signed with the debug key so it can be installed for the startup comparison
+        create("benchmark") {
+            initWith(getByName("release"))
+            applicationIdSuffix = ".benchmark"
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
+        
+        // Same as benchmark but without R8 - only used as the baseline for size/startup comparison
+        create("releaseUnoptimized") {
+            initWith(getByName("release"))
+            isMinifyEnabled = false
+            isShrinkResources = false
+            applicationIdSuffix = ".unoptimized"
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
     }
     
     // Updated Java version to 17 for compatibility
@@ -44,12 +64,28 @@ android {
     
     buildFeatures {
         compose = true
+        buildConfig = true
     }
     
     composeOptions {
         kotlinCompilerExtensionVersion = "1.5.3"
     }
     
+    testOptions {
+        unitTests {
+            // Robolectric needs merged resources/manifest for Room and Hilt on the JVM
+            isIncludeAndroidResources = true
+            all { test ->
+                test.maxHeapSize = "2g"
+                // DAO timings are machine-dependent: -PdaoPerf=true runs them against the baseline,
+                // -PdaoPerfRecord=true re-records the baseline instead of asserting
+                test.systemProperty("daoPerf.enabled", project.findProperty("daoPerf") ?: "false")
+                test.systemProperty("daoPerf.record", project.findProperty("daoPerfRecord") ?: "false")
+                test.systemProperty("daoPerf.outputDir", layout.buildDirectory.dir("reports/dao-perf").get().asFile.absolutePath)
+            }
+        }
+    }
+    
     packaging {
         resources {
             excludes += "/META-INF/{AL2.0,LGPL2.1}"
@@ -58,6 +94,9 @@ android {
 }
 
 dependencies {
+    // Pure-JVM entities, use cases and task logic
+    implementation(project(":core-domain"))
+    
     implementation("androidx.vectordrawable:vectordrawable-animated:1.2.0")
     val composeBom = platform("androidx.compose:compose-bom:2023.10.01")
     implementation(composeBom)
@@ -99,6 +138,12 @@ dependencies {
     implementation("androidx.hilt:hilt-work:1.1.0")
     ksp("androidx.hilt:hilt-compiler:1.1.0")
     
+    // Home-screen widget
+    implementation("androidx.glance:glance-appwidget:1.0.0")
+    
+    // Tracing sections for Perfetto/systrace
+    implementation("androidx.tracing:tracing-ktx:1.2.0")
+    
     // Optional - for better datetime handling
     implementation("org.jetbrains.kotlinx:kotlinx-datetime:0.5.0")
     
@@ -116,6 +161,9 @@ dependencies {
     // Room Testing
     testImplementation("androidx.room:room-testing:2.6.1")
     
+    // Robolectric - runs Room/SQLite on the JVM for the DAO performance suite
+    testImplementation("org.robolectric:robolectric:4.11.1")
+    
     // Android Testing
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.5.1")
@@ -137,3 +185,185 @@ dependencies {
 ksp {
     arg("dagger.hilt.shareTestComponents", "true")
 }
+
+// ---------------------------------------------------------------------------
+// Build size report
+// Writes APK size, dex size and dex method count for every variant to
+// build/reports/apk-size/<variant>.properties after the APK is assembled.
+// ---------------------------------------------------------------------------
+
+abstract class ApkSizeReportTask : DefaultTask() {
+    
+    @get:InputFiles
+    abstract val apkDirectory: DirectoryProperty
+    
+    @get:Internal
+    abstract val builtArtifactsLoader: Property<com.android.build.api.variant.BuiltArtifactsLoader>
+    
+    @get:Input
+    abstract val variantName: Property<String>
+    
+    @get:OutputFile
+    abstract val reportFile: RegularFileProperty
+    
+    @TaskAction
+    fun report() {
+        val artifacts = builtArtifactsLoader.get().load(apkDirectory.get())
+            ?: throw GradleException("Cannot load APKs for ${variantName.get()}")
+        val apk = File(artifacts.elements.single().outputFile)
+        
+        var dexBytes = 0L
+        var dexFiles = 0
+        var methodCount = 0L
+        java.util.zip.ZipFile(apk).use { zip ->
+            zip.entries().asSequence()
+                .filter { it.name.startsWith("classes") && it.name.endsWith(".dex") }
+                .forEach { entry ->
+                    dexFiles++
+                    dexBytes += entry.size
+                    // method_ids_size lives at offset 0x58 of the dex header (little endian)
+                    val header = zip.getInputStream(entry).use { it.readNBytes(0x5C) }
+                    methodCount += java.nio.ByteBuffer.wrap(header)
+                        .order(java.nio.ByteOrder.LITTLE_ENDIAN)
+                        .getInt(0x58)
+                        .toLong()
+                }
+        }
+        
+        val report = reportFile.get().asFile
+        report.parentFile.mkdirs()
+        report.writeText(
+            """
+            variant=${variantName.get()}
+            apkBytes=${apk.length()}
+            dexFiles=$dexFiles
+            dexBytes=$dexBytes
+            dexMethodCount=$methodCount
+            """.trimIndent() + "\n"
+        )
+        logger.lifecycle("APK size report (${variantName.get()}): apk=${apk.length()} B, dex=$dexBytes B, methods=$methodCount")
+    }
+}
+
+/**
+ * Cold-starts the installed variant with `am start -W` and records the average TotalTime.
+ * Depends on install<Variant>, so only signed variants can be measured.
+ */
+abstract class StartupMeasureTask : DefaultTask() {
+    
+    @get:Input
+    abstract val applicationId: Property<String>
+    
+    @get:Input
+    abstract val iterations: Property<Int>
+    
+    @get:Internal
+    abstract val adbExecutable: RegularFileProperty
+    
+    @get:OutputFile
+    abstract val reportFile: RegularFileProperty
+    
+    @get:javax.inject.Inject
+    abstract val execOperations: org.gradle.process.ExecOperations
+    
+    private fun adb(vararg args: String): String {
+        val output = java.io.ByteArrayOutputStream()
+        execOperations.exec {
+            commandLine(adbExecutable.get().asFile.absolutePath, *args)
+            standardOutput = output
+        }
+        return output.toString()
+    }
+    
+    @TaskAction
+    fun measure() {
+        val component = "${applicationId.get()}/com.pharma.taskmanager.MainActivity"
+        val timings = (1..iterations.get()).map {
+            adb("shell", "am", "force-stop", applicationId.get())
+            val output = adb("shell", "am", "start", "-S", "-W", "-n", component)
+            Regex("TotalTime:\\s+(\\d+)").find(output)?.groupValues?.get(1)?.toLong()
+                ?: throw GradleException("No TotalTime in am start output:\n$output")
+        }
+        
+        val report = reportFile.get().asFile
+        report.parentFile.mkdirs()
+        report.writeText(
+            """
+            applicationId=${applicationId.get()}
+            runs=${timings.joinToString(",")}
+            averageMs=${timings.average().toLong()}
+            minMs=${timings.min()}
+            """.trimIndent() + "\n"
+        )
+        logger.lifecycle("Cold start (${applicationId.get()}): avg=${timings.average().toLong()} ms, min=${timings.min()} ms")
+    }
+}
+
+androidComponents {
+    onVariants { variant ->
+        val capitalized = variant.name.replaceFirstChar { it.uppercase() }
+        
+        val sizeReport = tasks.register<ApkSizeReportTask>("apkSizeReport$capitalized") {
+            group = "reporting"
+            description = "Reports APK/dex size and dex method count for ${variant.name}"
+            apkDirectory.set(variant.artifacts.get(com.android.build.api.artifact.SingleArtifact.APK))
+            builtArtifactsLoader.set(variant.artifacts.getBuiltArtifactsLoader())
+            variantName.set(variant.name)
+            reportFile.set(layout.buildDirectory.file("reports/apk-size/${variant.name}.properties"))
+        }
+        tasks.matching { it.name == "assemble$capitalized" }.configureEach {
+            finalizedBy(sizeReport)
+        }
+        
+        tasks.register<StartupMeasureTask>("measureStartup$capitalized") {
+            group = "verification"
+            description = "Measures cold start time of the installed ${variant.name} build"
+            applicationId.set(variant.applicationId)
+            iterations.set(10)
+            adbExecutable.set(androidComponents.sdkComponents.adb)
+            reportFile.set(layout.buildDirectory.file("reports/startup/${variant.name}.properties"))
+            // Matched lazily: AGP registers install tasks for signed variants only
+            dependsOn(tasks.matching { it.name == "install$capitalized" })
+        }
+    }
+}
+
+// Installs both builds on the connected device and prints the optimized vs unoptimized deltas.
+// benchmark stands in for release: same R8 config, but signed so it can be installed.
+tasks.register("compareReleaseBuilds") {
+    group = "reporting"
+    description = "Compares size and cold start of the R8 benchmark build against releaseUnoptimized"
+    dependsOn(
+        "installBenchmark", "installReleaseUnoptimized",
+        "apkSizeReportBenchmark", "apkSizeReportReleaseUnoptimized",
+        "measureStartupBenchmark", "measureStartupReleaseUnoptimized"
+    )
+    
+    val reportsDir = layout.buildDirectory.dir("reports")
+    doLast {
+        fun load(path: String) = java.util.Properties().apply {
+            reportsDir.get().file(path).asFile.inputStream().use { load(it) }
+        }
+        
+        val optimizedSize = load("apk-size/benchmark.properties")
+        val baselineSize = load("apk-size/releaseUnoptimized.properties")
+        val optimizedStartup = load("startup/benchmark.properties")
+        val baselineStartup = load("startup/releaseUnoptimized.properties")
+        
+        fun delta(key: String, optimized: java.util.Properties, baseline: java.util.Properties): String {
+            val new = optimized.getProperty(key).toLong()
+            val old = baseline.getProperty(key).toLong()
+            val percent = if (old == 0L) 0.0 else (new - old) * 100.0 / old
+            return "$key: $old -> $new (${String.format("%+.1f", percent)}%)"
+        }
+        
+        val summary = listOf(
+            delta("apkBytes", optimizedSize, baselineSize),
+            delta("dexBytes", optimizedSize, baselineSize),
+            delta("dexMethodCount", optimizedSize, baselineSize),
+            delta("averageMs", optimizedStartup, baselineStartup)
+        )
+        reportsDir.get().file("release-comparison.txt").asFile.writeText(summary.joinToString("\n") + "\n")
+        summary.forEach { logger.lifecycle(it) }
+    }
+}
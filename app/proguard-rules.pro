@@ -12,18 +12,24 @@
 #   public *;
 #}
 
-# Uncomment this to preserve the line number information for
-# debugging stack traces.
-#-keepattributes SourceFile,LineNumberTable
+# Keep line numbers so release crash traces stay readable after R8
+-keepattributes SourceFile,LineNumberTable
+-renamesourcefileattribute SourceFile
 
-# If you keep the line number information, uncomment this to
-# hide the original source file name.
-#-renamesourcefileattribute SourceFile
+# Room, Hilt, WorkManager and Compose ship consumer rules for their generated and
+# reflectively created classes, and AAPT keeps the manifest components. Add rules here
+# only for something a release build actually breaks.
 
-# Keep Hilt generated classes
--keep class dagger.hilt.** { *; }
--keep class javax.inject.** { *; }
--keep class * extends dagger.hilt.android.AndroidEntryPoint
--keep @dagger.hilt.android.AndroidEntryPoint class * {
-    *;
-}
\ No newline at end of file
+# Glance - actionRunCallback<CompleteTaskAction>() stores the class name in the widget's
+# RemoteViews and creates the callback reflectively when the checkbox is tapped
+-keep class * implements androidx.glance.appwidget.action.ActionCallback { <init>(); }
+
+# Compose - silence the tooling classes missing in release
+-dontwarn androidx.compose.ui.tooling.**
+
+# Logging - strip debug/verbose logcat calls that bypass AppLog (R8 already drops AppLog.d/v,
+# whose inlined `if (BuildConfig.DEBUG)` branch is dead in release)
+-assumenosideeffects class android.util.Log {
+    public static int v(...);
+    public static int d(...);
+}
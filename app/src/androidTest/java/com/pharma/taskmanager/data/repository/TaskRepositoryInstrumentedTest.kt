@@ -1,25 +1,20 @@
 package com.pharma.taskmanager.data.repository
 
-import androidx.room.Room
-import androidx.test.core.app.ApplicationProvider
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
 import com.pharma.taskmanager.data.database.TaskManagerDatabase
-import com.pharma.taskmanager.data.model.Task
-import com.pharma.taskmanager.data.model.TaskPriority
-import com.pharma.taskmanager.data.model.TaskStatus
 import dagger.hilt.android.testing.HiltAndroidRule
 import dagger.hilt.android.testing.HiltAndroidTest
 import kotlinx.coroutines.flow.first
-import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.runBlocking
 import org.junit.After
+import org.junit.Assert.assertEquals
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import org.junit.runner.RunWith
 import javax.inject.Inject
-import java.time.LocalDateTime
-import kotlin.test.assertEquals
-import kotlin.test.assertTrue
 
 /**
  * Example instrumented test showing how to use TestDatabaseModule.
@@ -50,53 +45,44 @@ class TaskRepositoryInstrumentedTest {
     }
 
     @Test
-    fun insertAndRetrieveTask() = runTest {
+    fun insertAndRetrieveTask() = runBlocking {
         // Given
-        val task = Task(
-            id = 1,
+        val task = TaskEntity(
             title = "Test Task",
             description = "Test Description",
-            priority = TaskPriority.HIGH,
-            status = TaskStatus.PENDING,
-            createdAt = LocalDateTime.now(),
-            updatedAt = LocalDateTime.now()
+            priority = TaskConstants.PRIORITY_HIGH,
+            status = TaskConstants.STATUS_PENDING
         )
 
         // When
-        repository.insertTask(task)
+        repository.addTask(task)
         val retrievedTasks = repository.getAllTasks().first()
 
         // Then
         assertEquals(1, retrievedTasks.size)
         assertEquals("Test Task", retrievedTasks[0].title)
-        assertEquals(TaskPriority.HIGH, retrievedTasks[0].priority)
+        assertEquals(TaskConstants.PRIORITY_HIGH, retrievedTasks[0].priority)
     }
 
     @Test
-    fun searchTasksByTitle() = runTest {
+    fun searchTasksByTitle() = runBlocking {
         // Given
-        val task1 = Task(
-            id = 1,
+        val task1 = TaskEntity(
             title = "Important Meeting",
             description = "Team meeting",
-            priority = TaskPriority.HIGH,
-            status = TaskStatus.PENDING,
-            createdAt = LocalDateTime.now(),
-            updatedAt = LocalDateTime.now()
+            priority = TaskConstants.PRIORITY_HIGH,
+            status = TaskConstants.STATUS_PENDING
         )
         
-        val task2 = Task(
-            id = 2,
+        val task2 = TaskEntity(
             title = "Buy Groceries",
             description = "Weekly shopping",
-            priority = TaskPriority.LOW,
-            status = TaskStatus.PENDING,
-            createdAt = LocalDateTime.now(),
-            updatedAt = LocalDateTime.now()
+            priority = TaskConstants.PRIORITY_LOW,
+            status = TaskConstants.STATUS_PENDING
         )
 
-        repository.insertTask(task1)
-        repository.insertTask(task2)
+        repository.addTask(task1)
+        repository.addTask(task2)
 
         // When
         val searchResult = repository.searchTasks("Meeting").first()
@@ -107,25 +93,22 @@ class TaskRepositoryInstrumentedTest {
     }
 
     @Test
-    fun updateTaskStatus() = runTest {
+    fun updateTaskStatus() = runBlocking {
         // Given
-        val task = Task(
-            id = 1,
+        val task = TaskEntity(
             title = "Test Task",
             description = "Test Description",
-            priority = TaskPriority.MEDIUM,
-            status = TaskStatus.PENDING,
-            createdAt = LocalDateTime.now(),
-            updatedAt = LocalDateTime.now()
+            priority = TaskConstants.PRIORITY_MEDIUM,
+            status = TaskConstants.STATUS_PENDING
         )
 
-        repository.insertTask(task)
+        val id = repository.addTask(task).toInt()
 
         // When
-        repository.updateTaskStatus(1, TaskStatus.COMPLETED)
-        val updatedTask = repository.getTaskById(1).first()
+        repository.updateTaskStatus(id, TaskConstants.STATUS_COMPLETED)
+        val updatedTask = repository.getTaskById(id)
 
         // Then
-        assertEquals(TaskStatus.COMPLETED, updatedTask?.status)
+        assertEquals(TaskConstants.STATUS_COMPLETED, updatedTask?.status)
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,14 @@ package com.pharma.taskmanager.di
 
 import android.content.Context
 import androidx.room.Room
+import com.pharma.taskmanager.data.database.ArchiveDao
+import com.pharma.taskmanager.data.database.AttachmentDao
+import com.pharma.taskmanager.data.database.ChecklistDao
+import com.pharma.taskmanager.data.database.ReminderMetricDao
+import com.pharma.taskmanager.data.database.SnapshotDao
+import com.pharma.taskmanager.data.database.SyncDao
+import com.pharma.taskmanager.data.database.TagDao
+import com.pharma.taskmanager.data.database.TaskChangeLog
 import com.pharma.taskmanager.data.database.TaskDao
 import com.pharma.taskmanager.data.database.TaskManagerDatabase
 import dagger.Module
@@ -44,6 +52,7 @@ object TestDatabaseModule {
             context.applicationContext,
             TaskManagerDatabase::class.java
         )
+            .addCallback(TaskChangeLog.CALLBACK) // Same sync triggers as the app database
             .allowMainThreadQueries() // Allow database operations on main thread for testing
             .fallbackToDestructiveMigration() // Ensure clean state between tests
             .build()
@@ -60,6 +69,41 @@ object TestDatabaseModule {
         return database.taskDao()
     }
     
+    @Provides
+    fun provideReminderMetricDao(database: TaskManagerDatabase): ReminderMetricDao {
+        return database.reminderMetricDao()
+    }
+    
+    @Provides
+    fun provideArchiveDao(database: TaskManagerDatabase): ArchiveDao {
+        return database.archiveDao()
+    }
+    
+    @Provides
+    fun provideSnapshotDao(database: TaskManagerDatabase): SnapshotDao {
+        return database.snapshotDao()
+    }
+    
+    @Provides
+    fun provideSyncDao(database: TaskManagerDatabase): SyncDao {
+        return database.syncDao()
+    }
+    
+    @Provides
+    fun provideTagDao(database: TaskManagerDatabase): TagDao {
+        return database.tagDao()
+    }
+    
+    @Provides
+    fun provideChecklistDao(database: TaskManagerDatabase): ChecklistDao {
+        return database.checklistDao()
+    }
+    
+    @Provides
+    fun provideAttachmentDao(database: TaskManagerDatabase): AttachmentDao {
+        return database.attachmentDao()
+    }
+    
     /**
      * Provides a test version of NotificationHelper for instrumented tests.
      * Uses real Android context but can be configured for testing behavior.
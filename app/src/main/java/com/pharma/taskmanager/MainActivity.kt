@@ -9,7 +9,6 @@ import android.net.Uri
 import android.os.Build
 import android.os.Bundle
 import android.provider.Settings
-import android.util.Log
 import androidx.activity.ComponentActivity
 import androidx.activity.compose.setContent
 import androidx.activity.enableEdgeToEdge
@@ -24,6 +23,7 @@ import androidx.compose.ui.Modifier
 import androidx.compose.ui.tooling.preview.Preview
 import androidx.core.content.ContextCompat
 import androidx.navigation.compose.rememberNavController
+import com.pharma.taskmanager.logging.AppLog
 import com.pharma.taskmanager.navigation.TaskManagerNavGraph
 import com.pharma.taskmanager.ui.theme.PersonalTaskManagerTheme
 import dagger.hilt.android.AndroidEntryPoint
@@ -31,6 +31,8 @@ import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import androidx.core.app.NotificationManagerCompat
 
+private const val TAG = "MainActivity"
+
 @AndroidEntryPoint
 class MainActivity : ComponentActivity() {
     // Emits task IDs from notification taps so the composable can navigate accordingly
@@ -41,9 +43,9 @@ class MainActivity : ComponentActivity() {
         ActivityResultContracts.RequestPermission()
     ) { isGranted: Boolean ->
         if (isGranted) {
-            Log.d("MainActivity", "Notification permission granted")
+            AppLog.d(TAG) { "Notification permission granted" }
         } else {
-            Log.w("MainActivity", "Notification permission denied")
+            AppLog.w(TAG) { "Notification permission denied" }
         }
     }
     
@@ -64,14 +66,21 @@ class MainActivity : ComponentActivity() {
         } else -1
         val initialTaskId = if (initialTaskIdFromLink > 0) initialTaskIdFromLink else initialTaskIdFromExtra
         if (initialTaskId > 0) {
-            Log.d("MainActivity", "Launching from intent, task_id=$initialTaskId (link=${initialTaskIdFromLink > 0})")
+            AppLog.d(TAG) {
+                field("taskId", initialTaskId)
+                field("link", initialTaskIdFromLink > 0)
+                "Launching from intent"
+            }
             // Stop persistent reminder service and clear notification immediately
             try {
-                val stopIntent = Intent(this, com.pharma.taskmanager.services.PersistentReminderService::class.java).apply { action = "STOP_REMINDER" }
+                val stopIntent = Intent(this, com.pharma.taskmanager.services.PersistentReminderService::class.java).apply {
+                    action = "STOP_REMINDER"
+                    putExtra("task_id", initialTaskId) // Only this task; others keep ringing
+                }
                 startService(stopIntent)
                 NotificationManagerCompat.from(this).cancel(initialTaskId)
             } catch (e: Exception) {
-                Log.w("MainActivity", "Failed to stop service or cancel notification: ${e.message}")
+                AppLog.w(TAG, e) { "Failed to stop service or cancel notification" }
             }
             taskIdEvents.tryEmit(initialTaskId)
         }
@@ -96,13 +105,16 @@ class MainActivity : ComponentActivity() {
         } else -1
         val taskId = if (fromLink > 0) fromLink else fromExtra
         if (taskId > 0) {
-            Log.d("MainActivity", "Received new intent with task_id=$taskId")
+            AppLog.d(TAG) { field("taskId", taskId); "Received new intent" }
             try {
-                val stopIntent = Intent(this, com.pharma.taskmanager.services.PersistentReminderService::class.java).apply { action = "STOP_REMINDER" }
+                val stopIntent = Intent(this, com.pharma.taskmanager.services.PersistentReminderService::class.java).apply {
+                    action = "STOP_REMINDER"
+                    putExtra("task_id", taskId)
+                }
                 startService(stopIntent)
                 NotificationManagerCompat.from(this).cancel(taskId)
             } catch (e: Exception) {
-                Log.w("MainActivity", "Failed to stop service or cancel notification: ${e.message}")
+                AppLog.w(TAG, e) { "Failed to stop service or cancel notification" }
             }
             // Emit so the composable layer can navigate to the task detail
             taskIdEvents.tryEmit(taskId)
@@ -130,40 +142,43 @@ class MainActivity : ComponentActivity() {
             val channel = notificationManager.getNotificationChannel("task_reminders")
             
             if (channel != null) {
-                Log.d("MainActivity", "Notification channel importance: ${channel.importance}")
-                Log.d("MainActivity", "Can show badge: ${channel.canShowBadge()}")
-                Log.d("MainActivity", "Can bypass DND: ${channel.canBypassDnd()}")
+                AppLog.d(TAG) {
+                    field("importance", channel.importance)
+                    field("showBadge", channel.canShowBadge())
+                    field("bypassDnd", channel.canBypassDnd())
+                    "Notification channel settings"
+                }
                 
                 if (channel.importance < android.app.NotificationManager.IMPORTANCE_HIGH) {
-                    Log.w("MainActivity", "Notification channel importance is too low for heads-up notifications")
+                    AppLog.w(TAG) { "Notification channel importance is too low for heads-up notifications" }
                 }
             } else {
-                Log.w("MainActivity", "Notification channel not found")
+                AppLog.w(TAG) { "Notification channel not found" }
             }
         }
         
         // Check overall notification settings
         val notificationManagerCompat = androidx.core.app.NotificationManagerCompat.from(this)
-        Log.d("MainActivity", "Notifications enabled: ${notificationManagerCompat.areNotificationsEnabled()}")
+        AppLog.d(TAG) { field("enabled", notificationManagerCompat.areNotificationsEnabled()); "Notifications" }
     }
     
     private fun requestExactAlarmPermission() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
             val alarmManager = getSystemService(Context.ALARM_SERVICE) as AlarmManager
             if (!alarmManager.canScheduleExactAlarms()) {
-                Log.w("MainActivity", "⚠️ Exact alarm permission not granted")
+                AppLog.w(TAG) { "⚠️ Exact alarm permission not granted" }
                 // Open settings for user to grant permission
                 val intent = Intent(Settings.ACTION_REQUEST_SCHEDULE_EXACT_ALARM).apply {
                     data = Uri.parse("package:$packageName")
                 }
                 try {
                     startActivity(intent)
-                    Log.d("MainActivity", "📱 Opened exact alarm settings")
+                    AppLog.d(TAG) { "📱 Opened exact alarm settings" }
                 } catch (e: Exception) {
-                    Log.e("MainActivity", "Failed to open exact alarm settings", e)
+                    AppLog.e(TAG, e) { "Failed to open exact alarm settings" }
                 }
             } else {
-                Log.d("MainActivity", "✅ Exact alarm permission already granted")
+                AppLog.d(TAG) { "✅ Exact alarm permission already granted" }
             }
         }
     }
@@ -176,7 +191,7 @@ fun TaskManagerApp(taskIdEvents: Flow<Int>? = null) {
     // Listen for task_id events (from notification taps) and navigate to Task Detail
     androidx.compose.runtime.LaunchedEffect(taskIdEvents) {
         taskIdEvents?.collect { taskId ->
-            Log.d("MainActivity", "Navigating to Task Detail for task_id=$taskId from event")
+            AppLog.d(TAG) { field("taskId", taskId); "Navigating to Task Detail from event" }
             navController.navigate(com.pharma.taskmanager.navigation.Screen.TaskDetail.createTaskDetailRoute(taskId))
         }
     }
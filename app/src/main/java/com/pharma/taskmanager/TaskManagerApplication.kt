@@ -1,15 +1,23 @@
 package com.pharma.taskmanager
 
 import android.app.Application
-import android.util.Log
 import androidx.hilt.work.HiltWorkerFactory
 import androidx.work.Configuration
 import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
 import com.pharma.taskmanager.domain.repository.TaskRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.logging.LogcatSink
+import com.pharma.taskmanager.logging.RingBufferLogSink
+import com.pharma.taskmanager.tracing.AndroidTraceSink
+import com.pharma.taskmanager.tracing.TraceCounters
 import com.pharma.taskmanager.utils.ReminderScheduler
+import com.pharma.taskmanager.widget.WidgetRefreshTrigger
+import com.pharma.taskmanager.workers.ArchiveWorker
+import com.pharma.taskmanager.workers.TombstonePurgeWorker
 import dagger.hilt.android.HiltAndroidApp
 import kotlinx.coroutines.CoroutineScope
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.SupervisorJob
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.launch
@@ -27,7 +35,14 @@ class TaskManagerApplication : Application(), Configuration.Provider {
     @Inject
     lateinit var reminderScheduler: ReminderScheduler
     
-    private val applicationScope = CoroutineScope(SupervisorJob() + Dispatchers.Main)
+    @Inject
+    lateinit var widgetRefreshTrigger: WidgetRefreshTrigger
+    
+    @Inject
+    lateinit var dispatchers: AppDispatchers
+    
+    // Built on first use, after super.onCreate() has injected the dispatchers
+    private val applicationScope by lazy { CoroutineScope(SupervisorJob() + dispatchers.main) }
     
     override val workManagerConfiguration: Configuration
         get() = Configuration.Builder()
@@ -35,15 +50,26 @@ class TaskManagerApplication : Application(), Configuration.Provider {
             .build()
     
     override fun onCreate() {
+        // Install tracing before Hilt builds the graph so startup work is captured too
+        DomainTrace.sink = AndroidTraceSink()
+        if (BuildConfig.DEBUG) {
+            TraceCounters.load(this)
+            // Keep recent log history in memory for the Diagnostics screen
+            AppLog.sinks = listOf(LogcatSink, RingBufferLogSink.shared)
+        }
         super.onCreate()
-        Log.d("TaskManagerApp", "🚀 App starting - checking for overdue reminders")
+        AppLog.d("TaskManagerApp") { "🚀 App starting - checking for overdue reminders" }
         checkOverdueRemindersOnStartup()
+        TombstonePurgeWorker.schedule(this)
+        ArchiveWorker.schedule(this)
+        widgetRefreshTrigger.start(applicationScope)
     }
     
     private fun checkOverdueRemindersOnStartup() {
-        applicationScope.launch {
+        // Reads every task: keep it off the main thread, which is busy starting the app
+        applicationScope.launch(dispatchers.dbRead) {
             try {
-                Log.d("TaskManagerApp", "🔍 Checking for overdue reminders on app startup...")
+                AppLog.d("TaskManagerApp") { "🔍 Checking for overdue reminders on app startup..." }
                 val allTasks = taskRepository.getAllTasks().first()
                 val currentTime = System.currentTimeMillis()
                 var overdueCount = 0
@@ -53,19 +79,19 @@ class TaskManagerApplication : Application(), Configuration.Provider {
                         task.reminderTime!! <= currentTime && 
                         task.status == TaskConstants.STATUS_PENDING) {
                         
-                        Log.d("TaskManagerApp", "⚠️ Found overdue reminder: ${task.title} (${task.reminderTime})")
+                        AppLog.d("TaskManagerApp") { "⚠️ Found overdue reminder: ${task.title} (${task.reminderTime})" }
                         reminderScheduler.triggerReminderNow(task.id)
                         overdueCount++
                     }
                 }
                 
                 if (overdueCount > 0) {
-                    Log.d("TaskManagerApp", "🚨 Triggered $overdueCount overdue reminders on startup")
+                    AppLog.d("TaskManagerApp") { "🚨 Triggered $overdueCount overdue reminders on startup" }
                 } else {
-                    Log.d("TaskManagerApp", "✅ No overdue reminders found")
+                    AppLog.d("TaskManagerApp") { "✅ No overdue reminders found" }
                 }
             } catch (e: Exception) {
-                Log.e("TaskManagerApp", "❌ Error checking overdue reminders: ${e.message}", e)
+                AppLog.e("TaskManagerApp", e) { "❌ Error checking overdue reminders: ${e.message}" }
             }
         }
     }
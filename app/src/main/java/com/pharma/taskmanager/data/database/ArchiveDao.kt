@@ -0,0 +1,138 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+import androidx.room.Transaction
+
+@Dao
+abstract class ArchiveDao {
+
+    // Oldest completions first so a stopped run still makes progress on the next one
+    @Query(
+        "SELECT id FROM tasks WHERE deletedAt IS NULL AND status = 'completed' " +
+            "AND completedAt < :cutoff ORDER BY completedAt ASC LIMIT :limit"
+    )
+    abstract suspend fun getArchivableTaskIds(cutoff: Long, limit: Int): List<Int>
+
+    @Query(
+        "INSERT INTO archived_tasks (taskId, title, description, dueDateTime, priority, status, " +
+            "reminderTime, createdAt, completedAt, archivedAt) " +
+            "SELECT id, title, description, dueDateTime, priority, status, reminderTime, createdAt, " +
+            "completedAt, :archivedAt FROM tasks WHERE id IN (:ids)"
+    )
+    abstract suspend fun copyToArchive(ids: List<Int>, archivedAt: Long)
+
+    @Query("DELETE FROM tasks WHERE id IN (:ids)")
+    abstract suspend fun deleteFromTasks(ids: List<Int>)
+
+    // archiveId is AUTOINCREMENT, so the rows one copy adds are exactly those above the previous maximum
+    @Query("SELECT COALESCE(MAX(archiveId), 0) FROM archived_tasks")
+    abstract suspend fun getLastArchiveId(): Long
+
+    @Query("SELECT archiveId, taskId FROM archived_tasks WHERE archiveId > :afterArchiveId")
+    abstract suspend fun getArchivedKeysAfter(afterArchiveId: Long): List<ArchivedTaskKey>
+
+    @Query(
+        "INSERT INTO archived_task_tags (archiveId, tagId) " +
+            "SELECT a.archiveId, t.tagId FROM archived_tasks a JOIN task_tags t ON t.taskId = a.taskId " +
+            "WHERE a.archiveId > :afterArchiveId"
+    )
+    abstract suspend fun copyTagsToArchive(afterArchiveId: Long)
+
+    @Query(
+        "INSERT INTO archived_attachments (archiveId, sha256, displayName, mimeType, sizeBytes, createdAt) " +
+            "SELECT a.archiveId, x.sha256, x.displayName, x.mimeType, x.sizeBytes, x.createdAt " +
+            "FROM archived_tasks a JOIN attachments x ON x.taskId = a.taskId WHERE a.archiveId > :afterArchiveId"
+    )
+    abstract suspend fun copyAttachmentsToArchive(afterArchiveId: Long)
+
+    // Every step under the tasks, sub-steps included
+    @Query(
+        "WITH RECURSIVE subtree(id) AS (" +
+            "SELECT id FROM checklist_items WHERE taskId IN (:ids) " +
+            "UNION ALL SELECT c.id FROM checklist_items c JOIN subtree s ON c.parentId = s.id) " +
+            "SELECT * FROM checklist_items WHERE id IN (SELECT id FROM subtree)"
+    )
+    abstract suspend fun getChecklistItems(ids: List<Int>): List<ChecklistItemEntity>
+
+    @Insert
+    abstract suspend fun insertArchivedChecklistItems(items: List<ArchivedChecklistItemEntity>)
+
+    @Query("INSERT OR REPLACE INTO sync_state (name, value) VALUES ('" + TaskChangeLog.STATE_SUPPRESS + "', :suppressed)")
+    abstract suspend fun setChangeLogSuppressed(suppressed: Int)
+
+    /**
+     * Move up to [limit] tasks completed before [cutoff] into archived_tasks.
+     * Copy and delete share one transaction, so a task is never in both tables or neither.
+     * The delete cascades to task_tags, attachments and checklist_items, so those rows are
+     * copied to their archive tables first, keyed by the new archiveId.
+     * The deletes stay out of the sync change log: every device archives on its own, and a
+     * synced delete would drop the task elsewhere without archiving it.
+     * Returns the ids that were moved.
+     */
+    @Transaction
+    open suspend fun archiveBatch(cutoff: Long, limit: Int, archivedAt: Long): List<Int> {
+        val ids = getArchivableTaskIds(cutoff, limit)
+        if (ids.isNotEmpty()) {
+            val lastArchiveId = getLastArchiveId()
+            copyToArchive(ids, archivedAt)
+            copyTagsToArchive(lastArchiveId)
+            copyAttachmentsToArchive(lastArchiveId)
+            copyChecklistsToArchive(ids, lastArchiveId)
+            setChangeLogSuppressed(1)
+            deleteFromTasks(ids)
+            setChangeLogSuppressed(0)
+        }
+        return ids
+    }
+
+    // Breadth-first from the top-level steps, so a sub-step always finds its parent's archiveId
+    private suspend fun copyChecklistsToArchive(ids: List<Int>, afterArchiveId: Long) {
+        val steps = getChecklistItems(ids)
+        if (steps.isEmpty()) return
+        val archiveIdOfTask = getArchivedKeysAfter(afterArchiveId).associate { it.taskId to it.archiveId }
+        val children = steps.filter { it.parentId != null }.groupBy { it.parentId }
+        val archived = ArrayList<ArchivedChecklistItemEntity>(steps.size)
+        val queue = ArrayDeque(steps.filter { it.taskId != null }.map { it to archiveIdOfTask.getValue(it.taskId!!) })
+        while (queue.isNotEmpty()) {
+            val (step, archiveId) = queue.removeFirst()
+            archived += ArchivedChecklistItemEntity(
+                archiveId = archiveId,
+                itemId = step.id,
+                parentItemId = step.parentId,
+                title = step.title,
+                position = step.position,
+                dueDateTime = step.dueDateTime,
+                completedAt = step.completedAt
+            )
+            children[step.id]?.forEach { queue.addLast(it to archiveId) }
+        }
+        insertArchivedChecklistItems(archived)
+    }
+
+    // Keyset paging (no OFFSET), so the 50th page costs the same as the first
+    @Query("SELECT * FROM archived_tasks ORDER BY completedAt DESC, archiveId DESC LIMIT :limit")
+    abstract suspend fun getFirstPage(limit: Int): List<ArchivedTaskEntity>
+
+    @Query(
+        "SELECT * FROM archived_tasks " +
+            "WHERE completedAt < :completedAt OR (completedAt = :completedAt AND archiveId < :archiveId) " +
+            "ORDER BY completedAt DESC, archiveId DESC LIMIT :limit"
+    )
+    abstract suspend fun getPageAfter(completedAt: Long, archiveId: Long, limit: Int): List<ArchivedTaskEntity>
+
+    @Query("SELECT COUNT(*) FROM archived_tasks")
+    abstract suspend fun getArchivedCount(): Int
+
+    @Query("SELECT * FROM archived_task_tags WHERE archiveId = :archiveId")
+    abstract suspend fun getArchivedTags(archiveId: Long): List<ArchivedTaskTagEntity>
+
+    @Query("SELECT * FROM archived_attachments WHERE archiveId = :archiveId ORDER BY createdAt ASC, id ASC")
+    abstract suspend fun getArchivedAttachments(archiveId: Long): List<ArchivedAttachmentEntity>
+
+    @Query("SELECT * FROM archived_checklist_items WHERE archiveId = :archiveId ORDER BY itemId ASC")
+    abstract suspend fun getArchivedChecklist(archiveId: Long): List<ArchivedChecklistItemEntity>
+}
+
+data class ArchivedTaskKey(val archiveId: Long, val taskId: Int)
@@ -0,0 +1,32 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * Attachment metadata of an archived task, copied from attachments by
+ * ArchiveDao.archiveBatch. Its [sha256] still counts as a reference, so the blob survives
+ * the ContentStore sweep for as long as the archived task does.
+ */
+@Entity(
+    tableName = "archived_attachments",
+    foreignKeys = [
+        ForeignKey(entity = ArchivedTaskEntity::class, parentColumns = ["archiveId"], childColumns = ["archiveId"], onDelete = ForeignKey.CASCADE)
+    ],
+    indices = [
+        Index(value = ["archiveId"]),
+        Index(value = ["sha256"])
+    ]
+)
+data class ArchivedAttachmentEntity(
+    @PrimaryKey(autoGenerate = true)
+    val id: Long = 0,
+    val archiveId: Long,
+    val sha256: String,
+    val displayName: String,
+    val mimeType: String,
+    val sizeBytes: Long,
+    val createdAt: Long
+)
@@ -0,0 +1,26 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.ForeignKey
+
+/**
+ * A checklist step of an archived task, copied by ArchiveDao.archiveBatch. Every step,
+ * sub-steps included, carries its archived task's [archiveId]; [itemId] and [parentItemId]
+ * keep the original ids, so the tree can be rebuilt (top-level steps have no parent).
+ */
+@Entity(
+    tableName = "archived_checklist_items",
+    primaryKeys = ["archiveId", "itemId"],
+    foreignKeys = [
+        ForeignKey(entity = ArchivedTaskEntity::class, parentColumns = ["archiveId"], childColumns = ["archiveId"], onDelete = ForeignKey.CASCADE)
+    ]
+)
+data class ArchivedChecklistItemEntity(
+    val archiveId: Long,
+    val itemId: Int,
+    val parentItemId: Int? = null,
+    val title: String,
+    val position: Int,
+    val dueDateTime: Long? = null,
+    val completedAt: Long? = null
+)
@@ -0,0 +1,30 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * A completed task moved out of the hot `tasks` table by ArchiveWorker.
+ * Has its own key because SQLite can hand the original task id to a new task once
+ * the row is gone; [taskId] keeps the original id for reference.
+ */
+@Entity(
+    tableName = "archived_tasks",
+    // History pages newest completion first, keyed on (completedAt, archiveId)
+    indices = [Index(value = ["completedAt", "archiveId"])]
+)
+data class ArchivedTaskEntity(
+    @PrimaryKey(autoGenerate = true)
+    val archiveId: Long = 0,
+    val taskId: Int,
+    val title: String,
+    val description: String? = null,
+    val dueDateTime: Long? = null,
+    val priority: Int,
+    val status: String,
+    val reminderTime: Long? = null,
+    val createdAt: Long,
+    val completedAt: Long,
+    val archivedAt: Long
+)
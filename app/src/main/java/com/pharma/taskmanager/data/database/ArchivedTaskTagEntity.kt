@@ -0,0 +1,24 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
+
+/**
+ * A tag link of an archived task, copied from task_tags by ArchiveDao.archiveBatch before
+ * the task's delete cascades it away. Cascades with the archived task and, like a live
+ * link, with the tag.
+ */
+@Entity(
+    tableName = "archived_task_tags",
+    primaryKeys = ["archiveId", "tagId"],
+    foreignKeys = [
+        ForeignKey(entity = ArchivedTaskEntity::class, parentColumns = ["archiveId"], childColumns = ["archiveId"], onDelete = ForeignKey.CASCADE),
+        ForeignKey(entity = TagEntity::class, parentColumns = ["id"], childColumns = ["tagId"], onDelete = ForeignKey.CASCADE)
+    ],
+    indices = [Index(value = ["tagId"])]
+)
+data class ArchivedTaskTagEntity(
+    val archiveId: Long,
+    val tagId: Int
+)
@@ -0,0 +1,30 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+import kotlinx.coroutines.flow.Flow
+
+@Dao
+interface AttachmentDao {
+
+    @Query("SELECT * FROM attachments WHERE taskId = :taskId ORDER BY createdAt ASC, id ASC")
+    fun observeAttachments(taskId: Int): Flow<List<AttachmentEntity>>
+
+    @Insert
+    suspend fun insertAttachment(attachment: AttachmentEntity): Long
+
+    @Query("DELETE FROM attachments WHERE id = :id")
+    suspend fun deleteAttachment(id: Int)
+
+    // Archived tasks' attachments count too: their blobs live as long as the archive entry
+    @Query(
+        "SELECT (SELECT COUNT(*) FROM attachments WHERE sha256 = :sha256) + " +
+            "(SELECT COUNT(*) FROM archived_attachments WHERE sha256 = :sha256)"
+    )
+    suspend fun countReferences(sha256: String): Int
+
+    // Every blob still in use, live or archived, for ContentStore.sweep
+    @Query("SELECT sha256 FROM attachments UNION SELECT sha256 FROM archived_attachments")
+    suspend fun getReferencedHashes(): List<String>
+}
@@ -0,0 +1,33 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * A file attached to a task. Metadata only: the bytes live in the content-addressed
+ * ContentStore under [sha256], so the same file attached twice is stored once and task
+ * queries never carry blobs. Rows cascade with their task; the blob is swept once no row
+ * references it.
+ */
+@Entity(
+    tableName = "attachments",
+    foreignKeys = [
+        ForeignKey(entity = TaskEntity::class, parentColumns = ["id"], childColumns = ["taskId"], onDelete = ForeignKey.CASCADE)
+    ],
+    indices = [
+        Index(value = ["taskId", "createdAt"]),
+        Index(value = ["sha256"])
+    ]
+)
+data class AttachmentEntity(
+    @PrimaryKey(autoGenerate = true)
+    val id: Int = 0,
+    val taskId: Int,
+    val sha256: String,
+    val displayName: String,
+    val mimeType: String,
+    val sizeBytes: Long,
+    val createdAt: Long
+)
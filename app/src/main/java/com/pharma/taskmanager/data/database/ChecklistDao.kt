@@ -0,0 +1,107 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+import androidx.room.Transaction
+import com.pharma.taskmanager.domain.checklist.ChecklistProgress
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Checklist steps form trees under tasks, and only the top level knows its task, so the
+ * reads walk down with recursive CTEs. Steps are never moved to another parent, which keeps
+ * the trees acyclic and the walks finite.
+ */
+@Dao
+abstract class ChecklistDao {
+
+    // All steps of one task, every level; ChecklistTree puts them in display order
+    @Query(
+        "WITH RECURSIVE subtree(id) AS (" +
+            "SELECT id FROM checklist_items WHERE taskId = :taskId " +
+            "UNION ALL SELECT c.id FROM checklist_items c JOIN subtree s ON c.parentId = s.id) " +
+            "SELECT * FROM checklist_items WHERE id IN (SELECT id FROM subtree)"
+    )
+    abstract fun observeChecklist(taskId: Int): Flow<List<ChecklistItemEntity>>
+
+    /**
+     * Progress of every task with a checklist, in one statement and without returning a
+     * single step: the walk carries each step's task and due date (the earliest of its own
+     * and its ancestors') down the tree, then leaves are aggregated per task. Leaves are
+     * the steps no other step points at, found through the parentId index.
+     */
+    @Query(
+        "WITH RECURSIVE tree(taskId, id, dueDateTime, completedAt) AS (" +
+            "SELECT taskId, id, dueDateTime, completedAt FROM checklist_items WHERE taskId IS NOT NULL " +
+            "UNION ALL SELECT t.taskId, c.id, " +
+            "COALESCE(MIN(c.dueDateTime, t.dueDateTime), c.dueDateTime, t.dueDateTime), c.completedAt " +
+            "FROM checklist_items c JOIN tree t ON c.parentId = t.id) " +
+            "SELECT taskId, COUNT(*) AS totalSteps, " +
+            "SUM(completedAt IS NOT NULL) AS doneSteps, " +
+            "MIN(CASE WHEN completedAt IS NULL THEN dueDateTime END) AS nextDueDateTime " +
+            "FROM tree WHERE NOT EXISTS (SELECT 1 FROM checklist_items k WHERE k.parentId = tree.id) " +
+            "GROUP BY taskId"
+    )
+    abstract fun observeProgress(): Flow<List<ChecklistProgress>>
+
+    @Insert
+    abstract suspend fun insertItem(item: ChecklistItemEntity): Long
+
+    @Insert
+    abstract suspend fun insertItems(items: List<ChecklistItemEntity>)
+
+    @Query("UPDATE checklist_items SET title = :title WHERE id = :id")
+    abstract suspend fun renameItem(id: Int, title: String)
+
+    // Sub-steps go with it (ON DELETE CASCADE)
+    @Query("DELETE FROM checklist_items WHERE id = :id")
+    abstract suspend fun deleteItem(id: Int)
+
+    @Query("SELECT COALESCE(MAX(position) + 1, 0) FROM checklist_items WHERE taskId = :taskId")
+    protected abstract suspend fun nextTopLevelPosition(taskId: Int): Int
+
+    @Query("SELECT COALESCE(MAX(position) + 1, 0) FROM checklist_items WHERE parentId = :parentId")
+    protected abstract suspend fun nextChildPosition(parentId: Int): Int
+
+    @Query(
+        "UPDATE checklist_items SET completedAt = :completedAt WHERE id IN (" +
+            "WITH RECURSIVE subtree(id) AS (SELECT :id " +
+            "UNION ALL SELECT c.id FROM checklist_items c JOIN subtree s ON c.parentId = s.id) " +
+            "SELECT id FROM subtree)"
+    )
+    protected abstract suspend fun setSubtreeCompletedAt(id: Int, completedAt: Long?)
+
+    @Query(
+        "UPDATE checklist_items SET completedAt = NULL WHERE id IN (" +
+            "WITH RECURSIVE ancestors(id) AS (SELECT parentId FROM checklist_items WHERE id = :id " +
+            "UNION ALL SELECT c.parentId FROM checklist_items c JOIN ancestors a ON c.id = a.id) " +
+            "SELECT id FROM ancestors)"
+    )
+    protected abstract suspend fun reopenAncestors(id: Int)
+
+    /**
+     * Append a step at the end of its siblings: under the task when [parentId] is null,
+     * under that step otherwise. A new open step reopens the steps above it.
+     */
+    @Transaction
+    open suspend fun addItem(taskId: Int, parentId: Int?, title: String, dueDateTime: Long?): Int {
+        val item = if (parentId == null) {
+            ChecklistItemEntity(taskId = taskId, title = title, position = nextTopLevelPosition(taskId), dueDateTime = dueDateTime)
+        } else {
+            ChecklistItemEntity(parentId = parentId, title = title, position = nextChildPosition(parentId), dueDateTime = dueDateTime)
+        }
+        val id = insertItem(item).toInt()
+        reopenAncestors(id)
+        return id
+    }
+
+    /**
+     * Check or uncheck a step and everything below it. Unchecking also reopens the steps
+     * above, so a stored completedAt on any step always means its whole subtree is done.
+     */
+    @Transaction
+    open suspend fun setCompleted(id: Int, completed: Boolean, timestamp: Long) {
+        setSubtreeCompletedAt(id, if (completed) timestamp else null)
+        if (!completed) reopenAncestors(id)
+    }
+}
@@ -0,0 +1,225 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Schema migrations for [TaskManagerDatabase].
+ */
+object Migrations {
+    
+    // v2: reminder delivery latency metrics
+    val MIGRATION_1_2 = object : Migration(1, 2) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `reminder_metrics` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`taskId` INTEGER NOT NULL, " +
+                    "`deliveryPath` TEXT NOT NULL, " +
+                    "`scheduledTime` INTEGER NOT NULL, " +
+                    "`alarmReceivedAt` INTEGER, " +
+                    "`workerStartedAt` INTEGER, " +
+                    "`notificationPostedAt` INTEGER, " +
+                    "`firstSoundAt` INTEGER, " +
+                    "`createdAt` INTEGER NOT NULL)"
+            )
+        }
+    }
+    
+    // v3: soft-delete tombstones, with indices led by deletedAt for the live queries
+    val MIGRATION_2_3 = object : Migration(2, 3) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `deletedAt` INTEGER")
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_tasks_deletedAt_status_dueDateTime` " +
+                    "ON `tasks` (`deletedAt`, `status`, `dueDateTime`)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_tasks_deletedAt_reminderTime` " +
+                    "ON `tasks` (`deletedAt`, `reminderTime`)"
+            )
+        }
+    }
+    
+    // v4: completion time on tasks and the archived_tasks cold store.
+    // Tasks that were already completed count as completed now, so they archive N days after upgrade.
+    val MIGRATION_3_4 = object : Migration(3, 4) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `completedAt` INTEGER")
+            db.execSQL(
+                "UPDATE `tasks` SET `completedAt` = CAST(strftime('%s', 'now') AS INTEGER) * 1000 " +
+                    "WHERE `status` = 'completed'"
+            )
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `archived_tasks` (" +
+                    "`archiveId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`taskId` INTEGER NOT NULL, " +
+                    "`title` TEXT NOT NULL, " +
+                    "`description` TEXT, " +
+                    "`dueDateTime` INTEGER, " +
+                    "`priority` INTEGER NOT NULL, " +
+                    "`status` TEXT NOT NULL, " +
+                    "`reminderTime` INTEGER, " +
+                    "`createdAt` INTEGER NOT NULL, " +
+                    "`completedAt` INTEGER NOT NULL, " +
+                    "`archivedAt` INTEGER NOT NULL)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_archived_tasks_completedAt_archiveId` " +
+                    "ON `archived_tasks` (`completedAt`, `archiveId`)"
+            )
+        }
+    }
+    
+    // v5: recurrence rule (RRULE subset) on tasks
+    val MIGRATION_4_5 = object : Migration(4, 5) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `recurrenceRule` TEXT")
+        }
+    }
+    
+    // v6: sync identity and clock on tasks, the task_changes log and sync_state.
+    // Existing tasks get a syncId each and count as changed since their creation, so the
+    // first sync pushes all of them. The triggers come from TaskChangeLog.CALLBACK on open.
+    val MIGRATION_5_6 = object : Migration(5, 6) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `syncId` TEXT NOT NULL DEFAULT ''")
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `updatedAt` INTEGER NOT NULL DEFAULT 0")
+            db.execSQL("UPDATE `tasks` SET `syncId` = lower(hex(randomblob(16))), `updatedAt` = `createdAt`")
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_tasks_syncId` ON `tasks` (`syncId`)")
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `task_changes` (" +
+                    "`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`taskId` INTEGER NOT NULL, " +
+                    "`op` TEXT NOT NULL, " +
+                    "`syncId` TEXT, " +
+                    "`changedAt` INTEGER NOT NULL)"
+            )
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `sync_state` (" +
+                    "`name` TEXT NOT NULL, " +
+                    "`value` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`name`))"
+            )
+            db.execSQL(
+                "INSERT INTO `task_changes` (`taskId`, `op`, `syncId`, `changedAt`) " +
+                    "SELECT `id`, '${TaskChangeLog.OP_UPSERT}', NULL, `updatedAt` FROM `tasks` ORDER BY `id`"
+            )
+        }
+    }
+    
+    // v7: tags and the task_tags junction table
+    val MIGRATION_6_7 = object : Migration(6, 7) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `tags` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`name` TEXT NOT NULL COLLATE NOCASE, " +
+                    "`createdAt` INTEGER NOT NULL)"
+            )
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_tags_name` ON `tags` (`name`)")
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `task_tags` (" +
+                    "`taskId` INTEGER NOT NULL, " +
+                    "`tagId` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`taskId`, `tagId`), " +
+                    "FOREIGN KEY(`taskId`) REFERENCES `tasks`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE, " +
+                    "FOREIGN KEY(`tagId`) REFERENCES `tags`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            )
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_task_tags_tagId_taskId` ON `task_tags` (`tagId`, `taskId`)")
+        }
+    }
+    
+    // v8: checklist steps, nested under a task (taskId) or under another step (parentId)
+    val MIGRATION_7_8 = object : Migration(7, 8) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `checklist_items` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`taskId` INTEGER, " +
+                    "`parentId` INTEGER, " +
+                    "`title` TEXT NOT NULL, " +
+                    "`position` INTEGER NOT NULL, " +
+                    "`dueDateTime` INTEGER, " +
+                    "`completedAt` INTEGER, " +
+                    "FOREIGN KEY(`taskId`) REFERENCES `tasks`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE, " +
+                    "FOREIGN KEY(`parentId`) REFERENCES `checklist_items`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_checklist_items_taskId_position` " +
+                    "ON `checklist_items` (`taskId`, `position`)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_checklist_items_parentId_position` " +
+                    "ON `checklist_items` (`parentId`, `position`)"
+            )
+        }
+    }
+    
+    // v9: attachment metadata; the bytes live in the content-addressed store under filesDir
+    val MIGRATION_8_9 = object : Migration(8, 9) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `attachments` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`taskId` INTEGER NOT NULL, " +
+                    "`sha256` TEXT NOT NULL, " +
+                    "`displayName` TEXT NOT NULL, " +
+                    "`mimeType` TEXT NOT NULL, " +
+                    "`sizeBytes` INTEGER NOT NULL, " +
+                    "`createdAt` INTEGER NOT NULL, " +
+                    "FOREIGN KEY(`taskId`) REFERENCES `tasks`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_attachments_taskId_createdAt` " +
+                    "ON `attachments` (`taskId`, `createdAt`)"
+            )
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_attachments_sha256` ON `attachments` (`sha256`)")
+        }
+    }
+    
+    // v10: archive tables for the tag links, attachments and checklist steps of archived tasks
+    val MIGRATION_9_10 = object : Migration(9, 10) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `archived_task_tags` (" +
+                    "`archiveId` INTEGER NOT NULL, " +
+                    "`tagId` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`archiveId`, `tagId`), " +
+                    "FOREIGN KEY(`archiveId`) REFERENCES `archived_tasks`(`archiveId`) ON UPDATE NO ACTION ON DELETE CASCADE, " +
+                    "FOREIGN KEY(`tagId`) REFERENCES `tags`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            )
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_archived_task_tags_tagId` ON `archived_task_tags` (`tagId`)")
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `archived_attachments` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`archiveId` INTEGER NOT NULL, " +
+                    "`sha256` TEXT NOT NULL, " +
+                    "`displayName` TEXT NOT NULL, " +
+                    "`mimeType` TEXT NOT NULL, " +
+                    "`sizeBytes` INTEGER NOT NULL, " +
+                    "`createdAt` INTEGER NOT NULL, " +
+                    "FOREIGN KEY(`archiveId`) REFERENCES `archived_tasks`(`archiveId`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            )
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_archived_attachments_archiveId` ON `archived_attachments` (`archiveId`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_archived_attachments_sha256` ON `archived_attachments` (`sha256`)")
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `archived_checklist_items` (" +
+                    "`archiveId` INTEGER NOT NULL, " +
+                    "`itemId` INTEGER NOT NULL, " +
+                    "`parentItemId` INTEGER, " +
+                    "`title` TEXT NOT NULL, " +
+                    "`position` INTEGER NOT NULL, " +
+                    "`dueDateTime` INTEGER, " +
+                    "`completedAt` INTEGER, " +
+                    "PRIMARY KEY(`archiveId`, `itemId`), " +
+                    "FOREIGN KEY(`archiveId`) REFERENCES `archived_tasks`(`archiveId`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            )
+        }
+    }
+    
+    val ALL = arrayOf(
+        MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8,
+        MIGRATION_8_9, MIGRATION_9_10
+    )
+}
@@ -0,0 +1,33 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+
+@Dao
+interface ReminderMetricDao {
+    
+    @Insert
+    suspend fun insertMetric(metric: ReminderMetricEntity): Long
+    
+    // Stage updates only fill an empty column so a retried worker or a restarted
+    // service does not overwrite the first (real) timestamp
+    @Query("UPDATE reminder_metrics SET workerStartedAt = :timestamp WHERE id = :id AND workerStartedAt IS NULL")
+    suspend fun markWorkerStarted(id: Long, timestamp: Long)
+    
+    @Query("UPDATE reminder_metrics SET notificationPostedAt = :timestamp WHERE id = :id AND notificationPostedAt IS NULL")
+    suspend fun markNotificationPosted(id: Long, timestamp: Long)
+    
+    @Query("UPDATE reminder_metrics SET firstSoundAt = :timestamp WHERE id = :id AND firstSoundAt IS NULL")
+    suspend fun markFirstSound(id: Long, timestamp: Long)
+    
+    @Query("SELECT * FROM reminder_metrics ORDER BY id DESC LIMIT :limit")
+    suspend fun getRecentMetrics(limit: Int): List<ReminderMetricEntity>
+    
+    // Keep the table bounded: drop everything but the newest :keep rows
+    @Query("DELETE FROM reminder_metrics WHERE id <= (SELECT id FROM reminder_metrics ORDER BY id DESC LIMIT 1 OFFSET :keep)")
+    suspend fun pruneTo(keep: Int)
+    
+    @Query("DELETE FROM reminder_metrics")
+    suspend fun deleteAllMetrics()
+}
@@ -0,0 +1,32 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+import com.pharma.taskmanager.domain.metrics.ReminderFire
+
+/**
+ * One reminder fire and the wall-clock time it reached each stage of delivery.
+ * Stage columns stay null until (and unless) the fire passes through that stage.
+ */
+@Entity(tableName = "reminder_metrics")
+data class ReminderMetricEntity(
+    @PrimaryKey(autoGenerate = true)
+    val id: Long = 0,
+    val taskId: Int,
+    val deliveryPath: String,
+    val scheduledTime: Long,
+    val alarmReceivedAt: Long? = null,
+    val workerStartedAt: Long? = null,
+    val notificationPostedAt: Long? = null,
+    val firstSoundAt: Long? = null,
+    val createdAt: Long = System.currentTimeMillis()
+) {
+    fun toReminderFire(): ReminderFire = ReminderFire(
+        deliveryPath = deliveryPath,
+        scheduledTime = scheduledTime,
+        alarmReceivedAt = alarmReceivedAt,
+        workerStartedAt = workerStartedAt,
+        notificationPostedAt = notificationPostedAt,
+        firstSoundAt = firstSoundAt
+    )
+}
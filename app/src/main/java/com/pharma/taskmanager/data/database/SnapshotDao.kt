@@ -0,0 +1,86 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Transaction
+
+@Dao
+abstract class SnapshotDao {
+
+    // Every row, tombstones included: a restore puts the table back exactly as it was
+    @Query("SELECT * FROM tasks ORDER BY id ASC")
+    abstract suspend fun getAllTaskRows(): List<TaskEntity>
+
+    @Query("SELECT id FROM tasks WHERE reminderTime IS NOT NULL")
+    abstract suspend fun getTaskIdsWithReminders(): List<Int>
+
+    @Query("DELETE FROM tasks")
+    abstract suspend fun deleteAllTasks()
+
+    @Insert
+    abstract suspend fun insertTasks(tasks: List<TaskEntity>)
+
+    @Query("SELECT * FROM task_tags")
+    abstract suspend fun getAllTaskTags(): List<TaskTagEntity>
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    abstract suspend fun insertTaskTags(links: List<TaskTagEntity>)
+
+    @Query("SELECT * FROM checklist_items ORDER BY id ASC")
+    abstract suspend fun getAllChecklistItems(): List<ChecklistItemEntity>
+
+    @Insert
+    abstract suspend fun insertChecklistItems(items: List<ChecklistItemEntity>)
+
+    @Query("SELECT * FROM attachments")
+    abstract suspend fun getAllAttachments(): List<AttachmentEntity>
+
+    @Insert
+    abstract suspend fun insertAttachments(attachments: List<AttachmentEntity>)
+
+    @Query("INSERT OR REPLACE INTO sync_state (name, value) VALUES (:name, :value)")
+    abstract suspend fun setSyncState(name: String, value: Long)
+
+    @Query(
+        "INSERT INTO task_changes (taskId, op, syncId, changedAt) " +
+            "SELECT id, '" + TaskChangeLog.OP_UPSERT + "', NULL, updatedAt FROM tasks ORDER BY id"
+    )
+    abstract suspend fun logAllTasksChanged()
+
+    /**
+     * Replace the whole tasks table in one transaction: observers see either the old
+     * table or the restored one, never a half-restored mix.
+     *
+     * For sync the restore is a merge, not a wipe: the swap itself is not logged (the
+     * deletes would remove the tasks on every other device), each restored row is logged
+     * with its own clock, and the pull cursor restarts so newer versions on the server win.
+     *
+     * Snapshots carry no tags, checklists or attachments. The delete cascades to task_tags,
+     * checklist_items and attachments, so they are put back for every task the snapshot
+     * restores under the same id. A step is inserted after its parent, so in id order a
+     * step is kept exactly when its task or its parent was.
+     */
+    @Transaction
+    open suspend fun replaceAllTasks(tasks: List<TaskEntity>) {
+        val links = getAllTaskTags()
+        val steps = getAllChecklistItems()
+        val attachments = getAllAttachments()
+        setSyncState(TaskChangeLog.STATE_SUPPRESS, 1)
+        deleteAllTasks()
+        insertTasks(tasks)
+        val restoredIds = tasks.mapTo(HashSet()) { it.id }
+        links.filter { it.taskId in restoredIds }.takeIf { it.isNotEmpty() }?.let { insertTaskTags(it) }
+        val keptStepIds = HashSet<Int>()
+        steps.filter { step ->
+            val kept = step.taskId?.let { it in restoredIds } ?: (step.parentId in keptStepIds)
+            if (kept) keptStepIds += step.id
+            kept
+        }.takeIf { it.isNotEmpty() }?.let { insertChecklistItems(it) }
+        attachments.filter { it.taskId in restoredIds }.takeIf { it.isNotEmpty() }?.let { insertAttachments(it) }
+        setSyncState(TaskChangeLog.STATE_SUPPRESS, 0)
+        logAllTasksChanged()
+        setSyncState(TaskChangeLog.STATE_PULL_CURSOR, 0)
+    }
+}
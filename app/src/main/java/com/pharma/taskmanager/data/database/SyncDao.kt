@@ -0,0 +1,107 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Update
+import com.pharma.taskmanager.domain.sync.TaskDelta
+
+/** Local time of a delete that has not been pushed yet. */
+data class PendingDelete(val syncId: String, val changedAt: Long)
+
+/** Rows a batch of remote deltas wrote (with their local ids) and the local ids it deleted. */
+class AppliedDeltas(val written: List<TaskEntity>, val deletedIds: List<Int>)
+
+@Dao
+abstract class SyncDao {
+
+    @Query("SELECT * FROM task_changes WHERE seq > :afterSeq ORDER BY seq ASC LIMIT :limit")
+    abstract suspend fun getChangesAfter(afterSeq: Long, limit: Int): List<TaskChangeEntity>
+
+    @Query("DELETE FROM task_changes WHERE seq <= :seq")
+    abstract suspend fun deleteChangesUpTo(seq: Long)
+
+    @Query(
+        "SELECT syncId, MAX(changedAt) AS changedAt FROM task_changes " +
+            "WHERE op = '" + TaskChangeLog.OP_DELETE + "' AND syncId IN (:syncIds) GROUP BY syncId"
+    )
+    abstract suspend fun getPendingDeletes(syncIds: List<String>): List<PendingDelete>
+
+    // Tombstoned rows included: deletedAt syncs like any other column
+    @Query("SELECT * FROM tasks WHERE id IN (:ids)")
+    abstract suspend fun getTasksByIds(ids: List<Int>): List<TaskEntity>
+
+    @Query("SELECT * FROM tasks WHERE syncId IN (:syncIds)")
+    abstract suspend fun getTasksBySyncIds(syncIds: List<String>): List<TaskEntity>
+
+    @Query("SELECT value FROM sync_state WHERE name = :name")
+    abstract suspend fun getState(name: String): Long?
+
+    @Query("INSERT OR REPLACE INTO sync_state (name, value) VALUES (:name, :value)")
+    abstract suspend fun setState(name: String, value: Long)
+
+    @Insert
+    abstract suspend fun insertTasks(tasks: List<TaskEntity>): List<Long>
+
+    @Update
+    abstract suspend fun updateTasks(tasks: List<TaskEntity>)
+
+    @Query("DELETE FROM tasks WHERE id IN (:ids)")
+    abstract suspend fun deleteTasks(ids: List<Int>)
+
+    /** Move the pushed checkpoint and drop the log entries it covers, together. */
+    @Transaction
+    open suspend fun markPushed(seq: Long) {
+        setState(TaskChangeLog.STATE_PUSHED_SEQ, seq)
+        deleteChangesUpTo(seq)
+    }
+
+    /**
+     * Write every delta that wins over the local row (or over a local delete not pushed
+     * yet), with the change-log triggers off, and move the pull cursor in the same
+     * transaction: a batch is either applied with its cursor or not at all.
+     */
+    @Transaction
+    open suspend fun applyRemote(deltas: List<TaskDelta>, pullCursor: Long?): AppliedDeltas {
+        // One delta per task: the newest, should a batch ever carry two
+        val latest = LinkedHashMap<String, TaskDelta>()
+        for (delta in deltas) {
+            val previous = latest[delta.syncId]
+            if (previous == null || delta.updatedAt >= previous.updatedAt) latest[delta.syncId] = delta
+        }
+        val syncIds = latest.keys.toList()
+        val local = syncIds.chunked(MAX_BIND_ARGS).flatMap { getTasksBySyncIds(it) }.associateBy { it.syncId }
+        val pendingDeletes = syncIds.chunked(MAX_BIND_ARGS).flatMap { getPendingDeletes(it) }
+            .associate { it.syncId to it.changedAt }
+
+        val inserts = ArrayList<TaskEntity>()
+        val updates = ArrayList<TaskEntity>()
+        val deletedIds = ArrayList<Int>()
+        for (delta in latest.values) {
+            val row = local[delta.syncId]
+            if (!delta.winsOver(row?.updatedAt ?: pendingDeletes[delta.syncId])) continue
+            val task = delta.task
+            when {
+                task == null -> row?.let { deletedIds.add(it.id) }
+                row == null -> inserts.add(task.copy(id = 0))
+                else -> updates.add(task.copy(id = row.id))
+            }
+        }
+
+        setState(TaskChangeLog.STATE_SUPPRESS, 1)
+        deletedIds.chunked(MAX_BIND_ARGS).forEach { deleteTasks(it) }
+        if (updates.isNotEmpty()) updateTasks(updates)
+        val insertedIds = if (inserts.isEmpty()) emptyList() else insertTasks(inserts)
+        setState(TaskChangeLog.STATE_SUPPRESS, 0)
+        if (pullCursor != null) setState(TaskChangeLog.STATE_PULL_CURSOR, pullCursor)
+
+        val written = updates + inserts.mapIndexed { i, task -> task.copy(id = insertedIds[i].toInt()) }
+        return AppliedDeltas(written, deletedIds)
+    }
+
+    private companion object {
+        // SQLite's default bound-parameter limit is 999
+        const val MAX_BIND_ARGS = 900
+    }
+}
@@ -0,0 +1,15 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * Named integers for sync: the checkpoints, and the flag that stops the change-log
+ * triggers while remote deltas are written (see [TaskChangeLog]).
+ */
+@Entity(tableName = "sync_state")
+data class SyncStateEntity(
+    @PrimaryKey
+    val name: String,
+    val value: Long
+)
@@ -0,0 +1,91 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import androidx.room.Transaction
+import kotlinx.coroutines.flow.Flow
+
+@Dao
+abstract class TagDao {
+
+    @Query("SELECT * FROM tags ORDER BY name ASC")
+    abstract fun observeTags(): Flow<List<TagEntity>>
+
+    // Case-insensitive: the name column is NOCASE
+    @Query("SELECT * FROM tags WHERE name = :name")
+    abstract suspend fun getTagByName(name: String): TagEntity?
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    abstract suspend fun insertTag(tag: TagEntity): Long
+
+    @Query("UPDATE tags SET name = :name WHERE id = :id")
+    abstract suspend fun renameTag(id: Int, name: String)
+
+    // Links go with it (ON DELETE CASCADE)
+    @Query("DELETE FROM tags WHERE id = :id")
+    abstract suspend fun deleteTag(id: Int)
+
+    @Query("SELECT tagId FROM task_tags WHERE taskId = :taskId")
+    abstract suspend fun getTagIdsForTask(taskId: Int): List<Int>
+
+    @Query("SELECT tagId FROM task_tags WHERE taskId = :taskId")
+    abstract fun observeTagIdsForTask(taskId: Int): Flow<List<Int>>
+
+    // Every link, for the in-memory TagBitmapIndex; re-emitted whenever task_tags changes
+    @Query("SELECT * FROM task_tags")
+    abstract fun observeTaskTags(): Flow<List<TaskTagEntity>>
+
+    @Query("SELECT * FROM task_tags")
+    abstract suspend fun getAllTaskTags(): List<TaskTagEntity>
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    abstract suspend fun insertTaskTags(links: List<TaskTagEntity>)
+
+    @Query("DELETE FROM task_tags WHERE taskId = :taskId AND tagId NOT IN (:keepTagIds)")
+    abstract suspend fun deleteTaskTagsExcept(taskId: Int, keepTagIds: List<Int>)
+
+    @Query("DELETE FROM task_tags WHERE taskId = :taskId")
+    abstract suspend fun deleteTaskTags(taskId: Int)
+
+    /** Replace the tags of [taskId] with [tagIds], leaving links that stay untouched. */
+    @Transaction
+    open suspend fun setTaskTags(taskId: Int, tagIds: List<Int>) {
+        if (tagIds.isEmpty()) {
+            deleteTaskTags(taskId)
+            return
+        }
+        deleteTaskTagsExcept(taskId, tagIds)
+        insertTaskTags(tagIds.map { TaskTagEntity(taskId, it) })
+    }
+
+    /**
+     * The name's tag, created if there is none yet. Insert-or-ignore then read, so two
+     * callers racing on a new name end up with the same row.
+     */
+    @Transaction
+    open suspend fun getOrCreateTag(name: String, createdAt: Long): TagEntity {
+        getTagByName(name)?.let { return it }
+        insertTag(TagEntity(name = name, createdAt = createdAt))
+        return checkNotNull(getTagByName(name))
+    }
+
+    // SQL equivalents of TagBitmapIndex.anyOf / allOf, for callers without the index
+    @Query(
+        "SELECT * FROM tasks WHERE deletedAt IS NULL AND id IN " +
+            "(SELECT taskId FROM task_tags WHERE tagId IN (:tagIds)) ORDER BY dueDateTime ASC"
+    )
+    abstract fun getTasksWithAnyTag(tagIds: List<Int>): Flow<List<TaskEntity>>
+
+    // Counting works because a task holds a tag at most once (primary key) and the ids are distinct
+    @Query(
+        "SELECT * FROM tasks WHERE deletedAt IS NULL AND id IN " +
+            "(SELECT taskId FROM task_tags WHERE tagId IN (:tagIds) GROUP BY taskId HAVING COUNT(*) = :tagCount) " +
+            "ORDER BY dueDateTime ASC"
+    )
+    protected abstract fun queryTasksWithAllTags(tagIds: List<Int>, tagCount: Int): Flow<List<TaskEntity>>
+
+    fun getTasksWithAllTags(tagIds: Set<Int>): Flow<List<TaskEntity>> =
+        queryTasksWithAllTags(tagIds.toList(), tagIds.size)
+}
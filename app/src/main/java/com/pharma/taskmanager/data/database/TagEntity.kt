@@ -0,0 +1,21 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * A user-defined label. Names are unique ignoring case, so "Fridge" and "fridge" are one tag.
+ */
+@Entity(
+    tableName = "tags",
+    indices = [Index(value = ["name"], unique = true)]
+)
+data class TagEntity(
+    @PrimaryKey(autoGenerate = true)
+    val id: Int = 0,
+    @ColumnInfo(collate = ColumnInfo.NOCASE)
+    val name: String,
+    val createdAt: Long
+)
@@ -0,0 +1,19 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * One entry in the sync change log, written by triggers on `tasks` (see [TaskChangeLog]).
+ * [seq] only ever grows (AUTOINCREMENT never reuses a value), so "everything after the
+ * pushed checkpoint" is a range scan on the key. Entries are dropped once pushed.
+ */
+@Entity(tableName = "task_changes")
+data class TaskChangeEntity(
+    @PrimaryKey(autoGenerate = true)
+    val seq: Long = 0,
+    val taskId: Int,
+    val op: String, // TaskChangeLog.OP_UPSERT or OP_DELETE
+    val syncId: String? = null, // Deletes only: the row, and with it the syncId, is gone by push time
+    val changedAt: Long
+)
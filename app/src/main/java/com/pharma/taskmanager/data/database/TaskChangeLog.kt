@@ -0,0 +1,68 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.RoomDatabase
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Triggers that keep the sync bookkeeping of `tasks` in the database itself, so every
+ * write path (DAO methods, bulk imports, receivers outside Hilt) is covered:
+ * - a new row gets a random syncId and an updatedAt if it came without them
+ * - an update that does not move updatedAt forward gets a fresh one, strictly greater
+ * - every insert, update and delete appends to `task_changes`
+ *
+ * None of it fires while the `suppress_change_log` flag in `sync_state` is 1: remote deltas
+ * keep their own clock and must not be logged as local edits. The flag is only ever set
+ * inside a transaction and cleared before it commits.
+ */
+object TaskChangeLog {
+
+    const val OP_UPSERT = "upsert"
+    const val OP_DELETE = "delete"
+
+    const val STATE_SUPPRESS = "suppress_change_log"
+    const val STATE_PUSHED_SEQ = "pushed_seq"
+    const val STATE_PULL_CURSOR = "pull_cursor"
+
+    private const val NOW_MS = "CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)"
+    private const val NOT_SUPPRESSED = "(SELECT `value` FROM `sync_state` WHERE `name` = '$STATE_SUPPRESS') IS NOT 1"
+
+    private val TRIGGERS = listOf(
+        "CREATE TRIGGER IF NOT EXISTS `tasks_assign_sync_identity` AFTER INSERT ON `tasks` " +
+            "WHEN NEW.`syncId` = '' OR NEW.`updatedAt` = 0 BEGIN " +
+            "UPDATE `tasks` SET " +
+            "`syncId` = CASE WHEN NEW.`syncId` = '' THEN lower(hex(randomblob(16))) ELSE NEW.`syncId` END, " +
+            "`updatedAt` = CASE WHEN NEW.`updatedAt` = 0 THEN $NOW_MS ELSE NEW.`updatedAt` END " +
+            "WHERE `id` = NEW.`id`; END",
+        "CREATE TRIGGER IF NOT EXISTS `tasks_log_insert` AFTER INSERT ON `tasks` " +
+            "WHEN $NOT_SUPPRESSED BEGIN " +
+            "INSERT INTO `task_changes` (`taskId`, `op`, `syncId`, `changedAt`) " +
+            "VALUES (NEW.`id`, '$OP_UPSERT', NULL, $NOW_MS); END",
+        // Also catches writes of a stale copy (older updatedAt): the edit is newer than its clock says
+        "CREATE TRIGGER IF NOT EXISTS `tasks_touch_updated_at` AFTER UPDATE ON `tasks` " +
+            "WHEN OLD.`syncId` <> '' AND NEW.`updatedAt` <= OLD.`updatedAt` AND $NOT_SUPPRESSED BEGIN " +
+            "UPDATE `tasks` SET `updatedAt` = max(OLD.`updatedAt` + 1, $NOW_MS) WHERE `id` = NEW.`id`; END",
+        // Logs the touched row: fires for the trigger's own UPDATE above, not the one it corrects
+        "CREATE TRIGGER IF NOT EXISTS `tasks_log_update` AFTER UPDATE ON `tasks` " +
+            "WHEN OLD.`syncId` <> '' AND NEW.`updatedAt` > OLD.`updatedAt` AND $NOT_SUPPRESSED BEGIN " +
+            "INSERT INTO `task_changes` (`taskId`, `op`, `syncId`, `changedAt`) " +
+            "VALUES (NEW.`id`, '$OP_UPSERT', NULL, NEW.`updatedAt`); END",
+        "CREATE TRIGGER IF NOT EXISTS `tasks_log_delete` AFTER DELETE ON `tasks` " +
+            "WHEN OLD.`syncId` <> '' AND $NOT_SUPPRESSED BEGIN " +
+            "INSERT INTO `task_changes` (`taskId`, `op`, `syncId`, `changedAt`) " +
+            "VALUES (OLD.`id`, '$OP_DELETE', OLD.`syncId`, max(OLD.`updatedAt` + 1, $NOW_MS)); END"
+    )
+
+    fun createTriggers(db: SupportSQLiteDatabase) {
+        TRIGGERS.forEach(db::execSQL)
+    }
+
+    /**
+     * Room creates tables but not triggers. Creating them on open covers a fresh install,
+     * every migration and a destructive fallback alike; IF NOT EXISTS makes it a no-op after.
+     */
+    val CALLBACK = object : RoomDatabase.Callback() {
+        override fun onOpen(db: SupportSQLiteDatabase) {
+            createTriggers(db)
+        }
+    }
+}
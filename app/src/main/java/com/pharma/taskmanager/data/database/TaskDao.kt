@@ -6,6 +6,8 @@ import androidx.room.Insert
 import androidx.room.OnConflictStrategy
 import androidx.room.Query
 import androidx.room.Update
+import com.pharma.taskmanager.domain.changes.TaskStamp
+import com.pharma.taskmanager.domain.reminder.ArmedReminder
 import kotlinx.coroutines.flow.Flow
 
 @Dao
@@ -14,63 +16,122 @@ interface TaskDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     suspend fun insertTask(task: TaskEntity): Long
     
+    // Bulk insert in a single transaction
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertTasks(tasks: List<TaskEntity>): List<Long>
+    
     @Update
     suspend fun updateTask(task: TaskEntity)
     
     @Delete
     suspend fun deleteTask(task: TaskEntity)
     
-    @Query("SELECT * FROM tasks ORDER BY dueDateTime ASC")
+    // Soft delete: the row stays (hidden from every live query) so undo is a flag flip
+    @Query("UPDATE tasks SET deletedAt = :deletedAt WHERE id = :id AND deletedAt IS NULL")
+    suspend fun softDeleteTask(id: Int, deletedAt: Long)
+    
+    @Query("UPDATE tasks SET deletedAt = NULL WHERE id = :id")
+    suspend fun restoreTask(id: Int)
+    
+    @Query("SELECT id FROM tasks WHERE deletedAt IS NOT NULL AND deletedAt < :cutoff LIMIT :limit")
+    suspend fun getTombstoneIds(cutoff: Long, limit: Int): List<Int>
+    
+    // Only removes rows that are still tombstones, so a concurrent undo wins
+    @Query("DELETE FROM tasks WHERE id IN (:ids) AND deletedAt IS NOT NULL")
+    suspend fun purgeTombstones(ids: List<Int>): Int
+    
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL ORDER BY dueDateTime ASC")
     fun getAllTasks(): Flow<List<TaskEntity>>
     
-    @Query("SELECT * FROM tasks WHERE id = :id")
+    // TaskChangeFeed: a full read to start from, then per write the clocks to diff and the rows that moved
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL")
+    suspend fun getVisibleTasks(): List<TaskEntity>
+    
+    @Query("SELECT id, updatedAt FROM tasks WHERE deletedAt IS NULL")
+    suspend fun getVisibleTaskStamps(): List<TaskStamp>
+    
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND id IN (:ids)")
+    suspend fun getVisibleTasksByIds(ids: List<Int>): List<TaskEntity>
+    
+    // TaskCache: clocks of the cached rows, read on the InvalidationTracker thread
+    @Query("SELECT id, updatedAt FROM tasks WHERE deletedAt IS NULL AND id IN (:ids)")
+    fun getVisibleTaskStampsByIds(ids: List<Int>): List<TaskStamp>
+    
+    @Query("SELECT * FROM tasks WHERE id = :id AND deletedAt IS NULL")
     suspend fun getTaskById(id: Int): TaskEntity?
     
+    // Keyset chunk over the primary key for streaming export; each call is one short read
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND id > :afterId ORDER BY id ASC LIMIT :limit")
+    suspend fun getTasksAfterId(afterId: Int, limit: Int): List<TaskEntity>
+    
     // Filter tasks by status
-    @Query("SELECT * FROM tasks WHERE status = :status ORDER BY dueDateTime ASC")
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND status = :status ORDER BY dueDateTime ASC")
     fun getTasksByStatus(status: String): Flow<List<TaskEntity>>
     
     // Filter tasks by priority
-    @Query("SELECT * FROM tasks WHERE priority = :priority ORDER BY dueDateTime ASC")
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND priority = :priority ORDER BY dueDateTime ASC")
     fun getTasksByPriority(priority: Int): Flow<List<TaskEntity>>
     
     // Filter tasks by status and priority
-    @Query("SELECT * FROM tasks WHERE status = :status AND priority = :priority ORDER BY dueDateTime ASC")
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND status = :status AND priority = :priority ORDER BY dueDateTime ASC")
     fun getTasksByStatusAndPriority(status: String, priority: Int): Flow<List<TaskEntity>>
     
     // Get tasks due today or overdue
-    @Query("SELECT * FROM tasks WHERE dueDateTime IS NOT NULL AND dueDateTime <= :timestamp AND status = 'pending' ORDER BY dueDateTime ASC")
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND status = 'pending' AND dueDateTime IS NOT NULL AND dueDateTime <= :timestamp ORDER BY dueDateTime ASC")
     fun getDueTasks(timestamp: Long): Flow<List<TaskEntity>>
     
     // Get tasks with reminders
-    @Query("SELECT * FROM tasks WHERE reminderTime IS NOT NULL ORDER BY reminderTime ASC")
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND reminderTime IS NOT NULL ORDER BY reminderTime ASC")
     fun getTasksWithReminders(): Flow<List<TaskEntity>>
     
     // Get tasks with reminders due at or before specified time
-    @Query("SELECT * FROM tasks WHERE reminderTime IS NOT NULL AND reminderTime <= :timestamp AND status = 'pending'")
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND reminderTime IS NOT NULL AND reminderTime <= :timestamp AND status = 'pending'")
     suspend fun getTasksWithRemindersDue(timestamp: Long): List<TaskEntity>
     
+    // The nearest future reminders of pending tasks, for re-arming alarms. The (deletedAt, reminderTime)
+    // index ends in the rowid, so this is a range scan in index order that stops at :limit, not a sort
+    @Query("SELECT id AS taskId, reminderTime FROM tasks WHERE deletedAt IS NULL AND reminderTime > :after AND status = 'pending' ORDER BY reminderTime ASC, id ASC LIMIT :limit")
+    suspend fun getUpcomingReminders(after: Long, limit: Int): List<ArmedReminder>
+    
     // Search tasks by title or description
-    @Query("SELECT * FROM tasks WHERE title LIKE :searchQuery OR description LIKE :searchQuery ORDER BY dueDateTime ASC")
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND (title LIKE :searchQuery OR description LIKE :searchQuery) ORDER BY dueDateTime ASC")
     fun searchTasks(searchQuery: String): Flow<List<TaskEntity>>
     
     // Get pending tasks
-    @Query("SELECT * FROM tasks WHERE status = 'pending' ORDER BY priority DESC, dueDateTime ASC")
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND status = 'pending' ORDER BY priority DESC, dueDateTime ASC")
     fun getPendingTasks(): Flow<List<TaskEntity>>
     
     // Get completed tasks
-    @Query("SELECT * FROM tasks WHERE status = 'completed' ORDER BY dueDateTime DESC")
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND status = 'completed' ORDER BY dueDateTime DESC")
     fun getCompletedTasks(): Flow<List<TaskEntity>>
     
-    // Update task status
-    @Query("UPDATE tasks SET status = :status WHERE id = :id")
-    suspend fun updateTaskStatus(id: Int, status: String)
+    // Update task status; completedAt is stamped on the first completion and cleared on reopen.
+    // Tombstones are skipped: a completedAt stamped on one would make it eligible for archiving
+    @Query(
+        "UPDATE tasks SET status = :status, " +
+            "completedAt = CASE WHEN :status = 'completed' THEN COALESCE(completedAt, :timestamp) ELSE NULL END " +
+            "WHERE id = :id AND deletedAt IS NULL"
+    )
+    suspend fun updateTaskStatus(id: Int, status: String, timestamp: Long)
+    
+    // Pending tasks due by :timestamp, overdue included, for the widget snapshot
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL AND status = 'pending' AND dueDateTime IS NOT NULL AND dueDateTime <= :timestamp ORDER BY dueDateTime ASC")
+    suspend fun getPendingDueBy(timestamp: Long): List<TaskEntity>
+    
+    // Complete from a widget or notification in one statement, without reading the row. 0 if it was
+    // no longer pending, or is recurring: rolling to the next occurrence needs the row (TaskQuickActions)
+    @Query("UPDATE tasks SET status = 'completed', completedAt = :timestamp WHERE id = :id AND status = 'pending' AND deletedAt IS NULL AND recurrenceRule IS NULL")
+    suspend fun completePendingTask(id: Int, timestamp: Long): Int
+    
+    // Move a pending task's reminder; 0 if the task was completed or deleted meanwhile
+    @Query("UPDATE tasks SET reminderTime = :reminderTime WHERE id = :id AND status = 'pending' AND deletedAt IS NULL")
+    suspend fun snoozeReminder(id: Int, reminderTime: Long): Int
     
-    // Delete all completed tasks
-    @Query("DELETE FROM tasks WHERE status = 'completed'")
-    suspend fun deleteCompletedTasks()
+    // Clear completed: tombstones like softDeleteTask, so restoreTask and TombstonePurgeWorker cover them too
+    @Query("UPDATE tasks SET deletedAt = :deletedAt WHERE status = 'completed' AND deletedAt IS NULL")
+    suspend fun softDeleteCompletedTasks(deletedAt: Long): Int
     
     // Get task count by status
-    @Query("SELECT COUNT(*) FROM tasks WHERE status = :status")
+    @Query("SELECT COUNT(*) FROM tasks WHERE deletedAt IS NULL AND status = :status")
     suspend fun getTaskCountByStatus(status: String): Int
 }
\ No newline at end of file
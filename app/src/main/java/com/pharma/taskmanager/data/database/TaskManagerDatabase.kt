@@ -1,38 +1,55 @@
 package com.pharma.taskmanager.data.database
 
 import androidx.room.Database
-import androidx.room.Room
 import androidx.room.RoomDatabase
-import android.content.Context
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import kotlinx.coroutines.asExecutor
 
 @Database(
-    entities = [TaskEntity::class],
-    version = 1,
+    entities = [
+        TaskEntity::class,
+        ReminderMetricEntity::class,
+        ArchivedTaskEntity::class,
+        TaskChangeEntity::class,
+        SyncStateEntity::class,
+        TagEntity::class,
+        TaskTagEntity::class,
+        ChecklistItemEntity::class,
+        AttachmentEntity::class,
+        ArchivedTaskTagEntity::class,
+        ArchivedAttachmentEntity::class,
+        ArchivedChecklistItemEntity::class
+    ],
+    version = 10,
     exportSchema = false
 )
 abstract class TaskManagerDatabase : RoomDatabase() {
     
     abstract fun taskDao(): TaskDao
     
+    abstract fun reminderMetricDao(): ReminderMetricDao
+    
+    abstract fun archiveDao(): ArchiveDao
+    
+    abstract fun snapshotDao(): SnapshotDao
+    
+    abstract fun syncDao(): SyncDao
+    
+    abstract fun tagDao(): TagDao
+    
+    abstract fun checklistDao(): ChecklistDao
+    
+    abstract fun attachmentDao(): AttachmentDao
+    
     companion object {
         const val DATABASE_NAME = "task_manager_database"
-        
-        // Singleton instance
-        @Volatile
-        private var INSTANCE: TaskManagerDatabase? = null
-        
-        fun getDatabase(context: Context): TaskManagerDatabase {
-            return INSTANCE ?: synchronized(this) {
-                val instance = Room.databaseBuilder(
-                    context.applicationContext,
-                    TaskManagerDatabase::class.java,
-                    DATABASE_NAME
-                )
-                    .fallbackToDestructiveMigration() // For development - remove in production
-                    .build()
-                INSTANCE = instance
-                instance
-            }
-        }
     }
-}
\ No newline at end of file
+}
+
+/**
+ * Run Room's queries on the read pool and its transactions (suspend writes included) on the
+ * serial write pool, instead of the arch-components pool Room shares by default.
+ */
+internal fun RoomDatabase.Builder<TaskManagerDatabase>.useDispatchers(dispatchers: AppDispatchers) =
+    setQueryExecutor(dispatchers.dbRead.asExecutor())
+        .setTransactionExecutor(dispatchers.dbWrite.asExecutor())
@@ -0,0 +1,25 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
+
+/**
+ * Junction row: [taskId] carries [tagId]. The primary key serves "tags of a task", the
+ * tagId index serves "tasks with a tag". Both sides cascade, so deleting or purging a task,
+ * or deleting a tag, leaves no dangling links; archiving copies the links to
+ * archived_task_tags first.
+ */
+@Entity(
+    tableName = "task_tags",
+    primaryKeys = ["taskId", "tagId"],
+    foreignKeys = [
+        ForeignKey(entity = TaskEntity::class, parentColumns = ["id"], childColumns = ["taskId"], onDelete = ForeignKey.CASCADE),
+        ForeignKey(entity = TagEntity::class, parentColumns = ["id"], childColumns = ["tagId"], onDelete = ForeignKey.CASCADE)
+    ],
+    indices = [Index(value = ["tagId", "taskId"])]
+)
+data class TaskTagEntity(
+    val taskId: Int,
+    val tagId: Int
+)
@@ -0,0 +1,52 @@
+package com.pharma.taskmanager.data.repository
+
+import com.pharma.taskmanager.data.database.ArchiveDao
+import com.pharma.taskmanager.data.database.ArchivedTaskEntity
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Cold storage for completed tasks. Nothing here is observed: the archive is only read
+ * a page at a time when the user opens history, so it never rides along with
+ * getAllTasks() emissions.
+ */
+@Singleton
+class ArchiveRepository @Inject constructor(
+    private val archiveDao: ArchiveDao
+) {
+
+    /** Position after the last row of a page; pass it back to [loadPage] for the next one. */
+    data class PageKey(val completedAt: Long, val archiveId: Long)
+
+    data class Page(val tasks: List<ArchivedTaskEntity>, val nextKey: PageKey?)
+
+    /**
+     * Archived tasks, most recently completed first. [Page.nextKey] is null on the last page.
+     */
+    suspend fun loadPage(after: PageKey? = null, pageSize: Int = DEFAULT_PAGE_SIZE): Page =
+        DomainTrace.asyncSection("ArchiveRepository.loadPage") {
+            val tasks = if (after == null) {
+                archiveDao.getFirstPage(pageSize)
+            } else {
+                archiveDao.getPageAfter(after.completedAt, after.archiveId, pageSize)
+            }
+            val nextKey = if (tasks.size < pageSize) null else tasks.last().let { PageKey(it.completedAt, it.archiveId) }
+            Page(tasks, nextKey)
+        }
+
+    /**
+     * Move one batch of tasks completed before [cutoff] out of the hot table.
+     * Returns the moved task ids; fewer than [batchSize] means nothing is left to move.
+     */
+    suspend fun archiveCompletedBefore(cutoff: Long, batchSize: Int): List<Int> =
+        DomainTrace.asyncSection("ArchiveRepository.archiveCompletedBefore") {
+            archiveDao.archiveBatch(cutoff, batchSize, System.currentTimeMillis())
+        }
+
+    suspend fun getArchivedCount(): Int = archiveDao.getArchivedCount()
+
+    companion object {
+        const val DEFAULT_PAGE_SIZE = 50
+    }
+}
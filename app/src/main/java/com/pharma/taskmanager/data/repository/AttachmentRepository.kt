@@ -0,0 +1,104 @@
+package com.pharma.taskmanager.data.repository
+
+import android.content.Context
+import android.net.Uri
+import android.provider.OpenableColumns
+import androidx.core.content.FileProvider
+import com.pharma.taskmanager.data.database.AttachmentDao
+import com.pharma.taskmanager.data.database.AttachmentEntity
+import com.pharma.taskmanager.domain.attachments.ContentStore
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.domain.tracing.traceEmissions
+import com.pharma.taskmanager.logging.AppLog
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.withContext
+import java.io.File
+import java.io.IOException
+import java.nio.channels.Channels
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Files attached to tasks. Rows hold metadata only; the bytes go through a [ContentStore]
+ * under filesDir/attachments, streamed from the picked document on the file I/O pool.
+ * Blobs are shared by hash, so removing an attachment only deletes the blob when it was
+ * the last reference; blobs orphaned by cascades, or too new to delete safely, are left to
+ * [sweep].
+ */
+@Singleton
+class AttachmentRepository @Inject constructor(
+    @ApplicationContext private val context: Context,
+    private val attachmentDao: AttachmentDao,
+    private val dispatchers: AppDispatchers
+) {
+
+    private val store = ContentStore(File(context.filesDir, STORE_DIR))
+
+    fun attachments(taskId: Int): Flow<List<AttachmentEntity>> =
+        attachmentDao.observeAttachments(taskId).traceEmissions("AttachmentRepository.attachments")
+
+    /** Copy the document at [uri] into the store and attach it to [taskId]. */
+    suspend fun attach(taskId: Int, uri: Uri): AttachmentEntity = DomainTrace.asyncSection("AttachmentRepository.attach") {
+        val resolver = context.contentResolver
+        val (attachment, blob) = withContext(dispatchers.io) {
+            val displayName = resolver.query(uri, arrayOf(OpenableColumns.DISPLAY_NAME), null, null, null)?.use { cursor ->
+                if (cursor.moveToFirst()) cursor.getString(0) else null
+            } ?: uri.lastPathSegment ?: "attachment"
+            val blob = resolver.openInputStream(uri)?.use { input -> store.put(Channels.newChannel(input)) }
+                ?: throw IOException("Cannot open $uri")
+            AttachmentEntity(
+                taskId = taskId,
+                sha256 = blob.sha256,
+                displayName = displayName,
+                mimeType = resolver.getType(uri) ?: DEFAULT_MIME_TYPE,
+                sizeBytes = blob.size,
+                createdAt = System.currentTimeMillis()
+            ) to blob
+        }
+        val id = attachmentDao.insertAttachment(attachment).toInt()
+        AppLog.d(TAG) { field("taskId", taskId); field("bytes", blob.size); "📎 Attached file" }
+        attachment.copy(id = id)
+    }
+
+    suspend fun remove(attachment: AttachmentEntity) = DomainTrace.asyncSection("AttachmentRepository.remove") {
+        attachmentDao.deleteAttachment(attachment.id)
+        if (attachmentDao.countReferences(attachment.sha256) == 0) {
+            withContext(dispatchers.io) {
+                // A blob written within the grace period may be about to get a new row; sweep takes it later
+                val file = store.fileOf(attachment.sha256)
+                if (file.lastModified() < System.currentTimeMillis() - SWEEP_GRACE_MILLIS) file.delete()
+            }
+        }
+    }
+
+    /** The blob's file, for decoding on a background thread. */
+    fun fileOf(attachment: AttachmentEntity): File = store.fileOf(attachment.sha256)
+
+    /** A content:// URI another app can view the attachment through (FileProvider). */
+    fun contentUri(attachment: AttachmentEntity): Uri =
+        FileProvider.getUriForFile(context, "${context.packageName}$AUTHORITY_SUFFIX", fileOf(attachment))
+
+    /**
+     * Delete blobs no attachment row references any more: those of purged or archived
+     * tasks, and temp files of interrupted copies. Returns the number of blobs deleted.
+     */
+    suspend fun sweep(): Int = DomainTrace.asyncSection("AttachmentRepository.sweep") {
+        val referenced = attachmentDao.getReferencedHashes().toHashSet()
+        withContext(dispatchers.io) {
+            store.sweep(referenced, System.currentTimeMillis() - SWEEP_GRACE_MILLIS)
+        }
+    }
+
+    companion object {
+        private const val TAG = "AttachmentRepository"
+        private const val STORE_DIR = "attachments"
+        private const val DEFAULT_MIME_TYPE = "application/octet-stream"
+        const val AUTHORITY_SUFFIX = ".attachments"
+
+        // Longer than any copy-then-insert takes, so a sweep never removes a blob about to be referenced
+        private val SWEEP_GRACE_MILLIS = TimeUnit.HOURS.toMillis(1)
+    }
+}
@@ -0,0 +1,51 @@
+package com.pharma.taskmanager.data.repository
+
+import com.pharma.taskmanager.data.database.ChecklistDao
+import com.pharma.taskmanager.domain.checklist.ChecklistProgress
+import com.pharma.taskmanager.domain.checklist.ChecklistTree
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.domain.tracing.traceEmissions
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Checklist steps under tasks. The task list only needs [progress], which SQLite rolls up
+ * per task without handing back any steps; the steps themselves are read one task at a
+ * time, for the detail screen.
+ */
+@Singleton
+class ChecklistRepository @Inject constructor(
+    private val checklistDao: ChecklistDao,
+    private val dispatchers: AppDispatchers
+) {
+
+    fun progress(): Flow<Map<Int, ChecklistProgress>> = checklistDao.observeProgress()
+        .map { rows -> rows.associateBy { it.taskId } }
+        .traceEmissions("ChecklistRepository.progress")
+
+    fun checklist(taskId: Int): Flow<ChecklistTree> = checklistDao.observeChecklist(taskId)
+        .map { items -> ChecklistTree(items) }
+        .flowOn(dispatchers.cpu)
+        .traceEmissions("ChecklistRepository.checklist")
+
+    /** Add a step under [taskId], or under the step [parentId]; blank titles are ignored. */
+    suspend fun addItem(taskId: Int, parentId: Int?, title: String, dueDateTime: Long? = null): Int? {
+        val trimmed = title.trim()
+        if (trimmed.isEmpty()) return null
+        return DomainTrace.asyncSection("ChecklistRepository.addItem") {
+            checklistDao.addItem(taskId, parentId, trimmed, dueDateTime)
+        }
+    }
+
+    suspend fun setCompleted(itemId: Int, completed: Boolean) =
+        DomainTrace.asyncSection("ChecklistRepository.setCompleted") {
+            checklistDao.setCompleted(itemId, completed, System.currentTimeMillis())
+        }
+
+    suspend fun deleteItem(itemId: Int) =
+        DomainTrace.asyncSection("ChecklistRepository.deleteItem") { checklistDao.deleteItem(itemId) }
+}
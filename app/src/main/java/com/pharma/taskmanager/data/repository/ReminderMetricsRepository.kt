@@ -0,0 +1,91 @@
+package com.pharma.taskmanager.data.repository
+
+import com.pharma.taskmanager.data.database.ReminderMetricDao
+import com.pharma.taskmanager.data.database.ReminderMetricEntity
+import com.pharma.taskmanager.domain.metrics.ReminderLatencyAggregator
+import com.pharma.taskmanager.domain.metrics.ReminderLatencyReport
+import com.pharma.taskmanager.logging.AppLog
+import kotlinx.coroutines.CancellationException
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Records when each reminder fire reaches a delivery stage (alarm receipt, worker start,
+ * notification post, first sound) into the reminder_metrics table.
+ * Metrics are best effort: failures are logged and never break the reminder itself.
+ */
+@Singleton
+class ReminderMetricsRepository @Inject constructor(
+    private val reminderMetricDao: ReminderMetricDao
+) {
+
+    /**
+     * Start tracking a fire. Returns the metric id to pass along the delivery path,
+     * or [NO_METRIC_ID] if the row could not be written.
+     */
+    suspend fun startFire(
+        taskId: Int,
+        deliveryPath: String,
+        scheduledTime: Long,
+        alarmReceivedAt: Long? = null
+    ): Long = record("startFire") {
+        val id = reminderMetricDao.insertMetric(
+            ReminderMetricEntity(
+                taskId = taskId,
+                deliveryPath = deliveryPath,
+                scheduledTime = scheduledTime,
+                alarmReceivedAt = alarmReceivedAt
+            )
+        )
+        // Cheap enough to do on every insert and keeps the table bounded
+        if (id % PRUNE_EVERY == 0L) reminderMetricDao.pruneTo(MAX_ROWS)
+        id
+    } ?: NO_METRIC_ID
+
+    suspend fun markWorkerStarted(metricId: Long, timestamp: Long = System.currentTimeMillis()) {
+        if (metricId == NO_METRIC_ID) return
+        record("markWorkerStarted") { reminderMetricDao.markWorkerStarted(metricId, timestamp) }
+    }
+
+    suspend fun markNotificationPosted(metricId: Long, timestamp: Long = System.currentTimeMillis()) {
+        if (metricId == NO_METRIC_ID) return
+        record("markNotificationPosted") { reminderMetricDao.markNotificationPosted(metricId, timestamp) }
+    }
+
+    suspend fun markFirstSound(metricId: Long, timestamp: Long = System.currentTimeMillis()) {
+        if (metricId == NO_METRIC_ID) return
+        record("markFirstSound") { reminderMetricDao.markFirstSound(metricId, timestamp) }
+    }
+
+    /**
+     * Latency percentiles per delivery path over the most recent [limit] fires.
+     */
+    suspend fun getLatencyReports(limit: Int = MAX_ROWS): List<ReminderLatencyReport> {
+        val fires = reminderMetricDao.getRecentMetrics(limit).map { it.toReminderFire() }
+        return ReminderLatencyAggregator.aggregate(fires)
+    }
+
+    suspend fun clear() {
+        reminderMetricDao.deleteAllMetrics()
+    }
+
+    private inline fun <T> record(operation: String, block: () -> T): T? {
+        return try {
+            block()
+        } catch (e: CancellationException) {
+            throw e // Cancellation is not a failure: let the caller's coroutine stop
+        } catch (e: Exception) {
+            AppLog.w(TAG) { "⚠️ Failed to record reminder metric ($operation): ${e.message}" }
+            null
+        }
+    }
+
+    companion object {
+        private const val TAG = "ReminderMetrics"
+        private const val MAX_ROWS = 5000
+        private const val PRUNE_EVERY = 100L
+
+        const val NO_METRIC_ID = -1L
+        const val EXTRA_METRIC_ID = "metric_id"
+    }
+}
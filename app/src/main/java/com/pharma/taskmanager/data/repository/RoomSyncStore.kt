@@ -0,0 +1,82 @@
+package com.pharma.taskmanager.data.repository
+
+import com.pharma.taskmanager.data.database.SyncDao
+import com.pharma.taskmanager.data.database.TaskChangeLog
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.domain.sync.PendingChanges
+import com.pharma.taskmanager.domain.sync.SyncCheckpoint
+import com.pharma.taskmanager.domain.sync.SyncStore
+import com.pharma.taskmanager.domain.sync.TaskDelta
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.utils.ReminderScheduler
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * [SyncStore] over the task_changes log that the triggers in [TaskChangeLog] maintain.
+ * Remote deltas can add, move or remove reminders, so alarms are re-armed for every row
+ * a batch writes, keyed by the local id.
+ */
+@Singleton
+class RoomSyncStore @Inject constructor(
+    private val syncDao: SyncDao,
+    private val reminderScheduler: ReminderScheduler
+) : SyncStore {
+
+    override suspend fun checkpoint(): SyncCheckpoint = SyncCheckpoint(
+        pushedSeq = syncDao.getState(TaskChangeLog.STATE_PUSHED_SEQ) ?: 0L,
+        pullCursor = syncDao.getState(TaskChangeLog.STATE_PULL_CURSOR) ?: 0L
+    )
+
+    override suspend fun pendingChanges(afterSeq: Long, limit: Int): PendingChanges =
+        DomainTrace.asyncSection("RoomSyncStore.pendingChanges") {
+            val changes = syncDao.getChangesAfter(afterSeq, limit)
+            if (changes.isEmpty()) return@asyncSection PendingChanges(emptyList(), afterSeq)
+
+            // Upserts are read back as the row's current state; deletes carry the syncId
+            // because the row is gone. Several changes to one task collapse into one delta.
+            val upsertIds = LinkedHashSet<Int>()
+            val deletes = LinkedHashMap<String, Long>()
+            for (change in changes) {
+                if (change.op == TaskChangeLog.OP_DELETE) {
+                    change.syncId?.let { deletes[it] = change.changedAt }
+                } else {
+                    upsertIds.add(change.taskId)
+                }
+            }
+            val rows = upsertIds.chunked(MAX_BIND_ARGS).flatMap { syncDao.getTasksByIds(it) }
+            val rowSyncIds = rows.mapTo(HashSet()) { it.syncId }
+
+            val deltas = ArrayList<TaskDelta>(rows.size + deletes.size)
+            rows.mapTo(deltas) { TaskDelta.upsert(it) }
+            // An id freed by a delete can already belong to a new row with another syncId
+            deletes.filterKeys { it !in rowSyncIds }.mapTo(deltas) { (syncId, at) -> TaskDelta.delete(syncId, at) }
+            PendingChanges(deltas, changes.last().seq)
+        }
+
+    override suspend fun markPushed(seq: Long) = syncDao.markPushed(seq)
+
+    override suspend fun applyRemote(deltas: List<TaskDelta>, pullCursor: Long?): Int =
+        DomainTrace.asyncSection("RoomSyncStore.applyRemote") {
+            if (deltas.isEmpty()) {
+                pullCursor?.let { syncDao.setState(TaskChangeLog.STATE_PULL_CURSOR, it) }
+                return@asyncSection 0
+            }
+            val applied = syncDao.applyRemote(deltas, pullCursor)
+
+            applied.deletedIds.forEach { reminderScheduler.cancelReminder(it) }
+            val now = System.currentTimeMillis()
+            for (task in applied.written) {
+                reminderScheduler.cancelReminder(task.id)
+                val reminder = task.reminderTime ?: continue
+                if (reminder > now && task.deletedAt == null && task.status == TaskConstants.STATUS_PENDING) {
+                    reminderScheduler.scheduleReminder(task.id, reminder)
+                }
+            }
+            applied.written.size + applied.deletedIds.size
+        }
+
+    private companion object {
+        const val MAX_BIND_ARGS = 900
+    }
+}
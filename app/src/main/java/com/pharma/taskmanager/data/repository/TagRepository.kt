@@ -0,0 +1,56 @@
+package com.pharma.taskmanager.data.repository
+
+import com.pharma.taskmanager.data.database.TagDao
+import com.pharma.taskmanager.data.database.TagEntity
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.tags.TagBitmapIndex
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.domain.tracing.traceEmissions
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Tags and their assignment to tasks. Filtering by tag goes through [tagIndex]: the links
+ * are read once per task_tags change into a [TagBitmapIndex], and every chip combination
+ * after that is answered in memory.
+ */
+@Singleton
+class TagRepository @Inject constructor(
+    private val tagDao: TagDao,
+    private val dispatchers: AppDispatchers
+) {
+
+    fun tags(): Flow<List<TagEntity>> = tagDao.observeTags().traceEmissions("TagRepository.tags")
+
+    fun tagIdsOf(taskId: Int): Flow<List<Int>> = tagDao.observeTagIdsForTask(taskId)
+
+    /** A fresh index per task_tags change; a rebuild is one pass over the links, off the main thread. */
+    fun tagIndex(): Flow<TagBitmapIndex> = tagDao.observeTaskTags()
+        .map { links ->
+            DomainTrace.section("TagRepository.buildIndex") {
+                TagBitmapIndex().apply { links.forEach { add(it.taskId, it.tagId) } }
+            }
+        }
+        .flowOn(dispatchers.cpu)
+        .traceEmissions("TagRepository.tagIndex")
+
+    /** The tag named [name] (ignoring case), created if needed; null for a blank name. */
+    suspend fun getOrCreateTag(name: String): TagEntity? {
+        val trimmed = name.trim()
+        if (trimmed.isEmpty()) return null
+        return DomainTrace.asyncSection("TagRepository.getOrCreateTag") {
+            tagDao.getOrCreateTag(trimmed, System.currentTimeMillis())
+        }
+    }
+
+    suspend fun setTaskTags(taskId: Int, tagIds: Collection<Int>) =
+        DomainTrace.asyncSection("TagRepository.setTaskTags") {
+            tagDao.setTaskTags(taskId, tagIds.distinct())
+        }
+
+    suspend fun deleteTag(tagId: Int) =
+        DomainTrace.asyncSection("TagRepository.deleteTag") { tagDao.deleteTag(tagId) }
+}
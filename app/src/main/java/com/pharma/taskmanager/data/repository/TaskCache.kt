@@ -0,0 +1,141 @@
+package com.pharma.taskmanager.data.repository
+
+import androidx.room.InvalidationTracker
+import com.pharma.taskmanager.data.database.TaskDao
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.data.database.TaskManagerDatabase
+import java.util.concurrent.atomic.AtomicLong
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Bounded id -> task LRU cache in front of TaskDao.getTaskById.
+ *
+ * Repository writes go through [write] / [invalidate]. Writes made by anything else
+ * (another DAO user, a second database instance) are caught by Room's InvalidationTracker:
+ * on each invalidation of `tasks` the cache reads the (id, updatedAt) of its own entries and
+ * drops the ones whose row moved or is no longer visible. Like TaskChangeFeed this relies on
+ * every write moving updatedAt, so a repository write-through, which already carries the
+ * clock it wrote, survives the invalidation its own write causes.
+ *
+ * A load that raced with a write must not repopulate the cache with the old row, so
+ * every write bumps [generation] and [putIfUnchanged] drops loads that started before it.
+ */
+@Singleton
+class TaskCache internal constructor(private val maxSize: Int) {
+    
+    @Inject
+    constructor(database: TaskManagerDatabase, taskDao: TaskDao) : this(DEFAULT_MAX_SIZE) {
+        database.invalidationTracker.addObserver(object : InvalidationTracker.Observer(TASKS_TABLE) {
+            override fun onInvalidated(tables: Set<String>) {
+                invalidateChanged { ids -> taskDao.getVisibleTaskStampsByIds(ids).associate { it.id to it.updatedAt } }
+            }
+        })
+    }
+    
+    data class Stats(
+        val size: Int,
+        val maxSize: Int,
+        val hits: Long,
+        val misses: Long,
+        val evictions: Long,
+        val invalidations: Long
+    ) {
+        val hitRate: Double get() = if (hits + misses == 0L) 0.0 else hits.toDouble() / (hits + misses)
+    }
+    
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+    private val evictions = AtomicLong()
+    private val invalidations = AtomicLong()
+    
+    // Guarded by `this`
+    private var generation = 0L
+    
+    private val entries = object : LinkedHashMap<Int, TaskEntity>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Int, TaskEntity>): Boolean {
+            val evict = size > maxSize
+            if (evict) evictions.incrementAndGet()
+            return evict
+        }
+    }
+    
+    @Synchronized
+    fun get(id: Int): TaskEntity? {
+        val task = entries[id]
+        if (task != null) hits.incrementAndGet() else misses.incrementAndGet()
+        return task
+    }
+    
+    /**
+     * Token to take before loading from the database; pass it to [putIfUnchanged].
+     */
+    @Synchronized
+    fun generation(): Long = generation
+    
+    /**
+     * Cache a freshly loaded row unless a write happened since [generation] was taken.
+     */
+    @Synchronized
+    fun putIfUnchanged(task: TaskEntity, generation: Long) {
+        if (generation == this.generation) entries[task.id] = task
+    }
+    
+    /**
+     * Write-through after a successful update of [task].
+     */
+    @Synchronized
+    fun write(task: TaskEntity) {
+        generation++
+        entries[task.id] = task
+    }
+    
+    @Synchronized
+    fun invalidate(id: Int) {
+        generation++
+        entries.remove(id)
+        invalidations.incrementAndGet()
+    }
+    
+    /**
+     * Drop the entries whose row no longer has the cached updatedAt. [readStamps] runs
+     * outside the lock; an entry replaced while it ran is newer than the read and is kept.
+     */
+    internal fun invalidateChanged(readStamps: (List<Int>) -> Map<Int, Long>) {
+        val cached = synchronized(this) {
+            // A load that started before the write may still hold the old row
+            generation++
+            HashMap(entries)
+        }
+        if (cached.isEmpty()) return
+        val stamps = readStamps(cached.keys.toList())
+        synchronized(this) {
+            for ((id, task) in cached) {
+                // remove(key, value): a plain get would count as an access and reorder the LRU
+                if (stamps[id] != task.updatedAt && entries.remove(id, task)) invalidations.incrementAndGet()
+            }
+        }
+    }
+    
+    @Synchronized
+    fun invalidateAll() {
+        generation++
+        entries.clear()
+        invalidations.incrementAndGet()
+    }
+    
+    @Synchronized
+    fun stats(): Stats = Stats(
+        size = entries.size,
+        maxSize = maxSize,
+        hits = hits.get(),
+        misses = misses.get(),
+        evictions = evictions.get(),
+        invalidations = invalidations.get()
+    )
+    
+    companion object {
+        const val DEFAULT_MAX_SIZE = 256
+        private const val TASKS_TABLE = "tasks"
+    }
+}
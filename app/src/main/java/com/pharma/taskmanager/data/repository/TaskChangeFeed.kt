@@ -0,0 +1,67 @@
+package com.pharma.taskmanager.data.repository
+
+import androidx.room.InvalidationTracker
+import com.pharma.taskmanager.data.database.TaskDao
+import com.pharma.taskmanager.data.database.TaskManagerDatabase
+import com.pharma.taskmanager.domain.changes.TaskChangeSet
+import com.pharma.taskmanager.domain.changes.TaskChangeTracker
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Visible tasks as [TaskChangeSet]s, driven by Room's InvalidationTracker like the DAO's
+ * `Flow`s but without re-reading the table: each invalidation of `tasks` reads one
+ * (id, updatedAt) pair per row, [TaskChangeTracker] diffs them against what this collection
+ * already emitted, and only new or moved rows are read back in full.
+ *
+ * Every local write moves updatedAt (the TaskChangeLog triggers see to it) and remote sync
+ * writes carry the winning clock, so a row whose stamp is unchanged is the row already sent.
+ * Each invalidation emits, even an empty set, so receivers count database rounds as they did
+ * with Room's list emissions.
+ */
+@Singleton
+class TaskChangeFeed @Inject constructor(
+    private val database: TaskManagerDatabase,
+    private val taskDao: TaskDao,
+    private val dispatchers: AppDispatchers
+) {
+
+    fun changes(): Flow<TaskChangeSet> = flow {
+        val invalidations = Channel<Unit>(Channel.CONFLATED)
+        val observer = object : InvalidationTracker.Observer(TASKS_TABLE) {
+            override fun onInvalidated(tables: Set<String>) {
+                invalidations.trySend(Unit)
+            }
+        }
+        // Registered before the first read, so a write racing it still triggers a diff
+        database.invalidationTracker.addObserver(observer)
+        try {
+            val tracker = TaskChangeTracker()
+            emit(DomainTrace.asyncSection("TaskChangeFeed.reset") { tracker.reset(taskDao.getVisibleTasks()) })
+            for (signal in invalidations) {
+                emit(DomainTrace.asyncSection("TaskChangeFeed.diff") { readChanges(tracker) })
+            }
+        } finally {
+            database.invalidationTracker.removeObserver(observer)
+        }
+    }.flowOn(dispatchers.cpu)
+
+    private suspend fun readChanges(tracker: TaskChangeTracker): TaskChangeSet {
+        val diff = tracker.diff(taskDao.getVisibleTaskStamps())
+        val rows = diff.changedIds.chunked(MAX_BIND_ARGS).flatMap { taskDao.getVisibleTasksByIds(it) }
+        return tracker.commit(diff, rows)
+    }
+
+    private companion object {
+        const val TASKS_TABLE = "tasks"
+
+        // SQLite's default bound-parameter limit is 999
+        const val MAX_BIND_ARGS = 900
+    }
+}
@@ -2,68 +2,132 @@ package com.pharma.taskmanager.data.repository
 
 import com.pharma.taskmanager.data.database.TaskDao
 import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.changes.TaskChangeSet
 import com.pharma.taskmanager.domain.repository.TaskRepository as TaskRepositoryInterface
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.domain.tracing.traceEmissions
 import kotlinx.coroutines.flow.Flow
 import javax.inject.Inject
 import javax.inject.Singleton
 
 @Singleton
 class TaskRepositoryImpl @Inject constructor(
-    private val taskDao: TaskDao
+    private val taskDao: TaskDao,
+    private val taskCache: TaskCache,
+    private val taskChangeFeed: TaskChangeFeed
 ) : TaskRepositoryInterface {
     
     // Basic CRUD operations - implementing interface methods
-    override suspend fun addTask(task: TaskEntity): Long = taskDao.insertTask(task)
-    
-    override suspend fun updateTask(task: TaskEntity) = taskDao.updateTask(task)
-    
-    override suspend fun deleteTask(task: TaskEntity) = taskDao.deleteTask(task)
-    
-    override fun getAllTasks(): Flow<List<TaskEntity>> = taskDao.getAllTasks()
-    
-    override suspend fun getTaskById(id: Int): TaskEntity? = taskDao.getTaskById(id)
+    // insertTask uses REPLACE, so an insert can overwrite a cached row
+    override suspend fun addTask(task: TaskEntity): Long =
+        DomainTrace.asyncSection("TaskRepository.addTask") {
+            taskDao.insertTask(task.withCompletionTime()).also { id -> taskCache.invalidate(id.toInt()) }
+        }
+    
+    override suspend fun updateTask(task: TaskEntity) =
+        DomainTrace.asyncSection("TaskRepository.updateTask") {
+            // Move the clock here rather than leave it to the trigger, so the cached copy matches the row
+            val stamped = task.withCompletionTime().copy(updatedAt = maxOf(task.updatedAt + 1, System.currentTimeMillis()))
+            taskDao.updateTask(stamped)
+            taskCache.write(stamped)
+        }
+    
+    override suspend fun deleteTask(task: TaskEntity) =
+        DomainTrace.asyncSection("TaskRepository.deleteTask") {
+            taskDao.softDeleteTask(task.id, System.currentTimeMillis())
+            taskCache.invalidate(task.id)
+        }
+    
+    override suspend fun restoreTask(id: Int) =
+        DomainTrace.asyncSection("TaskRepository.restoreTask") {
+            taskDao.restoreTask(id)
+            taskCache.invalidate(id)
+        }
+    
+    override suspend fun purgeDeletedTasks(olderThan: Long, batchSize: Int): List<Int> =
+        DomainTrace.asyncSection("TaskRepository.purgeDeletedTasks") {
+            val ids = taskDao.getTombstoneIds(olderThan, batchSize)
+            if (ids.isNotEmpty()) taskDao.purgeTombstones(ids)
+            ids
+        }
+    
+    override fun getAllTasks(): Flow<List<TaskEntity>> =
+        taskDao.getAllTasks().traceEmissions("TaskRepository.getAllTasks")
+    
+    override fun observeTaskChanges(): Flow<TaskChangeSet> =
+        taskChangeFeed.changes().traceEmissions("TaskRepository.observeTaskChanges")
+    
+    override suspend fun getTaskById(id: Int): TaskEntity? {
+        taskCache.get(id)?.let { return it }
+        return DomainTrace.asyncSection("TaskRepository.getTaskById") {
+            val generation = taskCache.generation()
+            taskDao.getTaskById(id)?.also { taskCache.putIfUnchanged(it, generation) }
+        }
+    }
     
     // Filter operations - implementing interface methods
-    override fun getTasksByStatus(status: String): Flow<List<TaskEntity>> = taskDao.getTasksByStatus(status)
+    override fun getTasksByStatus(status: String): Flow<List<TaskEntity>> =
+        taskDao.getTasksByStatus(status).traceEmissions("TaskRepository.getTasksByStatus")
     
-    override fun getTasksByPriority(priority: Int): Flow<List<TaskEntity>> = taskDao.getTasksByPriority(priority)
+    override fun getTasksByPriority(priority: Int): Flow<List<TaskEntity>> =
+        taskDao.getTasksByPriority(priority).traceEmissions("TaskRepository.getTasksByPriority")
     
     fun getTasksByStatusAndPriority(status: String, priority: Int): Flow<List<TaskEntity>> = 
-        taskDao.getTasksByStatusAndPriority(status, priority)
+        taskDao.getTasksByStatusAndPriority(status, priority).traceEmissions("TaskRepository.getTasksByStatusAndPriority")
     
     // Convenience methods - implementing interface methods
-    override fun getPendingTasks(): Flow<List<TaskEntity>> = taskDao.getPendingTasks()
+    override fun getPendingTasks(): Flow<List<TaskEntity>> =
+        taskDao.getPendingTasks().traceEmissions("TaskRepository.getPendingTasks")
     
-    override fun getCompletedTasks(): Flow<List<TaskEntity>> = taskDao.getCompletedTasks()
+    override fun getCompletedTasks(): Flow<List<TaskEntity>> =
+        taskDao.getCompletedTasks().traceEmissions("TaskRepository.getCompletedTasks")
     
     // Due and reminder tasks - implementing interface methods
-    override fun getDueTasks(timestamp: Long): Flow<List<TaskEntity>> = taskDao.getDueTasks(timestamp)
+    override fun getDueTasks(timestamp: Long): Flow<List<TaskEntity>> =
+        taskDao.getDueTasks(timestamp).traceEmissions("TaskRepository.getDueTasks")
     
-    override fun getTasksWithReminders(): Flow<List<TaskEntity>> = taskDao.getTasksWithReminders()
+    override fun getTasksWithReminders(): Flow<List<TaskEntity>> =
+        taskDao.getTasksWithReminders().traceEmissions("TaskRepository.getTasksWithReminders")
     
     suspend fun getTasksWithRemindersDue(timestamp: Long): List<TaskEntity> = 
-        taskDao.getTasksWithRemindersDue(timestamp)
+        DomainTrace.asyncSection("TaskRepository.getTasksWithRemindersDue") { taskDao.getTasksWithRemindersDue(timestamp) }
     
     // Search functionality - implementing interface methods
     override fun searchTasks(searchQuery: String): Flow<List<TaskEntity>> = 
-        taskDao.searchTasks("%$searchQuery%")
+        taskDao.searchTasks("%$searchQuery%").traceEmissions("TaskRepository.searchTasks")
     
     // Status updates - implementing interface methods
-    override suspend fun updateTaskStatus(id: Int, status: String) = taskDao.updateTaskStatus(id, status)
+    override suspend fun updateTaskStatus(id: Int, status: String) =
+        DomainTrace.asyncSection("TaskRepository.updateTaskStatus") {
+            taskDao.updateTaskStatus(id, status, System.currentTimeMillis())
+            taskCache.invalidate(id)
+        }
     
-    suspend fun markTaskAsCompleted(id: Int) = taskDao.updateTaskStatus(id, "completed")
+    suspend fun markTaskAsCompleted(id: Int) = updateTaskStatus(id, "completed")
     
-    suspend fun markTaskAsPending(id: Int) = taskDao.updateTaskStatus(id, "pending")
+    suspend fun markTaskAsPending(id: Int) = updateTaskStatus(id, "pending")
     
     // Bulk operations - implementing interface methods
-    override suspend fun deleteCompletedTasks() = taskDao.deleteCompletedTasks()
+    override suspend fun deleteCompletedTasks() =
+        DomainTrace.asyncSection("TaskRepository.deleteCompletedTasks") {
+            taskDao.softDeleteCompletedTasks(System.currentTimeMillis())
+            taskCache.invalidateAll()
+        }
     
     // Statistics - implementing interface methods
-    override suspend fun getTaskCountByStatus(status: String): Int = taskDao.getTaskCountByStatus(status)
+    override suspend fun getTaskCountByStatus(status: String): Int =
+        DomainTrace.asyncSection("TaskRepository.getTaskCountByStatus") { taskDao.getTaskCountByStatus(status) }
+    
+    suspend fun getPendingTaskCount(): Int = getTaskCountByStatus("pending")
     
-    suspend fun getPendingTaskCount(): Int = taskDao.getTaskCountByStatus("pending")
+    suspend fun getCompletedTaskCount(): Int = getTaskCountByStatus("completed")
     
-    suspend fun getCompletedTaskCount(): Int = taskDao.getTaskCountByStatus("completed")
+    // completedAt drives archiving, so keep it in step with status on full-row writes too
+    private fun TaskEntity.withCompletionTime(): TaskEntity = when {
+        status == STATUS_COMPLETED && completedAt == null -> copy(completedAt = System.currentTimeMillis())
+        status != STATUS_COMPLETED && completedAt != null -> copy(completedAt = null)
+        else -> this
+    }
     
     // Helper methods for priority
     companion object {
@@ -74,4 +138,4 @@ class TaskRepositoryImpl @Inject constructor(
         const val STATUS_PENDING = "pending"
         const val STATUS_COMPLETED = "completed"
     }
-}
\ No newline at end of file
+}
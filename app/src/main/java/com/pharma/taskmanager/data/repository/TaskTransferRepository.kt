@@ -0,0 +1,55 @@
+package com.pharma.taskmanager.data.repository
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskDao
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.domain.transfer.TaskRecordReader
+import com.pharma.taskmanager.domain.transfer.TaskRecordWriter
+import com.pharma.taskmanager.domain.transfer.TaskTransfer
+import com.pharma.taskmanager.utils.ReminderScheduler
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Bulk export and import of the tasks table. Both directions go through the database a
+ * chunk at a time, so a million-row file needs no more memory than a hundred-row one.
+ */
+@Singleton
+class TaskTransferRepository @Inject constructor(
+    private val taskDao: TaskDao,
+    private val reminderScheduler: ReminderScheduler
+) {
+
+    /** Write every live task to [writer] in id order. Returns the number of rows written. */
+    suspend fun export(writer: TaskRecordWriter, onProgress: suspend (Long) -> Unit = {}): Long =
+        DomainTrace.asyncSection("TaskTransferRepository.export") {
+            TaskTransfer.export(writer, EXPORT_CHUNK_SIZE, taskDao::getTasksAfterId, onProgress)
+        }
+
+    /**
+     * Insert every valid record from [reader] as a new task, one transaction per batch.
+     * Pending tasks with a future reminder get it armed, as if they were created here.
+     */
+    suspend fun import(
+        reader: TaskRecordReader,
+        onProgress: suspend (TaskTransfer.ImportResult) -> Unit = {}
+    ): TaskTransfer.ImportResult = DomainTrace.asyncSection("TaskTransferRepository.import") {
+        TaskTransfer.import(reader, IMPORT_BATCH_SIZE, insertBatch = { batch ->
+            val ids = taskDao.insertTasks(batch)
+            val now = System.currentTimeMillis()
+            batch.forEachIndexed { index, task ->
+                val reminder = task.reminderTime
+                if (reminder != null && reminder > now && task.status == TaskConstants.STATUS_PENDING) {
+                    reminderScheduler.scheduleReminder(ids[index].toInt(), reminder)
+                }
+            }
+        }, onProgress = onProgress)
+    }
+
+    companion object {
+        // Big enough to amortise per-query and per-transaction overhead, small enough that
+        // a batch never holds the write lock long enough to stall the UI's queries
+        const val EXPORT_CHUNK_SIZE = 1_000
+        const val IMPORT_BATCH_SIZE = 1_000
+    }
+}
@@ -0,0 +1,121 @@
+package com.pharma.taskmanager.data.repository
+
+import android.content.Context
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.graphics.Color
+import android.graphics.pdf.PdfRenderer
+import android.media.ThumbnailUtils
+import android.os.ParcelFileDescriptor
+import android.util.LruCache
+import com.pharma.taskmanager.data.database.AttachmentEntity
+import com.pharma.taskmanager.domain.attachments.BoundedFileCache
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.withContext
+import java.io.File
+import java.nio.channels.Channels
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Square thumbnails of image and PDF attachments, in two bounded tiers: decoded bitmaps
+ * in a memory LRU sized by bytes, and JPEGs in cacheDir/thumbnails under a disk budget.
+ * Entries are keyed by content hash and size, so they never go stale and attachments
+ * sharing a blob share a thumbnail.
+ *
+ * Only [peek] may run on the main thread; it never touches the disk. [load] decodes on the
+ * file I/O pool, rendering from the blob (sampled down, never at full size) on a miss.
+ */
+@Singleton
+class ThumbnailCache @Inject constructor(
+    @ApplicationContext context: Context,
+    private val attachmentRepository: AttachmentRepository,
+    private val dispatchers: AppDispatchers
+) {
+
+    private val memory = object : LruCache<String, Bitmap>(MEMORY_BYTES) {
+        override fun sizeOf(key: String, value: Bitmap): Int = value.byteCount
+    }
+
+    private val disk = BoundedFileCache(File(context.cacheDir, DISK_DIR), DISK_BYTES)
+
+    fun peek(attachment: AttachmentEntity, sizePx: Int): Bitmap? = memory.get(keyOf(attachment, sizePx))
+
+    /** The thumbnail, or null for types without one or a blob that is gone. */
+    suspend fun load(attachment: AttachmentEntity, sizePx: Int): Bitmap? {
+        val key = keyOf(attachment, sizePx)
+        memory.get(key)?.let { return it }
+        return withContext(dispatchers.io) {
+            DomainTrace.asyncSection("ThumbnailCache.load") {
+                val bitmap = disk.get(key)?.let { BitmapFactory.decodeFile(it.path) }
+                    ?: render(attachment, sizePx)?.also { rendered ->
+                        disk.put(key) { channel ->
+                            Channels.newOutputStream(channel).buffered().use {
+                                rendered.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, it)
+                            }
+                        }
+                    }
+                bitmap?.also { memory.put(key, it) }
+            }
+        }
+    }
+
+    private fun render(attachment: AttachmentEntity, sizePx: Int): Bitmap? {
+        val file = attachmentRepository.fileOf(attachment)
+        if (!file.exists()) return null
+        return try {
+            when {
+                attachment.mimeType.startsWith("image/") -> renderImage(file, sizePx)
+                attachment.mimeType == "application/pdf" -> renderPdf(file, sizePx)
+                else -> null
+            }
+        } catch (e: Exception) {
+            AppLog.e(TAG, e) { "❌ Thumbnail failed for ${attachment.mimeType}: ${e.message}" }
+            null
+        }
+    }
+
+    // Decode at the smallest power-of-two sample that still covers the thumbnail, then crop
+    private fun renderImage(file: File, sizePx: Int): Bitmap? {
+        val bounds = BitmapFactory.Options().apply { inJustDecodeBounds = true }
+        BitmapFactory.decodeFile(file.path, bounds)
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) return null
+        var sample = 1
+        while (minOf(bounds.outWidth, bounds.outHeight) / (sample * 2) >= sizePx) sample *= 2
+        val decoded = BitmapFactory.decodeFile(file.path, BitmapFactory.Options().apply { inSampleSize = sample })
+            ?: return null
+        return ThumbnailUtils.extractThumbnail(decoded, sizePx, sizePx, ThumbnailUtils.OPTIONS_RECYCLE_INPUT)
+    }
+
+    // First page, fitted into the square on white (PDF pages are transparent)
+    private fun renderPdf(file: File, sizePx: Int): Bitmap? =
+        PdfRenderer(ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY)).use { renderer ->
+            if (renderer.pageCount == 0) return null
+            renderer.openPage(0).use { page ->
+                val scale = sizePx.toFloat() / maxOf(page.width, page.height)
+                val bitmap = Bitmap.createBitmap(
+                    maxOf(1, (page.width * scale).toInt()),
+                    maxOf(1, (page.height * scale).toInt()),
+                    Bitmap.Config.ARGB_8888
+                )
+                bitmap.eraseColor(Color.WHITE)
+                page.render(bitmap, null, null, PdfRenderer.Page.RENDER_MODE_FOR_DISPLAY)
+                bitmap
+            }
+        }
+
+    private fun keyOf(attachment: AttachmentEntity, sizePx: Int) = "${attachment.sha256}_$sizePx"
+
+    private companion object {
+        const val TAG = "ThumbnailCache"
+        const val DISK_DIR = "thumbnails"
+        const val DISK_BYTES = 32L * 1024 * 1024
+        const val JPEG_QUALITY = 85
+
+        // An eighth of the heap, capped: enough for a few screens of thumbnails
+        val MEMORY_BYTES = minOf(Runtime.getRuntime().maxMemory() / 8, 16L * 1024 * 1024).toInt()
+    }
+}
@@ -2,10 +2,23 @@ package com.pharma.taskmanager.di
 
 import android.content.Context
 import androidx.room.Room
+import com.pharma.taskmanager.data.database.ArchiveDao
+import com.pharma.taskmanager.data.database.AttachmentDao
+import com.pharma.taskmanager.data.database.ChecklistDao
+import com.pharma.taskmanager.data.database.Migrations
+import com.pharma.taskmanager.data.database.ReminderMetricDao
+import com.pharma.taskmanager.data.database.SnapshotDao
+import com.pharma.taskmanager.data.database.SyncDao
+import com.pharma.taskmanager.data.database.TagDao
+import com.pharma.taskmanager.data.database.TaskChangeLog
 import com.pharma.taskmanager.data.database.TaskDao
 import com.pharma.taskmanager.data.database.TaskManagerDatabase
+import com.pharma.taskmanager.data.database.useDispatchers
 import com.pharma.taskmanager.data.repository.TaskRepositoryImpl
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.mutation.TaskMutationEffects
 import com.pharma.taskmanager.domain.repository.TaskRepository
+import com.pharma.taskmanager.utils.ReminderMutationEffects
 import dagger.Binds
 import dagger.Module
 import dagger.Provides
@@ -24,21 +37,27 @@ import javax.inject.Singleton
 object DatabaseModule {
     
     /**
-     * Provides the Room database instance.
+     * Provides the Room database instance, the only one in the process, so one
+     * InvalidationTracker sees every write (TaskCache depends on it).
      * @param context Application context for database creation
+     * @param dispatchers Pools Room runs its queries and transactions on
      * @return TaskManagerDatabase singleton instance
      */
     @Provides
     @Singleton
     fun provideTaskManagerDatabase(
-        @ApplicationContext context: Context
+        @ApplicationContext context: Context,
+        dispatchers: AppDispatchers
     ): TaskManagerDatabase {
         return Room.databaseBuilder(
             context.applicationContext,
             TaskManagerDatabase::class.java,
             TaskManagerDatabase.DATABASE_NAME
         )
+            .addMigrations(*Migrations.ALL)
+            .addCallback(TaskChangeLog.CALLBACK)
             .fallbackToDestructiveMigration() // For development - remove in production
+            .useDispatchers(dispatchers)
             .build()
     }
     
@@ -52,6 +71,41 @@ object DatabaseModule {
         return database.taskDao()
     }
     
+    @Provides
+    fun provideReminderMetricDao(database: TaskManagerDatabase): ReminderMetricDao {
+        return database.reminderMetricDao()
+    }
+    
+    @Provides
+    fun provideArchiveDao(database: TaskManagerDatabase): ArchiveDao {
+        return database.archiveDao()
+    }
+    
+    @Provides
+    fun provideSnapshotDao(database: TaskManagerDatabase): SnapshotDao {
+        return database.snapshotDao()
+    }
+    
+    @Provides
+    fun provideSyncDao(database: TaskManagerDatabase): SyncDao {
+        return database.syncDao()
+    }
+    
+    @Provides
+    fun provideTagDao(database: TaskManagerDatabase): TagDao {
+        return database.tagDao()
+    }
+    
+    @Provides
+    fun provideChecklistDao(database: TaskManagerDatabase): ChecklistDao {
+        return database.checklistDao()
+    }
+    
+    @Provides
+    fun provideAttachmentDao(database: TaskManagerDatabase): AttachmentDao {
+        return database.attachmentDao()
+    }
+    
     @Provides
     @Singleton
     fun provideNotificationHelper(
@@ -80,4 +134,13 @@ abstract class RepositoryModule {
     abstract fun bindTaskRepository(
         taskRepositoryImpl: TaskRepositoryImpl
     ): TaskRepository
+    
+    /**
+     * Binds the reminder side effects run after each TaskMutationDispatcher write.
+     */
+    @Binds
+    @Singleton
+    abstract fun bindTaskMutationEffects(
+        reminderMutationEffects: ReminderMutationEffects
+    ): TaskMutationEffects
 }
\ No newline at end of file
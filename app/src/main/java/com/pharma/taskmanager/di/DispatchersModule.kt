@@ -0,0 +1,28 @@
+package com.pharma.taskmanager.di
+
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import kotlinx.coroutines.Dispatchers
+import dagger.Module
+import dagger.Provides
+import dagger.hilt.InstallIn
+import dagger.hilt.components.SingletonComponent
+import javax.inject.Singleton
+
+/**
+ * Hilt module that provides the coroutine dispatchers.
+ * Tests can replace it with @TestInstallIn to run on test dispatchers.
+ */
+@Module
+@InstallIn(SingletonComponent::class)
+object DispatchersModule {
+    
+    /**
+     * Provides the production pools, one set per process. Room's executors, receivers and
+     * the widget all get them from here, so replacing this module reaches every one of them.
+     */
+    @Provides
+    @Singleton
+    fun provideAppDispatchers(): AppDispatchers {
+        return AppDispatchers.create(Dispatchers.Main)
+    }
+}
@@ -0,0 +1,54 @@
+package com.pharma.taskmanager.di
+
+import android.content.Context
+import com.pharma.taskmanager.data.repository.RoomSyncStore
+import com.pharma.taskmanager.domain.sync.LoopbackSyncServer
+import com.pharma.taskmanager.domain.sync.SyncEngine
+import com.pharma.taskmanager.domain.sync.SyncTransport
+import dagger.Module
+import dagger.Provides
+import dagger.hilt.InstallIn
+import dagger.hilt.android.qualifiers.ApplicationContext
+import dagger.hilt.components.SingletonComponent
+import java.util.UUID
+import javax.inject.Singleton
+
+/**
+ * Hilt module for task sync: the engine over the Room change log, and its transport.
+ */
+@Module
+@InstallIn(SingletonComponent::class)
+object SyncModule {
+
+    private const val PREFS_NAME = "sync"
+    private const val KEY_DEVICE_ID = "device_id"
+
+    /**
+     * There is no sync backend yet, so the transport is the in-process loopback server:
+     * the whole pipeline (triggers, codec, conflict handling) runs, but nothing leaves the
+     * device. Swap this binding for a network transport once a server exists.
+     */
+    @Provides
+    @Singleton
+    fun provideSyncTransport(): SyncTransport {
+        return LoopbackSyncServer()
+    }
+
+    @Provides
+    @Singleton
+    fun provideSyncEngine(
+        @ApplicationContext context: Context,
+        store: RoomSyncStore,
+        transport: SyncTransport
+    ): SyncEngine {
+        return SyncEngine(store, transport, deviceId(context))
+    }
+
+    // Stable per install; the server uses it to keep a device's own changes out of its pulls
+    private fun deviceId(context: Context): String {
+        val prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+        return prefs.getString(KEY_DEVICE_ID, null) ?: UUID.randomUUID().toString().also {
+            prefs.edit().putString(KEY_DEVICE_ID, it).apply()
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.pharma.taskmanager.logging
+
+import com.pharma.taskmanager.BuildConfig
+import java.text.SimpleDateFormat
+import java.util.Date
+import java.util.Locale
+
+/**
+ * Logging facade with lazily built messages and structured key/value fields.
+ *
+ * The message lambda (and any [LogFields.field] calls inside it) only runs when the
+ * level is enabled. Debug and verbose calls are inlined behind `if (BuildConfig.DEBUG)`;
+ * the flag is not a compile-time constant, but it is a static final `false` in release, so
+ * R8 folds the branch and drops the call together with its string building.
+ *
+ * ```
+ * AppLog.d(TAG) {
+ *     field("taskId", taskId)
+ *     field("at", AppLog.time(reminderTime))
+ *     "Scheduling reminder"
+ * }
+ * ```
+ */
+object AppLog {
+    
+    @Volatile
+    var sinks: List<LogSink> = listOf(LogcatSink)
+    
+    inline fun v(tag: String, message: LogFields.() -> String) {
+        if (BuildConfig.DEBUG) emit(LogLevel.VERBOSE, tag, null, message)
+    }
+    
+    inline fun d(tag: String, message: LogFields.() -> String) {
+        if (BuildConfig.DEBUG) emit(LogLevel.DEBUG, tag, null, message)
+    }
+    
+    inline fun i(tag: String, message: LogFields.() -> String) {
+        emit(LogLevel.INFO, tag, null, message)
+    }
+    
+    inline fun w(tag: String, throwable: Throwable? = null, message: LogFields.() -> String) {
+        emit(LogLevel.WARN, tag, throwable, message)
+    }
+    
+    inline fun e(tag: String, throwable: Throwable? = null, message: LogFields.() -> String) {
+        emit(LogLevel.ERROR, tag, throwable, message)
+    }
+    
+    @PublishedApi
+    internal inline fun emit(level: LogLevel, tag: String, throwable: Throwable?, message: LogFields.() -> String) {
+        val fields = LogFields()
+        val text = fields.message()
+        dispatch(LogEvent(System.currentTimeMillis(), level, tag, text, fields.values, throwable))
+    }
+    
+    @PublishedApi
+    internal fun dispatch(event: LogEvent) {
+        for (sink in sinks) {
+            sink.write(event)
+        }
+    }
+    
+    private val timeFormat = object : ThreadLocal<SimpleDateFormat>() {
+        override fun initialValue() = SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US)
+    }
+    
+    /**
+     * Human readable timestamp for a field value; only call it inside a message lambda.
+     */
+    fun time(millis: Long?): String = millis?.let { timeFormat.get()!!.format(Date(it)) } ?: "none"
+}
+
+enum class LogLevel(val symbol: Char) {
+    VERBOSE('V'), DEBUG('D'), INFO('I'), WARN('W'), ERROR('E')
+}
+
+/**
+ * Receiver of the message lambda, collects structured fields for the event.
+ */
+class LogFields {
+    
+    @PublishedApi
+    internal val values = LinkedHashMap<String, Any?>(4)
+    
+    fun field(key: String, value: Any?) {
+        values[key] = value
+    }
+}
+
+data class LogEvent(
+    val timestamp: Long,
+    val level: LogLevel,
+    val tag: String,
+    val message: String,
+    val fields: Map<String, Any?>,
+    val throwable: Throwable? = null
+) {
+    /**
+     * `message key=value key=value`, as written to logcat and the ring buffer dump.
+     */
+    fun formatMessage(): String {
+        if (fields.isEmpty()) return message
+        return buildString {
+            append(message)
+            for ((key, value) in fields) {
+                append(' ').append(key).append('=').append(value)
+            }
+        }
+    }
+}
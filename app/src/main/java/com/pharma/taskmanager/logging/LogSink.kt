@@ -0,0 +1,69 @@
+package com.pharma.taskmanager.logging
+
+import android.util.Log
+
+/**
+ * Destination for [AppLog] events. Implementations must be thread-safe.
+ */
+interface LogSink {
+    fun write(event: LogEvent)
+}
+
+object LogcatSink : LogSink {
+    
+    override fun write(event: LogEvent) {
+        val message = event.formatMessage()
+        when (event.level) {
+            LogLevel.VERBOSE -> Log.v(event.tag, message, event.throwable)
+            LogLevel.DEBUG -> Log.d(event.tag, message, event.throwable)
+            LogLevel.INFO -> Log.i(event.tag, message, event.throwable)
+            LogLevel.WARN -> Log.w(event.tag, message, event.throwable)
+            LogLevel.ERROR -> Log.e(event.tag, message, event.throwable)
+        }
+    }
+}
+
+/**
+ * Keeps the last [capacity] events in memory so recent reminder history can be
+ * inspected (and copied) from the Diagnostics screen without logcat.
+ */
+class RingBufferLogSink(private val capacity: Int = DEFAULT_CAPACITY) : LogSink {
+    
+    private val buffer = arrayOfNulls<LogEvent>(capacity)
+    private var next = 0
+    private var size = 0
+    
+    @Synchronized
+    override fun write(event: LogEvent) {
+        buffer[next] = event
+        next = (next + 1) % capacity
+        if (size < capacity) size++
+    }
+    
+    /**
+     * Buffered events, oldest first.
+     */
+    @Synchronized
+    fun snapshot(): List<LogEvent> {
+        val start = (next - size + capacity) % capacity
+        return List(size) { buffer[(start + it) % capacity]!! }
+    }
+    
+    @Synchronized
+    fun clear() {
+        buffer.fill(null)
+        next = 0
+        size = 0
+    }
+    
+    fun dump(): String = snapshot().joinToString(separator = "\n") { event ->
+        "${AppLog.time(event.timestamp)} ${event.level.symbol}/${event.tag}: ${event.formatMessage()}"
+    }
+    
+    companion object {
+        const val DEFAULT_CAPACITY = 500
+        
+        // Installed by TaskManagerApplication in debug builds only
+        val shared = RingBufferLogSink()
+    }
+}
@@ -25,6 +25,14 @@ fun NavController.navigateToTaskCreate(navOptions: NavOptions? = null) {
     navigate(Screen.TaskCreate.route, navOptions)
 }
 
+fun NavController.navigateToHistory(navOptions: NavOptions? = null) {
+    navigate(Screen.History.route, navOptions)
+}
+
+fun NavController.navigateToDiagnostics(navOptions: NavOptions? = null) {
+    navigate(Screen.Diagnostics.route, navOptions)
+}
+
 fun NavController.navigateToEditTask(taskId: Int, navOptions: NavOptions? = null) {
     navigate("edit_task/$taskId", navOptions)
 }
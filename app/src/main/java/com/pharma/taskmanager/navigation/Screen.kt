@@ -7,4 +7,6 @@ sealed class Screen(val route: String) {
         fun createTaskDetailRoute(taskId: Int): String = "task_detail/$taskId"
     }
     object TaskCreate : Screen("task_create")
+    object History : Screen("history")
+    object Diagnostics : Screen("diagnostics")
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import androidx.navigation.compose.NavHost
 import androidx.navigation.compose.composable
 import androidx.navigation.navArgument
 import androidx.navigation.navDeepLink
+import com.pharma.taskmanager.ui.screens.diagnostics.DiagnosticsScreen
+import com.pharma.taskmanager.ui.screens.history.HistoryScreen
 import com.pharma.taskmanager.ui.screens.home.HomeScreen
 import com.pharma.taskmanager.ui.screens.tasks.TaskListScreen
 import com.pharma.taskmanager.ui.screens.tasks.TaskDetailScreen
@@ -29,6 +31,15 @@ fun TaskManagerNavGraph(
             HomeScreen(
                 onNavigateToTasks = {
                     navController.navigate(Screen.TaskList.route)
+                },
+                onNavigateToHistory = {
+                    navController.navigate(Screen.History.route)
+                },
+                onNavigateToDiagnostics = {
+                    navController.navigate(Screen.Diagnostics.route)
+                },
+                onNavigateToTaskDetail = { taskId ->
+                    navController.navigate(Screen.TaskDetail.createTaskDetailRoute(taskId))
                 }
             )
         }
@@ -82,6 +93,24 @@ fun TaskManagerNavGraph(
             )
         }
         
+        // Archived (completed) tasks, paged from archived_tasks
+        composable(Screen.History.route) {
+            HistoryScreen(
+                onNavigateBack = {
+                    navController.popBackStack()
+                }
+            )
+        }
+        
+        // Developer diagnostics (only reachable from debug builds)
+        composable(Screen.Diagnostics.route) {
+            DiagnosticsScreen(
+                onNavigateBack = {
+                    navController.popBackStack()
+                }
+            )
+        }
+        
         // Legacy Edit Task Screen (keeping for backward compatibility)
         composable("edit_task/{taskId}") { backStackEntry ->
             val taskId = backStackEntry.arguments?.getString("taskId")?.toIntOrNull()
@@ -0,0 +1,31 @@
+package com.pharma.taskmanager.receivers
+
+import android.content.BroadcastReceiver
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import kotlin.coroutines.CoroutineContext
+
+/**
+ * goAsync leaves ~10 s before the broadcast is declared stuck; work that can overrun wraps
+ * itself in `withTimeoutOrNull(BROADCAST_BUDGET_MILLIS)` and decides what a timeout means.
+ */
+const val BROADCAST_BUDGET_MILLIS = 8_000L
+
+// Outlives a single onReceive: the pending result is what keeps the process alive
+private val broadcastScope = CoroutineScope(SupervisorJob())
+
+/**
+ * Run [block] on [context] after onReceive returns, holding the broadcast open with
+ * [BroadcastReceiver.goAsync] until it completes, fails or is cancelled.
+ */
+fun BroadcastReceiver.goAsync(context: CoroutineContext, block: suspend CoroutineScope.() -> Unit) {
+    val pending = goAsync()
+    broadcastScope.launch(context) {
+        try {
+            block()
+        } finally {
+            pending.finish()
+        }
+    }
+}
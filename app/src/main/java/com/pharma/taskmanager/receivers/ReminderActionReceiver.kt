@@ -0,0 +1,103 @@
+package com.pharma.taskmanager.receivers
+
+import android.app.PendingIntent
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.os.Process
+import android.os.SystemClock
+import androidx.core.app.NotificationManagerCompat
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.utils.TaskQuickActions
+import dagger.hilt.android.AndroidEntryPoint
+import kotlinx.coroutines.withTimeoutOrNull
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+
+/**
+ * Complete and Snooze on reminder notifications, handled without any UI: one conditional
+ * UPDATE through [TaskQuickActions], reminders cancelled or re-armed, the ringing service
+ * stopped and the notification removed. The work runs under [goAsync] and is cut off at
+ * [BROADCAST_BUDGET_MILLIS], inside the broadcast timeout.
+ *
+ * Each action logs its latency from receipt to done, and from process start when the tap
+ * had to start the process, and is traced as "ReminderAction:<action>".
+ */
+@AndroidEntryPoint
+class ReminderActionReceiver : BroadcastReceiver() {
+
+    @Inject
+    lateinit var taskQuickActions: TaskQuickActions
+
+    @Inject
+    lateinit var dispatchers: AppDispatchers
+
+    override fun onReceive(context: Context, intent: Intent) {
+        super.onReceive(context, intent) // Hilt injects here
+        val receivedAt = SystemClock.elapsedRealtime()
+        val action = intent.action ?: return
+        val taskId = intent.getIntExtra(EXTRA_TASK_ID, -1)
+        if (taskId <= 0 || action !in ACTIONS) return
+
+        val cookie = DomainTrace.nextCookie()
+        DomainTrace.beginAsync("ReminderAction:$action", cookie)
+        goAsync(dispatchers.reminders) {
+            try {
+                val done = withTimeoutOrNull(BROADCAST_BUDGET_MILLIS) { handle(action, taskId) }
+                NotificationManagerCompat.from(context).cancel(taskId)
+                val finishedAt = SystemClock.elapsedRealtime()
+                val processStart = Process.getStartElapsedRealtime()
+                AppLog.d(TAG) {
+                    field("action", action)
+                    field("taskId", taskId)
+                    field("result", done ?: "timeout")
+                    field("handledMs", finishedAt - receivedAt)
+                    // A tap that had to start the process pays for it too
+                    if (receivedAt - processStart < COLD_START_WINDOW_MILLIS) field("sinceProcessStartMs", finishedAt - processStart)
+                    "🔔 Reminder action handled"
+                }
+            } catch (e: Exception) {
+                AppLog.e(TAG, e) { "❌ Reminder action $action failed for task $taskId: ${e.message}" }
+            } finally {
+                DomainTrace.endAsync("ReminderAction:$action", cookie)
+            }
+        }
+    }
+
+    private suspend fun handle(action: String, taskId: Int): String = when (action) {
+        ACTION_COMPLETE -> {
+            taskQuickActions.complete(taskId).getOrThrow()
+            "completed"
+        }
+        else -> {
+            val until = System.currentTimeMillis() + SNOOZE_MILLIS
+            if (taskQuickActions.snooze(taskId, until)) "snoozed" else "not pending"
+        }
+    }
+
+    companion object {
+        private const val TAG = "ReminderActionReceiver"
+        const val ACTION_COMPLETE = "com.pharma.taskmanager.action.COMPLETE_TASK"
+        const val ACTION_SNOOZE = "com.pharma.taskmanager.action.SNOOZE_REMINDER"
+        private const val EXTRA_TASK_ID = "task_id"
+        private val ACTIONS = setOf(ACTION_COMPLETE, ACTION_SNOOZE)
+
+        val SNOOZE_MILLIS = TimeUnit.MINUTES.toMillis(10)
+
+        private const val COLD_START_WINDOW_MILLIS = 5_000L
+
+        fun completeIntent(context: Context, taskId: Int): PendingIntent = pendingIntent(context, taskId, ACTION_COMPLETE)
+
+        fun snoozeIntent(context: Context, taskId: Int): PendingIntent = pendingIntent(context, taskId, ACTION_SNOOZE)
+
+        // The action is part of the PendingIntent's identity, so both can share the task id as request code
+        private fun pendingIntent(context: Context, taskId: Int, action: String): PendingIntent = PendingIntent.getBroadcast(
+            context,
+            taskId,
+            Intent(context, ReminderActionReceiver::class.java).setAction(action).putExtra(EXTRA_TASK_ID, taskId),
+            PendingIntent.FLAG_UPDATE_CURRENT or PendingIntent.FLAG_IMMUTABLE
+        )
+    }
+}
@@ -3,17 +3,21 @@ package com.pharma.taskmanager.receivers
 import android.content.BroadcastReceiver
 import android.content.Context
 import android.content.Intent
-import android.util.Log
 import androidx.work.Data
 import androidx.work.OneTimeWorkRequestBuilder
 import androidx.work.WorkManager
-import com.pharma.taskmanager.data.database.TaskManagerDatabase
+import com.pharma.taskmanager.data.database.TaskDao
 import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.data.repository.ReminderMetricsRepository
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.metrics.ReminderDeliveryPath
+import com.pharma.taskmanager.domain.reminder.ReminderOrdering
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
 import com.pharma.taskmanager.workers.TaskReminderWorker
-import kotlinx.coroutines.CoroutineScope
-import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.launch
+import dagger.hilt.android.AndroidEntryPoint
 import kotlinx.coroutines.withContext
+import javax.inject.Inject
 
 /**
  * BroadcastReceiver that handles alarm-based reminders
@@ -21,56 +25,99 @@ import kotlinx.coroutines.withContext
  * selecting the highest-priority pending task to trigger immediately and
  * staggering the others so high-priority reminders ring first.
  */
+@AndroidEntryPoint
 class ReminderBroadcastReceiver : BroadcastReceiver() {
 
+    @Inject
+    lateinit var taskDao: TaskDao
+
+    @Inject
+    lateinit var reminderMetrics: ReminderMetricsRepository
+
+    @Inject
+    lateinit var dispatchers: AppDispatchers
+
     override fun onReceive(context: Context, intent: Intent) {
-        Log.d(TAG, "🚨 ALARM REMINDER RECEIVED - background trigger")
+        super.onReceive(context, intent) // Hilt injects here
+        DomainTrace.section("ReminderBroadcastReceiver.onReceive") {
+            val receivedAt = System.currentTimeMillis()
+            AppLog.d(TAG) { "🚨 ALARM REMINDER RECEIVED - background trigger" }
 
-        // The alarm provides a reminder_time; if absent, use current time
-        val intentReminderTime = intent.getLongExtra("reminder_time", 0L)
-        val reminderTime = if (intentReminderTime <= 0L) System.currentTimeMillis() else intentReminderTime
+            // The alarm provides a reminder_time; if absent, use current time
+            val intentReminderTime = intent.getLongExtra("reminder_time", 0L)
+            val reminderTime = if (intentReminderTime <= 0L) System.currentTimeMillis() else intentReminderTime
 
-        Log.d(TAG, "⏰ Reminder time from intent: $reminderTime")
+            val deliveryPath = if (intent.getBooleanExtra("immediate_trigger", false)) {
+                ReminderDeliveryPath.IMMEDIATE
+            } else {
+                ReminderDeliveryPath.ALARM
+            }
 
-        // Do DB work and scheduling on IO dispatcher
-        CoroutineScope(Dispatchers.IO).launch {
-            try {
-                val db = TaskManagerDatabase.getDatabase(context)
-                // getTasksWithRemindersDue is a suspend DAO method
-                val tasksDue: List<TaskEntity> = db.taskDao().getTasksWithRemindersDue(reminderTime)
-                    .filter { it.status == "pending" }
-
-                if (tasksDue.isEmpty()) {
-                    Log.w(TAG, "No pending tasks found for reminder time: $reminderTime")
-                    return@launch
-                }
+            AppLog.d(TAG) { "⏰ Reminder time from intent: $reminderTime" }
 
-                // Sort by priority (higher first), then earliest due date, then createdAt
-                val sorted = tasksDue.sortedWith(
-                    compareByDescending<TaskEntity> { it.priority }
-                        .thenBy { it.dueDateTime ?: Long.MAX_VALUE }
-                        .thenBy { it.createdAt }
-                )
-
-                // Primary: trigger the highest-priority task immediately
-                val first = sorted.first()
-                triggerWorkAndServiceForTask(context, first, reminderTime)
-
-                // For remaining tasks, schedule staggered WorkManager backups so they don't overlap
-                // Stagger by 25 seconds per remaining task (keeps UX sensible)
-                val staggerMs = 25_000L
-                for ((index, task) in sorted.drop(1).withIndex()) {
-                    val delay = (index + 1) * staggerMs
-                    scheduleStaggeredWork(context, task.id, reminderTime, delay)
+            // DB work and scheduling run on the reminder pool; the pending result keeps the
+            // process alive until they are done
+            goAsync(dispatchers.reminders) {
+                DomainTrace.asyncSection("ReminderBroadcastReceiver.dispatch") {
+                    dispatchDueReminders(context, reminderTime, deliveryPath, receivedAt)
                 }
+            }
+        }
+    }
 
-            } catch (e: Exception) {
-                Log.e(TAG, "❌ Error processing alarm reminder: ${e.message}", e)
+    private suspend fun dispatchDueReminders(
+        context: Context,
+        reminderTime: Long,
+        deliveryPath: String,
+        receivedAt: Long
+    ) {
+        try {
+            // getTasksWithRemindersDue is a suspend DAO method
+            // Sort by priority (higher first), then earliest due date, then createdAt
+            val sorted: List<TaskEntity> = ReminderOrdering.order(
+                taskDao.getTasksWithRemindersDue(reminderTime),
+                reminderTime
+            )
+
+            if (sorted.isEmpty()) {
+                AppLog.w(TAG) { "No pending tasks found for reminder time: $reminderTime" }
+                return
+            }
+
+            // Primary: trigger the highest-priority task immediately
+            // Each delivery gets its own async trace slice, closed once the notification is posted
+            val first = sorted.first()
+            val metricId = reminderMetrics.startFire(first.id, deliveryPath, reminderTime, alarmReceivedAt = receivedAt)
+            triggerWorkAndServiceForTask(context, first, reminderTime, beginDeliveryTrace(), metricId)
+
+            // For remaining tasks, schedule staggered WorkManager backups so they don't overlap
+            // Stagger by 25 seconds per remaining task (keeps UX sensible)
+            val staggerMs = 25_000L
+            for ((index, task) in sorted.drop(1).withIndex()) {
+                val delay = (index + 1) * staggerMs
+                // Staggered fires are deliberately late; measure them against their own slot
+                val metricId = reminderMetrics.startFire(task.id, ReminderDeliveryPath.WORK_MANAGER, reminderTime + delay)
+                scheduleStaggeredWork(context, task.id, reminderTime, delay, beginDeliveryTrace(), metricId)
             }
+
+        } catch (e: Exception) {
+            AppLog.e(TAG, e) { "❌ Error processing alarm reminder: ${e.message}" }
         }
     }
 
-    private fun triggerWorkAndServiceForTask(context: Context, task: TaskEntity, reminderTime: Long) {
+    private fun beginDeliveryTrace(): Int {
+        val cookie = DomainTrace.nextCookie()
+        DomainTrace.beginAsync(TRACE_REMINDER_DELIVERY, cookie)
+        return cookie
+    }
+
+    private fun triggerWorkAndServiceForTask(
+        context: Context,
+        task: TaskEntity,
+        reminderTime: Long,
+        traceCookie: Int,
+        metricId: Long
+    ) {
         try {
             // PRIMARY: trigger WorkManager reminder immediately for the selected task
             val inputData = Data.Builder()
@@ -78,6 +125,8 @@ class ReminderBroadcastReceiver : BroadcastReceiver() {
                 .putLong("reminder_time", reminderTime)
                 .putBoolean("from_alarm", true)
                 .putBoolean("background_trigger", true)
+                .putInt(EXTRA_TRACE_COOKIE, traceCookie)
+                .putLong(ReminderMetricsRepository.EXTRA_METRIC_ID, metricId)
                 .build()
 
             val reminderWork = OneTimeWorkRequestBuilder<TaskReminderWorker>()
@@ -86,35 +135,53 @@ class ReminderBroadcastReceiver : BroadcastReceiver() {
                 .build()
 
             WorkManager.getInstance(context).enqueue(reminderWork)
-            Log.d(TAG, "✅ PRIMARY: WorkManager reminder triggered from alarm for task ${task.id}")
+            AppLog.d(TAG) { "✅ PRIMARY: WorkManager reminder triggered from alarm for task ${task.id}" }
 
             // BACKUP: also start persistent foreground service for a stronger alarm-like reminder
             val serviceIntent = Intent(context, com.pharma.taskmanager.services.PersistentReminderService::class.java).apply {
                 putExtra("task_id", task.id)
                 putExtra("reminder_time", reminderTime)
                 putExtra("from_alarm", true)
+                putExtra(EXTRA_TRACE_COOKIE, traceCookie)
+                putExtra(ReminderMetricsRepository.EXTRA_METRIC_ID, metricId)
             }
 
-            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
-                context.startForegroundService(serviceIntent)
-            } else {
-                context.startService(serviceIntent)
+            DomainTrace.beginAsync(TRACE_SERVICE_DELIVERY, traceCookie)
+            try {
+                if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
+                    context.startForegroundService(serviceIntent)
+                } else {
+                    context.startService(serviceIntent)
+                }
+            } catch (e: Exception) {
+                // The service will never see the cookie, so its slice ends here
+                DomainTrace.endAsync(TRACE_SERVICE_DELIVERY, traceCookie)
+                throw e
             }
-            Log.d(TAG, "✅ BACKUP: Foreground service started for persistent notification (task ${task.id})")
+            AppLog.d(TAG) { "✅ BACKUP: Foreground service started for persistent notification (task ${task.id})" }
 
         } catch (e: Exception) {
-            Log.e(TAG, "❌ Failed to trigger work/service for task ${task.id}: ${e.message}", e)
+            AppLog.e(TAG, e) { "❌ Failed to trigger work/service for task ${task.id}: ${e.message}" }
         }
     }
 
-    private suspend fun scheduleStaggeredWork(context: Context, taskId: Int, reminderTime: Long, delayMs: Long) {
-        withContext(Dispatchers.IO) {
+    private suspend fun scheduleStaggeredWork(
+        context: Context,
+        taskId: Int,
+        reminderTime: Long,
+        delayMs: Long,
+        traceCookie: Int,
+        metricId: Long
+    ) {
+        withContext(dispatchers.reminders) {
             try {
                 val inputData = Data.Builder()
                     .putInt("task_id", taskId)
                     .putLong("reminder_time", reminderTime)
                     .putBoolean("from_alarm", true)
                     .putBoolean("is_backup", true)
+                    .putInt(EXTRA_TRACE_COOKIE, traceCookie)
+                    .putLong(ReminderMetricsRepository.EXTRA_METRIC_ID, metricId)
                     .build()
 
                 val work = OneTimeWorkRequestBuilder<TaskReminderWorker>()
@@ -124,14 +191,19 @@ class ReminderBroadcastReceiver : BroadcastReceiver() {
                     .build()
 
                 WorkManager.getInstance(context).enqueue(work)
-                Log.d(TAG, "🔁 Scheduled staggered reminder for task $taskId with delay ${delayMs}ms")
+                AppLog.d(TAG) { "🔁 Scheduled staggered reminder for task $taskId with delay ${delayMs}ms" }
             } catch (e: Exception) {
-                Log.e(TAG, "❌ Failed to schedule staggered work for task $taskId: ${e.message}", e)
+                AppLog.e(TAG, e) { "❌ Failed to schedule staggered work for task $taskId: ${e.message}" }
             }
         }
     }
 
     companion object {
         private const val TAG = "ReminderBroadcastReceiver"
+        
+        // Async trace slice spanning alarm receipt -> notification posted
+        const val TRACE_REMINDER_DELIVERY = "ReminderDelivery"
+        const val TRACE_SERVICE_DELIVERY = "ReminderDelivery:service"
+        const val EXTRA_TRACE_COOKIE = "trace_cookie"
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.pharma.taskmanager.receivers
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.utils.ReminderRearmer
+import com.pharma.taskmanager.widget.TodayWidget
+import com.pharma.taskmanager.workers.ReminderRearmWorker
+import com.pharma.taskmanager.workers.WidgetRefreshWorker
+import dagger.hilt.android.AndroidEntryPoint
+import kotlinx.coroutines.withTimeoutOrNull
+import javax.inject.Inject
+
+/**
+ * Re-arms reminder alarms when the system may have dropped or shifted them: after a reboot
+ * (alarms do not survive one), a clock or time zone change, and an update of this app. The
+ * pass runs right here under [goAsync]; it is bounded by the alarm window, not the number of
+ * reminders, and hands over to [ReminderRearmWorker] if it overruns [BROADCAST_BUDGET_MILLIS].
+ *
+ * A clock or time zone change also moves "today", so the widget is rebuilt too.
+ */
+@AndroidEntryPoint
+class ReminderRearmReceiver : BroadcastReceiver() {
+
+    @Inject
+    lateinit var reminderRearmer: ReminderRearmer
+
+    @Inject
+    lateinit var dispatchers: AppDispatchers
+
+    override fun onReceive(context: Context, intent: Intent) {
+        super.onReceive(context, intent) // Hilt injects here
+        val reason = REASONS[intent.action] ?: return
+
+        goAsync(dispatchers.reminders) {
+            try {
+                val pass = withTimeoutOrNull(BROADCAST_BUDGET_MILLIS) { reminderRearmer.rearm(reason) }
+                if (pass == null) {
+                    AppLog.w(TAG) { field("reason", reason); "⏳ Re-arm overran its budget, continuing in a worker" }
+                    ReminderRearmWorker.enqueue(context, reason)
+                } else {
+                    ReminderRearmWorker.scheduleRefill(context, pass.refillAt)
+                }
+                if (reason != ReminderRearmer.REASON_APP_UPDATED && reason != ReminderRearmer.REASON_BOOT &&
+                    TodayWidget.isPlaced(context)
+                ) {
+                    WidgetRefreshWorker.refresh(context)
+                }
+            } catch (e: Exception) {
+                AppLog.e(TAG, e) { "❌ Re-arm after $reason failed: ${e.message}" }
+                ReminderRearmWorker.enqueue(context, reason)
+            }
+        }
+    }
+
+    private companion object {
+        const val TAG = "ReminderRearmReceiver"
+
+        val REASONS = mapOf(
+            Intent.ACTION_BOOT_COMPLETED to ReminderRearmer.REASON_BOOT,
+            Intent.ACTION_TIME_CHANGED to ReminderRearmer.REASON_TIME_CHANGED,
+            Intent.ACTION_TIMEZONE_CHANGED to ReminderRearmer.REASON_TIMEZONE_CHANGED,
+            Intent.ACTION_MY_PACKAGE_REPLACED to ReminderRearmer.REASON_APP_UPDATED
+        )
+    }
+}
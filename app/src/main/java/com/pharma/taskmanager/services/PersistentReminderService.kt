@@ -14,26 +14,40 @@ import android.os.Build
 import android.os.Handler
 import android.os.IBinder
 import android.os.Looper
+import android.os.SystemClock
 import android.os.VibrationEffect
 import android.os.Vibrator
 import android.media.MediaPlayer
 import android.media.AudioAttributes as MediaAudioAttributes
-import android.util.Log
 import androidx.core.app.NotificationCompat
 import androidx.core.app.NotificationManagerCompat
 import com.pharma.taskmanager.MainActivity
 import com.pharma.taskmanager.R
+import com.pharma.taskmanager.data.repository.ReminderMetricsRepository
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.reminder.ReminderSessions
 import com.pharma.taskmanager.domain.repository.TaskRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.receivers.ReminderActionReceiver
+import com.pharma.taskmanager.receivers.ReminderBroadcastReceiver
 import dagger.hilt.android.AndroidEntryPoint
 import kotlinx.coroutines.CoroutineScope
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
 import javax.inject.Inject
 
 /**
- * Persistent foreground service that rings and vibrates for 1 minute
- * when a task reminder is triggered - WORKS EVEN WHEN APP IS CLOSED
+ * Persistent foreground service that rings and vibrates for 1 minute per triggered task
+ * reminder - WORKS EVEN WHEN APP IS CLOSED.
+ *
+ * Reminders that overlap are sessions in a [ReminderSessions] table sharing one alarm sound
+ * and one vibration pulse, driven by a fixed set of timers (pulse, next expiry, fade-out)
+ * however many are ringing. The foreground notification summarises the sessions and each
+ * ringing task gets a child notification in its group with its own actions. Stopping or
+ * expiring one session removes only its child; the service stops with the last session.
  */
 @AndroidEntryPoint
 class PersistentReminderService : Service() {
@@ -41,193 +55,258 @@ class PersistentReminderService : Service() {
     @Inject
     lateinit var taskRepository: TaskRepository
     
-    private val serviceScope = CoroutineScope(SupervisorJob() + Dispatchers.Main)
+    @Inject
+    lateinit var reminderMetrics: ReminderMetricsRepository
+    
+    @Inject
+    lateinit var dispatchers: AppDispatchers
+    
+    // Session state lives on the main thread; database work hops to the pools. Built after injection
+    private val serviceScope by lazy { CoroutineScope(SupervisorJob() + dispatchers.main) }
     
     companion object {
         private const val TAG = "PersistentReminderService"
         private const val NOTIFICATION_ID = 9999
         private const val CHANNEL_ID = "persistent_reminder_channel"
+        private const val GROUP_KEY = "com.pharma.taskmanager.ACTIVE_REMINDERS"
+        // Children are tagged so they never collide with the plain reminder notification, whose id is also the task id
+        private const val CHILD_TAG = "persistent_reminder"
+        private const val DEFAULT_TITLE = "Task Reminder"
         private const val REMINDER_DURATION = 60000L // 1 minute
         private const val VIBRATION_INTERVAL = 2000L // Every 2 seconds
-        private const val SOUND_INTERVAL = 3000L // Every 3 seconds
         private const val FADE_DURATION = 3000L // Fade-out duration in ms
+        private const val FADE_STEPS = 30
     }
     
     private val handler = Handler(Looper.getMainLooper())
     private var vibrator: Vibrator? = null
     private var mediaPlayer: MediaPlayer? = null
-    private var reminderRunnable: Runnable? = null
-    private var stopServiceRunnable: Runnable? = null
-    private var fadeRunnable: Runnable? = null
-    private var currentTaskId: Int? = null
+    private var volume = 1.0f
+    // On the elapsedRealtime clock, so setting the wall clock neither ends nor extends a ringing session
+    private val sessions = ReminderSessions(REMINDER_DURATION)
+    // Metric ids of sessions started while the shared sound was still preparing
+    private val awaitingSound = mutableListOf<Long>()
+    
+    // The only timers, shared by every session: main thread only
+    private val pulseRunnable = object : Runnable {
+        override fun run() {
+            vibrateOnce()
+            handler.postDelayed(this, VIBRATION_INTERVAL)
+        }
+    }
+    private val expiryRunnable = Runnable { expireSessions() }
+    private val fadeRunnable = object : Runnable {
+        override fun run() {
+            volume = (volume - 1.0f / FADE_STEPS).coerceAtLeast(0f)
+            if (volume > 0f) {
+                mediaPlayer?.setVolume(volume, volume)
+                handler.postDelayed(this, FADE_DURATION / FADE_STEPS)
+            } else {
+                stopAndReleaseMediaPlayer()
+                AppLog.d(TAG) { "🔇 Alarm sound faded and stopped" }
+            }
+        }
+    }
     
     override fun onCreate() {
         super.onCreate()
-        Log.d(TAG, "🚨 PersistentReminderService created")
+        AppLog.d(TAG) { "🚨 PersistentReminderService created" }
         
         vibrator = getSystemService(Context.VIBRATOR_SERVICE) as Vibrator
         createNotificationChannel()
     }
     
     override fun onStartCommand(intent: Intent?, flags: Int, startId: Int): Int {
-        Log.d(TAG, "🔥🔥🔥 PersistentReminderService BACKGROUND ALARM TRIGGERED! 🔥🔥🔥")
-        
+        return DomainTrace.section("PersistentReminderService.onStartCommand") {
+            handleStartCommand(intent)
+        }
+    }
+    
+    private fun handleStartCommand(intent: Intent?): Int {
         val taskId = intent?.getIntExtra("task_id", -1) ?: -1
+        // The receiver opened this slice before starting us; every path below has to end it
+        val traceCookie = intent?.getIntExtra(ReminderBroadcastReceiver.EXTRA_TRACE_COOKIE, -1) ?: -1
         
         if (intent?.action == "STOP_REMINDER") {
-            Log.d(TAG, "🛑 Stop reminder action received")
-            // If a task_id was provided, cancel that notification explicitly
-            val stopId = intent.getIntExtra("task_id", -1)
-            if (stopId > 0) {
-                try { NotificationManagerCompat.from(this).cancel(stopId) } catch (_: Exception) {}
+            AppLog.d(TAG) { field("taskId", taskId); "🛑 Stop reminder action received" }
+            if (taskId > 0) {
+                // Also clear the plain reminder notification for this task
+                try { NotificationManagerCompat.from(this).cancel(taskId) } catch (_: Exception) {}
+                stopSession(taskId)
+            } else {
+                stopAllSessions()
             }
-            stopReminder()
             return START_NOT_STICKY
         }
         
         if (taskId == -1) {
-            Log.e(TAG, "❌ Invalid task ID, stopping service")
-            stopSelf()
+            AppLog.e(TAG) { "❌ Invalid task ID" }
+            endServiceDelivery(traceCookie)
+            if (sessions.isEmpty()) stopSelf()
             return START_NOT_STICKY
         }
         
-    currentTaskId = taskId
-    Log.d(TAG, "📋 Fetching task details from database for ID: $taskId")
+        val metricId = intent?.getLongExtra(ReminderMetricsRepository.EXTRA_METRIC_ID, ReminderMetricsRepository.NO_METRIC_ID)
+            ?: ReminderMetricsRepository.NO_METRIC_ID
+        
+        // Go foreground right away under a placeholder title; the task's own arrives from the database
+        val isNew = sessions.start(taskId, DEFAULT_TITLE, SystemClock.elapsedRealtime())
+        AppLog.d(TAG) { field("taskId", taskId); field("restarted", !isNew); field("ringing", sessions.size); "🔥 Reminder session started" }
+        showSummary()
+        startOutputs(metricId)
+        rescheduleTimers()
         
-        // Fetch task details from database
         serviceScope.launch {
-            try {
-                val task = taskRepository.getTaskById(taskId)
-                val taskTitle = task?.title ?: "Task Reminder"
-                val taskDescription = task?.description ?: ""
-                
-                Log.d(TAG, "✅ Task found: $taskTitle")
-                Log.d(TAG, "🚨 STARTING PERSISTENT ALARM-LIKE REMINDER (like alarm clock)")
-                
-                // Start foreground service with notification
-                startForeground(NOTIFICATION_ID, createPersistentNotification(taskId, taskTitle, taskDescription))
-                
-                // Start continuous reminder pattern (vibrate like alarm)
-                // Stop any previous vibration runnable before starting a new one
-                stopReminderInternal()
-                startContinuousReminder(taskId, taskTitle)
-                // Start a single continuous alarm sound for the duration with a smooth fade-out
-                startAlarmSoundWithFade()
-                
-            } catch (e: Exception) {
-                Log.e(TAG, "❌ Error fetching task: ${e.message}", e)
-                // Fallback with basic notification
-                startForeground(NOTIFICATION_ID, createPersistentNotification(taskId, "Task Reminder", ""))
-                stopReminderInternal()
-                startContinuousReminder(taskId, "Task Reminder")
+            DomainTrace.asyncSection("PersistentReminderService.startReminder") {
+                loadSession(taskId, metricId)
             }
+        }.invokeOnCompletion {
+            // Also when the load failed, or onDestroy cancelled it before it ran
+            endServiceDelivery(traceCookie)
         }
         
-        // Auto-stop after 1 minute
-        stopServiceRunnable = Runnable {
-            Log.d(TAG, "⏰ 1 minute elapsed - stopping persistent reminder")
-            stopReminder()
-        }
-        handler.postDelayed(stopServiceRunnable!!, REMINDER_DURATION)
-        
         return START_NOT_STICKY
     }
-
-    private fun stopReminder() {
-        try {
-            // Cancel callbacks and vibration immediately
-            stopReminderInternal()
-            // Stop and release any media player
-            stopAndReleaseMediaPlayer()
-            // Remove auto-stop callback if pending
-            stopServiceRunnable?.let { handler.removeCallbacks(it) }
-            stopServiceRunnable = null
-            // Cancel any standard notification that may be showing for this task
-            currentTaskId?.let { id ->
-                try { NotificationManagerCompat.from(this).cancel(id) } catch (_: Exception) {}
-            }
-            // Stop foreground and service
-            stopForeground(STOP_FOREGROUND_REMOVE)
-            stopSelf()
-            Log.d(TAG, "✅ Reminder fully stopped")
+    
+    private suspend fun loadSession(taskId: Int, metricId: Long) {
+        val task = try {
+            withContext(dispatchers.dbRead) { taskRepository.getTaskById(taskId) }
         } catch (e: Exception) {
-            Log.e(TAG, "❌ Error stopping reminder: ${e.message}")
-            stopSelf()
+            AppLog.e(TAG, e) { "❌ Error fetching task: ${e.message}" }
+            null
+        }
+        val title = task?.title ?: DEFAULT_TITLE
+        // The session may have been stopped while the task loaded
+        if (sessions.rename(taskId, title)) {
+            postChild(taskId, title, task?.description.orEmpty())
+            showSummary()
+            withContext(dispatchers.dbWrite) { reminderMetrics.markNotificationPosted(metricId) }
         }
     }
-
-    private fun stopReminderInternal() {
-        try {
-            reminderRunnable?.let { handler.removeCallbacks(it) }
-        } catch (e: Exception) {
-            Log.w(TAG, "⚠️ Error removing reminder runnable: ${e.message}")
+    
+    private fun endServiceDelivery(traceCookie: Int) {
+        if (traceCookie != -1) {
+            DomainTrace.endAsync(ReminderBroadcastReceiver.TRACE_SERVICE_DELIVERY, traceCookie)
+        }
+    }
+    
+    // A new session buzzes at once and joins the shared sound, starting it if none is playing
+    private fun startOutputs(metricId: Long) {
+        handler.removeCallbacks(pulseRunnable)
+        handler.post(pulseRunnable)
+        val player = mediaPlayer
+        when {
+            player == null -> {
+                awaitingSound += metricId
+                startAlarmSound()
+            }
+            player.isPlaying -> {
+                val soundStartedAt = System.currentTimeMillis()
+                serviceScope.launch(dispatchers.dbWrite) { reminderMetrics.markFirstSound(metricId, soundStartedAt) }
+            }
+            else -> awaitingSound += metricId // Still preparing
         }
-        reminderRunnable = null
+    }
+    
+    // Re-aim the shared timers at the current first and last expiry
+    private fun rescheduleTimers() {
+        handler.removeCallbacks(expiryRunnable)
+        handler.removeCallbacks(fadeRunnable)
+        val nextExpiry = sessions.nextExpiry ?: return
+        val now = SystemClock.elapsedRealtime()
+        handler.postDelayed(expiryRunnable, (nextExpiry - now).coerceAtLeast(0L))
+        // The sound fades out ahead of the last session's end; a later session undoes a fade under way
+        val fadeAt = sessions.lastExpiry!! - FADE_DURATION
+        if (fadeAt > now) {
+            if (volume < 1.0f) {
+                volume = 1.0f
+                mediaPlayer?.setVolume(volume, volume)
+            }
+            handler.postDelayed(fadeRunnable, fadeAt - now)
+        } else {
+            handler.postDelayed(fadeRunnable, if (volume < 1.0f) FADE_DURATION / FADE_STEPS else 0L)
+        }
+    }
+    
+    private fun expireSessions() {
+        val expired = sessions.expire(SystemClock.elapsedRealtime())
+        AppLog.d(TAG) { field("expired", expired.size); field("ringing", sessions.size); "⏰ 1 minute elapsed for reminder session" }
+        expired.forEach { cancelNotifications(it.taskId) }
+        afterSessionsChanged()
+    }
+    
+    private fun stopSession(taskId: Int) {
+        sessions.stop(taskId)
+        cancelNotifications(taskId)
+        afterSessionsChanged()
+    }
+    
+    private fun stopAllSessions() {
+        sessions.stopAll().forEach { cancelNotifications(it.taskId) }
+        afterSessionsChanged()
+    }
+    
+    private fun afterSessionsChanged() {
+        if (sessions.isEmpty()) {
+            stopService()
+        } else {
+            showSummary()
+            rescheduleTimers()
+        }
+    }
+    
+    private fun stopService() {
         try {
+            handler.removeCallbacks(pulseRunnable)
+            handler.removeCallbacks(expiryRunnable)
+            handler.removeCallbacks(fadeRunnable)
             vibrator?.cancel()
+            stopAndReleaseMediaPlayer()
+            stopForeground(STOP_FOREGROUND_REMOVE)
+            stopSelf()
+            AppLog.d(TAG) { "✅ Reminder fully stopped" }
         } catch (e: Exception) {
-            Log.w(TAG, "⚠️ Error cancelling vibrator: ${e.message}")
+            AppLog.e(TAG) { "❌ Error stopping reminder: ${e.message}" }
+            stopSelf()
         }
-        // Also stop any alarm sound and cancel fade callbacks
+    }
+    
+    private fun cancelNotifications(taskId: Int) {
         try {
-            fadeRunnable?.let { handler.removeCallbacks(it) }
-            fadeRunnable = null
-
-            mediaPlayer?.let {
-                if (it.isPlaying) it.stop()
-                it.reset()
-                it.release()
-            }
-        } catch (e: Exception) {
-            Log.w(TAG, "⚠️ Error stopping media player: ${e.message}")
-        }
-        mediaPlayer = null
+            val notifications = NotificationManagerCompat.from(this)
+            notifications.cancel(CHILD_TAG, taskId)
+            notifications.cancel(taskId)
+        } catch (_: Exception) {}
     }
     
-    private fun startContinuousReminder(taskId: Int, taskTitle: String) {
-        Log.d(TAG, "🔄 Starting continuous reminder pattern")
-        
-        reminderRunnable = object : Runnable {
-            override fun run() {
-                try {
-                    // Strong vibration
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                        vibrator?.vibrate(
-                            VibrationEffect.createWaveform(
-                                longArrayOf(0, 500, 200, 500, 200, 500),
-                                intArrayOf(0, 255, 0, 255, 0, 255),
-                                -1
-                            )
-                        )
-                    } else {
-                        @Suppress("DEPRECATION")
-                        vibrator?.vibrate(longArrayOf(0, 500, 200, 500, 200, 500), -1)
-                    }
-                    
-                    Log.d(TAG, "📳 Vibration triggered for persistent reminder")
-                    
-                    // Continue the pattern
-                    handler.postDelayed(this, VIBRATION_INTERVAL)
-                    
-                } catch (e: Exception) {
-                    Log.e(TAG, "❌ Error in continuous reminder: ${e.message}")
-                }
+    private fun vibrateOnce() {
+        try {
+            // Strong vibration
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                vibrator?.vibrate(
+                    VibrationEffect.createWaveform(
+                        longArrayOf(0, 500, 200, 500, 200, 500),
+                        intArrayOf(0, 255, 0, 255, 0, 255),
+                        -1
+                    )
+                )
+            } else {
+                @Suppress("DEPRECATION")
+                vibrator?.vibrate(longArrayOf(0, 500, 200, 500, 200, 500), -1)
             }
+        } catch (e: Exception) {
+            AppLog.e(TAG) { "❌ Error in continuous reminder: ${e.message}" }
         }
-        
-        // Start immediately
-        handler.post(reminderRunnable!!)
     }
 
     /**
-     * Play a single continuous alarm sound and schedule a smooth fade-out before the
-     * overall reminder timeout so the sound stops gracefully after REMINDER_DURATION.
+     * Play a single continuous alarm sound for every ringing session; [fadeRunnable]
+     * fades it out and releases it before the last session ends.
      */
-    private fun startAlarmSoundWithFade() {
+    private fun startAlarmSound() {
         try {
-            if (mediaPlayer != null && mediaPlayer!!.isPlaying) return
-
             val alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM)
+            volume = 1.0f
             mediaPlayer = MediaPlayer().apply {
                 setAudioAttributes(
                     MediaAudioAttributes.Builder()
@@ -240,46 +319,23 @@ class PersistentReminderService : Service() {
                 isLooping = true
                 setOnPreparedListener { mp ->
                     try {
-                        mp.setVolume(1.0f, 1.0f)
+                        mp.setVolume(volume, volume)
                         mp.start()
-                        Log.d(TAG, "🔊 Alarm sound started (continuous)")
-
-                        // Schedule fade-out to start FADE_DURATION before the overall timeout
-                        val fadeStartDelay = (REMINDER_DURATION - FADE_DURATION).coerceAtLeast(0L)
-                        fadeRunnable = Runnable {
-                            try {
-                                Log.d(TAG, "🎚️ Starting fade-out for alarm sound")
-                                // Fade over FADE_DURATION in small steps
-                                val steps = 30
-                                val stepDelay = FADE_DURATION / steps
-                                for (i in 1..steps) {
-                                    val fraction = 1.0f - (i.toFloat() / steps.toFloat())
-                                    handler.postDelayed({ mediaPlayer?.setVolume(fraction, fraction) }, stepDelay * i)
-                                }
-                                // Ensure final stop after fade completes
-                                handler.postDelayed({
-                                    try {
-                                        stopAndReleaseMediaPlayer()
-                                        Log.d(TAG, "🔇 Alarm sound faded and stopped")
-                                    } catch (e: Exception) {
-                                        Log.w(TAG, "⚠️ Error stopping after fade: ${e.message}")
-                                    }
-                                }, FADE_DURATION)
-                            } catch (e: Exception) {
-                                Log.w(TAG, "⚠️ Error during fade runnable: ${e.message}")
-                            }
+                        AppLog.d(TAG) { "🔊 Alarm sound started (continuous)" }
+                        val soundStartedAt = System.currentTimeMillis()
+                        val metricIds = awaitingSound.toList()
+                        awaitingSound.clear()
+                        serviceScope.launch(dispatchers.dbWrite) {
+                            metricIds.forEach { reminderMetrics.markFirstSound(it, soundStartedAt) }
                         }
-
-                        handler.postDelayed(fadeRunnable!!, fadeStartDelay)
-
                     } catch (e: Exception) {
-                        Log.e(TAG, "❌ Failed to start media player: ${e.message}", e)
+                        AppLog.e(TAG, e) { "❌ Failed to start media player: ${e.message}" }
                     }
                 }
                 prepareAsync()
             }
         } catch (e: Exception) {
-            Log.e(TAG, "❌ Error preparing alarm sound: ${e.message}", e)
+            AppLog.e(TAG, e) { "❌ Error preparing alarm sound: ${e.message}" }
         }
     }
 
@@ -291,12 +347,71 @@ class PersistentReminderService : Service() {
                 mp.release()
             }
         } catch (e: Exception) {
-            Log.w(TAG, "⚠️ Error releasing media player: ${e.message}")
+            AppLog.w(TAG) { "⚠️ Error releasing media player: ${e.message}" }
         }
         mediaPlayer = null
+        awaitingSound.clear()
+    }
+    
+    // startForeground again just replaces the notification, so this also refreshes it
+    private fun showSummary() {
+        startForeground(NOTIFICATION_ID, createSummaryNotification())
     }
     
-    private fun createPersistentNotification(taskId: Int, taskTitle: String, taskDescription: String = ""): Notification {
+    private fun postChild(taskId: Int, taskTitle: String, taskDescription: String) {
+        try {
+            NotificationManagerCompat.from(this).notify(CHILD_TAG, taskId, createTaskNotification(taskId, taskTitle, taskDescription))
+        } catch (e: SecurityException) {
+            AppLog.w(TAG) { "⚠️ Notification permission missing: ${e.message}" }
+        }
+    }
+    
+    private fun createSummaryNotification(): Notification {
+        val active = sessions.active
+        val title = if (active.size == 1) active.first().title else "${active.size} tasks"
+        val stopAllIntent = Intent(this, PersistentReminderService::class.java).apply {
+            action = "STOP_REMINDER"
+        }
+        val stopAllPendingIntent = PendingIntent.getService(
+            this,
+            NOTIFICATION_ID,
+            stopAllIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT or PendingIntent.FLAG_IMMUTABLE
+        )
+        val openIntent = PendingIntent.getActivity(
+            this,
+            NOTIFICATION_ID,
+            Intent(this, MainActivity::class.java).apply {
+                flags = Intent.FLAG_ACTIVITY_NEW_TASK or Intent.FLAG_ACTIVITY_CLEAR_TOP
+            },
+            PendingIntent.FLAG_UPDATE_CURRENT or PendingIntent.FLAG_IMMUTABLE
+        )
+        val lines = NotificationCompat.InboxStyle()
+        active.forEach { lines.addLine("⏰ ${it.title}") }
+        
+        return NotificationCompat.Builder(this, CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_notification)
+            .setContentTitle("🚨 URGENT TASK REMINDER")
+            .setContentText(title)
+            .setStyle(lines.setSummaryText("Ringing for 1 minute each"))
+            .setPriority(NotificationCompat.PRIORITY_MAX)
+            .setCategory(NotificationCompat.CATEGORY_ALARM)
+            .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+            .setGroup(GROUP_KEY)
+            .setGroupSummary(true)
+            .setOnlyAlertOnce(true)
+            .setAutoCancel(false)
+            .setOngoing(true)
+            .setContentIntent(openIntent)
+            .addAction(
+                R.drawable.ic_notification,
+                if (active.size == 1) "Stop Reminder" else "Stop All",
+                stopAllPendingIntent
+            )
+            .build()
+    }
+    
+    private fun createTaskNotification(taskId: Int, taskTitle: String, taskDescription: String = ""): Notification {
         // Use a deep-link style intent so Navigation routes straight to Task Detail
         val intent = Intent(Intent.ACTION_VIEW).apply {
             flags = Intent.FLAG_ACTIVITY_NEW_TASK or Intent.FLAG_ACTIVITY_CLEAR_TOP
@@ -325,32 +440,39 @@ class PersistentReminderService : Service() {
         
         return NotificationCompat.Builder(this, CHANNEL_ID)
             .setSmallIcon(R.drawable.ic_notification)
-            .setContentTitle("🚨 URGENT TASK REMINDER")
+            .setContentTitle("⏰ ACTIVE REMINDER")
             .setContentText(taskTitle)
             .setStyle(NotificationCompat.BigTextStyle().bigText(
-                "⏰ ACTIVE REMINDER: $taskTitle\n\n" +
-                "🔔 This reminder is ringing and vibrating\n" +
+                "⏰ ACTIVE REMINDER: $taskTitle\n" +
+                (if (taskDescription.isNotBlank()) "$taskDescription\n" else "") +
+                "\n🔔 This reminder is ringing and vibrating\n" +
                 "⏱️ Will continue for 1 minute\n" +
-                "👆 Tap to view task or dismiss"
+                "👆 Tap to view task, or complete or snooze it here"
             ))
             .setPriority(NotificationCompat.PRIORITY_MAX)
             .setCategory(NotificationCompat.CATEGORY_ALARM)
             .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+            .setGroup(GROUP_KEY)
+            // The service plays the sound; children must not alert on their own
+            .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
             .setAutoCancel(false)
             .setOngoing(true)
             .setContentIntent(pendingIntent)
             .addAction(
                 R.drawable.ic_notification,
-                "View Task",
-                pendingIntent
+                "Complete",
+                ReminderActionReceiver.completeIntent(this, taskId)
+            )
+            .addAction(
+                R.drawable.ic_notification,
+                "Snooze 10 min",
+                ReminderActionReceiver.snoozeIntent(this, taskId)
             )
             .addAction(
                 R.drawable.ic_notification,
                 "Stop Reminder",
                 stopPendingIntent
             )
-            // Notification itself remains silent here; we play alarm via MediaPlayer for
-            // a single continuous sound so we avoid duplicate/overlapping system notification sounds.
             .build()
     }
     
@@ -373,17 +495,23 @@ class PersistentReminderService : Service() {
             val notificationManager = getSystemService(NotificationManager::class.java)
             notificationManager.createNotificationChannel(channel)
             
-            Log.d(TAG, "✅ Persistent reminder notification channel created")
+            AppLog.d(TAG) { "✅ Persistent reminder notification channel created" }
         }
     }
     
     override fun onDestroy() {
-        Log.d(TAG, "🛑 PersistentReminderService destroyed")
+        AppLog.d(TAG) { "🛑 PersistentReminderService destroyed" }
+        
+        // Stop in-flight session loads so none posts a notification after we are gone
+        serviceScope.cancel()
         
-        // Clean up handlers and stop vibration immediately
-        stopReminderInternal()
-        stopServiceRunnable?.let { handler.removeCallbacks(it) }
-        stopServiceRunnable = null
+        // Clean up timers, sound and vibration, and any child notifications left behind
+        handler.removeCallbacks(pulseRunnable)
+        handler.removeCallbacks(expiryRunnable)
+        handler.removeCallbacks(fadeRunnable)
+        vibrator?.cancel()
+        stopAndReleaseMediaPlayer()
+        sessions.stopAll().forEach { cancelNotifications(it.taskId) }
         
         super.onDestroy()
     }
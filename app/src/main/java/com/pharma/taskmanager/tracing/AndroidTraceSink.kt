@@ -0,0 +1,51 @@
+package com.pharma.taskmanager.tracing
+
+import androidx.tracing.Trace
+import com.pharma.taskmanager.domain.tracing.TraceSink
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * [TraceSink] backed by androidx.tracing, so sections show up in Perfetto/systrace
+ * captures. When [TraceCounters] is enabled it also records per-section counts and timings.
+ */
+class AndroidTraceSink : TraceSink {
+    
+    private class OpenSection(val name: String, val startNanos: Long)
+    
+    // Sync sections nest per thread; async sections are keyed by name + cookie
+    private val openSections = ThreadLocal.withInitial { ArrayDeque<OpenSection>() }
+    private val openAsyncSections = ConcurrentHashMap<String, Long>()
+    
+    override fun beginSection(name: String) {
+        Trace.beginSection(name.take(MAX_SECTION_NAME))
+        openSections.get().addLast(OpenSection(name, System.nanoTime()))
+    }
+    
+    override fun endSection() {
+        Trace.endSection()
+        val section = openSections.get().removeLastOrNull() ?: return
+        if (TraceCounters.enabled) {
+            TraceCounters.record(section.name, System.nanoTime() - section.startNanos)
+        }
+    }
+    
+    override fun beginAsyncSection(name: String, cookie: Int) {
+        Trace.beginAsyncSection(name.take(MAX_SECTION_NAME), cookie)
+        if (TraceCounters.enabled) {
+            openAsyncSections["$name#$cookie"] = System.nanoTime()
+        }
+    }
+    
+    override fun endAsyncSection(name: String, cookie: Int) {
+        Trace.endAsyncSection(name.take(MAX_SECTION_NAME), cookie)
+        if (openAsyncSections.isEmpty()) return
+        val start = openAsyncSections.remove("$name#$cookie") ?: return
+        if (TraceCounters.enabled) {
+            TraceCounters.record(name, System.nanoTime() - start)
+        }
+    }
+    
+    companion object {
+        private const val MAX_SECTION_NAME = 127
+    }
+}
@@ -0,0 +1,69 @@
+package com.pharma.taskmanager.tracing
+
+import android.content.Context
+import androidx.tracing.Trace
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Per-section call counters and timings, fed by [AndroidTraceSink].
+ * Disabled by default; switched on from the Diagnostics screen in debug builds.
+ */
+object TraceCounters {
+    
+    private const val PREFS_NAME = "diagnostics"
+    private const val KEY_ENABLED = "trace_counters_enabled"
+    
+    data class SectionStats(
+        val name: String,
+        val count: Long,
+        val totalNanos: Long,
+        val maxNanos: Long
+    ) {
+        val averageMillis: Double get() = if (count == 0L) 0.0 else totalNanos / count / 1_000_000.0
+        val totalMillis: Double get() = totalNanos / 1_000_000.0
+        val maxMillis: Double get() = maxNanos / 1_000_000.0
+    }
+    
+    private class Counter {
+        val count = AtomicLong()
+        val totalNanos = AtomicLong()
+        val maxNanos = AtomicLong()
+    }
+    
+    @Volatile
+    var enabled: Boolean = false
+        private set
+    
+    private val counters = ConcurrentHashMap<String, Counter>()
+    
+    fun load(context: Context) {
+        enabled = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).getBoolean(KEY_ENABLED, false)
+    }
+    
+    fun setEnabled(context: Context, value: Boolean) {
+        enabled = value
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit().putBoolean(KEY_ENABLED, value).apply()
+    }
+    
+    fun record(name: String, durationNanos: Long) {
+        val counter = counters.getOrPut(name) { Counter() }
+        val count = counter.count.incrementAndGet()
+        counter.totalNanos.addAndGet(durationNanos)
+        counter.maxNanos.accumulateAndGet(durationNanos) { a, b -> maxOf(a, b) }
+        // Surfaces as a counter track in Perfetto next to the slices
+        Trace.setCounter(name.take(MAX_COUNTER_NAME), count.toInt())
+    }
+    
+    fun snapshot(): List<SectionStats> {
+        return counters.map { (name, counter) ->
+            SectionStats(name, counter.count.get(), counter.totalNanos.get(), counter.maxNanos.get())
+        }.sortedByDescending { it.totalNanos }
+    }
+    
+    fun reset() {
+        counters.clear()
+    }
+    
+    private const val MAX_COUNTER_NAME = 127
+}
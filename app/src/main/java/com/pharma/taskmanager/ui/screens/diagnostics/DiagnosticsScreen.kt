@@ -0,0 +1,351 @@
+package com.pharma.taskmanager.ui.screens.diagnostics
+
+import androidx.compose.foundation.layout.Arrangement
+import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.PaddingValues
+import androidx.compose.foundation.layout.Row
+import androidx.compose.foundation.layout.fillMaxSize
+import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.padding
+import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.foundation.lazy.items
+import androidx.compose.material.icons.Icons
+import androidx.compose.material.icons.filled.ArrowBack
+import androidx.compose.material.icons.filled.Refresh
+import androidx.compose.material3.Card
+import androidx.compose.material3.ExperimentalMaterial3Api
+import androidx.compose.material3.Icon
+import androidx.compose.material3.IconButton
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.Scaffold
+import androidx.compose.material3.Switch
+import androidx.compose.material3.Text
+import androidx.compose.material3.TextButton
+import androidx.compose.material3.TopAppBar
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.collectAsState
+import androidx.compose.runtime.getValue
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.platform.LocalClipboardManager
+import androidx.compose.ui.text.AnnotatedString
+import androidx.compose.ui.text.font.FontFamily
+import androidx.compose.ui.text.font.FontWeight
+import androidx.compose.ui.unit.dp
+import androidx.hilt.navigation.compose.hiltViewModel
+import com.pharma.taskmanager.domain.metrics.LatencySummary
+import com.pharma.taskmanager.domain.metrics.ReminderLatencyReport
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.logging.LogEvent
+import com.pharma.taskmanager.logging.LogLevel
+import com.pharma.taskmanager.tracing.TraceCounters
+import com.pharma.taskmanager.ui.viewmodel.DiagnosticsViewModel
+
+/**
+ * Developer diagnostics (debug builds only): reminder delivery latency, tracing
+ * counters per section and the in-memory log.
+ */
+@OptIn(ExperimentalMaterial3Api::class)
+@Composable
+fun DiagnosticsScreen(
+    onNavigateBack: () -> Unit,
+    viewModel: DiagnosticsViewModel = hiltViewModel()
+) {
+    val countersEnabled by viewModel.traceCountersEnabled.collectAsState()
+    val sections by viewModel.traceSections.collectAsState()
+    val reminderLatency by viewModel.reminderLatency.collectAsState()
+    val recentLog by viewModel.recentLog.collectAsState()
+    val cacheStats by viewModel.taskCacheStats.collectAsState()
+    val mutationStats by viewModel.mutationStats.collectAsState()
+    val syncStatus by viewModel.syncStatus.collectAsState()
+    val rearmPass by viewModel.rearmPass.collectAsState()
+    val clipboardManager = LocalClipboardManager.current
+    
+    Scaffold(
+        topBar = {
+            TopAppBar(
+                title = { Text("Diagnostics") },
+                navigationIcon = {
+                    IconButton(onClick = onNavigateBack) {
+                        Icon(Icons.Default.ArrowBack, contentDescription = "Back")
+                    }
+                },
+                actions = {
+                    IconButton(onClick = { viewModel.refresh() }) {
+                        Icon(Icons.Default.Refresh, contentDescription = "Refresh")
+                    }
+                }
+            )
+        }
+    ) { paddingValues ->
+        LazyColumn(
+            modifier = Modifier
+                .fillMaxSize()
+                .padding(paddingValues),
+            contentPadding = PaddingValues(16.dp),
+            verticalArrangement = Arrangement.spacedBy(8.dp)
+        ) {
+            item {
+                Card(modifier = Modifier.fillMaxWidth()) {
+                    Row(
+                        modifier = Modifier
+                            .fillMaxWidth()
+                            .padding(16.dp),
+                        verticalAlignment = Alignment.CenterVertically
+                    ) {
+                        Column(modifier = Modifier.weight(1f)) {
+                            Text(
+                                text = "Reminder alarm re-arm",
+                                style = MaterialTheme.typography.titleMedium
+                            )
+                            Text(
+                                text = rearmPass?.let { pass ->
+                                    "${pass.reason}: armed=${pass.armed}  skipped=${pass.skipped}  took=${pass.durationMillis}ms" +
+                                        (pass.refillAt?.let { "  refill=${AppLog.time(it)}" } ?: "")
+                                } ?: "No pass yet; runs after reboot, clock changes and updates",
+                                style = MaterialTheme.typography.bodySmall,
+                                fontFamily = if (rearmPass != null) FontFamily.Monospace else null,
+                                color = MaterialTheme.colorScheme.onSurfaceVariant
+                            )
+                        }
+                        TextButton(onClick = { viewModel.rearmReminders() }) {
+                            Text("Re-arm now")
+                        }
+                    }
+                }
+            }
+            
+            item {
+                Row(
+                    modifier = Modifier.fillMaxWidth(),
+                    horizontalArrangement = Arrangement.SpaceBetween,
+                    verticalAlignment = Alignment.CenterVertically
+                ) {
+                    Text(
+                        text = "Reminder latency (vs scheduled time)",
+                        style = MaterialTheme.typography.titleMedium,
+                        fontWeight = FontWeight.Bold
+                    )
+                    TextButton(onClick = { viewModel.clearReminderMetrics() }) {
+                        Text("Clear")
+                    }
+                }
+            }
+            
+            items(reminderLatency, key = { "latency:${it.deliveryPath}" }) { report ->
+                ReminderLatencyCard(report)
+            }
+            
+            item {
+                Card(modifier = Modifier.fillMaxWidth()) {
+                    Row(
+                        modifier = Modifier
+                            .fillMaxWidth()
+                            .padding(16.dp),
+                        verticalAlignment = Alignment.CenterVertically
+                    ) {
+                        Column(modifier = Modifier.weight(1f)) {
+                            Text(
+                                text = "Per-section trace counters",
+                                style = MaterialTheme.typography.titleMedium
+                            )
+                            Text(
+                                text = "Counts and times every traced section (small overhead)",
+                                style = MaterialTheme.typography.bodySmall,
+                                color = MaterialTheme.colorScheme.onSurfaceVariant
+                            )
+                        }
+                        Switch(
+                            checked = countersEnabled,
+                            onCheckedChange = { viewModel.setTraceCountersEnabled(it) }
+                        )
+                    }
+                }
+            }
+            
+            item {
+                Row(
+                    modifier = Modifier.fillMaxWidth(),
+                    horizontalArrangement = Arrangement.SpaceBetween,
+                    verticalAlignment = Alignment.CenterVertically
+                ) {
+                    Text(
+                        text = "Trace sections (${sections.size})",
+                        style = MaterialTheme.typography.titleMedium,
+                        fontWeight = FontWeight.Bold
+                    )
+                    TextButton(onClick = { viewModel.resetTraceCounters() }) {
+                        Text("Reset")
+                    }
+                }
+            }
+            
+            items(sections, key = { it.name }) { section ->
+                TraceSectionRow(section)
+            }
+            
+            item {
+                Card(modifier = Modifier.fillMaxWidth()) {
+                    Column(
+                        modifier = Modifier
+                            .fillMaxWidth()
+                            .padding(16.dp)
+                    ) {
+                        Text(
+                            text = "getTaskById cache",
+                            style = MaterialTheme.typography.titleSmall,
+                            fontWeight = FontWeight.Bold
+                        )
+                        Text(
+                            text = "size=${cacheStats.size}/${cacheStats.maxSize}  hit rate=%.1f%%".format(cacheStats.hitRate * 100),
+                            style = MaterialTheme.typography.bodySmall,
+                            fontFamily = FontFamily.Monospace
+                        )
+                        Text(
+                            text = "hits=${cacheStats.hits}  misses=${cacheStats.misses}  evictions=${cacheStats.evictions}  invalidations=${cacheStats.invalidations}",
+                            style = MaterialTheme.typography.bodySmall,
+                            fontFamily = FontFamily.Monospace,
+                            color = MaterialTheme.colorScheme.onSurfaceVariant
+                        )
+                        Text(
+                            text = "Task mutations",
+                            style = MaterialTheme.typography.titleSmall,
+                            fontWeight = FontWeight.Bold,
+                            modifier = Modifier.padding(top = 8.dp)
+                        )
+                        Text(
+                            text = "submitted=${mutationStats.submitted}  writes=${mutationStats.writes}  coalesced=${mutationStats.coalesced}",
+                            style = MaterialTheme.typography.bodySmall,
+                            fontFamily = FontFamily.Monospace
+                        )
+                    }
+                }
+            }
+            
+            item {
+                Card(modifier = Modifier.fillMaxWidth()) {
+                    Row(
+                        modifier = Modifier
+                            .fillMaxWidth()
+                            .padding(16.dp),
+                        verticalAlignment = Alignment.CenterVertically
+                    ) {
+                        Column(modifier = Modifier.weight(1f)) {
+                            Text(
+                                text = "Task sync (loopback server)",
+                                style = MaterialTheme.typography.titleMedium
+                            )
+                            Text(
+                                text = syncStatus ?: "Pushes the change log and pulls back other devices' changes",
+                                style = MaterialTheme.typography.bodySmall,
+                                fontFamily = if (syncStatus != null) FontFamily.Monospace else null,
+                                color = MaterialTheme.colorScheme.onSurfaceVariant
+                            )
+                        }
+                        TextButton(onClick = { viewModel.syncNow() }) {
+                            Text("Sync now")
+                        }
+                    }
+                }
+            }
+            
+            item {
+                Row(
+                    modifier = Modifier.fillMaxWidth(),
+                    horizontalArrangement = Arrangement.SpaceBetween,
+                    verticalAlignment = Alignment.CenterVertically
+                ) {
+                    Text(
+                        text = "Recent log (${recentLog.size})",
+                        style = MaterialTheme.typography.titleMedium,
+                        fontWeight = FontWeight.Bold
+                    )
+                    Row {
+                        TextButton(onClick = { clipboardManager.setText(AnnotatedString(viewModel.dumpLog())) }) {
+                            Text("Copy")
+                        }
+                        TextButton(onClick = { viewModel.clearLog() }) {
+                            Text("Clear")
+                        }
+                    }
+                }
+            }
+            
+            items(recentLog.take(MAX_LOG_ROWS)) { event ->
+                LogEventRow(event)
+            }
+        }
+    }
+}
+
+@Composable
+private fun TraceSectionRow(section: TraceCounters.SectionStats) {
+    Column(modifier = Modifier.fillMaxWidth()) {
+        Text(
+            text = section.name,
+            style = MaterialTheme.typography.bodyMedium,
+            fontFamily = FontFamily.Monospace
+        )
+        Text(
+            text = "n=${section.count}  avg=%.2f ms  max=%.2f ms  total=%.1f ms"
+                .format(section.averageMillis, section.maxMillis, section.totalMillis),
+            style = MaterialTheme.typography.bodySmall,
+            color = MaterialTheme.colorScheme.onSurfaceVariant
+        )
+    }
+}
+
+@Composable
+private fun ReminderLatencyCard(report: ReminderLatencyReport) {
+    Card(modifier = Modifier.fillMaxWidth()) {
+        Column(
+            modifier = Modifier
+                .fillMaxWidth()
+                .padding(16.dp)
+        ) {
+            Text(
+                text = report.deliveryPath,
+                style = MaterialTheme.typography.titleSmall,
+                fontWeight = FontWeight.Bold
+            )
+            LatencyRow("alarm receipt", report.alarmReceipt)
+            LatencyRow("worker start", report.workerStart)
+            LatencyRow("notification", report.notificationPost)
+            LatencyRow("first sound", report.firstSound)
+        }
+    }
+}
+
+@Composable
+private fun LatencyRow(stage: String, summary: LatencySummary) {
+    Text(
+        text = if (summary.count == 0L) {
+            "%-13s  -".format(stage)
+        } else {
+            "%-13s  n=%d  p50=%s  p95=%s  p99=%s"
+                .format(stage, summary.count, formatLatency(summary.p50), formatLatency(summary.p95), formatLatency(summary.p99))
+        },
+        style = MaterialTheme.typography.bodySmall,
+        fontFamily = FontFamily.Monospace,
+        color = MaterialTheme.colorScheme.onSurfaceVariant
+    )
+}
+
+private fun formatLatency(millis: Long): String = when {
+    millis < 1_000L -> "${millis}ms"
+    millis < 60_000L -> "%.1fs".format(millis / 1_000.0)
+    else -> "%.1fm".format(millis / 60_000.0)
+}
+
+@Composable
+private fun LogEventRow(event: LogEvent) {
+    Text(
+        text = "${AppLog.time(event.timestamp).substringAfter(' ')} ${event.level.symbol}/${event.tag}: ${event.formatMessage()}",
+        style = MaterialTheme.typography.bodySmall,
+        fontFamily = FontFamily.Monospace,
+        color = if (event.level >= LogLevel.WARN) MaterialTheme.colorScheme.error else MaterialTheme.colorScheme.onSurface
+    )
+}
+
+// The full buffer is available through "Copy"
+private const val MAX_LOG_ROWS = 200
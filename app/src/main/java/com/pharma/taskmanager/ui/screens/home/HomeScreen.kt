@@ -1,5 +1,7 @@
 package com.pharma.taskmanager.ui.screens.home
 
+import androidx.activity.compose.rememberLauncherForActivityResult
+import androidx.activity.result.contract.ActivityResultContracts
 import androidx.compose.foundation.layout.Arrangement
 import androidx.compose.foundation.layout.Column
 import androidx.compose.foundation.layout.Box
@@ -12,36 +14,74 @@ import androidx.compose.foundation.layout.padding
 import androidx.compose.foundation.layout.width
 import androidx.compose.foundation.Canvas
 import androidx.compose.foundation.background
+import androidx.compose.foundation.clickable
+import androidx.compose.foundation.shape.CircleShape
 import androidx.compose.foundation.layout.size
 import androidx.compose.ui.graphics.Color
 import androidx.compose.ui.graphics.StrokeCap
 import androidx.compose.ui.graphics.StrokeJoin
 import androidx.compose.ui.graphics.drawscope.Stroke
+import androidx.compose.material3.AlertDialog
 import androidx.compose.material3.Button
 import androidx.compose.material3.Card
 import androidx.compose.material3.MaterialTheme
 import androidx.compose.material3.OutlinedButton
 import androidx.compose.material3.Text
+import androidx.compose.material3.TextButton
 import androidx.compose.runtime.Composable
 import androidx.compose.runtime.collectAsState
 import androidx.compose.runtime.getValue
+import androidx.compose.runtime.mutableStateOf
+import androidx.compose.runtime.remember
+import androidx.compose.runtime.setValue
 import androidx.compose.runtime.LaunchedEffect
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
+import androidx.compose.ui.draw.clip
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextAlign
+import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import androidx.hilt.navigation.compose.hiltViewModel
+import com.pharma.taskmanager.BuildConfig
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.domain.ranking.RankedTask
+import com.pharma.taskmanager.domain.transfer.TaskTransferFormat
+import com.pharma.taskmanager.utils.DateTimeUtils
+import com.pharma.taskmanager.ui.viewmodel.BackupViewModel
+import com.pharma.taskmanager.ui.viewmodel.TaskTransferViewModel
 import com.pharma.taskmanager.ui.viewmodel.TaskViewModel
 // kotlinx.coroutines.launch no longer needed
 
 @Composable
 fun HomeScreen(
     onNavigateToTasks: () -> Unit,
-    viewModel: TaskViewModel = hiltViewModel()
+    onNavigateToHistory: () -> Unit = {},
+    onNavigateToDiagnostics: () -> Unit = {},
+    onNavigateToTaskDetail: (Int) -> Unit = {},
+    viewModel: TaskViewModel = hiltViewModel(),
+    transferViewModel: TaskTransferViewModel = hiltViewModel(),
+    backupViewModel: BackupViewModel = hiltViewModel()
 ) {
     val taskStats by viewModel.taskStats.collectAsState()
+    val nextUp by viewModel.nextUp.collectAsState()
+    val transferStatus by transferViewModel.status.collectAsState()
+    val latestBackup by backupViewModel.latest.collectAsState()
+    val backupStatus by backupViewModel.status.collectAsState()
+    var confirmRestore by remember { mutableStateOf(false) }
+    
+    // Export/import run in WorkManager; the pickers only choose the document
+    val exportCsvLauncher = rememberLauncherForActivityResult(
+        ActivityResultContracts.CreateDocument(TaskTransferFormat.CSV.mimeType)
+    ) { uri -> uri?.let { transferViewModel.export(it, TaskTransferFormat.CSV) } }
+    val exportJsonLauncher = rememberLauncherForActivityResult(
+        ActivityResultContracts.CreateDocument(TaskTransferFormat.JSON_LINES.mimeType)
+    ) { uri -> uri?.let { transferViewModel.export(it, TaskTransferFormat.JSON_LINES) } }
+    val importLauncher = rememberLauncherForActivityResult(
+        ActivityResultContracts.OpenDocument()
+    ) { uri -> uri?.let { transferViewModel.import(it) } }
+    
     Column(
         modifier = Modifier
             .fillMaxSize()
@@ -138,6 +178,10 @@ fun HomeScreen(
             }
         }
         
+        if (nextUp.isNotEmpty()) {
+            NextUpCard(nextUp, onTaskClick = onNavigateToTaskDetail)
+        }
+        
         Spacer(modifier = Modifier.height(16.dp))
         
         // Action Buttons
@@ -150,8 +194,183 @@ fun HomeScreen(
             Text("View All Tasks")
         }
         
+        OutlinedButton(
+            onClick = onNavigateToHistory,
+            modifier = Modifier
+                .fillMaxWidth()
+                .padding(vertical = 8.dp)
+        ) {
+            Text("History")
+        }
+        
+        Row(
+            modifier = Modifier
+                .fillMaxWidth()
+                .padding(vertical = 8.dp),
+            horizontalArrangement = Arrangement.spacedBy(8.dp)
+        ) {
+            OutlinedButton(
+                onClick = { exportCsvLauncher.launch("tasks.${TaskTransferFormat.CSV.extension}") },
+                modifier = Modifier.weight(1f)
+            ) {
+                Text("Export CSV")
+            }
+            OutlinedButton(
+                onClick = { exportJsonLauncher.launch("tasks.${TaskTransferFormat.JSON_LINES.extension}") },
+                modifier = Modifier.weight(1f)
+            ) {
+                Text("Export JSON")
+            }
+            OutlinedButton(
+                onClick = { importLauncher.launch(arrayOf("text/*", "application/*")) },
+                modifier = Modifier.weight(1f)
+            ) {
+                Text("Import")
+            }
+        }
+        
+        transferStatus?.let { status ->
+            Text(
+                text = status,
+                style = MaterialTheme.typography.bodySmall,
+                textAlign = TextAlign.Center,
+                modifier = Modifier.fillMaxWidth()
+            )
+        }
+        
+        Row(
+            modifier = Modifier
+                .fillMaxWidth()
+                .padding(vertical = 8.dp),
+            horizontalArrangement = Arrangement.spacedBy(8.dp)
+        ) {
+            OutlinedButton(
+                onClick = { backupViewModel.backup() },
+                modifier = Modifier.weight(1f)
+            ) {
+                Text("Back up")
+            }
+            OutlinedButton(
+                onClick = { confirmRestore = true },
+                enabled = latestBackup != null,
+                modifier = Modifier.weight(1f)
+            ) {
+                Text("Restore")
+            }
+        }
+        
+        (backupStatus ?: latestBackup?.let { "Last backup: ${DateTimeUtils.formatDateTime(it.createdAt)} (${it.rowCount} tasks)" })
+            ?.let { status ->
+                Text(
+                    text = status,
+                    style = MaterialTheme.typography.bodySmall,
+                    textAlign = TextAlign.Center,
+                    modifier = Modifier.fillMaxWidth()
+                )
+            }
+        
+        if (confirmRestore) {
+            AlertDialog(
+                onDismissRequest = { confirmRestore = false },
+                title = { Text("Restore backup?") },
+                text = { Text("All current tasks will be replaced by the ${latestBackup?.rowCount ?: 0} tasks in the backup.") },
+                confirmButton = {
+                    TextButton(
+                        onClick = {
+                            confirmRestore = false
+                            backupViewModel.restore()
+                        }
+                    ) {
+                        Text("Restore")
+                    }
+                },
+                dismissButton = {
+                    TextButton(onClick = { confirmRestore = false }) {
+                        Text("Cancel")
+                    }
+                }
+            )
+        }
+        
+        if (BuildConfig.DEBUG) {
+            OutlinedButton(
+                onClick = onNavigateToDiagnostics,
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .padding(vertical = 8.dp)
+            ) {
+                Text("Diagnostics")
+            }
+        }
+        
         // NOTE: Sample data seeding was removed per user request so the app starts
         // with an empty task list on first install. If you want developer-only
         // seeding, consider adding a BuildConfig flag or a debug-only path.
     }
-}
\ No newline at end of file
+}
+
+// The most urgent pending tasks, in NextUpRanker order
+@Composable
+private fun NextUpCard(
+    tasks: List<RankedTask>,
+    onTaskClick: (Int) -> Unit
+) {
+    Card(
+        modifier = Modifier
+            .fillMaxWidth()
+            .padding(vertical = 8.dp)
+    ) {
+        Column(modifier = Modifier.padding(16.dp)) {
+            Text(
+                text = "Next up",
+                style = MaterialTheme.typography.titleMedium,
+                fontWeight = FontWeight.Bold,
+                modifier = Modifier.padding(bottom = 8.dp)
+            )
+            tasks.forEach { ranked ->
+                val task = ranked.task
+                Row(
+                    modifier = Modifier
+                        .fillMaxWidth()
+                        .clickable { onTaskClick(task.id) }
+                        .padding(vertical = 6.dp),
+                    verticalAlignment = Alignment.CenterVertically
+                ) {
+                    Box(
+                        modifier = Modifier
+                            .size(10.dp)
+                            .clip(CircleShape)
+                            .background(
+                                when (task.priority) {
+                                    TaskConstants.PRIORITY_HIGH -> Color(0xFFF44336)
+                                    TaskConstants.PRIORITY_MEDIUM -> Color(0xFFFF9800)
+                                    TaskConstants.PRIORITY_LOW -> Color(0xFF4CAF50)
+                                    else -> MaterialTheme.colorScheme.onSurfaceVariant
+                                }
+                            )
+                    )
+                    Spacer(modifier = Modifier.width(12.dp))
+                    Column(modifier = Modifier.weight(1f)) {
+                        Text(
+                            text = task.title,
+                            style = MaterialTheme.typography.bodyLarge,
+                            maxLines = 1,
+                            overflow = TextOverflow.Ellipsis
+                        )
+                        val due = task.dueDateTime
+                        val overdue = DateTimeUtils.isOverdue(due)
+                        Text(
+                            text = when {
+                                due == null -> task.reminderTime?.let { "Reminder ${DateTimeUtils.formatDateTime(it)}" } ?: "No due date"
+                                overdue -> "Overdue since ${DateTimeUtils.formatDateTime(due)}"
+                                else -> "Due ${DateTimeUtils.formatDateTime(due)}"
+                            },
+                            style = MaterialTheme.typography.bodySmall,
+                            color = if (overdue) MaterialTheme.colorScheme.error else MaterialTheme.colorScheme.onSurfaceVariant
+                        )
+                    }
+                }
+            }
+        }
+    }
+}
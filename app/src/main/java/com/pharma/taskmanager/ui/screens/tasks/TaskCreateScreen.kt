@@ -62,6 +62,7 @@ fun TaskCreateScreen(
     var priority by remember { mutableStateOf(TaskConstants.PRIORITY_MEDIUM) }
     var dueDateTime by remember { mutableStateOf<Long?>(null) }
     var reminderTime by remember { mutableStateOf<Long?>(null) }
+    var recurrenceRule by remember { mutableStateOf<String?>(null) }
     
     // Dialog states
     var showDatePicker by remember { mutableStateOf(false) }
@@ -90,7 +91,8 @@ fun TaskCreateScreen(
                             description = description.takeIf { it.isNotBlank() },
                             dueDateTime = dueDateTime,
                             priority = priority,
-                            reminderTime = reminderTime
+                            reminderTime = reminderTime,
+                            recurrenceRule = recurrenceRule
                         )
                         onNavigateBack()
                     }
@@ -227,10 +229,30 @@ fun TaskCreateScreen(
                             modifier = Modifier.padding(top = 8.dp)
                         )
                         TextButton(
-                            onClick = { dueDateTime = null }
+                            onClick = {
+                                dueDateTime = null
+                                recurrenceRule = null
+                            }
                         ) {
                             Text("Remove Due Date")
                         }
+                        
+                        // Repeats are anchored at the due time, so they need one
+                        Text(
+                            text = "Repeat",
+                            style = MaterialTheme.typography.titleSmall,
+                            fontWeight = FontWeight.Bold,
+                            modifier = Modifier.padding(top = 8.dp)
+                        )
+                        Column(modifier = Modifier.selectableGroup()) {
+                            REPEAT_OPTIONS.forEach { (label, rule) ->
+                                PriorityOption(
+                                    text = label,
+                                    selected = recurrenceRule == rule,
+                                    onSelect = { recurrenceRule = rule }
+                                )
+                            }
+                        }
                     }
                 }
             }
@@ -323,6 +345,14 @@ fun TaskCreateScreen(
     }
 }
 
+private val REPEAT_OPTIONS = listOf(
+    "Does not repeat" to null,
+    "Daily" to "FREQ=DAILY",
+    "Every weekday" to "FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR",
+    "Weekly" to "FREQ=WEEKLY",
+    "Monthly" to "FREQ=MONTHLY"
+)
+
 @Composable
 private fun PriorityOption(
     text: String,
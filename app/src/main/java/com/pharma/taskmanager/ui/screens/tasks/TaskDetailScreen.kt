@@ -1,7 +1,16 @@
 package com.pharma.taskmanager.ui.screens.tasks
 
+import android.content.ActivityNotFoundException
+import android.content.Intent
+import android.graphics.Bitmap
+import androidx.activity.compose.rememberLauncherForActivityResult
+import androidx.activity.result.contract.ActivityResultContracts
+import androidx.compose.foundation.Image
 import androidx.compose.foundation.background
+import androidx.compose.foundation.clickable
 import androidx.compose.foundation.layout.*
+import androidx.compose.foundation.lazy.LazyRow
+import androidx.compose.foundation.lazy.items
 import androidx.compose.foundation.rememberScrollState
 import androidx.compose.foundation.shape.CircleShape
 import androidx.compose.foundation.shape.RoundedCornerShape
@@ -15,15 +24,23 @@ import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
 import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.graphics.asImageBitmap
 import androidx.compose.ui.graphics.vector.ImageVector
+import androidx.compose.ui.layout.ContentScale
+import androidx.compose.ui.platform.LocalDensity
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextDecoration
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.hilt.navigation.compose.hiltViewModel
 import androidx.compose.ui.platform.LocalContext
+import com.pharma.taskmanager.data.database.AttachmentEntity
+import com.pharma.taskmanager.data.database.TagEntity
 import com.pharma.taskmanager.data.database.TaskConstants
 import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.checklist.ChecklistTree
+import com.pharma.taskmanager.domain.recurrence.RecurrenceEngine
+import com.pharma.taskmanager.domain.recurrence.TaskOccurrences
 import com.pharma.taskmanager.ui.viewmodel.TaskViewModel
 import com.pharma.taskmanager.utils.DateTimeUtils
 import com.pharma.taskmanager.ui.components.DateTimePickerDialog
@@ -40,6 +57,10 @@ fun TaskDetailScreen(
     var task by remember { mutableStateOf<TaskEntity?>(null) }
     val isLoading by viewModel.isLoading.collectAsState()
     val error by viewModel.error.collectAsState()
+    val allTags by viewModel.tags.collectAsState()
+    val taskTagIds by remember(taskId) { viewModel.tagIdsOf(taskId) }.collectAsState(initial = emptyList())
+    val checklist by remember(taskId) { viewModel.checklistOf(taskId) }.collectAsState(initial = null)
+    val attachments by remember(taskId) { viewModel.attachmentsOf(taskId) }.collectAsState(initial = emptyList())
     val context = LocalContext.current
     
     // Local state for dialogs and actions
@@ -50,6 +71,11 @@ fun TaskDetailScreen(
     // Snackbar state
     val snackbarHostState = remember { SnackbarHostState() }
     val coroutineScope = rememberCoroutineScope()
+    
+    // Photos and PDFs; the bytes are copied into the attachment store off the main thread
+    val attachLauncher = rememberLauncherForActivityResult(ActivityResultContracts.OpenDocument()) { uri ->
+        uri?.let { viewModel.attach(taskId, it) }
+    }
 
     // Load task when screen is created or when refresh is triggered
     LaunchedEffect(taskId, refreshTrigger) {
@@ -249,6 +275,31 @@ fun TaskDetailScreen(
                             }
                         )
                     },
+                    tags = allTags,
+                    assignedTagIds = taskTagIds.toSet(),
+                    onToggleTag = { tagId ->
+                        viewModel.setTaskTags(taskId, if (tagId in taskTagIds) taskTagIds - tagId else taskTagIds + tagId)
+                    },
+                    onAddTag = { name -> viewModel.addTagToTask(taskId, name, taskTagIds) },
+                    checklist = checklist,
+                    onToggleStep = { itemId, completed -> viewModel.setChecklistItemCompleted(itemId, completed) },
+                    onAddStep = { parentId, title -> viewModel.addChecklistItem(taskId, parentId, title) },
+                    onDeleteStep = { itemId -> viewModel.deleteChecklistItem(itemId) },
+                    attachments = attachments,
+                    peekThumbnail = viewModel::peekThumbnail,
+                    loadThumbnail = viewModel::loadThumbnail,
+                    onAddAttachment = { attachLauncher.launch(arrayOf("image/*", "application/pdf")) },
+                    onOpenAttachment = { attachment ->
+                        val intent = Intent(Intent.ACTION_VIEW)
+                            .setDataAndType(viewModel.attachmentUri(attachment), attachment.mimeType)
+                            .addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION)
+                        try {
+                            context.startActivity(intent)
+                        } catch (e: ActivityNotFoundException) {
+                            coroutineScope.launch { snackbarHostState.showSnackbar("No app can open ${attachment.displayName}") }
+                        }
+                    },
+                    onRemoveAttachment = { attachment -> viewModel.removeAttachment(attachment) },
                     onUpdateReminder = { showReminderUpdateDialog = true },
                     onClearReminder = {
                         // Clear reminder by updating the task and cancelling schedules
@@ -307,6 +358,20 @@ fun TaskDetailScreen(
 private fun TaskDetailContent(
     task: TaskEntity,
     modifier: Modifier = Modifier,
+    tags: List<TagEntity>,
+    assignedTagIds: Set<Int>,
+    onToggleTag: (Int) -> Unit,
+    onAddTag: (String) -> Unit,
+    checklist: ChecklistTree?,
+    onToggleStep: (Int, Boolean) -> Unit,
+    onAddStep: (Int?, String) -> Unit,
+    onDeleteStep: (Int) -> Unit,
+    attachments: List<AttachmentEntity>,
+    peekThumbnail: (AttachmentEntity, Int) -> Bitmap?,
+    loadThumbnail: suspend (AttachmentEntity, Int) -> Bitmap?,
+    onAddAttachment: () -> Unit,
+    onOpenAttachment: (AttachmentEntity) -> Unit,
+    onRemoveAttachment: (AttachmentEntity) -> Unit,
     onToggleComplete: () -> Unit,
     onUpdateReminder: () -> Unit,
     onClearReminder: () -> Unit
@@ -493,6 +558,43 @@ private fun TaskDetailContent(
             }
         }
 
+        // Recurrence Section
+        val recurrence = remember(task.recurrenceRule, task.dueDateTime) { TaskOccurrences.ruleOf(task) }
+        val seriesDue = task.dueDateTime
+        if (recurrence != null && seriesDue != null) {
+            DetailSection(
+                title = "Repeats",
+                icon = Icons.Default.Repeat
+            ) {
+                val upcoming = remember(recurrence, seriesDue) {
+                    RecurrenceEngine.occurrencesBetween(recurrence, seriesDue, seriesDue + 1, Long.MAX_VALUE, limit = 3)
+                }
+
+                Column {
+                    Text(
+                        text = recurrence.describe(),
+                        style = MaterialTheme.typography.bodyLarge,
+                        color = MaterialTheme.colorScheme.onSurface
+                    )
+                    if (upcoming.isEmpty()) {
+                        Text(
+                            text = "This is the last occurrence",
+                            style = MaterialTheme.typography.labelMedium,
+                            color = MaterialTheme.colorScheme.onSurfaceVariant,
+                            modifier = Modifier.padding(top = 4.dp)
+                        )
+                    } else {
+                        Text(
+                            text = "Then: " + upcoming.joinToString(", ") { DateTimeUtils.formatDateTime(it) },
+                            style = MaterialTheme.typography.labelMedium,
+                            color = MaterialTheme.colorScheme.onSurfaceVariant,
+                            modifier = Modifier.padding(top = 4.dp)
+                        )
+                    }
+                }
+            }
+        }
+
         // Reminder Section
         if (task.reminderTime != null) {
             DetailSection(
@@ -553,6 +655,63 @@ private fun TaskDetailContent(
             }
         }
 
+        // Tags Section
+        DetailSection(
+            title = "Tags",
+            icon = Icons.Default.Label
+        ) {
+            TagEditor(
+                tags = tags,
+                assignedTagIds = assignedTagIds,
+                onToggleTag = onToggleTag,
+                onAddTag = onAddTag
+            )
+        }
+
+        // Checklist Section
+        DetailSection(
+            title = "Checklist",
+            icon = Icons.Default.Checklist
+        ) {
+            ChecklistEditor(
+                rows = checklist?.rows.orEmpty(),
+                onToggleStep = onToggleStep,
+                onAddStep = onAddStep,
+                onDeleteStep = onDeleteStep
+            )
+        }
+
+        // Attachments Section
+        DetailSection(
+            title = "Attachments",
+            icon = Icons.Default.AttachFile
+        ) {
+            Column {
+                if (attachments.isNotEmpty()) {
+                    LazyRow(horizontalArrangement = Arrangement.spacedBy(8.dp)) {
+                        items(attachments, key = { it.id }) { attachment ->
+                            AttachmentTile(
+                                attachment = attachment,
+                                peekThumbnail = peekThumbnail,
+                                loadThumbnail = loadThumbnail,
+                                onOpen = { onOpenAttachment(attachment) },
+                                onRemove = { onRemoveAttachment(attachment) }
+                            )
+                        }
+                    }
+                }
+                TextButton(onClick = onAddAttachment) {
+                    Icon(
+                        imageVector = Icons.Default.Add,
+                        contentDescription = null,
+                        modifier = Modifier.size(16.dp)
+                    )
+                    Spacer(modifier = Modifier.width(4.dp))
+                    Text("Attach photo or PDF")
+                }
+            }
+        }
+
         // Creation Info Section
         DetailSection(
             title = "Created",
@@ -570,6 +729,216 @@ private fun TaskDetailContent(
     }
 }
 
+// All tags as chips (selected = on this task), plus a field to tag it with a new name
+@OptIn(ExperimentalMaterial3Api::class)
+@Composable
+private fun TagEditor(
+    tags: List<TagEntity>,
+    assignedTagIds: Set<Int>,
+    onToggleTag: (Int) -> Unit,
+    onAddTag: (String) -> Unit
+) {
+    var newTag by remember { mutableStateOf("") }
+    Column {
+        if (tags.isNotEmpty()) {
+            LazyRow(horizontalArrangement = Arrangement.spacedBy(8.dp)) {
+                items(tags, key = { it.id }) { tag ->
+                    FilterChip(
+                        selected = tag.id in assignedTagIds,
+                        onClick = { onToggleTag(tag.id) },
+                        label = { Text("#${tag.name}") }
+                    )
+                }
+            }
+        }
+        Row(
+            verticalAlignment = Alignment.CenterVertically,
+            modifier = Modifier.padding(top = 8.dp)
+        ) {
+            OutlinedTextField(
+                value = newTag,
+                onValueChange = { newTag = it },
+                placeholder = { Text("New tag") },
+                singleLine = true,
+                modifier = Modifier.weight(1f)
+            )
+            TextButton(
+                onClick = {
+                    onAddTag(newTag)
+                    newTag = ""
+                },
+                enabled = newTag.isNotBlank()
+            ) {
+                Text("Add")
+            }
+        }
+    }
+}
+
+// Steps indented by depth; a step with sub-steps is checked when all of them are, and
+// checking it checks them all. New steps go at the top level or under the picked step.
+@Composable
+private fun ChecklistEditor(
+    rows: List<ChecklistTree.Row>,
+    onToggleStep: (Int, Boolean) -> Unit,
+    onAddStep: (Int?, String) -> Unit,
+    onDeleteStep: (Int) -> Unit
+) {
+    var newStep by remember { mutableStateOf("") }
+    var addUnder by remember { mutableStateOf<ChecklistTree.Row?>(null) }
+    LaunchedEffect(rows) {
+        addUnder = addUnder?.let { picked -> rows.firstOrNull { it.item.id == picked.item.id } }
+    }
+    Column {
+        rows.forEach { row ->
+            Row(
+                verticalAlignment = Alignment.CenterVertically,
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .padding(start = (row.depth * 20).dp)
+            ) {
+                Checkbox(
+                    checked = row.isDone,
+                    onCheckedChange = { checked -> onToggleStep(row.item.id, checked) }
+                )
+                Text(
+                    text = row.item.title,
+                    style = MaterialTheme.typography.bodyMedium,
+                    textDecoration = if (row.isDone) TextDecoration.LineThrough else TextDecoration.None,
+                    color = if (row.isDone) {
+                        MaterialTheme.colorScheme.onSurfaceVariant
+                    } else {
+                        MaterialTheme.colorScheme.onSurface
+                    },
+                    maxLines = 2,
+                    overflow = TextOverflow.Ellipsis,
+                    modifier = Modifier.weight(1f)
+                )
+                if (!row.isLeaf) {
+                    Text(
+                        text = "${row.doneSteps}/${row.totalSteps}",
+                        style = MaterialTheme.typography.labelSmall,
+                        color = MaterialTheme.colorScheme.onSurfaceVariant
+                    )
+                }
+                IconButton(onClick = { addUnder = row }) {
+                    Icon(
+                        imageVector = Icons.Default.SubdirectoryArrowRight,
+                        contentDescription = "Add sub-step",
+                        modifier = Modifier.size(18.dp)
+                    )
+                }
+                IconButton(onClick = { onDeleteStep(row.item.id) }) {
+                    Icon(
+                        imageVector = Icons.Default.Close,
+                        contentDescription = "Delete step",
+                        modifier = Modifier.size(18.dp)
+                    )
+                }
+            }
+        }
+        addUnder?.let { parent ->
+            Row(
+                verticalAlignment = Alignment.CenterVertically,
+                modifier = Modifier.padding(top = 8.dp)
+            ) {
+                Text(
+                    text = "Under \"${parent.item.title}\"",
+                    style = MaterialTheme.typography.labelMedium,
+                    color = MaterialTheme.colorScheme.primary,
+                    maxLines = 1,
+                    overflow = TextOverflow.Ellipsis,
+                    modifier = Modifier.weight(1f)
+                )
+                TextButton(onClick = { addUnder = null }) {
+                    Text("Top level")
+                }
+            }
+        }
+        Row(
+            verticalAlignment = Alignment.CenterVertically,
+            modifier = Modifier.padding(top = 8.dp)
+        ) {
+            OutlinedTextField(
+                value = newStep,
+                onValueChange = { newStep = it },
+                placeholder = { Text(if (addUnder == null) "New step" else "New sub-step") },
+                singleLine = true,
+                modifier = Modifier.weight(1f)
+            )
+            TextButton(
+                onClick = {
+                    onAddStep(addUnder?.item?.id, newStep)
+                    newStep = ""
+                },
+                enabled = newStep.isNotBlank()
+            ) {
+                Text("Add")
+            }
+        }
+    }
+}
+
+// The first frame shows a memory-cached thumbnail if there is one; otherwise the type icon
+// until the cache has decoded it on a background thread
+@Composable
+private fun AttachmentTile(
+    attachment: AttachmentEntity,
+    peekThumbnail: (AttachmentEntity, Int) -> Bitmap?,
+    loadThumbnail: suspend (AttachmentEntity, Int) -> Bitmap?,
+    onOpen: () -> Unit,
+    onRemove: () -> Unit
+) {
+    val sizePx = with(LocalDensity.current) { THUMBNAIL_SIZE.roundToPx() }
+    val thumbnail by produceState(peekThumbnail(attachment, sizePx), attachment.sha256, sizePx) {
+        if (value == null) value = loadThumbnail(attachment, sizePx)
+    }
+    Column(modifier = Modifier.width(THUMBNAIL_SIZE)) {
+        Box(
+            contentAlignment = Alignment.Center,
+            modifier = Modifier
+                .size(THUMBNAIL_SIZE)
+                .clip(RoundedCornerShape(8.dp))
+                .background(MaterialTheme.colorScheme.surfaceVariant)
+                .clickable(onClick = onOpen)
+        ) {
+            thumbnail?.let { bitmap ->
+                Image(
+                    bitmap = bitmap.asImageBitmap(),
+                    contentDescription = attachment.displayName,
+                    contentScale = ContentScale.Crop,
+                    modifier = Modifier.fillMaxSize()
+                )
+            } ?: Icon(
+                imageVector = if (attachment.mimeType == "application/pdf") Icons.Default.PictureAsPdf else Icons.Default.InsertDriveFile,
+                contentDescription = attachment.displayName,
+                tint = MaterialTheme.colorScheme.onSurfaceVariant
+            )
+            IconButton(
+                onClick = onRemove,
+                modifier = Modifier
+                    .align(Alignment.TopEnd)
+                    .size(28.dp)
+            ) {
+                Icon(
+                    imageVector = Icons.Default.Close,
+                    contentDescription = "Remove attachment",
+                    modifier = Modifier.size(16.dp)
+                )
+            }
+        }
+        Text(
+            text = attachment.displayName,
+            style = MaterialTheme.typography.labelSmall,
+            maxLines = 1,
+            overflow = TextOverflow.Ellipsis,
+            modifier = Modifier.padding(top = 4.dp)
+        )
+    }
+}
+
+private val THUMBNAIL_SIZE = 96.dp
+
 @Composable
 private fun DetailSection(
     title: String,
@@ -43,6 +43,7 @@ import androidx.compose.material3.FilterChipDefaults
 import androidx.compose.material3.FloatingActionButton
 import androidx.compose.material3.Icon
 import androidx.compose.material3.IconButton
+import androidx.compose.material3.LinearProgressIndicator
 import androidx.compose.material3.MaterialTheme
 import androidx.compose.material3.OutlinedTextField
 import androidx.compose.material3.Scaffold
@@ -74,6 +75,9 @@ import androidx.compose.ui.unit.dp
 import androidx.hilt.navigation.compose.hiltViewModel
 import com.pharma.taskmanager.data.database.TaskConstants
 import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.checklist.ChecklistProgress
+import com.pharma.taskmanager.domain.grouping.TaskGroup
+import com.pharma.taskmanager.domain.tracing.DomainTrace
 import com.pharma.taskmanager.ui.viewmodel.TaskViewModel
 import com.pharma.taskmanager.utils.DateTimeUtils
 import kotlinx.coroutines.launch
@@ -87,13 +91,6 @@ enum class TaskFilter(val displayName: String) {
     COMPLETED("Completed")
 }
 
-// Task group data class
-data class TaskGroup(
-    val title: String,
-    val tasks: List<TaskEntity>,
-    val priority: Int // For sorting groups
-)
-
 @OptIn(ExperimentalMaterial3Api::class, ExperimentalFoundationApi::class)
 @Composable
 fun TaskListScreen(
@@ -109,7 +106,10 @@ fun TaskListScreen(
     val isExpanded = screenWidth >= 840.dp
     
     // State management
-    val allTasks by viewModel.allTasks.collectAsState(initial = emptyList())
+    val taskGroups by viewModel.taskGroups.collectAsState()
+    val tags by viewModel.tags.collectAsState()
+    val tagIndex by viewModel.tagIndex.collectAsState()
+    val checklistProgress by viewModel.checklistProgress.collectAsState()
     val isLoading by viewModel.isLoading.collectAsState()
     val error by viewModel.error.collectAsState()
     
@@ -117,6 +117,8 @@ fun TaskListScreen(
     var selectedFilter by remember { mutableStateOf(TaskFilter.ALL) }
     var searchQuery by remember { mutableStateOf("") }
     var showSearch by remember { mutableStateOf(false) }
+    var selectedTagIds by remember { mutableStateOf(emptySet<Int>()) }
+    var matchAllTags by remember { mutableStateOf(false) }
     
     // Snackbar state
     val snackbarHostState = remember { SnackbarHostState() }
@@ -125,47 +127,59 @@ fun TaskListScreen(
     // Remember last action for undo functionality
     var lastAction by remember { mutableStateOf<TaskAction?>(null) }
     
-    // Filter and group tasks
+    // Optimistic toggles/deletes that failed have been rolled back; tell the user why
+    LaunchedEffect(viewModel) {
+        viewModel.mutationErrors.collect { message ->
+            snackbarHostState.showSnackbar(message)
+        }
+    }
+    
+    // A deleted tag drops out of the selection
+    LaunchedEffect(tags) {
+        selectedTagIds = selectedTagIds.filterTo(HashSet()) { id -> tags.any { it.id == id } }
+    }
+    
+    // Filter the groups the ViewModel keeps sorted; nothing here regroups or re-sorts
     val filteredAndGroupedTasks by remember {
         derivedStateOf {
-            val currentTime = DateTimeUtils.getCurrentTimestamp()
-            
-            // Apply search filter
-            val searchFiltered = if (searchQuery.isBlank()) {
-                allTasks
-            } else {
-                allTasks.filter { task ->
-                    task.title.contains(searchQuery, ignoreCase = true) ||
-                    task.description?.contains(searchQuery, ignoreCase = true) == true
+            DomainTrace.section("TaskListScreen.filterGroups") {
+                // Tag chips combine as one bitmap AND/OR; each task is then a bit test
+                val tagged = tagIndex?.takeIf { selectedTagIds.isNotEmpty() }?.let { index ->
+                    if (matchAllTags) index.allOf(selectedTagIds) else index.anyOf(selectedTagIds)
                 }
-            }
-            
-            // Apply status/date filters
-            val filtered = when (selectedFilter) {
-                TaskFilter.ALL -> searchFiltered
-                TaskFilter.TODAY -> searchFiltered.filter { task ->
-                    task.dueDateTime != null && DateTimeUtils.isDueToday(task.dueDateTime) &&
-                    task.status == TaskConstants.STATUS_PENDING
-                }
-                TaskFilter.TOMORROW -> searchFiltered.filter { task ->
-                    task.dueDateTime != null && DateTimeUtils.isDueTomorrow(task.dueDateTime) &&
-                    task.status == TaskConstants.STATUS_PENDING
-                }
-                TaskFilter.OVERDUE -> searchFiltered.filter { task ->
-                    task.dueDateTime != null && DateTimeUtils.isOverdue(task.dueDateTime) &&
-                    task.status == TaskConstants.STATUS_PENDING
-                }
-                TaskFilter.COMPLETED -> searchFiltered.filter { task ->
-                    task.status == TaskConstants.STATUS_COMPLETED
+                val keep = { task: TaskEntity ->
+                    (tagged == null || task.id in tagged) && (searchQuery.isBlank() ||
+                        task.title.contains(searchQuery, ignoreCase = true) ||
+                        task.description?.contains(searchQuery, ignoreCase = true) == true)
                 }
-            }
+                val unfiltered = tagged == null && searchQuery.isBlank()
             
-            // Group tasks by due date
-            if (selectedFilter == TaskFilter.ALL) {
-                groupTasksByDueDate(filtered, currentTime)
-            } else {
-                // For specific filters, show as single group
-                listOf(TaskGroup(selectedFilter.displayName, filtered, 0))
+                if (selectedFilter == TaskFilter.ALL) {
+                    if (unfiltered) {
+                        taskGroups
+                    } else {
+                        taskGroups.mapNotNull { group ->
+                            group.tasks.filter(keep).takeIf { it.isNotEmpty() }?.let { group.copy(tasks = it) }
+                        }
+                    }
+                } else {
+                    // For specific filters, show as single group
+                    val filtered = taskGroups.flatMap { group ->
+                        group.tasks.filter { task ->
+                            keep(task) && when (selectedFilter) {
+                                TaskFilter.TODAY -> task.dueDateTime != null && DateTimeUtils.isDueToday(task.dueDateTime) &&
+                                    task.status == TaskConstants.STATUS_PENDING
+                                TaskFilter.TOMORROW -> task.dueDateTime != null && DateTimeUtils.isDueTomorrow(task.dueDateTime) &&
+                                    task.status == TaskConstants.STATUS_PENDING
+                                TaskFilter.OVERDUE -> task.dueDateTime != null && DateTimeUtils.isOverdue(task.dueDateTime) &&
+                                    task.status == TaskConstants.STATUS_PENDING
+                                TaskFilter.COMPLETED -> task.status == TaskConstants.STATUS_COMPLETED
+                                TaskFilter.ALL -> true
+                            }
+                        }
+                    }
+                    listOf(TaskGroup(selectedFilter.displayName, filtered, 0))
+                }
             }
         }
     }
@@ -191,7 +205,7 @@ fun TaskListScreen(
                             }
                         )
                     } else {
-                        Text("Tasks (${allTasks.size})")
+                        Text("Tasks (${taskGroups.sumOf { it.tasks.size }})")
                     }
                 },
                 navigationIcon = {
@@ -256,6 +270,40 @@ fun TaskListScreen(
                 }
             }
             
+            // Tag chips: several selected match any of them, or all with "Match all" on
+            if (tags.isNotEmpty()) {
+                LazyRow(
+                    modifier = Modifier
+                        .fillMaxWidth()
+                        .padding(
+                            horizontal = if (isExpanded) 24.dp else if (isCompact) 8.dp else 16.dp,
+                            vertical = 2.dp
+                        ),
+                    horizontalArrangement = Arrangement.spacedBy(if (isCompact) 6.dp else 8.dp)
+                ) {
+                    if (selectedTagIds.size > 1) {
+                        item {
+                            FilterChip(
+                                onClick = { matchAllTags = !matchAllTags },
+                                label = { Text(if (matchAllTags) "Match all" else "Match any") },
+                                selected = matchAllTags,
+                                modifier = Modifier.height(if (isCompact) 28.dp else 32.dp)
+                            )
+                        }
+                    }
+                    items(tags, key = { it.id }) { tag ->
+                        FilterChip(
+                            onClick = {
+                                selectedTagIds = if (tag.id in selectedTagIds) selectedTagIds - tag.id else selectedTagIds + tag.id
+                            },
+                            label = { Text("#${tag.name}") },
+                            selected = tag.id in selectedTagIds,
+                            modifier = Modifier.height(if (isCompact) 28.dp else 32.dp)
+                        )
+                    }
+                }
+            }
+            
             // Content based on state
             when {
                 isLoading -> {
@@ -301,6 +349,8 @@ fun TaskListScreen(
                             Text(
                                 text = if (searchQuery.isNotBlank()) {
                                     "No tasks found for \"$searchQuery\""
+                                } else if (selectedTagIds.isNotEmpty()) {
+                                    "No tasks with the selected tags"
                                 } else {
                                     when (selectedFilter) {
                                         TaskFilter.ALL -> "No tasks yet. Create your first task!"
@@ -343,6 +393,7 @@ fun TaskListScreen(
                                 ) { task ->
                                     TaskItem(
                                         task = task,
+                                        checklist = checklistProgress[task.id],
                                         onTaskClick = { onNavigateToTaskDetail(task.id) },
                                         onToggleComplete = { 
                                             lastAction = TaskAction.ToggleComplete(task, task.status)
@@ -365,16 +416,10 @@ fun TaskListScreen(
                                                     lastAction?.let { action ->
                                                         when (action) {
                                                             is TaskAction.ToggleComplete -> {
-                                                                viewModel.toggleTaskCompletion(action.task.id, action.originalStatus)
+                                                                viewModel.setTaskStatus(action.task.id, action.originalStatus)
                                                             }
                                                             is TaskAction.Delete -> {
-                                                                viewModel.createTask(
-                                                                    title = action.task.title,
-                                                                    description = action.task.description,
-                                                                    dueDateTime = action.task.dueDateTime,
-                                                                    priority = action.task.priority,
-                                                                    reminderTime = action.task.reminderTime
-                                                                )
+                                                                viewModel.restoreTask(action.task.id)
                                                             }
                                                         }
                                                     }
@@ -394,14 +439,8 @@ fun TaskListScreen(
                                                 )
                                                 
                                                 if (result == SnackbarResult.ActionPerformed) {
-                                                    // Recreate the deleted task
-                                                    viewModel.createTask(
-                                                        title = task.title,
-                                                        description = task.description,
-                                                        dueDateTime = task.dueDateTime,
-                                                        priority = task.priority,
-                                                        reminderTime = task.reminderTime
-                                                    )
+                                                    // Clear the tombstone so the task comes back in place
+                                                    viewModel.restoreTask(task.id)
                                                 }
                                             }
                                         },
@@ -462,6 +501,7 @@ private fun GroupHeader(
 @Composable
 private fun TaskItem(
     task: TaskEntity,
+    checklist: ChecklistProgress?,
     onTaskClick: () -> Unit,
     onToggleComplete: () -> Unit,
     onDeleteTask: () -> Unit,
@@ -556,6 +596,14 @@ private fun TaskItem(
                     )
                 }
                 
+                // Checklist rollup (if the task has steps)
+                checklist?.takeIf { it.totalSteps > 0 }?.let { progress ->
+                    ChecklistProgressRow(
+                        progress = progress,
+                        modifier = Modifier.padding(top = 6.dp)
+                    )
+                }
+                
                 // Due date and priority row
                 Row(
                     modifier = Modifier
@@ -622,48 +670,38 @@ private fun TaskItem(
     }
 }
 
-// Helper function to group tasks by due date
-private fun groupTasksByDueDate(tasks: List<TaskEntity>, currentTime: Long): List<TaskGroup> {
-    val groups = mutableListOf<TaskGroup>()
-    
-    // Separate tasks by categories
-    val overdueTasks = mutableListOf<TaskEntity>()
-    val todayTasks = mutableListOf<TaskEntity>()
-    val tomorrowTasks = mutableListOf<TaskEntity>()
-    val futureTasks = mutableListOf<TaskEntity>()
-    val completedTasks = mutableListOf<TaskEntity>()
-    val noDueDateTasks = mutableListOf<TaskEntity>()
-    
-    tasks.forEach { task ->
-        when {
-            task.status == TaskConstants.STATUS_COMPLETED -> completedTasks.add(task)
-            task.dueDateTime == null -> noDueDateTasks.add(task)
-            DateTimeUtils.isOverdue(task.dueDateTime) -> overdueTasks.add(task)
-            DateTimeUtils.isDueToday(task.dueDateTime) -> todayTasks.add(task)
-            DateTimeUtils.isDueTomorrow(task.dueDateTime) -> tomorrowTasks.add(task)
-            else -> futureTasks.add(task)
+@Composable
+private fun ChecklistProgressRow(
+    progress: ChecklistProgress,
+    modifier: Modifier = Modifier
+) {
+    Column(modifier = modifier.fillMaxWidth()) {
+        Row(
+            modifier = Modifier.fillMaxWidth(),
+            horizontalArrangement = Arrangement.SpaceBetween,
+            verticalAlignment = Alignment.CenterVertically
+        ) {
+            Text(
+                text = "${progress.doneSteps}/${progress.totalSteps} steps",
+                style = MaterialTheme.typography.labelSmall,
+                color = MaterialTheme.colorScheme.onSurfaceVariant
+            )
+            progress.nextDueDateTime?.let { due ->
+                Text(
+                    text = "Next step ${DateTimeUtils.formatDate(due)}",
+                    style = MaterialTheme.typography.labelSmall,
+                    color = if (DateTimeUtils.isOverdue(due)) Color(0xFFF44336) else MaterialTheme.colorScheme.onSurfaceVariant
+                )
+            }
         }
+        LinearProgressIndicator(
+            progress = progress.fraction,
+            modifier = Modifier
+                .fillMaxWidth()
+                .padding(top = 4.dp)
+                .height(4.dp)
+                .clip(RoundedCornerShape(2.dp)),
+            color = if (progress.isComplete) Color(0xFF4CAF50) else MaterialTheme.colorScheme.primary
+        )
     }
-    
-    // Add groups in priority order
-    if (overdueTasks.isNotEmpty()) {
-        groups.add(TaskGroup("Overdue", overdueTasks.sortedBy { it.dueDateTime }, 0))
-    }
-    if (todayTasks.isNotEmpty()) {
-        groups.add(TaskGroup("Today", todayTasks.sortedBy { it.dueDateTime }, 1))
-    }
-    if (tomorrowTasks.isNotEmpty()) {
-        groups.add(TaskGroup("Tomorrow", tomorrowTasks.sortedBy { it.dueDateTime }, 2))
-    }
-    if (futureTasks.isNotEmpty()) {
-        groups.add(TaskGroup("Upcoming", futureTasks.sortedBy { it.dueDateTime }, 3))
-    }
-    if (noDueDateTasks.isNotEmpty()) {
-        groups.add(TaskGroup("No Due Date", noDueDateTasks.sortedBy { it.title }, 4))
-    }
-    if (completedTasks.isNotEmpty()) {
-        groups.add(TaskGroup("Completed", completedTasks.sortedByDescending { it.dueDateTime }, 5))
-    }
-    
-    return groups
-}
\ No newline at end of file
+}
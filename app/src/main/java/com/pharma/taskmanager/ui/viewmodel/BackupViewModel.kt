@@ -0,0 +1,58 @@
+package com.pharma.taskmanager.ui.viewmodel
+
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import com.pharma.taskmanager.data.repository.TaskSnapshotRepository
+import com.pharma.taskmanager.domain.snapshot.TaskSnapshot
+import com.pharma.taskmanager.utils.DateTimeUtils
+import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.launch
+import javax.inject.Inject
+
+/**
+ * Backs the Home screen's on-device backup: snapshot the tasks table, or restore it.
+ */
+@HiltViewModel
+class BackupViewModel @Inject constructor(
+    private val snapshotRepository: TaskSnapshotRepository
+) : ViewModel() {
+
+    private val _latest = MutableStateFlow<TaskSnapshot.Header?>(null)
+    val latest: StateFlow<TaskSnapshot.Header?> = _latest.asStateFlow()
+
+    private val _status = MutableStateFlow<String?>(null)
+    val status: StateFlow<String?> = _status.asStateFlow()
+
+    private var job: Job? = null
+
+    init {
+        viewModelScope.launch { _latest.value = snapshotRepository.latest() }
+    }
+
+    fun backup() = launchOperation("Backing up…") {
+        val rows = snapshotRepository.backup()
+        _latest.value = snapshotRepository.latest()
+        "Backed up $rows tasks"
+    }
+
+    fun restore() = launchOperation("Restoring…") {
+        val rows = snapshotRepository.restore()
+        "Restored $rows tasks from ${_latest.value?.let { DateTimeUtils.formatDateTime(it.createdAt) } ?: "backup"}"
+    }
+
+    private fun launchOperation(progress: String, block: suspend () -> String) {
+        if (job?.isActive == true) return
+        job = viewModelScope.launch {
+            _status.value = progress
+            _status.value = try {
+                block()
+            } catch (e: Exception) {
+                "Failed: ${e.message}"
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.pharma.taskmanager.ui.viewmodel
+
+import android.content.Context
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import com.pharma.taskmanager.data.repository.ReminderMetricsRepository
+import com.pharma.taskmanager.data.repository.TaskCache
+import com.pharma.taskmanager.domain.metrics.ReminderLatencyReport
+import com.pharma.taskmanager.domain.reminder.ReminderAlarmLedger
+import com.pharma.taskmanager.domain.mutation.TaskMutationDispatcher
+import com.pharma.taskmanager.domain.sync.SyncEngine
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.logging.LogEvent
+import com.pharma.taskmanager.logging.RingBufferLogSink
+import com.pharma.taskmanager.tracing.TraceCounters
+import com.pharma.taskmanager.utils.ReminderRearmer
+import com.pharma.taskmanager.workers.ReminderRearmWorker
+import dagger.hilt.android.lifecycle.HiltViewModel
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.launch
+import javax.inject.Inject
+
+/**
+ * Backs the developer Diagnostics screen (debug builds only).
+ */
+@HiltViewModel
+class DiagnosticsViewModel @Inject constructor(
+    @ApplicationContext private val context: Context,
+    private val reminderMetrics: ReminderMetricsRepository,
+    private val taskCache: TaskCache,
+    private val taskMutations: TaskMutationDispatcher,
+    private val syncEngine: SyncEngine,
+    private val reminderRearmer: ReminderRearmer
+) : ViewModel() {
+    
+    private val _traceCountersEnabled = MutableStateFlow(TraceCounters.enabled)
+    val traceCountersEnabled: StateFlow<Boolean> = _traceCountersEnabled.asStateFlow()
+    
+    private val _traceSections = MutableStateFlow(TraceCounters.snapshot())
+    val traceSections: StateFlow<List<TraceCounters.SectionStats>> = _traceSections.asStateFlow()
+    
+    private val _reminderLatency = MutableStateFlow<List<ReminderLatencyReport>>(emptyList())
+    val reminderLatency: StateFlow<List<ReminderLatencyReport>> = _reminderLatency.asStateFlow()
+    
+    private val _taskCacheStats = MutableStateFlow(taskCache.stats())
+    val taskCacheStats: StateFlow<TaskCache.Stats> = _taskCacheStats.asStateFlow()
+    
+    private val _mutationStats = MutableStateFlow(taskMutations.stats())
+    val mutationStats: StateFlow<TaskMutationDispatcher.Stats> = _mutationStats.asStateFlow()
+    
+    private val _syncStatus = MutableStateFlow<String?>(null)
+    val syncStatus: StateFlow<String?> = _syncStatus.asStateFlow()
+    
+    private val _rearmPass = MutableStateFlow<ReminderAlarmLedger.Pass?>(null)
+    val rearmPass: StateFlow<ReminderAlarmLedger.Pass?> = _rearmPass.asStateFlow()
+    
+    // Newest first
+    private val _recentLog = MutableStateFlow(RingBufferLogSink.shared.snapshot().asReversed())
+    val recentLog: StateFlow<List<LogEvent>> = _recentLog.asStateFlow()
+    
+    init {
+        loadReminderLatency()
+        loadRearmPass()
+    }
+    
+    fun setTraceCountersEnabled(enabled: Boolean) {
+        TraceCounters.setEnabled(context, enabled)
+        _traceCountersEnabled.value = enabled
+    }
+    
+    fun refresh() {
+        _traceSections.value = TraceCounters.snapshot()
+        _recentLog.value = RingBufferLogSink.shared.snapshot().asReversed()
+        _taskCacheStats.value = taskCache.stats()
+        _mutationStats.value = taskMutations.stats()
+        loadReminderLatency()
+        loadRearmPass()
+    }
+    
+    /**
+     * Plain-text dump of the in-memory log, for copying into a bug report.
+     */
+    fun dumpLog(): String = RingBufferLogSink.shared.dump()
+    
+    fun clearLog() {
+        RingBufferLogSink.shared.clear()
+        _recentLog.value = emptyList()
+    }
+    
+    fun resetTraceCounters() {
+        TraceCounters.reset()
+        refresh()
+    }
+    
+    fun clearReminderMetrics() {
+        viewModelScope.launch {
+            reminderMetrics.clear()
+            loadReminderLatency()
+        }
+    }
+    
+    fun syncNow() {
+        viewModelScope.launch {
+            _syncStatus.value = "Syncing…"
+            _syncStatus.value = try {
+                val result = syncEngine.sync()
+                "pushed=${result.pushed}  pulled=${result.pulled}  conflicts=${result.conflicts}  " +
+                    "sent=${result.bytesSent}B  received=${result.bytesReceived}B"
+            } catch (e: Exception) {
+                "Failed: ${e.message}"
+            }
+        }
+    }
+    
+    fun rearmReminders() {
+        viewModelScope.launch {
+            try {
+                val pass = reminderRearmer.rearm(ReminderRearmer.REASON_MANUAL)
+                ReminderRearmWorker.scheduleRefill(context, pass.refillAt)
+                _rearmPass.value = pass
+            } catch (e: Exception) {
+                AppLog.e("DiagnosticsViewModel", e) { "❌ Manual re-arm failed: ${e.message}" }
+            }
+        }
+    }
+    
+    private fun loadRearmPass() {
+        viewModelScope.launch {
+            _rearmPass.value = reminderRearmer.lastPass()
+        }
+    }
+    
+    private fun loadReminderLatency() {
+        viewModelScope.launch {
+            _reminderLatency.value = reminderMetrics.getLatencyReports()
+        }
+    }
+}
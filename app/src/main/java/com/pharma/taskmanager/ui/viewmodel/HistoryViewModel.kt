@@ -0,0 +1,60 @@
+package com.pharma.taskmanager.ui.viewmodel
+
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import com.pharma.taskmanager.data.database.ArchivedTaskEntity
+import com.pharma.taskmanager.data.repository.ArchiveRepository
+import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.launch
+import javax.inject.Inject
+
+/**
+ * Backs the History screen. Archived tasks are loaded a page at a time as the list
+ * scrolls; nothing is read until the screen is opened.
+ */
+@HiltViewModel
+class HistoryViewModel @Inject constructor(
+    private val archiveRepository: ArchiveRepository
+) : ViewModel() {
+
+    private val _tasks = MutableStateFlow<List<ArchivedTaskEntity>>(emptyList())
+    val tasks: StateFlow<List<ArchivedTaskEntity>> = _tasks.asStateFlow()
+
+    private val _isLoading = MutableStateFlow(false)
+    val isLoading: StateFlow<Boolean> = _isLoading.asStateFlow()
+
+    private val _endReached = MutableStateFlow(false)
+    val endReached: StateFlow<Boolean> = _endReached.asStateFlow()
+
+    private val _error = MutableStateFlow<String?>(null)
+    val error: StateFlow<String?> = _error.asStateFlow()
+
+    private var nextKey: ArchiveRepository.PageKey? = null
+    private var loadJob: Job? = null
+
+    init {
+        loadNextPage()
+    }
+
+    fun loadNextPage() {
+        if (loadJob?.isActive == true || _endReached.value) return
+        loadJob = viewModelScope.launch {
+            _isLoading.value = true
+            try {
+                val page = archiveRepository.loadPage(nextKey)
+                _tasks.value = _tasks.value + page.tasks
+                nextKey = page.nextKey
+                _endReached.value = page.nextKey == null
+                _error.value = null
+            } catch (e: Exception) {
+                _error.value = "Failed to load history: ${e.message}"
+            } finally {
+                _isLoading.value = false
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.pharma.taskmanager.ui.viewmodel
+
+import android.content.Context
+import android.net.Uri
+import androidx.lifecycle.ViewModel
+import androidx.lifecycle.viewModelScope
+import androidx.work.WorkInfo
+import androidx.work.WorkManager
+import com.pharma.taskmanager.domain.transfer.TaskTransferFormat
+import com.pharma.taskmanager.workers.TaskExportWorker
+import com.pharma.taskmanager.workers.TaskImportWorker
+import dagger.hilt.android.lifecycle.HiltViewModel
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.stateIn
+import javax.inject.Inject
+
+/**
+ * Starts export/import work and turns its WorkManager progress into one status line.
+ * The work outlives the screen, so the status comes back when the user returns.
+ */
+@HiltViewModel
+class TaskTransferViewModel @Inject constructor(
+    @ApplicationContext private val context: Context,
+    workManager: WorkManager
+) : ViewModel() {
+
+    /** Running work first; null when WorkManager has no export or import on record. */
+    val status: StateFlow<String?> = combine(
+        workManager.getWorkInfosForUniqueWorkFlow(TaskExportWorker.WORK_NAME),
+        workManager.getWorkInfosForUniqueWorkFlow(TaskImportWorker.WORK_NAME)
+    ) { exports, imports ->
+        val export = exports.lastOrNull()
+        val import = imports.lastOrNull()
+        when {
+            import != null && !import.state.isFinished -> importStatus(import)
+            export != null && !export.state.isFinished -> exportStatus(export)
+            import != null -> importStatus(import)
+            export != null -> exportStatus(export)
+            else -> null
+        }
+    }.stateIn(viewModelScope, SharingStarted.WhileSubscribed(), null)
+
+    fun export(uri: Uri, format: TaskTransferFormat) = TaskExportWorker.enqueue(context, uri, format)
+
+    fun import(uri: Uri) = TaskImportWorker.enqueue(context, uri)
+
+    private fun exportStatus(info: WorkInfo): String = when (info.state) {
+        WorkInfo.State.SUCCEEDED -> "Exported ${info.outputData.getLong(TaskExportWorker.KEY_ROWS, 0)} tasks"
+        WorkInfo.State.FAILED -> "Export failed: ${info.outputData.getString(TaskExportWorker.KEY_ERROR)}"
+        WorkInfo.State.CANCELLED -> "Export cancelled"
+        else -> "Exporting… ${info.progress.getLong(TaskExportWorker.KEY_ROWS, 0)} tasks"
+    }
+
+    private fun importStatus(info: WorkInfo): String = when (info.state) {
+        WorkInfo.State.SUCCEEDED -> {
+            val imported = info.outputData.getLong(TaskImportWorker.KEY_ROWS, 0)
+            val skipped = info.outputData.getLong(TaskImportWorker.KEY_SKIPPED, 0)
+            val firstError = info.outputData.getStringArray(TaskImportWorker.KEY_ERRORS)?.firstOrNull()
+            buildString {
+                append("Imported $imported tasks")
+                if (skipped > 0) append(", skipped $skipped ($firstError)")
+            }
+        }
+        WorkInfo.State.FAILED -> "Import failed after ${info.outputData.getLong(TaskImportWorker.KEY_ROWS, 0)} tasks: " +
+            info.outputData.getString(TaskImportWorker.KEY_ERROR)
+        WorkInfo.State.CANCELLED -> "Import cancelled"
+        else -> {
+            val rows = info.progress.getLong(TaskImportWorker.KEY_ROWS, 0)
+            val read = info.progress.getLong(TaskImportWorker.KEY_BYTES_READ, 0)
+            val total = info.progress.getLong(TaskImportWorker.KEY_TOTAL_BYTES, -1)
+            if (total > 0) "Importing… $rows tasks (${read * 100 / total}%)" else "Importing… $rows tasks"
+        }
+    }
+}
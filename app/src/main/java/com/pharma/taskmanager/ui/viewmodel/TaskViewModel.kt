@@ -1,23 +1,63 @@
 package com.pharma.taskmanager.ui.viewmodel
 
+import android.graphics.Bitmap
+import android.net.Uri
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
+import com.pharma.taskmanager.data.database.AttachmentEntity
+import com.pharma.taskmanager.data.database.TagEntity
 import com.pharma.taskmanager.data.database.TaskConstants
 import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.data.repository.AttachmentRepository
+import com.pharma.taskmanager.data.repository.ChecklistRepository
+import com.pharma.taskmanager.data.repository.TagRepository
+import com.pharma.taskmanager.data.repository.ThumbnailCache
+import com.pharma.taskmanager.domain.changes.TaskChangeSet
+import com.pharma.taskmanager.domain.checklist.ChecklistProgress
+import com.pharma.taskmanager.domain.checklist.ChecklistTree
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.grouping.TaskGroup
+import com.pharma.taskmanager.domain.grouping.TaskGroupIndex
+import com.pharma.taskmanager.domain.mutation.TaskIntent
+import com.pharma.taskmanager.domain.mutation.TaskMutationDispatcher
+import com.pharma.taskmanager.domain.optimistic.OptimisticOverlay
+import com.pharma.taskmanager.domain.optimistic.PendingMutation
+import com.pharma.taskmanager.domain.ranking.NextUpRanker
+import com.pharma.taskmanager.domain.ranking.RankedTask
+import com.pharma.taskmanager.domain.recurrence.TaskOccurrences
+import com.pharma.taskmanager.domain.stats.TaskStats
+import com.pharma.taskmanager.domain.tags.TagBitmapIndex
 import com.pharma.taskmanager.domain.usecase.TaskUseCases
+import com.pharma.taskmanager.logging.AppLog
 import com.pharma.taskmanager.utils.DateTimeUtils
 import com.pharma.taskmanager.utils.ReminderScheduler
 import com.pharma.taskmanager.utils.NotificationHelper
 import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.*
 import kotlinx.coroutines.launch
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
 import javax.inject.Inject
 
+/**
+ * Mutation currently in flight for a task (per-task replacement for the global loading flag).
+ */
+enum class TaskOperation {
+    TOGGLING, DELETING
+}
+
 @HiltViewModel
 class TaskViewModel @Inject constructor(
     private val taskUseCases: TaskUseCases,
+    private val taskMutations: TaskMutationDispatcher,
     private val reminderScheduler: ReminderScheduler,
-    private val notificationHelper: NotificationHelper
+    private val notificationHelper: NotificationHelper,
+    private val tagRepository: TagRepository,
+    private val checklistRepository: ChecklistRepository,
+    private val attachmentRepository: AttachmentRepository,
+    private val thumbnailCache: ThumbnailCache,
+    private val dispatchers: AppDispatchers
 ) : ViewModel() {
     
     // UI State
@@ -31,12 +71,108 @@ class TaskViewModel @Inject constructor(
     private val _currentFilter = MutableStateFlow<String?>(null)
     val currentFilter: StateFlow<String?> = _currentFilter.asStateFlow()
     
+    // One-shot messages for failed optimistic mutations (shown as a snackbar, the list stays)
+    private val _mutationErrors = MutableSharedFlow<String>(extraBufferCapacity = 8)
+    val mutationErrors: SharedFlow<String> = _mutationErrors.asSharedFlow()
+    
+    private val _operationsInFlight = MutableStateFlow<Map<Int, TaskOperation>>(emptyMap())
+    val operationsInFlight: StateFlow<Map<Int, TaskOperation>> = _operationsInFlight.asStateFlow()
+    
+    // Optimistic overlay: mutations shown in the UI before Room re-emits
+    private val nextOpId = AtomicLong()
+    private val pendingMutations = MutableStateFlow<Map<Long, PendingMutation>>(emptyMap())
+    
+    // Database rows by id, maintained from the change feed while the list is observed
+    private val databaseRows = ConcurrentHashMap<Int, TaskEntity>()
+    
+    /**
+     * The task list and the "Next up" card, from one pipeline. Database change sets and
+     * overlay changes are reduced into a [TaskGroupIndex] and a [NextUpRanker], so a write
+     * re-sorts only the rows it touched instead of the screen re-filtering, re-grouping and
+     * re-sorting the whole list on every emission. A minute tick moves rows whose due date
+     * passed and rescores the ranking; the reduction runs off the main thread.
+     */
+    private val listState: StateFlow<TaskListState> = flow {
+        val start = DateTimeUtils.getCurrentTimestamp()
+        val index = TaskGroupIndex(start)
+        val ranker = NextUpRanker(now = start)
+        var overlaid = emptyMap<Long, PendingMutation>()
+        merge(
+            taskUseCases.getTasks.changes().map { ListUpdate.Rows(it) },
+            pendingMutations.map { ListUpdate.Overlay(it) },
+            flow {
+                while (true) {
+                    delay(NextUpRanker.RESCORE_INTERVAL_MILLIS)
+                    emit(ListUpdate.Tick)
+                }
+            }
+        ).collect { update ->
+            val now = DateTimeUtils.getCurrentTimestamp()
+            when (update) {
+                is ListUpdate.Rows -> {
+                    val changes = update.changes
+                    if (changes.reset) databaseRows.clear()
+                    changes.deletedIds.forEach { databaseRows.remove(it) }
+                    changes.inserted.forEach { databaseRows[it.id] = it }
+                    changes.updated.forEach { databaseRows[it.id] = it }
+                    // The overlay reconciles exactly once per database change set
+                    overlaid = pendingMutations.updateAndGet { OptimisticOverlay.reconcile(databaseRows::get, it) }
+                    
+                    if (changes.reset) {
+                        val rows = databaseRows.values.mapNotNull { OptimisticOverlay.apply(it, overlaid.values) }
+                        index.replaceAll(rows, now)
+                        ranker.replaceAll(rows, now)
+                    } else {
+                        index.advanceTo(now)
+                        ranker.advanceTo(now)
+                        changes.deletedIds.forEach { index.remove(it); ranker.remove(it) }
+                        changes.inserted.forEach { show(it.id, overlaid, index, ranker) }
+                        changes.updated.forEach { show(it.id, overlaid, index, ranker) }
+                    }
+                }
+                is ListUpdate.Overlay -> {
+                    val pending = update.pending
+                    if (pending != overlaid) {
+                        val affected = (overlaid.values + pending.values).mapTo(HashSet()) { it.taskId }
+                        overlaid = pending
+                        index.advanceTo(now)
+                        ranker.advanceTo(now)
+                        affected.forEach { show(it, pending, index, ranker) }
+                    }
+                }
+                ListUpdate.Tick -> {
+                    index.advanceTo(now)
+                    ranker.advanceTo(now)
+                }
+            }
+            emit(TaskListState(index.groups(), ranker.top()))
+        }
+    }.flowOn(dispatchers.cpu)
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(), TaskListState())
+    
+    val taskGroups: StateFlow<List<TaskGroup>> = listState.map { it.groups }
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(), emptyList())
+    
+    // The most urgent actionable tasks for the Home screen, kept incrementally by NextUpRanker
+    val nextUp: StateFlow<List<RankedTask>> = listState.map { it.nextUp }
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(), emptyList())
+    
     // Tasks flows
-    val allTasks = taskUseCases.getTasks()
+    val allTasks: Flow<List<TaskEntity>> = taskGroups.map { groups -> groups.flatMap { it.tasks } }
     val pendingTasks = taskUseCases.getTasks.getPendingTasks()
     val completedTasks = taskUseCases.getTasks.getCompletedTasks()
     val tasksWithReminders = taskUseCases.getTasks.getTasksWithReminders()
     
+    // Tags for the filter chips, and the bitmap index that answers chip combinations in memory
+    val tags: StateFlow<List<TagEntity>> = tagRepository.tags()
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(), emptyList())
+    val tagIndex: StateFlow<TagBitmapIndex?> = tagRepository.tagIndex()
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(), null)
+    
+    // Checklist rollups by task id, for the progress on list rows; no steps are loaded
+    val checklistProgress: StateFlow<Map<Int, ChecklistProgress>> = checklistRepository.progress()
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(), emptyMap())
+    
     // Filtered tasks based on current filter
     val filteredTasks = combine(allTasks, currentFilter) { tasks, filter ->
         when (filter) {
@@ -59,16 +195,7 @@ class TaskViewModel @Inject constructor(
     
     // Statistics
     val taskStats = allTasks.map { tasks ->
-        TaskStats(
-            total = tasks.size,
-            pending = tasks.count { it.status == TaskConstants.STATUS_PENDING },
-            completed = tasks.count { it.status == TaskConstants.STATUS_COMPLETED },
-            highPriority = tasks.count { it.priority == TaskConstants.PRIORITY_HIGH },
-            overdue = tasks.count { task ->
-                task.dueDateTime != null && DateTimeUtils.isOverdue(task.dueDateTime) && 
-                task.status == TaskConstants.STATUS_PENDING
-            }
-        )
+        TaskStats.from(tasks, DateTimeUtils.getCurrentTimestamp())
     }.stateIn(viewModelScope, SharingStarted.WhileSubscribed(), TaskStats())
     
     // Create a new task
@@ -77,7 +204,8 @@ class TaskViewModel @Inject constructor(
         description: String? = null,
         dueDateTime: Long? = null,
         priority: Int = TaskConstants.PRIORITY_MEDIUM,
-        reminderTime: Long? = null
+        reminderTime: Long? = null,
+        recurrenceRule: String? = null
     ) {
         viewModelScope.launch {
             try {
@@ -89,7 +217,8 @@ class TaskViewModel @Inject constructor(
                     description = description,
                     dueDateTime = dueDateTime,
                     priority = priority,
-                    reminderTime = reminderTime
+                    reminderTime = reminderTime,
+                    recurrenceRule = recurrenceRule
                 )
                 
                 result.fold(
@@ -109,57 +238,87 @@ class TaskViewModel @Inject constructor(
         }
     }
     
-    // Delete a task
+    // Delete a task (optimistic: the row disappears immediately, comes back if the delete fails).
+    // Deletes are tombstones, so the reminder is left scheduled: it skips the hidden row when it
+    // fires, survives an undo, and is cancelled when TombstonePurgeWorker removes the row.
     fun deleteTask(task: TaskEntity) {
+        val opId = beginMutation(PendingMutation.Delete(nextOpId.incrementAndGet(), task.id), TaskOperation.DELETING)
         viewModelScope.launch {
-            try {
-                _isLoading.value = true
-                _error.value = null
-                
-                // Cancel reminder if it exists
-                if (task.reminderTime != null) {
-                    reminderScheduler.cancelReminder(task.id)
-                }
-                
-                val result = taskUseCases.deleteTask(task)
-                result.fold(
-                    onSuccess = { /* Task deleted successfully */ },
-                    onFailure = { error -> _error.value = "Failed to delete task: ${error.message}" }
-                )
+            val result = try {
+                taskUseCases.deleteTask(task)
             } catch (e: Exception) {
-                _error.value = "Failed to delete task: ${e.message}"
-            } finally {
-                _isLoading.value = false
+                Result.failure(e)
             }
+            finishMutation(opId, task.id, result) { error -> "Failed to delete task: ${error.message}" }
         }
     }
     
-    // Toggle task completion
+    // Undo a delete in place: same id, same position, reminder untouched
+    fun restoreTask(taskId: Int) {
+        viewModelScope.launch {
+            taskUseCases.deleteTask.restore(taskId).onFailure { error ->
+                _error.value = "Failed to restore task: ${error.message}"
+            }
+        }
+    }
+    
+    // Toggle task completion (optimistic: the checkbox flips immediately)
     fun toggleTaskCompletion(taskId: Int, currentStatus: String) {
+        val newStatus = if (currentStatus == TaskConstants.STATUS_PENDING) {
+            TaskConstants.STATUS_COMPLETED
+        } else {
+            TaskConstants.STATUS_PENDING
+        }
+        setTaskStatus(taskId, newStatus)
+    }
+    
+    // Set completion status explicitly (used by toggle and by undo)
+    fun setTaskStatus(taskId: Int, newStatus: String) {
+        // Completing a recurring task shows it rolled to its next occurrence, as the write will
+        val nextInstance = if (newStatus == TaskConstants.STATUS_COMPLETED) {
+            databaseRows[taskId]
+                ?.takeIf { it.status != TaskConstants.STATUS_COMPLETED }
+                ?.let { TaskOccurrences.nextInstance(it, System.currentTimeMillis()) }
+        } else {
+            null
+        }
+        val mutation = if (nextInstance != null) {
+            PendingMutation.Replace(nextOpId.incrementAndGet(), nextInstance)
+        } else {
+            PendingMutation.SetStatus(nextOpId.incrementAndGet(), taskId, newStatus)
+        }
+        val opId = beginMutation(mutation, TaskOperation.TOGGLING)
         viewModelScope.launch {
-            try {
-                _isLoading.value = true
-                _error.value = null
-                
-                val result = taskUseCases.updateTask.toggleTaskCompletion(taskId)
-                result.fold(
-                    onSuccess = {
-                        // After toggling completion we should cancel any scheduled reminders
-                        // and stop any currently ringing persistent reminder for this task.
-                        try {
-                            reminderScheduler.cancelReminder(taskId)
-                        } catch (_: Exception) {}
-                        try {
-                            reminderScheduler.stopActiveReminder(taskId)
-                        } catch (_: Exception) {}
-                    },
-                    onFailure = { error -> _error.value = "Failed to toggle task status: ${error.message}" }
-                )
-            } catch (e: Exception) {
-                _error.value = "Failed to toggle task status: ${e.message}"
-            } finally {
-                _isLoading.value = false
+            // Write the status the user saw flip to, not a blind toggle of whatever is stored.
+            // Rapid taps are coalesced per task; reminders are cancelled by ReminderMutationEffects.
+            val result = taskMutations.submit(taskId, TaskIntent.SetStatus(newStatus))
+            finishMutation(opId, taskId, result) { error -> "Failed to toggle task status: ${error.message}" }
+        }
+    }
+    
+    private fun beginMutation(mutation: PendingMutation, operation: TaskOperation): Long {
+        pendingMutations.update { it + (mutation.opId to mutation) }
+        _operationsInFlight.update { it + (mutation.taskId to operation) }
+        return mutation.opId
+    }
+    
+    /**
+     * Success keeps the overlay until Room's emission shows the change; failure rolls it back.
+     */
+    private fun finishMutation(opId: Long, taskId: Int, result: Result<Unit>, errorMessage: (Throwable) -> String) {
+        result.fold(
+            onSuccess = {
+                pendingMutations.update { OptimisticOverlay.commit(databaseRows::get, it, opId) }
+            },
+            onFailure = { error ->
+                pendingMutations.update { it - opId }
+                _mutationErrors.tryEmit(errorMessage(error))
             }
+        )
+        // Another operation on the same task may have started meanwhile
+        _operationsInFlight.update { inFlight ->
+            val stillPending = pendingMutations.value.values.any { it.taskId == taskId && !it.committed }
+            if (stillPending) inFlight else inFlight - taskId
         }
     }
     
@@ -186,39 +345,19 @@ class TaskViewModel @Inject constructor(
     // Update task reminder
     fun updateTaskReminder(task: TaskEntity, newReminderTime: Long?) {
         viewModelScope.launch {
-            try {
-                _isLoading.value = true
-                _error.value = null
-                
-                android.util.Log.d("TaskViewModel", "Updating reminder for task ${task.id}: ${task.title}")
-                android.util.Log.d("TaskViewModel", "Old reminder: ${task.reminderTime}")
-                android.util.Log.d("TaskViewModel", "New reminder: $newReminderTime")
-                
-                // Update the task with new reminder time
-                val updatedTask = task.copy(reminderTime = newReminderTime)
-                val result = taskUseCases.updateTask(updatedTask)
-                
-                result.fold(
-                    onSuccess = {
-                        android.util.Log.d("TaskViewModel", "Task updated successfully in database")
-                        // Update the reminder scheduling
-                        if (newReminderTime != null) {
-                            android.util.Log.d("TaskViewModel", "Scheduling new reminder for ${java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss", java.util.Locale.getDefault()).format(java.util.Date(newReminderTime))}")
-                            reminderScheduler.checkAndTriggerOverdueReminder(task.id, newReminderTime)
-                        } else {
-                            android.util.Log.d("TaskViewModel", "Cancelling existing reminder")
-                            reminderScheduler.cancelReminder(task.id)
-                        }
-                    },
-                    onFailure = { error -> 
-                        android.util.Log.e("TaskViewModel", "Failed to update task: ${error.message}")
-                        _error.value = "Failed to update reminder: ${error.message}" 
-                    }
-                )
-            } catch (e: Exception) {
-                _error.value = "Failed to update reminder: ${e.message}"
-            } finally {
-                _isLoading.value = false
+            AppLog.d("TaskViewModel") {
+                field("taskId", task.id)
+                field("old", AppLog.time(task.reminderTime))
+                field("new", AppLog.time(newReminderTime))
+                "Updating reminder"
+            }
+            
+            // Repeated edits collapse to the last reminder time; the reminder is
+            // (re)scheduled once per write by ReminderMutationEffects
+            val result = taskMutations.submit(task.id, TaskIntent.SetReminder(newReminderTime))
+            result.onFailure { error ->
+                AppLog.e("TaskViewModel") { "Failed to update task: ${error.message}" }
+                _mutationErrors.tryEmit("Failed to update reminder: ${error.message}")
             }
         }
     }
@@ -226,7 +365,7 @@ class TaskViewModel @Inject constructor(
     // Trigger overdue reminder manually
     fun triggerOverdueReminder(taskId: Int, reminderTime: Long) {
         viewModelScope.launch {
-            android.util.Log.d("TaskViewModel", "Manually triggering overdue reminder for task $taskId")
+            AppLog.d("TaskViewModel") { "Manually triggering overdue reminder for task $taskId" }
             reminderScheduler.checkAndTriggerOverdueReminder(taskId, reminderTime)
         }
     }
@@ -234,7 +373,7 @@ class TaskViewModel @Inject constructor(
     // Trigger test notification immediately
     fun triggerTestNotification(taskTitle: String) {
         viewModelScope.launch {
-            android.util.Log.d("TaskViewModel", "Triggering test notification for: $taskTitle")
+            AppLog.d("TaskViewModel") { "Triggering test notification for: $taskTitle" }
             notificationHelper.triggerTestNotification(taskTitle, "This is a test notification - if you see this, notifications are working!")
         }
     }
@@ -242,7 +381,7 @@ class TaskViewModel @Inject constructor(
     // Test the complete reminder system with 5-second delay
     fun testReminderSystem(taskId: Int) {
         viewModelScope.launch {
-            android.util.Log.d("TaskViewModel", "Testing complete reminder system for task $taskId")
+            AppLog.d("TaskViewModel") { "Testing complete reminder system for task $taskId" }
             reminderScheduler.testNotificationSystem(taskId)
         }
     }
@@ -251,7 +390,7 @@ class TaskViewModel @Inject constructor(
     fun checkAllOverdueReminders() {
         viewModelScope.launch {
             try {
-                android.util.Log.d("TaskViewModel", "Checking for overdue reminders...")
+                AppLog.d("TaskViewModel") { "Checking for overdue reminders..." }
                 val allTasks = taskUseCases.getTasks().first()
                 val currentTime = System.currentTimeMillis()
                 
@@ -260,14 +399,14 @@ class TaskViewModel @Inject constructor(
                         task.reminderTime!! <= currentTime && 
                         task.status == TaskConstants.STATUS_PENDING) {
                         
-                        android.util.Log.d("TaskViewModel", "Found overdue reminder for task ${task.id}: ${task.title}")
+                        AppLog.d("TaskViewModel") { "Found overdue reminder for task ${task.id}: ${task.title}" }
                         // Use both approaches for maximum reliability
                         reminderScheduler.triggerReminderNow(task.id)
                         notificationHelper.showTaskReminder(task.title, task.description ?: "Task reminder", task.id.toLong())
                     }
                 }
             } catch (e: Exception) {
-                android.util.Log.e("TaskViewModel", "Error checking overdue reminders: ${e.message}", e)
+                AppLog.e("TaskViewModel", e) { "Error checking overdue reminders: ${e.message}" }
             }
         }
     }
@@ -275,7 +414,7 @@ class TaskViewModel @Inject constructor(
     // Force trigger notification for specific task (direct approach)
     fun forceNotificationForTask(task: TaskEntity) {
         viewModelScope.launch {
-            android.util.Log.d("TaskViewModel", "Force triggering notification for task: ${task.title}")
+            AppLog.d("TaskViewModel") { "Force triggering notification for task: ${task.title}" }
             notificationHelper.showTaskReminder(task.title, task.description ?: "Task reminder", task.id.toLong())
         }
     }
@@ -336,6 +475,101 @@ class TaskViewModel @Inject constructor(
         emit(getTaskById(id))
     }
     
+    fun tagIdsOf(taskId: Int): Flow<List<Int>> = tagRepository.tagIdsOf(taskId)
+    
+    fun setTaskTags(taskId: Int, tagIds: Collection<Int>) {
+        viewModelScope.launch {
+            try {
+                tagRepository.setTaskTags(taskId, tagIds)
+            } catch (e: Exception) {
+                _error.value = "Failed to update tags: ${e.message}"
+            }
+        }
+    }
+    
+    // Tag a task by name, creating the tag on first use
+    fun addTagToTask(taskId: Int, name: String, currentTagIds: Collection<Int>) {
+        viewModelScope.launch {
+            try {
+                val tag = tagRepository.getOrCreateTag(name) ?: return@launch
+                tagRepository.setTaskTags(taskId, currentTagIds + tag.id)
+            } catch (e: Exception) {
+                _error.value = "Failed to add tag: ${e.message}"
+            }
+        }
+    }
+    
+    fun deleteTag(tagId: Int) {
+        viewModelScope.launch {
+            try {
+                tagRepository.deleteTag(tagId)
+            } catch (e: Exception) {
+                _error.value = "Failed to delete tag: ${e.message}"
+            }
+        }
+    }
+    
+    fun checklistOf(taskId: Int): Flow<ChecklistTree> = checklistRepository.checklist(taskId)
+    
+    fun addChecklistItem(taskId: Int, parentId: Int?, title: String) {
+        viewModelScope.launch {
+            try {
+                checklistRepository.addItem(taskId, parentId, title)
+            } catch (e: Exception) {
+                _error.value = "Failed to add step: ${e.message}"
+            }
+        }
+    }
+    
+    fun setChecklistItemCompleted(itemId: Int, completed: Boolean) {
+        viewModelScope.launch {
+            try {
+                checklistRepository.setCompleted(itemId, completed)
+            } catch (e: Exception) {
+                _error.value = "Failed to update step: ${e.message}"
+            }
+        }
+    }
+    
+    fun deleteChecklistItem(itemId: Int) {
+        viewModelScope.launch {
+            try {
+                checklistRepository.deleteItem(itemId)
+            } catch (e: Exception) {
+                _error.value = "Failed to delete step: ${e.message}"
+            }
+        }
+    }
+    
+    fun attachmentsOf(taskId: Int): Flow<List<AttachmentEntity>> = attachmentRepository.attachments(taskId)
+    
+    fun attach(taskId: Int, uri: Uri) {
+        viewModelScope.launch {
+            try {
+                attachmentRepository.attach(taskId, uri)
+            } catch (e: Exception) {
+                _error.value = "Failed to attach file: ${e.message}"
+            }
+        }
+    }
+    
+    fun removeAttachment(attachment: AttachmentEntity) {
+        viewModelScope.launch {
+            try {
+                attachmentRepository.remove(attachment)
+            } catch (e: Exception) {
+                _error.value = "Failed to remove attachment: ${e.message}"
+            }
+        }
+    }
+    
+    // Thumbnails: peek is a memory lookup for the first frame, load decodes off the main thread
+    fun peekThumbnail(attachment: AttachmentEntity, sizePx: Int): Bitmap? = thumbnailCache.peek(attachment, sizePx)
+    
+    suspend fun loadThumbnail(attachment: AttachmentEntity, sizePx: Int): Bitmap? = thumbnailCache.load(attachment, sizePx)
+    
+    fun attachmentUri(attachment: AttachmentEntity): Uri = attachmentRepository.contentUri(attachment)
+    
     // Clear error
     fun clearError() {
         _error.value = null
@@ -354,12 +588,27 @@ class TaskViewModel @Inject constructor(
             reminderTime = reminderTime
         )
     }
+    
+    // Show the database row for [taskId] under [pending], or drop it if it is gone or hidden
+    private fun show(taskId: Int, pending: Map<Long, PendingMutation>, index: TaskGroupIndex, ranker: NextUpRanker) {
+        val row = databaseRows[taskId]?.let { OptimisticOverlay.apply(it, pending.values) }
+        if (row == null) {
+            index.remove(taskId)
+            ranker.remove(taskId)
+        } else {
+            index.upsert(row)
+            ranker.upsert(row)
+        }
+    }
+    
+    private data class TaskListState(
+        val groups: List<TaskGroup> = emptyList(),
+        val nextUp: List<RankedTask> = emptyList()
+    )
+    
+    private sealed class ListUpdate {
+        class Rows(val changes: TaskChangeSet) : ListUpdate()
+        class Overlay(val pending: Map<Long, PendingMutation>) : ListUpdate()
+        object Tick : ListUpdate()
+    }
 }
-
-data class TaskStats(
-    val total: Int = 0,
-    val pending: Int = 0,
-    val completed: Int = 0,
-    val highPriority: Int = 0,
-    val overdue: Int = 0
-)
\ No newline at end of file
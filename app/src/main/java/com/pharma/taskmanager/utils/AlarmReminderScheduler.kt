@@ -5,11 +5,9 @@ import android.app.PendingIntent
 import android.content.Context
 import android.content.Intent
 import android.os.Build
-import android.util.Log
+import com.pharma.taskmanager.domain.reminder.ArmedReminder
+import com.pharma.taskmanager.logging.AppLog
 import com.pharma.taskmanager.receivers.ReminderBroadcastReceiver
-import java.text.SimpleDateFormat
-import java.util.Date
-import java.util.Locale
 import javax.inject.Inject
 import javax.inject.Singleton
 
@@ -26,35 +24,26 @@ class AlarmReminderScheduler @Inject constructor(
     
     fun scheduleExactReminder(taskId: Int, reminderTime: Long) {
         val currentTime = System.currentTimeMillis()
-        val dateFormat = SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault())
         
-        Log.d(TAG, "🚨 SCHEDULING EXACT ALARM REMINDER")
-        Log.d(TAG, "📋 Task ID: $taskId")
-        Log.d(TAG, "📅 Current time: ${dateFormat.format(Date(currentTime))}")
-        Log.d(TAG, "⏰ Reminder time: ${dateFormat.format(Date(reminderTime))}")
-        Log.d(TAG, "⏱️ Time until reminder: ${(reminderTime - currentTime)/1000} seconds")
+        AppLog.d(TAG) {
+            field("taskId", taskId)
+            field("now", AppLog.time(currentTime))
+            field("at", AppLog.time(reminderTime))
+            field("inSeconds", (reminderTime - currentTime) / 1000)
+            "🚨 SCHEDULING EXACT ALARM REMINDER"
+        }
         
         if (reminderTime <= currentTime) {
-            Log.w(TAG, "❌ Reminder time is in the past, triggering immediately")
+            AppLog.w(TAG) { "❌ Reminder time is in the past, triggering immediately" }
             // Trigger immediately if time has passed
             triggerImmediateReminder(taskId)
             return
         }
         
-        val intent = Intent(context, ReminderBroadcastReceiver::class.java).apply {
-            putExtra("task_id", taskId)
-            putExtra("reminder_time", reminderTime)
-        }
-        
-        val pendingIntent = PendingIntent.getBroadcast(
-            context,
-            taskId, // Use taskId as request code for uniqueness
-            intent,
-            PendingIntent.FLAG_UPDATE_CURRENT or PendingIntent.FLAG_IMMUTABLE
-        )
+        val pendingIntent = reminderIntent(taskId, reminderTime)
         
         try {
-            Log.d(TAG, "🚨 SCHEDULING ALARM TO WAKE DEVICE (like alarm clock)")
+            AppLog.d(TAG) { "🚨 SCHEDULING ALARM TO WAKE DEVICE (like alarm clock)" }
             
             // Check if we can schedule exact alarms
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
@@ -64,16 +53,16 @@ class AlarmReminderScheduler @Inject constructor(
                         reminderTime,
                         pendingIntent
                     )
-                    Log.d(TAG, "✅ EXACT WAKEUP ALARM SCHEDULED (Android 12+) - WILL WAKE DEVICE")
+                    AppLog.d(TAG) { "✅ EXACT WAKEUP ALARM SCHEDULED (Android 12+) - WILL WAKE DEVICE" }
                 } else {
-                    Log.e(TAG, "❌ Cannot schedule exact alarms - permission not granted")
+                    AppLog.e(TAG) { "❌ Cannot schedule exact alarms - permission not granted" }
                     // Fallback to approximate alarm but still wake up
                     alarmManager.setAndAllowWhileIdle(
                         AlarmManager.RTC_WAKEUP, // Still use WAKEUP
                         reminderTime,
                         pendingIntent
                     )
-                    Log.d(TAG, "⚠️ APPROXIMATE WAKEUP ALARM SCHEDULED - WILL STILL WAKE DEVICE")
+                    AppLog.d(TAG) { "⚠️ APPROXIMATE WAKEUP ALARM SCHEDULED - WILL STILL WAKE DEVICE" }
                 }
             } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
                 alarmManager.setExactAndAllowWhileIdle(
@@ -81,27 +70,47 @@ class AlarmReminderScheduler @Inject constructor(
                     reminderTime,
                     pendingIntent
                 )
-                Log.d(TAG, "✅ EXACT WAKEUP ALARM SCHEDULED (Android 6+) - WILL WAKE DEVICE")
+                AppLog.d(TAG) { "✅ EXACT WAKEUP ALARM SCHEDULED (Android 6+) - WILL WAKE DEVICE" }
             } else {
                 alarmManager.setExact(
                     AlarmManager.RTC_WAKEUP, // WAKEUP ensures device wakes up
                     reminderTime,
                     pendingIntent
                 )
-                Log.d(TAG, "✅ EXACT WAKEUP ALARM SCHEDULED (Legacy) - WILL WAKE DEVICE")
+                AppLog.d(TAG) { "✅ EXACT WAKEUP ALARM SCHEDULED (Legacy) - WILL WAKE DEVICE" }
             }
             
-            Log.d(TAG, "🔔 ALARM SET TO TRIGGER EVEN IF:")
-            Log.d(TAG, "   📱 App is closed")
-            Log.d(TAG, "   😴 Device is sleeping")
-            Log.d(TAG, "   🔕 Device is in silent mode")
-            Log.d(TAG, "   🔋 Device is in power saving")
+            AppLog.d(TAG) { "🔔 ALARM SET TO TRIGGER EVEN IF: app closed, device sleeping, silent mode, power saving" }
             
         } catch (e: Exception) {
-            Log.e(TAG, "💥 Failed to schedule alarm", e)
+            AppLog.e(TAG, e) { "💥 Failed to schedule alarm" }
         }
     }
     
+    /**
+     * Register future alarms in one pass, for re-arming: the exact-alarm permission is checked
+     * once and nothing is logged per alarm. Stops at the first registration AlarmManager refuses
+     * (typically its per-app alarm limit) and returns how many of [reminders], in order, were set.
+     */
+    fun armAll(reminders: List<ArmedReminder>): Int {
+        val exact = Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms()
+        reminders.forEachIndexed { index, reminder ->
+            try {
+                val pendingIntent = reminderIntent(reminder.taskId, reminder.reminderTime)
+                when {
+                    !exact -> alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, reminder.reminderTime, pendingIntent)
+                    Build.VERSION.SDK_INT >= Build.VERSION_CODES.M ->
+                        alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, reminder.reminderTime, pendingIntent)
+                    else -> alarmManager.setExact(AlarmManager.RTC_WAKEUP, reminder.reminderTime, pendingIntent)
+                }
+            } catch (e: Exception) {
+                AppLog.e(TAG, e) { field("armed", index); "💥 Alarm registration refused, stopping" }
+                return index
+            }
+        }
+        return reminders.size
+    }
+    
     fun cancelReminder(taskId: Int) {
         val intent = Intent(context, ReminderBroadcastReceiver::class.java)
         val pendingIntent = PendingIntent.getBroadcast(
@@ -112,7 +121,21 @@ class AlarmReminderScheduler @Inject constructor(
         )
         
         alarmManager.cancel(pendingIntent)
-        Log.d(TAG, "🚫 Alarm cancelled for task $taskId")
+        AppLog.d(TAG) { "🚫 Alarm cancelled for task $taskId" }
+    }
+    
+    // The task id is the request code, so re-registering a task's alarm replaces the old one
+    private fun reminderIntent(taskId: Int, reminderTime: Long): PendingIntent {
+        val intent = Intent(context, ReminderBroadcastReceiver::class.java).apply {
+            putExtra("task_id", taskId)
+            putExtra("reminder_time", reminderTime)
+        }
+        return PendingIntent.getBroadcast(
+            context,
+            taskId,
+            intent,
+            PendingIntent.FLAG_UPDATE_CURRENT or PendingIntent.FLAG_IMMUTABLE
+        )
     }
     
     private fun triggerImmediateReminder(taskId: Int) {
@@ -121,7 +144,7 @@ class AlarmReminderScheduler @Inject constructor(
             putExtra("immediate_trigger", true)
         }
         context.sendBroadcast(intent)
-        Log.d(TAG, "⚡ Immediate reminder triggered for task $taskId")
+        AppLog.d(TAG) { "⚡ Immediate reminder triggered for task $taskId" }
     }
     
     companion object {
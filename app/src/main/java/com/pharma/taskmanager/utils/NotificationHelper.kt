@@ -10,6 +10,8 @@ import androidx.core.app.NotificationCompat
 import androidx.core.app.NotificationManagerCompat
 import com.pharma.taskmanager.MainActivity
 import com.pharma.taskmanager.R
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.receivers.ReminderActionReceiver
 import javax.inject.Inject
 import javax.inject.Singleton
 
@@ -19,6 +21,7 @@ class NotificationHelper @Inject constructor(private val context: Context) {
     companion object {
         private const val CHANNEL_ID = "task_reminders"
         private const val NOTIFICATION_ID = 1001
+        private const val TAG = "NotificationHelper"
     }
 
     private val notificationManager = context.getSystemService(Context.NOTIFICATION_SERVICE) as NotificationManager
@@ -51,12 +54,12 @@ class NotificationHelper @Inject constructor(private val context: Context) {
                 setBypassDnd(true) // Bypass Do Not Disturb like alarm
             }
             notificationManager.createNotificationChannel(channel)
-            android.util.Log.d("NotificationHelper", "🔔 Notification channel created with ALARM sound and strong vibration")
+            AppLog.d(TAG) { "🔔 Notification channel created with ALARM sound and strong vibration" }
         }
     }
 
     fun showTaskReminder(taskTitle: String, taskDescription: String, taskId: Long, isCritical: Boolean = false) {
-        android.util.Log.d("NotificationHelper", "🔔 Showing task reminder notification for: $taskTitle")
+        AppLog.d(TAG) { field("taskId", taskId); "🔔 Showing task reminder notification" }
         
         // Use a deep-link style intent so Navigation can route straight to Task Detail
         val intent = Intent(Intent.ACTION_VIEW).apply {
@@ -105,15 +108,16 @@ class NotificationHelper @Inject constructor(private val context: Context) {
             .setFullScreenIntent(pendingIntent, true)
             .setOngoing(false) // Allow dismissal
             .setVibrate(longArrayOf(0, 1000, 500, 1000, 500, 1000, 500, 1000)) // Longer vibration
+            .addAction(R.drawable.ic_notification, "Complete", ReminderActionReceiver.completeIntent(context, taskId.toInt()))
+            .addAction(R.drawable.ic_notification, "Snooze 10 min", ReminderActionReceiver.snoozeIntent(context, taskId.toInt()))
             .addAction(R.drawable.ic_notification, "Stop Reminder", stopPendingIntent)
             .build()
 
         try {
             NotificationManagerCompat.from(context).notify(notificationId, notification)
-            android.util.Log.d("NotificationHelper", "✅ Notification displayed successfully for task: $taskTitle")
+            AppLog.d(TAG) { field("taskId", taskId); "✅ Notification displayed" }
         } catch (e: Exception) {
-            android.util.Log.e("NotificationHelper", "❌ Failed to show notification: ${e.message}", e)
-            e.printStackTrace()
+            AppLog.e(TAG, e) { field("taskId", taskId); "❌ Failed to show notification" }
         }
     }
     
@@ -121,7 +125,7 @@ class NotificationHelper @Inject constructor(private val context: Context) {
      * Trigger a test notification immediately for debugging
      */
     fun triggerTestNotification(taskTitle: String, message: String = "This is a test notification - if you see this, notifications are working!") {
-        android.util.Log.d("NotificationHelper", "🧪 Triggering test notification")
+        AppLog.d(TAG) { "🧪 Triggering test notification" }
         val testTaskId = System.currentTimeMillis()
         showTaskReminder(taskTitle, message, testTaskId, true)
     }
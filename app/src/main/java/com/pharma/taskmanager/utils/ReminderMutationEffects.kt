@@ -0,0 +1,43 @@
+package com.pharma.taskmanager.utils
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.mutation.TaskMutationEffects
+import com.pharma.taskmanager.logging.AppLog
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Re-arms reminders once per coalesced write from TaskMutationDispatcher.
+ */
+@Singleton
+class ReminderMutationEffects @Inject constructor(
+    private val reminderScheduler: ReminderScheduler
+) : TaskMutationEffects {
+    
+    override fun onTaskMutated(before: TaskEntity, after: TaskEntity) {
+        if (before.status != after.status) {
+            // A completion change cancels scheduled reminders and stops a ringing one
+            try {
+                reminderScheduler.cancelReminder(after.id)
+            } catch (_: Exception) {}
+            try {
+                reminderScheduler.stopActiveReminder(after.id)
+            } catch (_: Exception) {}
+        }
+        
+        if (before.reminderTime != after.reminderTime) {
+            val reminderTime = after.reminderTime
+            if (reminderTime != null) {
+                AppLog.d(TAG) { "Scheduling new reminder for ${AppLog.time(reminderTime)}" }
+                reminderScheduler.checkAndTriggerOverdueReminder(after.id, reminderTime)
+            } else {
+                AppLog.d(TAG) { "Cancelling existing reminder" }
+                reminderScheduler.cancelReminder(after.id)
+            }
+        }
+    }
+    
+    companion object {
+        private const val TAG = "ReminderMutationEffects"
+    }
+}
@@ -0,0 +1,93 @@
+package com.pharma.taskmanager.utils
+
+import android.content.Context
+import android.os.SystemClock
+import android.provider.Settings
+import com.pharma.taskmanager.data.database.TaskDao
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.reminder.ReminderAlarmLedger
+import com.pharma.taskmanager.domain.reminder.ReminderAlarmLedgerFile
+import com.pharma.taskmanager.domain.reminder.ReminderRearmPlan
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import java.io.File
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Puts reminder alarms back after a reboot, a clock or time zone change, or an app update.
+ * A pass reads the nearest [ReminderRearmPlan.DEFAULT_WINDOW] future reminders in one
+ * indexed query, diffs them against the ledger of the previous pass, and registers the rest
+ * in one batch, so its cost does not grow with the number of reminders. The ledger records
+ * what was armed and how long each pass took; the caller schedules the follow-up pass at
+ * [ReminderAlarmLedger.Pass.refillAt] (see ReminderRearmWorker).
+ *
+ * Reminders that came due while the device was off are not handled here: the process start
+ * that delivers the broadcast already triggers them (TaskManagerApplication).
+ */
+@Singleton
+class ReminderRearmer @Inject constructor(
+    @ApplicationContext private val context: Context,
+    private val taskDao: TaskDao,
+    private val alarmReminderScheduler: AlarmReminderScheduler,
+    private val dispatchers: AppDispatchers
+) {
+
+    private val ledgerFile = ReminderAlarmLedgerFile(File(context.filesDir, LEDGER_PATH))
+    private val mutex = Mutex()
+
+    /** The most recent pass, read from disk. */
+    suspend fun lastPass(): ReminderAlarmLedger.Pass? = withContext(dispatchers.io) { ledgerFile.read()?.lastPass }
+
+    suspend fun rearm(reason: String): ReminderAlarmLedger.Pass = mutex.withLock {
+        DomainTrace.asyncSection("ReminderRearmer.rearm") {
+            withContext(dispatchers.reminders) {
+                val startedAt = SystemClock.elapsedRealtime()
+                val bootCount = Settings.Global.getInt(context.contentResolver, Settings.Global.BOOT_COUNT, -1)
+                // A reboot clears every alarm, whatever the ledger says
+                val armed = if (reason == REASON_BOOT) emptyList() else ledgerFile.read()?.armedIn(bootCount).orEmpty()
+                val upcoming = taskDao.getUpcomingReminders(System.currentTimeMillis(), ReminderRearmPlan.DEFAULT_WINDOW + 1)
+                val plan = ReminderRearmPlan.plan(upcoming, armed)
+                val registered = alarmReminderScheduler.armAll(plan.toArm)
+                val refused = plan.toArm.subList(registered, plan.toArm.size).toHashSet()
+
+                val pass = ReminderAlarmLedger.Pass(
+                    reason = reason,
+                    finishedAt = System.currentTimeMillis(),
+                    durationMillis = SystemClock.elapsedRealtime() - startedAt,
+                    armed = registered,
+                    skipped = plan.skipped,
+                    refillAt = plan.refillAt
+                )
+                ledgerFile.write(ReminderAlarmLedger(bootCount, plan.window.filterNot { it in refused }, pass))
+                AppLog.d(TAG) {
+                    field("reason", reason)
+                    field("upcoming", plan.window.size)
+                    field("armed", registered)
+                    field("skipped", plan.skipped)
+                    field("refused", refused.size)
+                    field("durationMs", pass.durationMillis)
+                    pass.refillAt?.let { field("refillAt", AppLog.time(it)) }
+                    "⏰ Re-armed reminder alarms"
+                }
+                pass
+            }
+        }
+    }
+
+    companion object {
+        private const val TAG = "ReminderRearmer"
+        private const val LEDGER_PATH = "reminders/alarms.ledger"
+
+        const val REASON_BOOT = "boot"
+        const val REASON_TIME_CHANGED = "time_changed"
+        const val REASON_TIMEZONE_CHANGED = "timezone_changed"
+        const val REASON_APP_UPDATED = "app_updated"
+        const val REASON_REFILL = "refill"
+        const val REASON_MANUAL = "manual"
+    }
+}
@@ -1,14 +1,11 @@
 package com.pharma.taskmanager.utils
 
 import android.content.Context
-import android.util.Log
 import androidx.work.Data
 import androidx.work.OneTimeWorkRequestBuilder
 import androidx.work.WorkManager
+import com.pharma.taskmanager.logging.AppLog
 import com.pharma.taskmanager.workers.TaskReminderWorker
-import java.text.SimpleDateFormat
-import java.util.Date
-import java.util.Locale
 import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 import javax.inject.Singleton
@@ -31,18 +28,20 @@ class ReminderScheduler @Inject constructor(
         val currentTime = System.currentTimeMillis()
         val delay = reminderTime - currentTime
         
-        val dateFormat = SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault())
-        Log.d(TAG, "⏰ SCHEDULING REMINDER (ALARM-FIRST) for task $taskId")
-        Log.d(TAG, "📅 Current time: ${dateFormat.format(Date(currentTime))}")
-        Log.d(TAG, "🎯 Reminder time: ${dateFormat.format(Date(reminderTime))}")
-        Log.d(TAG, "⏱️ Delay: ${delay}ms (${delay/1000}s) (${delay/60000}m)")
+        AppLog.d(TAG) {
+            field("taskId", taskId)
+            field("now", AppLog.time(currentTime))
+            field("at", AppLog.time(reminderTime))
+            field("delayMs", delay)
+            "⏰ SCHEDULING REMINDER (ALARM-FIRST)"
+        }
         
         // Always cancel existing reminders first
         cancelReminder(taskId)
         
         if (delay > 0) {
             // PRIMARY: Schedule with AlarmManager first (most reliable like alarm clock)
-            Log.d(TAG, "🚨 SCHEDULING WITH ALARMMANAGER (PRIMARY)")
+            AppLog.d(TAG) { "🚨 SCHEDULING WITH ALARMMANAGER (PRIMARY)" }
             alarmReminderScheduler.scheduleExactReminder(taskId, reminderTime)
             
             // SECONDARY: Also schedule with WorkManager as backup
@@ -59,13 +58,15 @@ class ReminderScheduler @Inject constructor(
                 .build()
             
             workManager.enqueue(reminderWork)
-            Log.d(TAG, "✅ WorkManager backup scheduled for task $taskId")
-            
-            Log.d(TAG, "🔔 ALARM-FIRST SYSTEM: Primary alarm + WorkManager backup at ${dateFormat.format(Date(reminderTime))}")
+            AppLog.d(TAG) {
+                field("taskId", taskId)
+                field("at", AppLog.time(reminderTime))
+                "🔔 ALARM-FIRST SYSTEM: Primary alarm + WorkManager backup scheduled"
+            }
             
         } else {
             // Time has passed - trigger immediately
-            Log.w(TAG, "⚠️ Reminder time has passed, triggering immediately")
+            AppLog.w(TAG) { "⚠️ Reminder time has passed, triggering immediately" }
             triggerImmediateReminder(taskId)
         }
     }
@@ -92,7 +93,7 @@ class ReminderScheduler @Inject constructor(
                 .build()
             
             workManager.enqueue(backupWork)
-            Log.d(TAG, "🔄 Backup reminder scheduled for task $taskId")
+            AppLog.d(TAG) { "🔄 Backup reminder scheduled for task $taskId" }
         }
     }
     
@@ -100,7 +101,7 @@ class ReminderScheduler @Inject constructor(
      * Trigger an immediate reminder for a task
      */
     private fun triggerImmediateReminder(taskId: Int) {
-        Log.d(TAG, "⚡ TRIGGERING IMMEDIATE REMINDER for task $taskId")
+        AppLog.d(TAG) { "⚡ TRIGGERING IMMEDIATE REMINDER for task $taskId" }
         
         // IMMEDIATE: Trigger alarm right now (1 second delay)
         alarmReminderScheduler.scheduleExactReminder(taskId, System.currentTimeMillis() + 1000)
@@ -118,7 +119,7 @@ class ReminderScheduler @Inject constructor(
             .build()
         
         workManager.enqueue(immediateWork)
-        Log.d(TAG, "✅ DUAL IMMEDIATE TRIGGER: Alarm + WorkManager both scheduled")
+        AppLog.d(TAG) { "✅ DUAL IMMEDIATE TRIGGER: Alarm + WorkManager both scheduled" }
     }
     
     /**
@@ -129,7 +130,7 @@ class ReminderScheduler @Inject constructor(
         workManager.cancelAllWorkByTag("backup_reminder_$taskId")
         workManager.cancelAllWorkByTag("immediate_reminder_$taskId")
         alarmReminderScheduler.cancelReminder(taskId)
-        Log.d(TAG, "🚫 Cancelled all reminders (WorkManager + AlarmManager) for task $taskId")
+        AppLog.d(TAG) { "🚫 Cancelled all reminders (WorkManager + AlarmManager) for task $taskId" }
     }
 
     /**
@@ -148,9 +149,9 @@ class ReminderScheduler @Inject constructor(
             }
             // Use startService to deliver the intent to the service (no binding needed)
             context.startService(stopIntent)
-            Log.d(TAG, "🛑 Sent STOP_REMINDER to PersistentReminderService for task $taskId")
+            AppLog.d(TAG) { "🛑 Sent STOP_REMINDER to PersistentReminderService for task $taskId" }
         } catch (e: Exception) {
-            Log.w(TAG, "⚠️ Failed to send STOP_REMINDER intent: ${e.message}")
+            AppLog.w(TAG) { "⚠️ Failed to send STOP_REMINDER intent: ${e.message}" }
         }
     }
     
@@ -166,7 +167,7 @@ class ReminderScheduler @Inject constructor(
      * Force trigger a reminder notification now (for testing or overdue reminders)
      */
     fun triggerReminderNow(taskId: Int) {
-        Log.d(TAG, "🚨 Force triggering reminder NOW for task $taskId")
+        AppLog.d(TAG) { "🚨 Force triggering reminder NOW for task $taskId" }
         triggerImmediateReminder(taskId)
     }
     
@@ -175,7 +176,7 @@ class ReminderScheduler @Inject constructor(
      */
     fun testNotificationSystem(taskId: Int) {
         val testTime = System.currentTimeMillis() + 5000 // 5 seconds from now
-        Log.d(TAG, "🧪 Testing notification system with 5-second delay for task $taskId")
+        AppLog.d(TAG) { "🧪 Testing notification system with 5-second delay for task $taskId" }
         scheduleReminder(taskId, testTime)
     }
     
@@ -185,10 +186,10 @@ class ReminderScheduler @Inject constructor(
     fun checkAndTriggerOverdueReminder(taskId: Int, reminderTime: Long) {
         val currentTime = System.currentTimeMillis()
         if (reminderTime <= currentTime) {
-            Log.d(TAG, "⚠️ Reminder is overdue for task $taskId, triggering now")
+            AppLog.d(TAG) { "⚠️ Reminder is overdue for task $taskId, triggering now" }
             triggerImmediateReminder(taskId)
         } else {
-            Log.d(TAG, "⏰ Reminder is scheduled for future, scheduling normally")
+            AppLog.d(TAG) { "⏰ Reminder is scheduled for future, scheduling normally" }
             scheduleReminder(taskId, reminderTime)
         }
     }
@@ -0,0 +1,39 @@
+package com.pharma.taskmanager.utils
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskDao
+import com.pharma.taskmanager.domain.mutation.TaskIntent
+import com.pharma.taskmanager.domain.mutation.TaskMutationDispatcher
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Complete and snooze for surfaces outside the app's UI (notification actions, the widget).
+ * Each is one conditional UPDATE with no read first, followed by the reminder side effects
+ * ReminderMutationEffects would run for a dispatcher write. Only a recurring task, which
+ * the UPDATE skips, takes the dispatcher's read-modify-write to roll to its next occurrence.
+ */
+@Singleton
+class TaskQuickActions @Inject constructor(
+    private val taskDao: TaskDao,
+    private val taskMutations: TaskMutationDispatcher,
+    private val reminderScheduler: ReminderScheduler
+) {
+
+    suspend fun complete(taskId: Int): Result<Unit> {
+        if (taskDao.completePendingTask(taskId, System.currentTimeMillis()) > 0) {
+            reminderScheduler.stopActiveReminder(taskId)
+            return Result.success(Unit)
+        }
+        // Recurring, or already completed/deleted: the dispatcher rolls the first and no-ops the rest
+        return taskMutations.submit(taskId, TaskIntent.SetStatus(TaskConstants.STATUS_COMPLETED))
+    }
+
+    /** Ring again at [until]; false if the task is no longer pending. */
+    suspend fun snooze(taskId: Int, until: Long): Boolean {
+        if (taskDao.snoozeReminder(taskId, until) == 0) return false
+        reminderScheduler.stopActiveReminder(taskId)
+        reminderScheduler.scheduleReminder(taskId, until)
+        return true
+    }
+}
@@ -0,0 +1,52 @@
+package com.pharma.taskmanager.widget
+
+import android.content.Context
+import androidx.glance.GlanceId
+import androidx.glance.action.ActionParameters
+import androidx.glance.appwidget.action.ActionCallback
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.utils.TaskQuickActions
+import dagger.hilt.EntryPoint
+import dagger.hilt.InstallIn
+import dagger.hilt.android.EntryPointAccessors
+import dagger.hilt.components.SingletonComponent
+import kotlinx.coroutines.withContext
+
+/**
+ * The widget's checkbox: completes through [TaskQuickActions] (a single UPDATE for one-off
+ * tasks). The row leaves the widget at once; the write's own refresh then rebuilds the
+ * snapshot from the database.
+ */
+class CompleteTaskAction : ActionCallback {
+
+    @EntryPoint
+    @InstallIn(SingletonComponent::class)
+    interface WidgetEntryPoint {
+        fun taskQuickActions(): TaskQuickActions
+        fun appDispatchers(): AppDispatchers
+    }
+
+    override suspend fun onAction(context: Context, glanceId: GlanceId, parameters: ActionParameters) {
+        val taskId = parameters[TaskIdKey] ?: return
+        DomainTrace.asyncSection("CompleteTaskAction.onAction") {
+            val entryPoint = EntryPointAccessors.fromApplication(context, WidgetEntryPoint::class.java)
+            val quickActions = entryPoint.taskQuickActions()
+            try {
+                quickActions.complete(taskId).getOrThrow()
+                AppLog.d(TAG) { field("taskId", taskId); "✅ Completed from widget" }
+                val file = TodayWidget.snapshotFile(context)
+                withContext(entryPoint.appDispatchers().io) { file.read()?.let { file.write(it.without(taskId)) } }
+                TodayWidget().update(context, glanceId)
+            } catch (e: Exception) {
+                AppLog.e(TAG, e) { "❌ Failed to complete task from widget: ${e.message}" }
+            }
+        }
+    }
+
+    companion object {
+        private const val TAG = "CompleteTaskAction"
+        val TaskIdKey = ActionParameters.Key<Int>("taskId")
+    }
+}
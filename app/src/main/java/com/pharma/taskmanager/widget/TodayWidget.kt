@@ -0,0 +1,170 @@
+package com.pharma.taskmanager.widget
+
+import android.content.Context
+import android.content.Intent
+import android.net.Uri
+import androidx.compose.runtime.Composable
+import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.unit.dp
+import androidx.compose.ui.unit.sp
+import androidx.glance.GlanceId
+import androidx.glance.GlanceModifier
+import androidx.glance.GlanceTheme
+import androidx.glance.action.actionParametersOf
+import androidx.glance.action.actionStartActivity
+import androidx.glance.action.clickable
+import androidx.glance.appwidget.CheckBox
+import androidx.glance.appwidget.GlanceAppWidget
+import androidx.glance.appwidget.GlanceAppWidgetManager
+import androidx.glance.appwidget.GlanceAppWidgetReceiver
+import androidx.glance.appwidget.action.actionRunCallback
+import androidx.glance.appwidget.lazy.LazyColumn
+import androidx.glance.appwidget.lazy.items
+import androidx.glance.appwidget.provideContent
+import androidx.glance.background
+import androidx.glance.layout.Alignment
+import androidx.glance.layout.Column
+import androidx.glance.layout.Row
+import androidx.glance.layout.fillMaxSize
+import androidx.glance.layout.fillMaxWidth
+import androidx.glance.layout.padding
+import androidx.glance.text.FontWeight
+import androidx.glance.text.Text
+import androidx.glance.text.TextStyle
+import androidx.glance.unit.ColorProvider
+import com.pharma.taskmanager.MainActivity
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.domain.widget.WidgetSnapshot
+import com.pharma.taskmanager.domain.widget.WidgetSnapshotFile
+import com.pharma.taskmanager.utils.DateTimeUtils
+import com.pharma.taskmanager.workers.WidgetRefreshWorker
+import dagger.hilt.android.EntryPointAccessors
+import kotlinx.coroutines.withContext
+import java.io.File
+
+/**
+ * Home-screen widget with what is due today. It renders from the [WidgetSnapshot] file
+ * that [WidgetRefreshWorker] writes, so showing it never opens the database; a missing
+ * or expired snapshot shows what it can and asks for a rebuild.
+ */
+class TodayWidget : GlanceAppWidget() {
+
+    override suspend fun provideGlance(context: Context, id: GlanceId) {
+        val dispatchers = EntryPointAccessors.fromApplication(context, CompleteTaskAction.WidgetEntryPoint::class.java).appDispatchers()
+        val snapshot = withContext(dispatchers.io) { snapshotFile(context).read() }
+        if (snapshot == null || snapshot.validUntil < System.currentTimeMillis()) {
+            WidgetRefreshWorker.refresh(context)
+        }
+        provideContent {
+            GlanceTheme {
+                TodayContent(context, snapshot)
+            }
+        }
+    }
+
+    @Composable
+    private fun TodayContent(context: Context, snapshot: WidgetSnapshot?) {
+        Column(
+            modifier = GlanceModifier
+                .fillMaxSize()
+                .background(GlanceTheme.colors.background)
+                .padding(12.dp)
+        ) {
+            Text(
+                text = when {
+                    snapshot == null -> "Today"
+                    snapshot.overdue > 0 -> "Today · ${snapshot.dueToday} due, ${snapshot.overdue} overdue"
+                    else -> "Today · ${snapshot.dueToday} due"
+                },
+                style = TextStyle(fontWeight = FontWeight.Bold, fontSize = 16.sp, color = GlanceTheme.colors.onBackground),
+                modifier = GlanceModifier
+                    .fillMaxWidth()
+                    .padding(bottom = 8.dp)
+                    .clickable(actionStartActivity<MainActivity>())
+            )
+            when {
+                snapshot == null -> EmptyText("Loading…")
+                snapshot.items.isEmpty() -> EmptyText("Nothing due today")
+                else -> LazyColumn {
+                    items(snapshot.items, itemId = { it.id.toLong() }) { item ->
+                        TaskRow(context, item, overdue = item.dueDateTime < snapshot.generatedAt)
+                    }
+                }
+            }
+        }
+    }
+
+    @Composable
+    private fun TaskRow(context: Context, item: WidgetSnapshot.Item, overdue: Boolean) {
+        Row(
+            modifier = GlanceModifier
+                .fillMaxWidth()
+                .padding(vertical = 4.dp),
+            verticalAlignment = Alignment.CenterVertically
+        ) {
+            CheckBox(
+                checked = false,
+                onCheckedChange = actionRunCallback<CompleteTaskAction>(
+                    actionParametersOf(CompleteTaskAction.TaskIdKey to item.id)
+                )
+            )
+            Column(
+                modifier = GlanceModifier
+                    .defaultWeight()
+                    .clickable(actionStartActivity(openTaskIntent(context, item.id)))
+            ) {
+                Text(
+                    text = item.title,
+                    maxLines = 1,
+                    style = TextStyle(
+                        fontSize = 14.sp,
+                        color = GlanceTheme.colors.onBackground,
+                        fontWeight = if (item.priority == TaskConstants.PRIORITY_HIGH) FontWeight.Bold else FontWeight.Normal
+                    )
+                )
+                Text(
+                    text = if (overdue) "Overdue · ${DateTimeUtils.formatDateTime(item.dueDateTime)}" else DateTimeUtils.formatTime(item.dueDateTime),
+                    style = TextStyle(
+                        fontSize = 12.sp,
+                        color = if (overdue) ColorProvider(Color(0xFFF44336)) else GlanceTheme.colors.onSurfaceVariant
+                    )
+                )
+            }
+        }
+    }
+
+    @Composable
+    private fun EmptyText(text: String) {
+        Text(text = text, style = TextStyle(fontSize = 14.sp, color = GlanceTheme.colors.onSurfaceVariant))
+    }
+
+    // Same deep link as notifications use: MainActivity opens the task's detail screen
+    private fun openTaskIntent(context: Context, taskId: Int) =
+        Intent(Intent.ACTION_VIEW, Uri.parse("taskmanager://task/$taskId"), context, MainActivity::class.java)
+
+    companion object {
+        private const val SNAPSHOT_PATH = "widget/today.snapshot"
+
+        fun snapshotFile(context: Context) = WidgetSnapshotFile(File(context.filesDir, SNAPSHOT_PATH))
+
+        suspend fun isPlaced(context: Context): Boolean =
+            GlanceAppWidgetManager(context).getGlanceIds(TodayWidget::class.java).isNotEmpty()
+    }
+}
+
+class TodayWidgetReceiver : GlanceAppWidgetReceiver() {
+
+    override val glanceAppWidget: GlanceAppWidget = TodayWidget()
+
+    override fun onEnabled(context: Context) {
+        super.onEnabled(context)
+        WidgetRefreshWorker.refresh(context)
+    }
+
+    // Last instance removed: stop the day-boundary refreshes and drop the snapshot
+    override fun onDisabled(context: Context) {
+        super.onDisabled(context)
+        WidgetRefreshWorker.cancel(context)
+        TodayWidget.snapshotFile(context).delete()
+    }
+}
@@ -0,0 +1,52 @@
+package com.pharma.taskmanager.widget
+
+import android.content.Context
+import androidx.room.InvalidationTracker
+import com.pharma.taskmanager.data.database.TaskManagerDatabase
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.workers.WidgetRefreshWorker
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.launch
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Refreshes the widget snapshot after writes to the tasks table, from any writer in the
+ * process (UI, workers, sync, the widget's own action). A burst of writes, such as an
+ * import's batches, becomes one refresh once it goes quiet, and nothing is enqueued while
+ * no widget is placed.
+ */
+@Singleton
+class WidgetRefreshTrigger @Inject constructor(
+    @ApplicationContext private val context: Context,
+    private val database: TaskManagerDatabase,
+    private val dispatchers: AppDispatchers
+) {
+
+    private val writes = MutableSharedFlow<Unit>(extraBufferCapacity = 1, onBufferOverflow = BufferOverflow.DROP_OLDEST)
+
+    @OptIn(FlowPreview::class)
+    fun start(scope: CoroutineScope) {
+        database.invalidationTracker.addObserver(object : InvalidationTracker.Observer(TASKS_TABLE) {
+            override fun onInvalidated(tables: Set<String>) {
+                writes.tryEmit(Unit)
+            }
+        })
+        // Off the caller's (main) thread: asking whether a widget is placed is an IPC
+        scope.launch(dispatchers.io) {
+            writes.debounce(DEBOUNCE_MILLIS).collect {
+                if (TodayWidget.isPlaced(context)) WidgetRefreshWorker.refresh(context)
+            }
+        }
+    }
+
+    private companion object {
+        const val TASKS_TABLE = "tasks"
+        const val DEBOUNCE_MILLIS = 1_000L
+    }
+}
@@ -0,0 +1,74 @@
+package com.pharma.taskmanager.workers
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.pharma.taskmanager.data.repository.ArchiveRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.utils.ReminderScheduler
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import java.util.concurrent.TimeUnit
+
+/**
+ * Keeps the hot `tasks` table small by moving tasks completed more than
+ * [ARCHIVE_AFTER_MILLIS] ago into archived_tasks. Each batch is its own transaction,
+ * so the UI's queries are never blocked behind one long write.
+ */
+@HiltWorker
+class ArchiveWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted workerParams: WorkerParameters,
+    private val archiveRepository: ArchiveRepository,
+    private val reminderScheduler: ReminderScheduler
+) : CoroutineWorker(context, workerParams) {
+
+    override suspend fun doWork(): Result = DomainTrace.asyncSection("ArchiveWorker.doWork") {
+        val cutoff = System.currentTimeMillis() - ARCHIVE_AFTER_MILLIS
+        var archived = 0
+        try {
+            while (!isStopped) {
+                val ids = archiveRepository.archiveCompletedBefore(cutoff, BATCH_SIZE)
+                // The task id may be reused by a new task, so no stale alarm may outlive the row
+                ids.forEach { reminderScheduler.cancelReminder(it) }
+                archived += ids.size
+                if (ids.size < BATCH_SIZE) break
+            }
+            AppLog.d(TAG) { field("archived", archived); "📦 Archived completed tasks" }
+            Result.success()
+        } catch (e: Exception) {
+            AppLog.e(TAG, e) { "❌ Failed to archive completed tasks after $archived rows: ${e.message}" }
+            Result.retry()
+        }
+    }
+
+    companion object {
+        private const val TAG = "ArchiveWorker"
+        private const val WORK_NAME = "task_archive"
+        private const val BATCH_SIZE = 200
+
+        // Completed tasks stay in the main list this long before moving to history
+        val ARCHIVE_AFTER_MILLIS = TimeUnit.DAYS.toMillis(30)
+
+        fun schedule(context: Context) {
+            val request = PeriodicWorkRequestBuilder<ArchiveWorker>(1, TimeUnit.DAYS)
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiresBatteryNotLow(true)
+                        .build()
+                )
+                .build()
+            WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                request
+            )
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.pharma.taskmanager.workers
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.CoroutineWorker
+import androidx.work.Data
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.utils.ReminderRearmer
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs a [ReminderRearmer] pass outside a broadcast: the follow-up pass once half of the
+ * armed window has rung, and a pass the re-arm receiver could not finish in its budget.
+ * One unique chain, like the widget refresh: a receiver's pass replaces the pending run,
+ * and each run queues the next one behind itself.
+ */
+@HiltWorker
+class ReminderRearmWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted workerParams: WorkerParameters,
+    private val reminderRearmer: ReminderRearmer
+) : CoroutineWorker(context, workerParams) {
+
+    override suspend fun doWork(): Result {
+        return try {
+            val reason = inputData.getString(KEY_REASON) ?: ReminderRearmer.REASON_REFILL
+            val pass = reminderRearmer.rearm(reason)
+            pass.refillAt?.let { scheduleAt(applicationContext, it, ExistingWorkPolicy.APPEND_OR_REPLACE) }
+            Result.success()
+        } catch (e: Exception) {
+            AppLog.e(TAG, e) { "❌ Failed to re-arm reminder alarms: ${e.message}" }
+            Result.retry()
+        }
+    }
+
+    companion object {
+        private const val TAG = "ReminderRearmWorker"
+        private const val WORK_NAME = "reminder_rearm"
+        private const val KEY_REASON = "reason"
+
+        /** Run a pass for [reason] as soon as possible, replacing any pending one. */
+        fun enqueue(context: Context, reason: String) {
+            val request = OneTimeWorkRequestBuilder<ReminderRearmWorker>()
+                .setInputData(Data.Builder().putString(KEY_REASON, reason).build())
+                .build()
+            WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.REPLACE, request)
+        }
+
+        /** After a pass outside this worker: queue its follow-up, or drop a stale one. */
+        fun scheduleRefill(context: Context, refillAt: Long?) {
+            if (refillAt == null) {
+                WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME)
+            } else {
+                scheduleAt(context, refillAt, ExistingWorkPolicy.REPLACE)
+            }
+        }
+
+        // From doWork this must append: REPLACE would cancel the run doing the scheduling
+        private fun scheduleAt(context: Context, at: Long, policy: ExistingWorkPolicy) {
+            val request = OneTimeWorkRequestBuilder<ReminderRearmWorker>()
+                .setInitialDelay((at - System.currentTimeMillis()).coerceAtLeast(0), TimeUnit.MILLISECONDS)
+                .build()
+            WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, policy, request)
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.pharma.taskmanager.workers
+
+import android.content.Context
+import android.net.Uri
+import androidx.hilt.work.HiltWorker
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import androidx.work.workDataOf
+import com.pharma.taskmanager.data.repository.TaskTransferRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.domain.transfer.TaskTransferFormat
+import com.pharma.taskmanager.logging.AppLog
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import java.io.BufferedWriter
+import java.io.FileOutputStream
+import java.nio.channels.Channels
+
+/**
+ * Streams every live task into a user-chosen document. Rows go from keyset chunks straight
+ * into a buffered writer over the file's channel; progress is the running row count.
+ */
+@HiltWorker
+class TaskExportWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted workerParams: WorkerParameters,
+    private val transferRepository: TaskTransferRepository
+) : CoroutineWorker(context, workerParams) {
+
+    override suspend fun doWork(): Result = DomainTrace.asyncSection("TaskExportWorker.doWork") {
+        val uri = inputData.getString(KEY_URI)?.let(Uri::parse) ?: return@asyncSection Result.failure()
+        val format = TaskTransferFormat.valueOf(inputData.getString(KEY_FORMAT) ?: TaskTransferFormat.JSON_LINES.name)
+        var written = 0L
+        var lastProgressAt = 0L
+        try {
+            val descriptor = applicationContext.contentResolver.openFileDescriptor(uri, "wt")
+                ?: return@asyncSection Result.failure(workDataOf(KEY_ERROR to "Cannot open $uri"))
+            descriptor.use {
+                val channel = FileOutputStream(it.fileDescriptor).channel
+                val out = BufferedWriter(Channels.newWriter(channel, Charsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE)
+                format.newWriter(out).use { writer ->
+                    written = transferRepository.export(writer) { rows ->
+                        written = rows
+                        // Progress is persisted by WorkManager, so not after every chunk
+                        val now = System.currentTimeMillis()
+                        if (now - lastProgressAt >= PROGRESS_INTERVAL_MS) {
+                            lastProgressAt = now
+                            setProgress(workDataOf(KEY_ROWS to rows))
+                        }
+                    }
+                }
+            }
+            AppLog.d(TAG) { field("rows", written); field("format", format); "📤 Exported tasks" }
+            Result.success(workDataOf(KEY_ROWS to written))
+        } catch (e: Exception) {
+            AppLog.e(TAG, e) { "❌ Export failed after $written rows: ${e.message}" }
+            Result.failure(workDataOf(KEY_ROWS to written, KEY_ERROR to (e.message ?: e.javaClass.simpleName)))
+        }
+    }
+
+    companion object {
+        private const val TAG = "TaskExportWorker"
+        const val WORK_NAME = "task_export"
+        const val KEY_URI = "uri"
+        const val KEY_FORMAT = "format"
+        const val KEY_ROWS = "rows"
+        const val KEY_ERROR = "error"
+        private const val BUFFER_SIZE = 64 * 1024
+        private const val PROGRESS_INTERVAL_MS = 500L
+
+        fun enqueue(context: Context, uri: Uri, format: TaskTransferFormat) {
+            val request = OneTimeWorkRequestBuilder<TaskExportWorker>()
+                .setInputData(workDataOf(KEY_URI to uri.toString(), KEY_FORMAT to format.name))
+                .build()
+            WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, request)
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.pharma.taskmanager.workers
+
+import android.content.Context
+import android.net.Uri
+import androidx.hilt.work.HiltWorker
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import androidx.work.workDataOf
+import com.pharma.taskmanager.data.repository.TaskTransferRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.domain.transfer.TaskTransfer
+import com.pharma.taskmanager.logging.AppLog
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import java.io.FileInputStream
+import java.nio.channels.Channels
+
+/**
+ * Imports a JSON Lines or CSV document (detected from its content) as new tasks. The file
+ * is parsed as it is read and inserted in batched transactions; progress reports rows so far
+ * and how far into the file the reader is.
+ *
+ * Not retried on failure: batches already inserted stay, and a retry would insert them twice.
+ */
+@HiltWorker
+class TaskImportWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted workerParams: WorkerParameters,
+    private val transferRepository: TaskTransferRepository
+) : CoroutineWorker(context, workerParams) {
+
+    override suspend fun doWork(): Result = DomainTrace.asyncSection("TaskImportWorker.doWork") {
+        val uri = inputData.getString(KEY_URI)?.let(Uri::parse) ?: return@asyncSection Result.failure()
+        var progress = TaskTransfer.ImportResult(0, 0, emptyList())
+        var lastProgressAt = 0L
+        try {
+            val descriptor = applicationContext.contentResolver.openFileDescriptor(uri, "r")
+                ?: return@asyncSection Result.failure(workDataOf(KEY_ERROR to "Cannot open $uri"))
+            val result = descriptor.use {
+                val channel = FileInputStream(it.fileDescriptor).channel
+                val totalBytes = it.statSize
+                TaskTransfer.openReader(Channels.newReader(channel, Charsets.UTF_8.newDecoder(), BUFFER_SIZE)).use { reader ->
+                    transferRepository.import(reader) { current ->
+                        progress = current
+                        val now = System.currentTimeMillis()
+                        if (now - lastProgressAt >= PROGRESS_INTERVAL_MS) {
+                            lastProgressAt = now
+                            setProgress(
+                                workDataOf(
+                                    KEY_ROWS to current.imported,
+                                    KEY_SKIPPED to current.skipped,
+                                    // statSize is -1 when the provider cannot tell
+                                    KEY_BYTES_READ to channel.position(),
+                                    KEY_TOTAL_BYTES to totalBytes
+                                )
+                            )
+                        }
+                    }
+                }
+            }
+            AppLog.d(TAG) {
+                field("imported", result.imported)
+                field("skipped", result.skipped)
+                "📥 Imported tasks"
+            }
+            Result.success(
+                workDataOf(
+                    KEY_ROWS to result.imported,
+                    KEY_SKIPPED to result.skipped,
+                    KEY_ERRORS to result.errors.toTypedArray()
+                )
+            )
+        } catch (e: Exception) {
+            AppLog.e(TAG, e) { "❌ Import failed after ${progress.imported} rows: ${e.message}" }
+            Result.failure(
+                workDataOf(
+                    KEY_ROWS to progress.imported,
+                    KEY_SKIPPED to progress.skipped,
+                    KEY_ERROR to (e.message ?: e.javaClass.simpleName)
+                )
+            )
+        }
+    }
+
+    companion object {
+        private const val TAG = "TaskImportWorker"
+        const val WORK_NAME = "task_import"
+        const val KEY_URI = "uri"
+        const val KEY_ROWS = "rows"
+        const val KEY_SKIPPED = "skipped"
+        const val KEY_BYTES_READ = "bytes_read"
+        const val KEY_TOTAL_BYTES = "total_bytes"
+        const val KEY_ERRORS = "errors"
+        const val KEY_ERROR = "error"
+        private const val BUFFER_SIZE = 64 * 1024
+        private const val PROGRESS_INTERVAL_MS = 500L
+
+        fun enqueue(context: Context, uri: Uri) {
+            val request = OneTimeWorkRequestBuilder<TaskImportWorker>()
+                .setInputData(workDataOf(KEY_URI to uri.toString()))
+                .build()
+            WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, request)
+        }
+    }
+}
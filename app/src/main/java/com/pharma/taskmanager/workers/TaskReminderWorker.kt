@@ -12,7 +12,6 @@ import android.os.Build
 import android.os.VibrationEffect
 import android.os.Vibrator
 import android.os.VibratorManager
-import android.util.Log
 import androidx.core.app.NotificationCompat
 import androidx.core.app.NotificationManagerCompat
 import androidx.hilt.work.HiltWorker
@@ -21,7 +20,12 @@ import androidx.work.WorkerParameters
 import com.pharma.taskmanager.MainActivity
 import com.pharma.taskmanager.R
 import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.repository.ReminderMetricsRepository
+import com.pharma.taskmanager.domain.metrics.ReminderDeliveryPath
 import com.pharma.taskmanager.domain.repository.TaskRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.receivers.ReminderBroadcastReceiver
 import com.pharma.taskmanager.utils.NotificationHelper
 import dagger.assisted.Assisted
 import dagger.assisted.AssistedInject
@@ -35,52 +39,86 @@ class TaskReminderWorker @AssistedInject constructor(
     @Assisted context: Context,
     @Assisted workerParams: WorkerParameters,
     private val taskRepository: TaskRepository,
-    private val notificationHelper: NotificationHelper
+    private val notificationHelper: NotificationHelper,
+    private val reminderMetrics: ReminderMetricsRepository
 ) : CoroutineWorker(context, workerParams) {
     
     override suspend fun doWork(): Result {
+        val traceCookie = inputData.getInt(ReminderBroadcastReceiver.EXTRA_TRACE_COOKIE, NO_TRACE_COOKIE)
+        return try {
+            DomainTrace.asyncSection("TaskReminderWorker.doWork") { processReminder() }
+        } finally {
+            // Close the alarm -> notification slice opened by ReminderBroadcastReceiver
+            if (traceCookie != NO_TRACE_COOKIE) {
+                DomainTrace.endAsync(ReminderBroadcastReceiver.TRACE_REMINDER_DELIVERY, traceCookie)
+            }
+        }
+    }
+    
+    private suspend fun processReminder(): Result {
         val currentTime = System.currentTimeMillis()
         val taskId = inputData.getInt("task_id", -1)
         val fromAlarm = inputData.getBoolean("from_alarm", false)
         
-        Log.d(TAG, "🔔 TaskReminderWorker started at $currentTime")
-        Log.d(TAG, "📋 Task ID: $taskId")
-        Log.d(TAG, "⏰ Triggered from: ${if (fromAlarm) "AlarmManager" else "WorkManager"}")
+        AppLog.d(TAG) { "🔔 TaskReminderWorker started at $currentTime" }
+        AppLog.d(TAG) { "📋 Task ID: $taskId" }
+        AppLog.d(TAG) { "⏰ Triggered from: ${if (fromAlarm) "AlarmManager" else "WorkManager"}" }
         
         if (taskId == -1) {
-            Log.e(TAG, "❌ Invalid task ID: $taskId")
+            AppLog.e(TAG) { "❌ Invalid task ID: $taskId" }
             return Result.failure()
         }
         
-        Log.d(TAG, "📋 Processing reminder for task ID: $taskId")
+        AppLog.d(TAG) { "📋 Processing reminder for task ID: $taskId" }
+        
+        val metricId = resolveMetricId(taskId, currentTime)
+        reminderMetrics.markWorkerStarted(metricId, currentTime)
         
         try {
             val task = taskRepository.getTaskById(taskId)
             if (task == null) {
-                Log.e(TAG, "❌ Task not found for ID: $taskId")
+                AppLog.e(TAG) { "❌ Task not found for ID: $taskId" }
                 return Result.failure()
             }
             
-            Log.d(TAG, "✅ Found task: '${task.title}', status: ${task.status}")
-            Log.d(TAG, "📝 Task description: ${task.description ?: "No description"}")
+            AppLog.d(TAG) { "✅ Found task: '${task.title}', status: ${task.status}" }
+            AppLog.d(TAG) { "📝 Task description: ${task.description ?: "No description"}" }
             
             if (task.status == TaskConstants.STATUS_PENDING) {
-                Log.d(TAG, "🚨 Task is PENDING - Starting persistent reminder with vibration and sound")
+                AppLog.d(TAG) { "🚨 Task is PENDING - Starting persistent reminder with vibration and sound" }
                 notificationHelper.showTaskReminder(task.title, task.description ?: "", taskId.toLong())
-                Log.d(TAG, "✅ Persistent reminder started successfully for task: ${task.title}")
+                reminderMetrics.markNotificationPosted(metricId)
+                AppLog.d(TAG) { "✅ Persistent reminder started successfully for task: ${task.title}" }
             } else {
-                Log.d(TAG, "⏭️ Task status is '${task.status}' - not pending, skipping notification")
+                AppLog.d(TAG) { "⏭️ Task status is '${task.status}' - not pending, skipping notification" }
             }
             
             return Result.success()
         } catch (e: Exception) {
-            Log.e(TAG, "💥 Error processing task reminder: ${e.message}", e)
+            AppLog.e(TAG, e) { "💥 Error processing task reminder: ${e.message}" }
             return Result.failure()
         }
     }
     
+    /**
+     * Fires dispatched by the alarm receiver already have a metric row; scheduled
+     * WorkManager fires and immediate triggers start their own.
+     */
+    private suspend fun resolveMetricId(taskId: Int, currentTime: Long): Long {
+        val metricId = inputData.getLong(ReminderMetricsRepository.EXTRA_METRIC_ID, ReminderMetricsRepository.NO_METRIC_ID)
+        if (metricId != ReminderMetricsRepository.NO_METRIC_ID) return metricId
+        
+        val deliveryPath = if (inputData.getBoolean("immediate_trigger", false)) {
+            ReminderDeliveryPath.IMMEDIATE
+        } else {
+            ReminderDeliveryPath.WORK_MANAGER
+        }
+        val scheduledTime = inputData.getLong("reminder_time", currentTime)
+        return reminderMetrics.startFire(taskId, deliveryPath, scheduledTime)
+    }
+    
     private fun showNotification(title: String, description: String) {
-        Log.d(TAG, "Creating notification for: $title")
+        AppLog.d(TAG) { "Creating notification for: $title" }
         
         val notificationManager = applicationContext.getSystemService(Context.NOTIFICATION_SERVICE) as NotificationManager
         
@@ -94,7 +132,7 @@ class TaskReminderWorker @AssistedInject constructor(
         
         // Get notification sound
         val soundUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION)
-        Log.d(TAG, "Using sound URI: $soundUri")
+        AppLog.d(TAG) { "Using sound URI: $soundUri" }
         
         // Create intent to open the app when notification is tapped
         val intent = Intent(applicationContext, MainActivity::class.java).apply {
@@ -143,12 +181,12 @@ class TaskReminderWorker @AssistedInject constructor(
             // Show the notification
             if (NotificationManagerCompat.from(applicationContext).areNotificationsEnabled()) {
                 notificationManager.notify(notificationId, notification)
-                Log.d(TAG, "Notification shown with ID: $notificationId")
+                AppLog.d(TAG) { "Notification shown with ID: $notificationId" }
             } else {
-                Log.w(TAG, "Notifications are disabled")
+                AppLog.w(TAG) { "Notifications are disabled" }
             }
         } catch (e: Exception) {
-            Log.e(TAG, "Failed to show notification", e)
+            AppLog.e(TAG, e) { "Failed to show notification" }
         }
     }
     
@@ -175,7 +213,7 @@ class TaskReminderWorker @AssistedInject constructor(
             }
             
             notificationManager.createNotificationChannel(channel)
-            Log.d(TAG, "Notification channel created")
+            AppLog.d(TAG) { "Notification channel created" }
         }
     }
     
@@ -201,12 +239,13 @@ class TaskReminderWorker @AssistedInject constructor(
             }
         } catch (e: Exception) {
             // Vibration failed, but notification will still show
-            e.printStackTrace()
+            AppLog.w(TAG, e) { "Vibration failed" }
         }
     }
     
     companion object {
         const val CHANNEL_ID = "task_reminders"
         private const val TAG = "TaskReminderWorker"
+        private const val NO_TRACE_COOKIE = -1
     }
 }
\ No newline at end of file
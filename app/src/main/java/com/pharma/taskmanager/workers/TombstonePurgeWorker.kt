@@ -0,0 +1,77 @@
+package com.pharma.taskmanager.workers
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.pharma.taskmanager.data.repository.AttachmentRepository
+import com.pharma.taskmanager.domain.repository.TaskRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.utils.ReminderScheduler
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import java.util.concurrent.TimeUnit
+
+/**
+ * Hard-deletes soft-deleted tasks once they are older than the undo retention window.
+ * Works in small batches so no single transaction holds the database for long, and
+ * cancels any reminder still scheduled for a purged task. Afterwards it sweeps attachment
+ * blobs left without a row by the purge, by archiving or by deletes.
+ */
+@HiltWorker
+class TombstonePurgeWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted workerParams: WorkerParameters,
+    private val taskRepository: TaskRepository,
+    private val reminderScheduler: ReminderScheduler,
+    private val attachmentRepository: AttachmentRepository
+) : CoroutineWorker(context, workerParams) {
+
+    override suspend fun doWork(): Result = DomainTrace.asyncSection("TombstonePurgeWorker.doWork") {
+        val cutoff = System.currentTimeMillis() - RETENTION_MILLIS
+        var purged = 0
+        try {
+            while (!isStopped) {
+                val ids = taskRepository.purgeDeletedTasks(cutoff, BATCH_SIZE)
+                ids.forEach { reminderScheduler.cancelReminder(it) }
+                purged += ids.size
+                if (ids.size < BATCH_SIZE) break
+            }
+            val sweptBlobs = attachmentRepository.sweep()
+            AppLog.d(TAG) { field("purged", purged); field("sweptBlobs", sweptBlobs); "🧹 Purged deleted tasks" }
+            Result.success()
+        } catch (e: Exception) {
+            AppLog.e(TAG, e) { "❌ Failed to purge deleted tasks after $purged rows: ${e.message}" }
+            Result.retry()
+        }
+    }
+
+    companion object {
+        private const val TAG = "TombstonePurgeWorker"
+        private const val WORK_NAME = "tombstone_purge"
+        private const val BATCH_SIZE = 500
+
+        // How long a deleted task stays restorable
+        val RETENTION_MILLIS = TimeUnit.DAYS.toMillis(7)
+
+        fun schedule(context: Context) {
+            val request = PeriodicWorkRequestBuilder<TombstonePurgeWorker>(1, TimeUnit.DAYS)
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiresBatteryNotLow(true)
+                        .build()
+                )
+                .build()
+            WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                request
+            )
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.pharma.taskmanager.workers
+
+import android.content.Context
+import androidx.glance.appwidget.updateAll
+import androidx.hilt.work.HiltWorker
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.pharma.taskmanager.data.database.TaskDao
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import com.pharma.taskmanager.domain.widget.WidgetSnapshot
+import com.pharma.taskmanager.logging.AppLog
+import com.pharma.taskmanager.utils.DateTimeUtils
+import com.pharma.taskmanager.widget.TodayWidget
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import kotlinx.coroutines.withContext
+import java.util.concurrent.TimeUnit
+
+/**
+ * Rebuilds the [TodayWidget] snapshot from one query and redraws the widgets. Enqueued
+ * after writes (see WidgetRefreshTrigger) and by the widget itself when its snapshot is
+ * missing or expired; each run queues the next one for the coming midnight, when "today"
+ * changes even if nothing is written. One unique chain: a write replaces the pending
+ * midnight run, and the run it starts queues a new one.
+ */
+@HiltWorker
+class WidgetRefreshWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted workerParams: WorkerParameters,
+    private val taskDao: TaskDao,
+    private val dispatchers: AppDispatchers
+) : CoroutineWorker(context, workerParams) {
+
+    override suspend fun doWork(): Result = DomainTrace.asyncSection("WidgetRefreshWorker.doWork") {
+        try {
+            val now = System.currentTimeMillis()
+            val endOfDay = DateTimeUtils.getEndOfDay(now)
+            val snapshot = WidgetSnapshot.from(taskDao.getPendingDueBy(endOfDay), now, endOfDay)
+            withContext(dispatchers.io) { TodayWidget.snapshotFile(applicationContext).write(snapshot) }
+            TodayWidget().updateAll(applicationContext)
+            scheduleAt(applicationContext, endOfDay + 1 - now)
+            AppLog.d(TAG) { field("items", snapshot.items.size); field("overdue", snapshot.overdue); "🧩 Refreshed widget snapshot" }
+            Result.success()
+        } catch (e: Exception) {
+            AppLog.e(TAG, e) { "❌ Failed to refresh widget snapshot: ${e.message}" }
+            Result.retry()
+        }
+    }
+
+    companion object {
+        private const val TAG = "WidgetRefreshWorker"
+        private const val WORK_NAME = "widget_refresh"
+
+        fun refresh(context: Context) {
+            val request = OneTimeWorkRequestBuilder<WidgetRefreshWorker>().build()
+            WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.REPLACE, request)
+        }
+
+        fun cancel(context: Context) {
+            WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME)
+        }
+
+        // Appended behind the running refresh: REPLACE here would cancel the run doing the scheduling
+        private fun scheduleAt(context: Context, delayMillis: Long) {
+            val request = OneTimeWorkRequestBuilder<WidgetRefreshWorker>()
+                .setInitialDelay(delayMillis, TimeUnit.MILLISECONDS)
+                .build()
+            WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request)
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [33])
+class ArchiveDaoTest {
+
+    private lateinit var database: TaskManagerDatabase
+
+    @Before
+    fun setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), TaskManagerDatabase::class.java)
+            .addCallback(TaskChangeLog.CALLBACK)
+            .build()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun `archiving keeps the task's tags, attachments and checklist`() = runBlocking {
+        val taskId = database.taskDao().insertTask(
+            TaskEntity(title = "Fridge audit", status = TaskConstants.STATUS_COMPLETED, createdAt = NOW - 60 * DAY, completedAt = NOW - 40 * DAY)
+        ).toInt()
+        val tagId = database.tagDao().insertTag(TagEntity(name = "audit", createdAt = NOW)).toInt()
+        database.tagDao().insertTaskTags(listOf(TaskTagEntity(taskId, tagId)))
+        database.attachmentDao().insertAttachment(
+            AttachmentEntity(taskId = taskId, sha256 = HASH, displayName = "log.jpg", mimeType = "image/jpeg", sizeBytes = 1_000, createdAt = NOW)
+        )
+        database.checklistDao().insertItems(
+            listOf(
+                ChecklistItemEntity(id = 1, taskId = taskId, title = "Read thermometer"),
+                ChecklistItemEntity(id = 2, parentId = 1, title = "Min/max", completedAt = NOW)
+            )
+        )
+
+        val moved = database.archiveDao().archiveBatch(cutoff = NOW - 30 * DAY, limit = 200, archivedAt = NOW)
+
+        assertEquals(listOf(taskId), moved)
+        val archiveId = database.archiveDao().getFirstPage(1).single().archiveId
+        // The live rows went with the task...
+        assertTrue(database.tagDao().getAllTaskTags().isEmpty())
+        assertTrue(database.checklistDao().observeChecklist(taskId).first().isEmpty())
+        // ...and their copies hang off the archived task
+        assertEquals(listOf(ArchivedTaskTagEntity(archiveId, tagId)), database.archiveDao().getArchivedTags(archiveId))
+        assertEquals(listOf(HASH), database.archiveDao().getArchivedAttachments(archiveId).map { it.sha256 })
+        assertEquals(
+            listOf(1 to null, 2 to 1),
+            database.archiveDao().getArchivedChecklist(archiveId).map { it.itemId to it.parentItemId }
+        )
+        // The blob is still referenced, so neither remove nor the sweep deletes it
+        assertEquals(1, database.attachmentDao().countReferences(HASH))
+        assertEquals(listOf(HASH), database.attachmentDao().getReferencedHashes())
+    }
+
+    private companion object {
+        const val NOW = 1_760_000_000_000L
+        const val DAY = 24 * 60 * 60 * 1000L
+        val HASH = "ab".repeat(32)
+    }
+}
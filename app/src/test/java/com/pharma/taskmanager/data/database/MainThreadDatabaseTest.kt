@@ -0,0 +1,65 @@
+package com.pharma.taskmanager.data.database
+
+import android.os.Looper
+import androidx.room.Room
+import androidx.room.RoomDatabase
+import androidx.test.core.app.ApplicationProvider
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executor
+
+/**
+ * The database built the way the app builds it (no allowMainThreadQueries) must never run
+ * SQL on the main thread, even when every DAO call is made from it: Room hands queries to
+ * the read pool and transactions to the write pool. Records the thread of each statement.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [33])
+class MainThreadDatabaseTest {
+
+    private lateinit var database: TaskManagerDatabase
+    private val queryThreads = CopyOnWriteArrayList<Thread>()
+
+    @Before
+    fun setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), TaskManagerDatabase::class.java)
+            .addCallback(TaskChangeLog.CALLBACK)
+            .useDispatchers(AppDispatchers.create(Dispatchers.Main))
+            // Direct executor: the callback runs on the thread executing the statement
+            .setQueryCallback(RoomDatabase.QueryCallback { _, _ -> queryThreads += Thread.currentThread() }, Executor { it.run() })
+            .build()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun `dao calls made on the main thread run their sql off it`() = runBlocking {
+        assertEquals(Looper.getMainLooper().thread, Thread.currentThread())
+        val taskDao = database.taskDao()
+
+        val id = taskDao.insertTask(TaskEntity(title = "Check fridge log", createdAt = 1_000L)).toInt()
+        taskDao.updateTaskStatus(id, TaskConstants.STATUS_COMPLETED, 2_000L)
+        taskDao.getTaskById(id)
+        taskDao.getVisibleTasks()
+        taskDao.getAllTasks().first()
+        taskDao.softDeleteTask(id, 3_000L)
+
+        assertTrue("No statements recorded", queryThreads.isNotEmpty())
+        val onMain = queryThreads.count { it == Looper.getMainLooper().thread }
+        assertEquals("Statements run on the main thread", 0, onMain)
+    }
+}
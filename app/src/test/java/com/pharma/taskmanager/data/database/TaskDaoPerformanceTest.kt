@@ -0,0 +1,298 @@
+package com.pharma.taskmanager.data.database
+
+import dagger.hilt.android.testing.HiltAndroidRule
+import dagger.hilt.android.testing.HiltAndroidTest
+import dagger.hilt.android.testing.HiltTestApplication
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.fail
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+import java.util.Properties
+import javax.inject.Inject
+import kotlin.random.Random
+
+/**
+ * DAO performance regression suite.
+ *
+ * Seeds the in-memory database from TestDatabaseModule with 10k and 100k rows (the same rows
+ * on every run), times every TaskDao query and mutation and compares the results with
+ * src/test/resources/perf/task-dao-baseline.properties. A measurement slower than
+ * baseline * tolerance.factor + tolerance.slackMs fails the test, and so does an operation
+ * with no baseline: an unchecked operation would otherwise pass forever.
+ *
+ * Wall-clock times depend on the machine, so the suite is skipped unless asked for; index
+ * use is checked on every build by TaskDaoQueryPlanTest instead. Run it, and re-record the
+ * baseline, on the CI machine with:
+ *   ./gradlew :app:testDebugUnitTest --tests "*TaskDaoPerformanceTest" -PdaoPerf=true
+ *   ./gradlew :app:testDebugUnitTest --tests "*TaskDaoPerformanceTest" -PdaoPerfRecord=true
+ * Timings go to build/reports/dao-perf/task-dao-<rows>.txt; after recording, copy
+ * build/reports/dao-perf/task-dao-baseline.properties over the checked-in file.
+ */
+@HiltAndroidTest
+@RunWith(RobolectricTestRunner::class)
+@Config(application = HiltTestApplication::class, sdk = [33])
+class TaskDaoPerformanceTest {
+
+    @get:Rule
+    var hiltRule = HiltAndroidRule(this)
+
+    @Inject
+    lateinit var database: TaskManagerDatabase
+
+    @Inject
+    lateinit var taskDao: TaskDao
+
+    @Inject
+    lateinit var archiveDao: ArchiveDao
+
+    @Inject
+    lateinit var syncDao: SyncDao
+
+    @Inject
+    lateinit var tagDao: TagDao
+
+    @Inject
+    lateinit var checklistDao: ChecklistDao
+
+    @Inject
+    lateinit var attachmentDao: AttachmentDao
+
+    private val baseline = Properties()
+    private val measurements = linkedMapOf<String, Double>()
+    private val random = Random(SEED)
+    private val record = System.getProperty("daoPerf.record").toBoolean()
+
+    @Before
+    fun setUp() {
+        assumeTrue("DAO timings are opt-in: -PdaoPerf=true", record || System.getProperty("daoPerf.enabled").toBoolean())
+        hiltRule.inject()
+        javaClass.getResourceAsStream("/perf/task-dao-baseline.properties")?.use { baseline.load(it) }
+    }
+
+    @After
+    fun tearDown() {
+        if (::database.isInitialized) database.close()
+    }
+
+    @Test
+    fun `dao operations stay within baseline at 10k rows`() = runBlocking {
+        measureAll(10_000)
+    }
+
+    @Test
+    fun `dao operations stay within baseline at 100k rows`() = runBlocking {
+        measureAll(100_000)
+    }
+
+    private suspend fun measureAll(rows: Int) {
+        val tasks = generateTasks(rows)
+        val now = NOW
+
+        // Mutations that build the dataset
+        measure(rows, "insertTasks", iterations = 1) { taskDao.insertTasks(tasks) }
+        measure(rows, "insertTask") { taskDao.insertTask(randomTask(id = 0)) }
+
+        // Point queries
+        measure(rows, "getTaskById") { taskDao.getTaskById(random.nextInt(1, rows)) }
+        measure(rows, "getTaskCountByStatus") { taskDao.getTaskCountByStatus(TaskConstants.STATUS_PENDING) }
+
+        // List queries (Flow - time to first emission)
+        measure(rows, "getAllTasks", iterations = 5) { taskDao.getAllTasks().first() }
+        measure(rows, "getTasksByStatus", iterations = 5) { taskDao.getTasksByStatus(TaskConstants.STATUS_PENDING).first() }
+        measure(rows, "getTasksByPriority", iterations = 5) { taskDao.getTasksByPriority(TaskConstants.PRIORITY_HIGH).first() }
+        measure(rows, "getTasksByStatusAndPriority", iterations = 5) {
+            taskDao.getTasksByStatusAndPriority(TaskConstants.STATUS_PENDING, TaskConstants.PRIORITY_HIGH).first()
+        }
+        measure(rows, "getDueTasks", iterations = 5) { taskDao.getDueTasks(now).first() }
+        measure(rows, "getPendingDueBy", iterations = 5) { taskDao.getPendingDueBy(now + DAY) }
+        measure(rows, "getTasksWithReminders", iterations = 5) { taskDao.getTasksWithReminders().first() }
+        measure(rows, "getTasksWithRemindersDue", iterations = 5) { taskDao.getTasksWithRemindersDue(now) }
+        // One re-arm pass: the alarm window plus one, however many reminders lie beyond it
+        measure(rows, "getUpcomingReminders", iterations = 5) { taskDao.getUpcomingReminders(now, 201) }
+        measure(rows, "searchTasks", iterations = 5) { taskDao.searchTasks("%insulin%").first() }
+        measure(rows, "getPendingTasks", iterations = 5) { taskDao.getPendingTasks().first() }
+        measure(rows, "getCompletedTasks", iterations = 5) { taskDao.getCompletedTasks().first() }
+        // One export chunk from the middle of the table
+        measure(rows, "getTasksAfterId", iterations = 5) { taskDao.getTasksAfterId(rows / 2, 1000) }
+        // TaskChangeFeed's per-write read, against getAllTasks's full re-query above
+        measure(rows, "getVisibleTaskStamps", iterations = 5) { taskDao.getVisibleTaskStamps() }
+        // One sync push batch from the change log the inserts above wrote
+        measure(rows, "getChangesAfter", iterations = 5) { syncDao.getChangesAfter(rows / 2L, 500) }
+
+        // Tags: 100 tags, up to three per task; the SQL filters against the index's one full read
+        repeat(TAG_COUNT) { tagDao.insertTag(TagEntity(name = "tag$it", createdAt = now)) }
+        val links = tasks.flatMap { task ->
+            List(random.nextInt(4)) { TaskTagEntity(task.id, random.nextInt(1, TAG_COUNT + 1)) }
+        }
+        measure(rows, "insertTaskTags", iterations = 1) { tagDao.insertTaskTags(links) }
+        measure(rows, "getTasksWithAnyTag", iterations = 5) { tagDao.getTasksWithAnyTag(listOf(1, 2, 3)).first() }
+        measure(rows, "getTasksWithAllTags", iterations = 5) { tagDao.getTasksWithAllTags(setOf(1, 2)).first() }
+        measure(rows, "getAllTaskTags", iterations = 5) { tagDao.getAllTaskTags() }
+
+        // Checklists: 10k steps in trees 5 levels deep; the list's rollup and one task's steps
+        val steps = generateChecklist(CHECKLIST_STEPS, CHECKLIST_DEPTH)
+        measure(rows, "insertChecklistItems", iterations = 1) { checklistDao.insertItems(steps) }
+        measure(rows, "observeChecklistProgress", iterations = 5) { checklistDao.observeProgress().first() }
+        measure(rows, "observeChecklist", iterations = 5) { checklistDao.observeChecklist(random.nextInt(1, 100)).first() }
+        measure(rows, "setChecklistItemCompleted") {
+            checklistDao.setCompleted(steps[random.nextInt(steps.size)].id, random.nextBoolean(), now)
+        }
+
+        // Attachments: metadata rows on every tenth task; the detail screen's read and the sweep's
+        measure(rows, "insertAttachments", iterations = 1) {
+            for (taskId in 1..rows step 10) {
+                attachmentDao.insertAttachment(
+                    AttachmentEntity(
+                        taskId = taskId,
+                        sha256 = "%064x".format(taskId),
+                        displayName = "label-$taskId.jpg",
+                        mimeType = "image/jpeg",
+                        sizeBytes = 250_000,
+                        createdAt = now
+                    )
+                )
+            }
+        }
+        measure(rows, "observeAttachments", iterations = 5) { attachmentDao.observeAttachments(random.nextInt(1, rows)).first() }
+        measure(rows, "getReferencedHashes", iterations = 5) { attachmentDao.getReferencedHashes() }
+
+        // Single-row mutations; updateTask writes a generated row so only the update is timed
+        measure(rows, "updateTask") {
+            val task = tasks[random.nextInt(rows)]
+            taskDao.updateTask(task.copy(title = task.title + "!"))
+        }
+        measure(rows, "updateTaskStatus") {
+            taskDao.updateTaskStatus(random.nextInt(1, rows), TaskConstants.STATUS_COMPLETED, now)
+        }
+        measure(rows, "completePendingTask") { taskDao.completePendingTask(random.nextInt(1, rows), now) }
+        measure(rows, "snoozeReminder") { taskDao.snoozeReminder(random.nextInt(1, rows), now + DAY) }
+        // Archive: one ArchiveWorker batch, then history pages
+        measure(rows, "archiveBatch", iterations = 5) { archiveDao.archiveBatch(now - 30 * DAY, 200, now) }
+        measure(rows, "getArchiveFirstPage", iterations = 5) { archiveDao.getFirstPage(50) }
+        measure(rows, "getArchivePageAfter", iterations = 5) { archiveDao.getPageAfter(now - 45 * DAY, Long.MAX_VALUE, 50) }
+
+        var nextDeleteId = 1
+        measure(rows, "deleteTask") { taskDao.deleteTask(tasks[nextDeleteId++]) }
+
+        // Bulk mutation last - it removes a large part of the dataset
+        measure(rows, "softDeleteCompletedTasks", iterations = 1) { taskDao.softDeleteCompletedTasks(NOW) }
+
+        report(rows)
+    }
+
+    /**
+     * Run [block] [iterations] times after one warm-up call and record the median in milliseconds.
+     */
+    private suspend fun measure(rows: Int, operation: String, iterations: Int = 50, block: suspend () -> Unit) {
+        if (iterations > 1) block()
+        val samples = DoubleArray(iterations) {
+            val start = System.nanoTime()
+            block()
+            (System.nanoTime() - start) / 1_000_000.0
+        }
+        samples.sort()
+        measurements["$rows.$operation"] = samples[samples.size / 2]
+    }
+
+    private fun report(rows: Int) {
+        val factor = baseline.getProperty("tolerance.factor", "1.5").toDouble()
+        val slackMs = baseline.getProperty("tolerance.slackMs", "2").toDouble()
+
+        val regressions = mutableListOf<String>()
+        val missing = mutableListOf<String>()
+        val lines = mutableListOf<String>()
+        measurements.filterKeys { it.startsWith("$rows.") }.forEach { (key, measuredMs) ->
+            val expectedMs = baseline.getProperty(key)?.toDouble()
+            val status = when {
+                expectedMs == null -> "NO BASELINE".also { missing += key }
+                measuredMs > expectedMs * factor + slackMs -> "REGRESSION".also {
+                    regressions += "$key: %.2f ms (baseline %.2f ms, limit %.2f ms)"
+                        .format(measuredMs, expectedMs, expectedMs * factor + slackMs)
+                }
+                else -> "ok"
+            }
+            lines += "%-40s %10.2f ms  %s".format(key, measuredMs, status)
+        }
+        File(outputDir(), "task-dao-$rows.txt").writeText(lines.joinToString("\n", postfix = "\n"))
+
+        if (record) {
+            writeBaseline()
+        } else if (regressions.isNotEmpty() || missing.isNotEmpty()) {
+            val problems = regressions + missing.map { "$it: no baseline, record one with -PdaoPerfRecord=true" }
+            fail("DAO performance regressions at $rows rows:\n" + problems.joinToString("\n"))
+        }
+    }
+
+    private fun writeBaseline() {
+        val file = File(outputDir(), "task-dao-baseline.properties")
+        val recorded = Properties()
+        if (file.exists()) file.inputStream().use { recorded.load(it) }
+        recorded.setProperty("tolerance.factor", baseline.getProperty("tolerance.factor", "1.5"))
+        recorded.setProperty("tolerance.slackMs", baseline.getProperty("tolerance.slackMs", "2"))
+        measurements.forEach { (key, value) -> recorded.setProperty(key, "%.2f".format(value)) }
+        file.outputStream().use { recorded.store(it, "TaskDao performance baseline (median ms)") }
+    }
+
+    private fun outputDir() = File(System.getProperty("daoPerf.outputDir") ?: "build/reports/dao-perf").apply { mkdirs() }
+
+    private fun generateTasks(count: Int): List<TaskEntity> = List(count) { index -> randomTask(id = index + 1) }
+
+    private fun randomTask(id: Int): TaskEntity {
+        val due = if (random.nextInt(10) < 8) NOW + random.nextLong(-14 * DAY, 30 * DAY) else null
+        val completed = random.nextInt(10) >= 7
+        return TaskEntity(
+            id = id,
+            title = "Task $id ${WORDS[random.nextInt(WORDS.size)]}",
+            description = if (random.nextBoolean()) "Check ${WORDS[random.nextInt(WORDS.size)]}" else null,
+            dueDateTime = due,
+            priority = random.nextInt(TaskConstants.PRIORITY_LOW, TaskConstants.PRIORITY_HIGH + 1),
+            status = if (completed) TaskConstants.STATUS_COMPLETED else TaskConstants.STATUS_PENDING,
+            reminderTime = if (due != null && random.nextInt(10) < 4) due - random.nextLong(0, DAY / 12) else null,
+            createdAt = NOW - random.nextLong(0, 60 * DAY),
+            completedAt = if (completed) NOW - random.nextLong(0, 60 * DAY) else null
+        )
+    }
+
+    // Full binary trees [depth] levels deep, two per task, ids in insertion order
+    private fun generateChecklist(count: Int, depth: Int): List<ChecklistItemEntity> {
+        val steps = ArrayList<ChecklistItemEntity>(count)
+        fun grow(taskId: Int?, parentId: Int?, position: Int, level: Int) {
+            if (steps.size == count) return
+            val id = steps.size + 1
+            steps += ChecklistItemEntity(
+                id = id,
+                taskId = taskId,
+                parentId = parentId,
+                title = "Step $id",
+                position = position,
+                dueDateTime = if (random.nextInt(3) == 0) NOW + random.nextLong(-2 * DAY, 7 * DAY) else null,
+                completedAt = if (random.nextBoolean()) NOW else null
+            )
+            if (level < depth) repeat(2) { grow(null, id, it, level + 1) }
+        }
+        var tree = 0
+        while (steps.size < count) {
+            grow(taskId = tree / 2 + 1, parentId = null, position = tree % 2, level = 1)
+            tree++
+        }
+        return steps
+    }
+
+    private companion object {
+        const val NOW = 1_760_000_000_000L
+        const val SEED = 28
+        const val DAY = 24 * 60 * 60 * 1000L
+        const val TAG_COUNT = 100
+        const val CHECKLIST_STEPS = 10_000
+        const val CHECKLIST_DEPTH = 5
+        val WORDS = listOf("insulin", "fridge", "controlled drugs", "expiry", "vaccine", "audit", "handover")
+    }
+}
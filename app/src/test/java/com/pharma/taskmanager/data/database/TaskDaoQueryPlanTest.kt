@@ -0,0 +1,78 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Room
+import androidx.room.RoomDatabase
+import androidx.test.core.app.ApplicationProvider
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executor
+
+/**
+ * Machine-independent half of the DAO performance checks: the hot queries must search an
+ * index rather than scan the table. Each DAO call's SQL and bind args are captured through
+ * the query callback and fed to EXPLAIN QUERY PLAN, so the test follows the DAO's SQL.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [33])
+class TaskDaoQueryPlanTest {
+
+    private lateinit var database: TaskManagerDatabase
+    private val statements = CopyOnWriteArrayList<Pair<String, List<Any?>>>()
+
+    @Before
+    fun setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), TaskManagerDatabase::class.java)
+            .addCallback(TaskChangeLog.CALLBACK)
+            .setQueryCallback(RoomDatabase.QueryCallback { sql, args -> statements += sql to args }, Executor { it.run() })
+            .build()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun `task queries search an index`() = runBlocking {
+        val taskDao = database.taskDao()
+        assertSearches("tasks", "getTaskById") { taskDao.getTaskById(1) }
+        assertSearches("tasks", "getTaskCountByStatus") { taskDao.getTaskCountByStatus(TaskConstants.STATUS_PENDING) }
+        assertSearches("tasks", "getAllTasks") { taskDao.getAllTasks().first() }
+        assertSearches("tasks", "getTasksByStatus") { taskDao.getTasksByStatus(TaskConstants.STATUS_PENDING).first() }
+        assertSearches("tasks", "getDueTasks") { taskDao.getDueTasks(NOW).first() }
+        assertSearches("tasks", "getPendingDueBy") { taskDao.getPendingDueBy(NOW) }
+        assertSearches("tasks", "getPendingTasks") { taskDao.getPendingTasks().first() }
+        assertSearches("tasks", "getCompletedTasks") { taskDao.getCompletedTasks().first() }
+        assertSearches("tasks", "getTasksWithRemindersDue") { taskDao.getTasksWithRemindersDue(NOW) }
+        assertSearches("tasks", "getUpcomingReminders") { taskDao.getUpcomingReminders(NOW, 201) }
+        assertSearches("tasks", "getTasksAfterId") { taskDao.getTasksAfterId(0, 1000) }
+    }
+
+    @Test
+    fun `attachment queries search an index`() = runBlocking {
+        assertSearches("attachments", "observeAttachments") { database.attachmentDao().observeAttachments(1).first() }
+    }
+
+    private suspend fun assertSearches(table: String, operation: String, call: suspend () -> Unit) {
+        statements.clear()
+        call()
+        val (sql, args) = statements.last { (sql, _) -> sql.trimStart().startsWith("SELECT", ignoreCase = true) && " $table" in sql }
+        val plan = database.openHelper.readableDatabase.query("EXPLAIN QUERY PLAN $sql", args.toTypedArray()).use { cursor ->
+            buildList { while (cursor.moveToNext()) add(cursor.getString(cursor.getColumnIndexOrThrow("detail"))) }
+        }
+        assertTrue("$operation scans $table: $plan", plan.any { it.startsWith("SEARCH $table ") })
+        assertTrue("$operation scans $table: $plan", plan.none { it == "SCAN $table" })
+    }
+
+    private companion object {
+        const val NOW = 1_760_000_000_000L
+    }
+}
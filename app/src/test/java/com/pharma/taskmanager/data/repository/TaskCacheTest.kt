@@ -0,0 +1,167 @@
+package com.pharma.taskmanager.data.repository
+
+import com.pharma.taskmanager.data.database.TaskDao
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.data.database.TaskManagerDatabase
+import com.pharma.taskmanager.domain.repository.TaskRepository
+import dagger.hilt.android.testing.HiltAndroidRule
+import dagger.hilt.android.testing.HiltAndroidTest
+import dagger.hilt.android.testing.HiltTestApplication
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import javax.inject.Inject
+
+@HiltAndroidTest
+@RunWith(RobolectricTestRunner::class)
+@Config(application = HiltTestApplication::class, sdk = [33])
+class TaskCacheTest {
+
+    @get:Rule
+    var hiltRule = HiltAndroidRule(this)
+
+    @Inject
+    lateinit var database: TaskManagerDatabase
+
+    @Inject
+    lateinit var taskDao: TaskDao
+
+    @Inject
+    lateinit var repository: TaskRepository
+
+    @Inject
+    lateinit var taskCache: TaskCache
+
+    @Before
+    fun setUp() {
+        hiltRule.inject()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun `repeated reads are served from the cache`() = runBlocking {
+        val id = repository.addTask(TaskEntity(title = "v0")).toInt()
+
+        repository.getTaskById(id)
+        repository.getTaskById(id)
+
+        val stats = taskCache.stats()
+        assertEquals(1L, stats.misses)
+        assertEquals(1L, stats.hits)
+    }
+
+    @Test
+    fun `least recently used entry is evicted`() {
+        val cache = TaskCache(maxSize = 2)
+        cache.write(TaskEntity(id = 1, title = "a"))
+        cache.write(TaskEntity(id = 2, title = "b"))
+        cache.get(1)
+        cache.write(TaskEntity(id = 3, title = "c"))
+
+        assertNull(cache.get(2))
+        assertEquals("a", cache.get(1)?.title)
+        assertEquals(1L, cache.stats().evictions)
+    }
+
+    @Test
+    fun `load racing a write is not cached`() {
+        val cache = TaskCache(maxSize = 2)
+        val generation = cache.generation()
+        cache.write(TaskEntity(id = 1, title = "new"))
+        cache.putIfUnchanged(TaskEntity(id = 1, title = "old"), generation)
+
+        assertEquals("new", cache.get(1)?.title)
+    }
+
+    @Test
+    fun `invalidation drops only rows whose clock moved`() {
+        val cache = TaskCache(maxSize = 3)
+        cache.write(TaskEntity(id = 1, title = "written", updatedAt = 5))
+        cache.write(TaskEntity(id = 2, title = "stale", updatedAt = 7))
+        cache.write(TaskEntity(id = 3, title = "deleted", updatedAt = 9))
+
+        cache.invalidateChanged { mapOf(1 to 5L, 2 to 8L) }
+
+        assertEquals("written", cache.get(1)?.title)
+        assertNull(cache.get(2))
+        assertNull(cache.get(3))
+        assertEquals(2L, cache.stats().invalidations)
+    }
+
+    @Test
+    fun `write from another component invalidates the cached row`() = runBlocking {
+        val id = repository.addTask(TaskEntity(title = "v0")).toInt()
+        val cached = repository.getTaskById(id)!!
+        val invalidationsBefore = taskCache.stats().invalidations
+
+        // Bypass the repository, as code outside the Hilt graph does
+        taskDao.updateTask(cached.copy(title = "v1"))
+        awaitInvalidation(invalidationsBefore)
+
+        assertEquals("v1", repository.getTaskById(id)?.title)
+    }
+
+    @Test
+    fun `concurrent readers never see a row older than the last completed update`() = runBlocking {
+        val id = repository.addTask(TaskEntity(title = "v0")).toInt()
+        val committed = AtomicInteger(0)
+        val done = AtomicBoolean(false)
+        val staleReads = AtomicInteger(0)
+
+        val readers = (1..READERS).map {
+            async(Dispatchers.Default) {
+                while (!done.get()) {
+                    val floor = committed.get()
+                    val version = repository.getTaskById(id)!!.title.removePrefix("v").toInt()
+                    if (version < floor) staleReads.incrementAndGet()
+                }
+            }
+        }
+
+        val writer = async(Dispatchers.Default) {
+            for (version in 1..UPDATES) {
+                val current = repository.getTaskById(id)!!
+                repository.updateTask(current.copy(title = "v$version"))
+                committed.set(version)
+            }
+            done.set(true)
+        }
+
+        (readers + writer).awaitAll()
+
+        assertEquals(0, staleReads.get())
+        assertEquals("v$UPDATES", repository.getTaskById(id)?.title)
+        assertEquals("v$UPDATES", taskDao.getTaskById(id)?.title)
+    }
+
+    private fun awaitInvalidation(before: Long) {
+        val deadline = System.currentTimeMillis() + 5_000
+        while (taskCache.stats().invalidations == before) {
+            database.invalidationTracker.refreshVersionsAsync()
+            assertTrue("InvalidationTracker did not fire", System.currentTimeMillis() < deadline)
+            Thread.sleep(10)
+        }
+    }
+
+    private companion object {
+        const val READERS = 4
+        const val UPDATES = 300
+    }
+}
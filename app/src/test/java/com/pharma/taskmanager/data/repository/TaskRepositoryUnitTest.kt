@@ -1,44 +1,41 @@
 package com.pharma.taskmanager.data.repository
 
-import androidx.arch.core.executor.testing.InstantTaskExecutorRule
-import androidx.room.Room
-import androidx.test.core.app.ApplicationProvider
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
 import com.pharma.taskmanager.data.database.TaskManagerDatabase
-import com.pharma.taskmanager.data.model.Task
-import com.pharma.taskmanager.data.model.TaskPriority
-import com.pharma.taskmanager.data.model.TaskStatus
 import dagger.hilt.android.testing.HiltAndroidRule
 import dagger.hilt.android.testing.HiltAndroidTest
-import kotlinx.coroutines.ExperimentalCoroutinesApi
+import dagger.hilt.android.testing.HiltTestApplication
 import kotlinx.coroutines.flow.first
-import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.runBlocking
 import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
 import javax.inject.Inject
-import java.time.LocalDateTime
-import kotlin.test.assertEquals
-import kotlin.test.assertNotNull
-import kotlin.test.assertNull
 
 /**
  * Unit test for TaskRepository using Hilt's TestDatabaseModule.
  * This test uses the in-memory database provided by TestDatabaseModule.
  */
-@OptIn(ExperimentalCoroutinesApi::class)
 @HiltAndroidTest
+@RunWith(RobolectricTestRunner::class)
+@Config(application = HiltTestApplication::class, sdk = [33])
 class TaskRepositoryUnitTest {
 
     @get:Rule
     var hiltRule = HiltAndroidRule(this)
 
-    @get:Rule
-    var instantTaskExecutorRule = InstantTaskExecutorRule()
-
     @Inject
     lateinit var database: TaskManagerDatabase
-    
+
     @Inject
     lateinit var repository: TaskRepositoryImpl
 
@@ -53,121 +50,116 @@ class TaskRepositoryUnitTest {
     }
 
     @Test
-    fun `insertTask should add task to database`() = runTest {
+    fun `addTask should add task to database`() = runBlocking {
+        // When
+        val id = repository.addTask(createSampleTask(title = "Unit Test Task")).toInt()
+        val result = repository.getTaskById(id)
+
+        // Then
+        assertNotNull(result)
+        assertEquals("Unit Test Task", result!!.title)
+        assertEquals(TaskConstants.PRIORITY_HIGH, result.priority)
+    }
+
+    @Test
+    fun `deleteTask should hide task until restored`() = runBlocking {
         // Given
-        val task = createSampleTask(id = 1, title = "Unit Test Task")
+        val id = repository.addTask(createSampleTask(title = "Task to Delete")).toInt()
 
         // When
-        repository.insertTask(task)
-        val result = repository.getTaskById(1).first()
+        repository.deleteTask(repository.getTaskById(id)!!)
 
         // Then
-        assertNotNull(result)
-        assertEquals("Unit Test Task", result.title)
-        assertEquals(TaskPriority.HIGH, result.priority)
+        assertNull(repository.getTaskById(id))
+        repository.restoreTask(id)
+        assertNotNull(repository.getTaskById(id))
     }
 
     @Test
-    fun `deleteTask should remove task from database`() = runTest {
+    fun `updateTaskStatus should change task status`() = runBlocking {
         // Given
-        val task = createSampleTask(id = 1, title = "Task to Delete")
-        repository.insertTask(task)
+        val id = repository.addTask(createSampleTask()).toInt()
 
         // When
-        repository.deleteTask(task)
-        val result = repository.getTaskById(1).first()
+        repository.updateTaskStatus(id, TaskConstants.STATUS_COMPLETED)
+        val result = repository.getTaskById(id)
 
         // Then
-        assertNull(result)
+        assertEquals(TaskConstants.STATUS_COMPLETED, result!!.status)
+        assertNotNull(result.completedAt)
     }
 
     @Test
-    fun `updateTaskStatus should change task status`() = runTest {
+    fun `deleteCompletedTasks should tombstone completed tasks only`() = runBlocking {
         // Given
-        val task = createSampleTask(id = 1, status = TaskStatus.PENDING)
-        repository.insertTask(task)
+        val pendingId = repository.addTask(createSampleTask(status = TaskConstants.STATUS_PENDING)).toInt()
+        val completedId = repository.addTask(createSampleTask(status = TaskConstants.STATUS_COMPLETED)).toInt()
 
         // When
-        repository.updateTaskStatus(1, TaskStatus.IN_PROGRESS)
-        val result = repository.getTaskById(1).first()
+        repository.deleteCompletedTasks()
 
         // Then
-        assertNotNull(result)
-        assertEquals(TaskStatus.IN_PROGRESS, result.status)
+        assertNotNull(repository.getTaskById(pendingId))
+        assertNull(repository.getTaskById(completedId))
+        repository.restoreTask(completedId)
+        assertEquals(TaskConstants.STATUS_COMPLETED, repository.getTaskById(completedId)?.status)
     }
 
     @Test
-    fun `searchTasks should return matching tasks`() = runTest {
+    fun `searchTasks should return matching tasks`() = runBlocking {
         // Given
-        val task1 = createSampleTask(id = 1, title = "Important Meeting")
-        val task2 = createSampleTask(id = 2, title = "Buy Groceries")
-        val task3 = createSampleTask(id = 3, title = "Team Meeting")
-        
-        repository.insertTask(task1)
-        repository.insertTask(task2)
-        repository.insertTask(task3)
+        repository.addTask(createSampleTask(title = "Important Meeting"))
+        repository.addTask(createSampleTask(title = "Buy Groceries"))
+        repository.addTask(createSampleTask(title = "Team Meeting"))
 
         // When
         val searchResult = repository.searchTasks("Meeting").first()
 
         // Then
         assertEquals(2, searchResult.size)
-        assertEquals(true, searchResult.any { it.title.contains("Meeting") })
+        assertTrue(searchResult.all { it.title.contains("Meeting") })
     }
 
     @Test
-    fun `getTasksByStatus should return tasks with specific status`() = runTest {
+    fun `getTasksByStatus should return tasks with specific status`() = runBlocking {
         // Given
-        val pendingTask = createSampleTask(id = 1, status = TaskStatus.PENDING)
-        val completedTask = createSampleTask(id = 2, status = TaskStatus.COMPLETED)
-        val inProgressTask = createSampleTask(id = 3, status = TaskStatus.IN_PROGRESS)
-        
-        repository.insertTask(pendingTask)
-        repository.insertTask(completedTask)
-        repository.insertTask(inProgressTask)
+        repository.addTask(createSampleTask(status = TaskConstants.STATUS_PENDING))
+        repository.addTask(createSampleTask(status = TaskConstants.STATUS_COMPLETED))
 
         // When
-        val pendingTasks = repository.getTasksByStatus(TaskStatus.PENDING).first()
+        val pendingTasks = repository.getTasksByStatus(TaskConstants.STATUS_PENDING).first()
 
         // Then
         assertEquals(1, pendingTasks.size)
-        assertEquals(TaskStatus.PENDING, pendingTasks[0].status)
+        assertEquals(TaskConstants.STATUS_PENDING, pendingTasks[0].status)
     }
 
     @Test
-    fun `getTasksByPriority should return tasks with specific priority`() = runTest {
+    fun `getTasksByPriority should return tasks with specific priority`() = runBlocking {
         // Given
-        val highPriorityTask = createSampleTask(id = 1, priority = TaskPriority.HIGH)
-        val lowPriorityTask = createSampleTask(id = 2, priority = TaskPriority.LOW)
-        val mediumPriorityTask = createSampleTask(id = 3, priority = TaskPriority.MEDIUM)
-        
-        repository.insertTask(highPriorityTask)
-        repository.insertTask(lowPriorityTask)
-        repository.insertTask(mediumPriorityTask)
+        repository.addTask(createSampleTask(priority = TaskConstants.PRIORITY_HIGH))
+        repository.addTask(createSampleTask(priority = TaskConstants.PRIORITY_LOW))
+        repository.addTask(createSampleTask(priority = TaskConstants.PRIORITY_MEDIUM))
 
         // When
-        val highPriorityTasks = repository.getTasksByPriority(TaskPriority.HIGH).first()
+        val highPriorityTasks = repository.getTasksByPriority(TaskConstants.PRIORITY_HIGH).first()
 
         // Then
         assertEquals(1, highPriorityTasks.size)
-        assertEquals(TaskPriority.HIGH, highPriorityTasks[0].priority)
+        assertEquals(TaskConstants.PRIORITY_HIGH, highPriorityTasks[0].priority)
     }
 
     private fun createSampleTask(
-        id: Long = 1,
         title: String = "Sample Task",
         description: String = "Sample Description",
-        priority: TaskPriority = TaskPriority.HIGH,
-        status: TaskStatus = TaskStatus.PENDING
-    ): Task {
-        return Task(
-            id = id,
+        priority: Int = TaskConstants.PRIORITY_HIGH,
+        status: String = TaskConstants.STATUS_PENDING
+    ): TaskEntity {
+        return TaskEntity(
             title = title,
             description = description,
             priority = priority,
-            status = status,
-            createdAt = LocalDateTime.now(),
-            updatedAt = LocalDateTime.now()
+            status = status
         )
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,18 @@ package com.pharma.taskmanager.di
 
 import android.content.Context
 import androidx.room.Room
+import com.pharma.taskmanager.data.database.ArchiveDao
+import com.pharma.taskmanager.data.database.AttachmentDao
+import com.pharma.taskmanager.data.database.ChecklistDao
+import com.pharma.taskmanager.data.database.ReminderMetricDao
+import com.pharma.taskmanager.data.database.SnapshotDao
+import com.pharma.taskmanager.data.database.SyncDao
+import com.pharma.taskmanager.data.database.TagDao
+import com.pharma.taskmanager.data.database.TaskChangeLog
 import com.pharma.taskmanager.data.database.TaskDao
 import com.pharma.taskmanager.data.database.TaskManagerDatabase
+import com.pharma.taskmanager.data.database.useDispatchers
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
 import dagger.Module
 import dagger.Provides
 import dagger.hilt.android.qualifiers.ApplicationContext
@@ -33,19 +43,23 @@ object TestDatabaseModule {
      * This database is destroyed when the test process ends.
      * 
      * @param context Test application context
+     * @param dispatchers The pools DispatchersModule (or a test replacement of it) provides
      * @return In-memory TaskManagerDatabase instance
      */
     @Provides
     @Singleton
     fun provideTaskManagerDatabase(
-        @ApplicationContext context: Context
+        @ApplicationContext context: Context,
+        dispatchers: AppDispatchers
     ): TaskManagerDatabase {
         return Room.inMemoryDatabaseBuilder(
             context.applicationContext,
             TaskManagerDatabase::class.java
         )
+            .addCallback(TaskChangeLog.CALLBACK) // Same sync triggers as the app database
             .allowMainThreadQueries() // Allow database operations on main thread for testing
             .fallbackToDestructiveMigration() // Ensure clean state between tests
+            .useDispatchers(dispatchers) // Same executors as the app database
             .build()
     }
     
@@ -60,6 +74,41 @@ object TestDatabaseModule {
         return database.taskDao()
     }
     
+    @Provides
+    fun provideReminderMetricDao(database: TaskManagerDatabase): ReminderMetricDao {
+        return database.reminderMetricDao()
+    }
+    
+    @Provides
+    fun provideArchiveDao(database: TaskManagerDatabase): ArchiveDao {
+        return database.archiveDao()
+    }
+    
+    @Provides
+    fun provideSnapshotDao(database: TaskManagerDatabase): SnapshotDao {
+        return database.snapshotDao()
+    }
+    
+    @Provides
+    fun provideSyncDao(database: TaskManagerDatabase): SyncDao {
+        return database.syncDao()
+    }
+    
+    @Provides
+    fun provideTagDao(database: TaskManagerDatabase): TagDao {
+        return database.tagDao()
+    }
+    
+    @Provides
+    fun provideChecklistDao(database: TaskManagerDatabase): ChecklistDao {
+        return database.checklistDao()
+    }
+    
+    @Provides
+    fun provideAttachmentDao(database: TaskManagerDatabase): AttachmentDao {
+        return database.attachmentDao()
+    }
+    
     /**
      * Provides a test version of NotificationHelper.
      * This can be a mock or a real instance depending on your testing needs.
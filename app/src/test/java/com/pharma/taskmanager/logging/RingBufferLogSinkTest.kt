@@ -0,0 +1,37 @@
+package com.pharma.taskmanager.logging
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class RingBufferLogSinkTest {
+
+    private fun event(message: String, vararg fields: Pair<String, Any?>) =
+        LogEvent(0L, LogLevel.DEBUG, "Test", message, linkedMapOf(*fields))
+
+    @Test
+    fun `keeps only the newest events in order`() {
+        val sink = RingBufferLogSink(capacity = 3)
+        (1..5).forEach { sink.write(event("m$it")) }
+
+        assertEquals(listOf("m3", "m4", "m5"), sink.snapshot().map { it.message })
+    }
+
+    @Test
+    fun `dump includes structured fields`() {
+        val sink = RingBufferLogSink(capacity = 3)
+        sink.write(event("scheduled", "taskId" to 7, "delayMs" to 500L))
+
+        assertTrue(sink.dump().endsWith("D/Test: scheduled taskId=7 delayMs=500"))
+    }
+
+    @Test
+    fun `clear empties the buffer`() {
+        val sink = RingBufferLogSink(capacity = 2)
+        sink.write(event("a"))
+        sink.clear()
+        sink.write(event("b"))
+
+        assertEquals(listOf("b"), sink.snapshot().map { it.message })
+    }
+}
@@ -2,8 +2,10 @@
 plugins {
     id("com.android.application") version "8.13.0" apply false
     id("org.jetbrains.kotlin.android") version "1.9.10" apply false
+    id("org.jetbrains.kotlin.jvm") version "1.9.10" apply false
     id("com.google.dagger.hilt.android") version "2.48" apply false
     id("com.google.devtools.ksp") version "1.9.10-1.0.13" apply false
+    id("me.champeau.jmh") version "0.7.2" apply false
 }
 
 tasks.register("clean", Delete::class) {
@@ -0,0 +1,31 @@
+plugins {
+    id("org.jetbrains.kotlin.jvm")
+    id("me.champeau.jmh")
+}
+
+// JMH microbenchmarks for :core-domain.
+// Run with: ./gradlew :core-domain-jmh:jmh
+// Results are written to build/results/jmh/results.json
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+kotlin {
+    jvmToolchain(17)
+}
+
+dependencies {
+    jmh(project(":core-domain"))
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    // Narrow down with -PjmhInclude=Grouping
+    (findProperty("jmhInclude") as String?)?.let { includes.add(it) }
+}
@@ -0,0 +1,70 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.ChecklistItemEntity
+import com.pharma.taskmanager.domain.checklist.ChecklistProgress
+import com.pharma.taskmanager.domain.checklist.ChecklistTree
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.util.concurrent.TimeUnit
+
+/**
+ * Checklist rollups over 10k steps in trees 5 levels deep (62 steps per task).
+ * [forestRollup] rolls up every task in one pass, the in-memory shape of ChecklistDao's
+ * recursive query. [perTaskChildScans] loads each task's children level by level, the
+ * shape of rolling up per list row without it. [singleTask] is the detail screen's tree.
+ * The SQL side is timed in TaskDaoPerformanceTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class ChecklistRollupBenchmark {
+
+    @Param("10000")
+    var nodes: Int = 0
+
+    @Param("5")
+    var depth: Int = 0
+
+    private lateinit var items: List<ChecklistItemEntity>
+    private lateinit var firstTask: List<ChecklistItemEntity>
+
+    @Setup
+    fun setUp() {
+        items = TaskDataset.checklist(nodes, depth)
+        val firstTaskSteps = items.count { it.taskId == 1 } * ((1 shl depth) - 1)
+        firstTask = items.take(firstTaskSteps)
+    }
+
+    @Benchmark
+    fun forestRollup(): List<ChecklistProgress> = ChecklistTree(items).progress
+
+    @Benchmark
+    fun perTaskChildScans(): List<ChecklistProgress> {
+        val taskIds = items.mapNotNull { it.taskId }.distinct()
+        return taskIds.map { taskId ->
+            var level = items.filter { it.taskId == taskId }
+            var done = 0
+            var total = 0
+            while (level.isNotEmpty()) {
+                val ids = level.mapTo(HashSet()) { it.id }
+                val next = items.filter { it.parentId in ids }
+                val parents = next.mapTo(HashSet()) { it.parentId }
+                level.filter { it.id !in parents }.forEach { leaf ->
+                    total++
+                    if (leaf.completedAt != null) done++
+                }
+                level = next
+            }
+            ChecklistProgress(taskId, total, done, null)
+        }
+    }
+
+    @Benchmark
+    fun singleTask(): List<ChecklistTree.Row> = ChecklistTree(firstTask).rows
+}
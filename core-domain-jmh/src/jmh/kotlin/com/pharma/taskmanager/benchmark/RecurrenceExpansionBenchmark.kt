@@ -0,0 +1,92 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.recurrence.RecurrenceEngine
+import com.pharma.taskmanager.domain.recurrence.RecurrenceRule
+import com.pharma.taskmanager.domain.recurrence.TaskOccurrences
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+import java.util.TimeZone
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * Cost of expanding recurring tasks for a window. 10k rules over a year is far beyond a
+ * real ward (it yields ~1.5M occurrences) and bounds what a calendar view could ask for;
+ * a week is what the "upcoming" UI actually expands.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class RecurrenceExpansionBenchmark {
+
+    @Param("1000", "10000")
+    var rules: Int = 0
+
+    @Param("7", "365")
+    var windowDays: Int = 0
+
+    private lateinit var tasks: List<TaskEntity>
+    private lateinit var parsed: List<RecurrenceRule>
+    private val zone: TimeZone = TimeZone.getTimeZone("Europe/London")
+    private var windowEnd = 0L
+
+    @Setup
+    fun setUp() {
+        val random = Random(42)
+        tasks = List(rules) { index ->
+            // Series started up to a year ago, so open-ended rules have to jump to the window
+            val start = TaskDataset.NOW - random.nextLong(0, 365 * DAY)
+            TaskEntity(
+                id = index + 1,
+                title = "Check ${index + 1}",
+                dueDateTime = start,
+                reminderTime = start - 15 * 60_000L,
+                recurrenceRule = RULES[random.nextInt(RULES.size)],
+                createdAt = start
+            )
+        }
+        parsed = tasks.map { RecurrenceRule.parse(it.recurrenceRule!!) }
+        windowEnd = TaskDataset.NOW + windowDays * DAY
+    }
+
+    /** Pure engine cost: pre-parsed rules, occurrences consumed without allocation. */
+    @Benchmark
+    fun expandParsedRules(blackhole: Blackhole) {
+        for (i in tasks.indices) {
+            val occurrences = RecurrenceEngine.iterator(parsed[i], tasks[i].dueDateTime!!, TaskDataset.NOW, zone)
+            while (occurrences.hasNext()) {
+                val occurrence = occurrences.nextLong()
+                if (occurrence >= windowEnd) break
+                blackhole.consume(occurrence)
+            }
+        }
+    }
+
+    /** What a screen pays: parse every row's rule and build the sorted occurrence list. */
+    @Benchmark
+    fun expandTasks(): Int = TaskOccurrences.expand(tasks, TaskDataset.NOW, windowEnd, zone).size
+
+    private companion object {
+        const val DAY = 24 * 60 * 60 * 1000L
+
+        val RULES = listOf(
+            "FREQ=DAILY",
+            "FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR",
+            "FREQ=DAILY;INTERVAL=2",
+            "FREQ=WEEKLY",
+            "FREQ=WEEKLY;BYDAY=MO,TH",
+            "FREQ=WEEKLY;INTERVAL=2;BYDAY=TU",
+            "FREQ=MONTHLY",
+            "FREQ=DAILY;COUNT=400",
+            "FREQ=WEEKLY;BYDAY=MO,WE,FR;UNTIL=20271231"
+        )
+    }
+}
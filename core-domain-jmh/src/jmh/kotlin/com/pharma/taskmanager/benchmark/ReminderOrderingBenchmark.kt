@@ -0,0 +1,36 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.reminder.ReminderOrdering
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.util.concurrent.TimeUnit
+
+/**
+ * Cost of picking the ringing order when an alarm fires. The list sizes model a
+ * backlog of due reminders after the device was offline or in Doze for a while.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class ReminderOrderingBenchmark {
+    
+    @Param("100", "1000", "10000")
+    var size: Int = 0
+    
+    private lateinit var tasks: List<TaskEntity>
+    
+    @Setup
+    fun setUp() {
+        tasks = TaskDataset.generate(size)
+    }
+    
+    @Benchmark
+    fun orderDueReminders(): List<TaskEntity> = ReminderOrdering.order(tasks, TaskDataset.NOW)
+}
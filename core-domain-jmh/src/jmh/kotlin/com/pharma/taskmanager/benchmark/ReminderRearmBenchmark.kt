@@ -0,0 +1,62 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.domain.reminder.ArmedReminder
+import com.pharma.taskmanager.domain.reminder.ReminderAlarmLedger
+import com.pharma.taskmanager.domain.reminder.ReminderAlarmLedgerFile
+import com.pharma.taskmanager.domain.reminder.ReminderRearmPlan
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.util.concurrent.TimeUnit
+
+/**
+ * Planning a re-arm pass over every future reminder of a large list. [planAll] diffs all of
+ * them against an equally large ledger, the cost of re-registering everything; [planWindow]
+ * is the pass as shipped, over the nearest window plus one. [ledgerRoundTrip] encodes and
+ * decodes the window's ledger, which every pass reads and writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class ReminderRearmBenchmark {
+
+    @Param("100000")
+    var size: Int = 0
+
+    private lateinit var upcoming: List<ArmedReminder>
+    private lateinit var armed: List<ArmedReminder>
+    private lateinit var windowRows: List<ArmedReminder>
+    private lateinit var ledger: ReminderAlarmLedger
+
+    @Setup
+    fun setUp() {
+        // Every pending task gets a future reminder, sorted the way the DAO returns them
+        upcoming = TaskDataset.generate(size)
+            .filter { it.status == TaskConstants.STATUS_PENDING }
+            .mapIndexed { i, task -> ArmedReminder(task.id, TaskDataset.NOW + 60_000L + i * 37_000L) }
+        // A clock change: the previous pass armed the same reminders, a tenth of them since moved
+        armed = upcoming.mapIndexed { i, r -> if (i % 10 == 0) r.copy(reminderTime = r.reminderTime - 1) else r }
+        windowRows = upcoming.take(ReminderRearmPlan.DEFAULT_WINDOW + 1)
+        val plan = ReminderRearmPlan.plan(windowRows, armed.take(ReminderRearmPlan.DEFAULT_WINDOW))
+        ledger = ReminderAlarmLedger(
+            bootCount = 1,
+            armed = plan.window,
+            lastPass = ReminderAlarmLedger.Pass("time_set", TaskDataset.NOW, 0L, plan.toArm.size, plan.skipped, plan.refillAt)
+        )
+    }
+
+    @Benchmark
+    fun planAll(): Int = ReminderRearmPlan.plan(upcoming, armed, window = Int.MAX_VALUE).toArm.size
+
+    @Benchmark
+    fun planWindow(): Int = ReminderRearmPlan.plan(windowRows, ledger.armed).toArm.size
+
+    @Benchmark
+    fun ledgerRoundTrip(): ReminderAlarmLedger = ReminderAlarmLedgerFile.decode(ReminderAlarmLedgerFile.encode(ledger))
+}
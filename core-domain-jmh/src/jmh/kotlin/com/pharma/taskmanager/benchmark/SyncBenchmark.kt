@@ -0,0 +1,76 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.domain.sync.InMemorySyncStore
+import com.pharma.taskmanager.domain.sync.LoopbackSyncServer
+import com.pharma.taskmanager.domain.sync.SyncCodec
+import com.pharma.taskmanager.domain.sync.SyncEngine
+import com.pharma.taskmanager.domain.sync.TaskDelta
+import kotlinx.coroutines.runBlocking
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.util.concurrent.TimeUnit
+
+/**
+ * Syncing 50k changes from one device to another through the loopback server: every
+ * batch is encoded, compressed, decoded by the server, re-encoded and applied on the far
+ * side. The database work of a real device is not part of this; [encodeAndDecode] isolates
+ * the codec's share.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class SyncBenchmark {
+
+    @Param("50000")
+    var changes: Int = 0
+
+    @Param("500")
+    var batchSize: Int = 0
+
+    private lateinit var deltas: List<TaskDelta>
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        val store = InMemorySyncStore { TaskDataset.NOW }
+        deltas = TaskDataset.generate(changes).map { TaskDelta.upsert(store.save(it.copy(id = 0))) }
+    }
+
+    /** Fresh server and devices for every call; a whole sync is long enough for per-call setup. */
+    @State(Scope.Thread)
+    open class Devices {
+        lateinit var server: LoopbackSyncServer
+        lateinit var phone: InMemorySyncStore
+        lateinit var tablet: InMemorySyncStore
+
+        @Setup(Level.Invocation)
+        fun setUp(benchmark: SyncBenchmark) {
+            server = LoopbackSyncServer()
+            phone = InMemorySyncStore { TaskDataset.NOW }
+            tablet = InMemorySyncStore { TaskDataset.NOW }
+            for (delta in benchmark.deltas) phone.save(delta.task!!)
+        }
+    }
+
+    @Benchmark
+    fun pushThenPull(devices: Devices): Int = runBlocking {
+        SyncEngine(devices.phone, devices.server, "phone", batchSize).sync()
+        SyncEngine(devices.tablet, devices.server, "tablet", batchSize).sync().pulled
+    }
+
+    @Benchmark
+    fun encodeAndDecode(): Int {
+        var decoded = 0
+        for (start in deltas.indices step batchSize) {
+            val body = SyncCodec.encode(deltas.subList(start, minOf(start + batchSize, deltas.size)))
+            decoded += SyncCodec.decode(body).size
+        }
+        return decoded
+    }
+}
@@ -0,0 +1,69 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.data.database.TaskFilter
+import com.pharma.taskmanager.domain.tags.TagBitmapIndex
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * Tag chip filtering with 100 tags over 100k tasks (0-3 tags each). The bitmap benchmarks
+ * combine three chips' bitmaps; [perTaskTagSets] is the same any-of answered per task from
+ * tag sets, the shape of evaluating the join row by row. [buildIndex] is the rebuild paid
+ * once per task_tags change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class TagFilterBenchmark {
+
+    @Param("100000")
+    var size: Int = 0
+
+    @Param("100")
+    var tagCount: Int = 0
+
+    private lateinit var tasks: List<TaskEntity>
+    private lateinit var linkTaskIds: IntArray
+    private lateinit var linkTagIds: IntArray
+    private lateinit var tagsByTask: Map<Int, Set<Int>>
+    private lateinit var index: TagBitmapIndex
+    private val chips = setOf(7, 42, 77)
+
+    @Setup
+    fun setUp() {
+        tasks = TaskDataset.generate(size)
+        val random = Random(5)
+        val links = tasks.flatMap { task -> List(random.nextInt(4)) { task.id to random.nextInt(1, tagCount + 1) } }.distinct()
+        linkTaskIds = IntArray(links.size) { links[it].first }
+        linkTagIds = IntArray(links.size) { links[it].second }
+        tagsByTask = links.groupBy({ it.first }, { it.second }).mapValues { it.value.toSet() }
+        index = buildIndex()
+    }
+
+    @Benchmark
+    fun bitmapAnyOf(): Int = index.anyOf(chips).size
+
+    @Benchmark
+    fun bitmapAllOf(): Int = index.allOf(chips.take(2)).size
+
+    @Benchmark
+    fun filterTasksWithBitmap(): List<TaskEntity> =
+        TaskFilter(anyOfTags = chips).apply(tasks, TaskDataset.NOW, index)
+
+    @Benchmark
+    fun perTaskTagSets(): List<TaskEntity> =
+        tasks.filter { task -> tagsByTask[task.id]?.any { it in chips } == true }
+
+    @Benchmark
+    fun buildIndex(): TagBitmapIndex =
+        TagBitmapIndex().apply { for (i in linkTaskIds.indices) add(linkTaskIds[i], linkTagIds[i]) }
+}
@@ -0,0 +1,67 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.ChecklistItemEntity
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import kotlin.random.Random
+
+/**
+ * Deterministic task lists shaped like a ward's real data: mostly pending,
+ * due dates spread from two weeks ago to a month ahead, ~40% with reminders.
+ */
+object TaskDataset {
+    
+    const val NOW = 1_760_000_000_000L // fixed reference time so runs are comparable
+    private const val HOUR = 60 * 60 * 1000L
+    
+    fun generate(size: Int, seed: Int = 42): List<TaskEntity> {
+        val random = Random(seed)
+        return List(size) { index ->
+            val due = if (random.nextInt(10) < 8) NOW + random.nextLong(-14 * 24 * HOUR, 30 * 24 * HOUR) else null
+            TaskEntity(
+                id = index + 1,
+                title = "Task ${index + 1} ${WORDS[random.nextInt(WORDS.size)]}",
+                description = if (random.nextBoolean()) "Check ${WORDS[random.nextInt(WORDS.size)]} stock" else null,
+                dueDateTime = due,
+                priority = random.nextInt(TaskConstants.PRIORITY_LOW, TaskConstants.PRIORITY_HIGH + 1),
+                status = if (random.nextInt(10) < 7) TaskConstants.STATUS_PENDING else TaskConstants.STATUS_COMPLETED,
+                reminderTime = if (due != null && random.nextInt(10) < 4) due - random.nextLong(0, 2 * HOUR) else null,
+                createdAt = NOW - random.nextLong(0, 60 * 24 * HOUR)
+            )
+        }
+    }
+    
+    /**
+     * SOP checklists: [nodes] steps in full binary trees [depth] levels deep, two trees per
+     * task, so 5 levels give 62 steps per task. About half done, a third with a due date.
+     */
+    fun checklist(nodes: Int, depth: Int = 5, seed: Int = 42): List<ChecklistItemEntity> {
+        val random = Random(seed)
+        val items = ArrayList<ChecklistItemEntity>(nodes)
+        fun grow(taskId: Int?, parentId: Int?, position: Int, level: Int) {
+            if (items.size == nodes) return
+            val id = items.size + 1
+            items += ChecklistItemEntity(
+                id = id,
+                taskId = taskId,
+                parentId = parentId,
+                title = "Step $id",
+                position = position,
+                dueDateTime = if (random.nextInt(3) == 0) NOW + random.nextLong(-2 * 24 * HOUR, 7 * 24 * HOUR) else null,
+                completedAt = if (random.nextBoolean()) NOW else null
+            )
+            if (level < depth) repeat(2) { grow(null, id, it, level + 1) }
+        }
+        var tree = 0
+        while (items.size < nodes) {
+            grow(taskId = tree / 2 + 1, parentId = null, position = tree % 2, level = 1)
+            tree++
+        }
+        return items
+    }
+    
+    private val WORDS = listOf(
+        "insulin", "fridge", "controlled drugs", "expiry", "vaccine", "ward round",
+        "temperature log", "dispensing", "audit", "handover"
+    )
+}
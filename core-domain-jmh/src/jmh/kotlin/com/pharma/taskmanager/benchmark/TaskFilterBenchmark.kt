@@ -0,0 +1,42 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.data.database.TaskFilter
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.util.concurrent.TimeUnit
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class TaskFilterBenchmark {
+    
+    @Param("1000", "10000", "100000")
+    var size: Int = 0
+    
+    private lateinit var tasks: List<TaskEntity>
+    
+    @Setup
+    fun setUp() {
+        tasks = TaskDataset.generate(size)
+    }
+    
+    @Benchmark
+    fun pending(): List<TaskEntity> = TaskFilter.pending().apply(tasks, TaskDataset.NOW)
+    
+    @Benchmark
+    fun overdue(): List<TaskEntity> = TaskFilter.overdue().apply(tasks, TaskDataset.NOW)
+    
+    @Benchmark
+    fun highPriorityWithReminder(): List<TaskEntity> =
+        TaskFilter(priority = 3, hasReminder = true).apply(tasks, TaskDataset.NOW)
+    
+    @Benchmark
+    fun search(): List<TaskEntity> = TaskFilter(searchQuery = "insulin").apply(tasks, TaskDataset.NOW)
+}
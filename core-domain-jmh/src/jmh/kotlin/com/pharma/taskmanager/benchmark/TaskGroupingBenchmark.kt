@@ -0,0 +1,33 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.grouping.TaskGroup
+import com.pharma.taskmanager.domain.grouping.TaskGrouping
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.util.concurrent.TimeUnit
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class TaskGroupingBenchmark {
+    
+    @Param("1000", "10000", "100000")
+    var size: Int = 0
+    
+    private lateinit var tasks: List<TaskEntity>
+    
+    @Setup
+    fun setUp() {
+        tasks = TaskDataset.generate(size)
+    }
+    
+    @Benchmark
+    fun groupByDueDate(): List<TaskGroup> = TaskGrouping.groupTasksByDueDate(tasks, TaskDataset.NOW)
+}
@@ -0,0 +1,83 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.changes.TaskChangeSet
+import com.pharma.taskmanager.domain.changes.TaskChangeTracker
+import com.pharma.taskmanager.domain.changes.TaskStamp
+import com.pharma.taskmanager.domain.grouping.TaskGroup
+import com.pharma.taskmanager.domain.grouping.TaskGroupIndex
+import com.pharma.taskmanager.domain.grouping.TaskGrouping
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * One task edited in a large list. [fullRegroup] is what the task list did per Room emission:
+ * group and sort every row. [incrementalUpdate] applies the one-row change set to a
+ * [TaskGroupIndex] and republishes its groups. [stampDiff] is TaskChangeFeed's share of a
+ * write: diffing every row's stamp to find the one that moved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class TaskListUpdateBenchmark {
+
+    @Param("50000")
+    var size: Int = 0
+
+    private lateinit var tasks: MutableList<TaskEntity>
+    private lateinit var stamps: MutableList<TaskStamp>
+    private lateinit var index: TaskGroupIndex
+    private lateinit var tracker: TaskChangeTracker
+    private val random = Random(1)
+    private var clock = 0L
+
+    @Setup
+    fun setUp() {
+        tasks = TaskDataset.generate(size).map { it.copy(updatedAt = it.id.toLong()) }.toMutableList()
+        stamps = tasks.map { TaskStamp(it.id, it.updatedAt) }.toMutableList()
+        index = TaskGroupIndex(TaskDataset.NOW).apply { replaceAll(tasks, TaskDataset.NOW) }
+        tracker = TaskChangeTracker().apply { reset(tasks) }
+        clock = size.toLong()
+    }
+
+    // Moves a random task to a new due date, so it usually changes group as well as position
+    private fun editRandomTask(): TaskEntity {
+        val at = random.nextInt(tasks.size)
+        val edited = tasks[at].copy(dueDateTime = TaskDataset.NOW + random.nextLong(-14 * DAY, 30 * DAY), updatedAt = ++clock)
+        tasks[at] = edited
+        return edited
+    }
+
+    @Benchmark
+    fun fullRegroup(): List<TaskGroup> {
+        editRandomTask()
+        return TaskGrouping.groupTasksByDueDate(tasks, TaskDataset.NOW)
+    }
+
+    @Benchmark
+    fun incrementalUpdate(): List<TaskGroup> {
+        val edited = editRandomTask()
+        index.apply(TaskChangeSet(emptyList(), listOf(edited), emptySet()), TaskDataset.NOW)
+        return index.groups()
+    }
+
+    @Benchmark
+    fun stampDiff(): TaskChangeSet {
+        val edited = editRandomTask()
+        stamps[edited.id - 1] = TaskStamp(edited.id, edited.updatedAt)
+        val diff = tracker.diff(stamps)
+        return tracker.commit(diff, listOf(edited))
+    }
+
+    private companion object {
+        const val DAY = 24 * 60 * 60 * 1000L
+    }
+}
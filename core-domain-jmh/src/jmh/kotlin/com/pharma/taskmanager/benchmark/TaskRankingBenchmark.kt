@@ -0,0 +1,92 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.ranking.NextUpRanker
+import com.pharma.taskmanager.domain.ranking.RankedTask
+import com.pharma.taskmanager.domain.ranking.TaskUrgency
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * One task changed in a large list, then the "Next up" top five republished. [fullRank] scores
+ * and sorts every row per change. [incrementalUpdate] applies the row to a [NextUpRanker];
+ * [completeLeader] completes the current first task, the change that drains the ranker's kept
+ * set and periodically forces its refill pass. [rescore] is the once-a-minute full rescoring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class TaskRankingBenchmark {
+
+    @Param("100000")
+    var size: Int = 0
+
+    private lateinit var tasks: MutableList<TaskEntity>
+    private lateinit var ranker: NextUpRanker
+    private val random = Random(1)
+    private var minute = 0L
+
+    @Setup
+    fun setUp() {
+        tasks = TaskDataset.generate(size).toMutableList()
+        ranker = NextUpRanker(now = TaskDataset.NOW).apply { replaceAll(tasks, TaskDataset.NOW) }
+    }
+
+    // Moves a random task to a new due date, reopening it if it was completed
+    private fun editRandomTask(): TaskEntity {
+        val at = random.nextInt(tasks.size)
+        val edited = tasks[at].copy(
+            dueDateTime = TaskDataset.NOW + random.nextLong(-14 * DAY, 30 * DAY),
+            status = TaskConstants.STATUS_PENDING
+        )
+        tasks[at] = edited
+        return edited
+    }
+
+    @Benchmark
+    fun fullRank(): List<RankedTask> {
+        editRandomTask()
+        return tasks.asSequence()
+            .filter { TaskUrgency.isActionable(it) }
+            .map { RankedTask(it, TaskUrgency.score(it, TaskDataset.NOW)) }
+            .sortedWith(compareByDescending<RankedTask> { it.score }.thenBy { it.task.dueDateTime ?: Long.MAX_VALUE })
+            .take(NextUpRanker.DEFAULT_SIZE)
+            .toList()
+    }
+
+    @Benchmark
+    fun incrementalUpdate(): List<RankedTask> {
+        ranker.upsert(editRandomTask())
+        return ranker.top()
+    }
+
+    @Benchmark
+    fun completeLeader(): List<RankedTask> {
+        val leader = ranker.top().first().task
+        val done = leader.copy(status = TaskConstants.STATUS_COMPLETED)
+        tasks[leader.id - 1] = done
+        ranker.upsert(done)
+        // Reopen a random task so the pool does not run dry over a long run
+        ranker.upsert(editRandomTask())
+        return ranker.top()
+    }
+
+    @Benchmark
+    fun rescore(): List<RankedTask> {
+        ranker.advanceTo(TaskDataset.NOW + ++minute * NextUpRanker.RESCORE_INTERVAL_MILLIS)
+        return ranker.top()
+    }
+
+    private companion object {
+        const val DAY = 24 * 60 * 60 * 1000L
+    }
+}
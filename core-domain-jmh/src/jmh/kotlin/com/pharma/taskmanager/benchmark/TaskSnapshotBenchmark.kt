@@ -0,0 +1,52 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.snapshot.TaskSnapshot
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import java.io.File
+import java.util.concurrent.TimeUnit
+
+/**
+ * Snapshot backup and restore cost on files: write through a FileChannel (including the
+ * fsync), read back through a memory-mapped buffer with every checksum verified. The
+ * database insert that follows a restore is not part of this.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class TaskSnapshotBenchmark {
+
+    @Param("10000", "100000")
+    var size: Int = 0
+
+    private lateinit var tasks: List<TaskEntity>
+    private lateinit var directory: File
+    private lateinit var snapshot: File
+
+    @Setup
+    fun setUp() {
+        tasks = TaskDataset.generate(size)
+        directory = File(System.getProperty("java.io.tmpdir"), "task-snapshot-bench-$size").apply { mkdirs() }
+        snapshot = File(directory, "tasks.snap")
+        TaskSnapshot.writeFile(snapshot, tasks, TaskDataset.NOW)
+    }
+
+    @TearDown
+    fun tearDown() {
+        directory.deleteRecursively()
+    }
+
+    @Benchmark
+    fun writeSnapshot(): Long = TaskSnapshot.writeFile(File(directory, "write.snap"), tasks, TaskDataset.NOW)
+
+    @Benchmark
+    fun readSnapshot(): Int = TaskSnapshot.readFile(snapshot).tasks.size
+}
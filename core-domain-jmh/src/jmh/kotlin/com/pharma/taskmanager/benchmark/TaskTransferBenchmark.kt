@@ -0,0 +1,75 @@
+package com.pharma.taskmanager.benchmark
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.transfer.TaskTransfer
+import com.pharma.taskmanager.domain.transfer.TaskTransferFormat
+import kotlinx.coroutines.runBlocking
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OperationsPerInvocation
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+import java.io.BufferedWriter
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.InputStreamReader
+import java.io.OutputStream
+import java.io.OutputStreamWriter
+import java.util.concurrent.TimeUnit
+
+/**
+ * Export/import throughput in rows per second, UTF-8 encoding included. The database side
+ * (chunk queries, batch inserts) is stubbed out, so this is the ceiling the codecs allow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class TaskTransferBenchmark {
+
+    @Param("JSON_LINES", "CSV")
+    var format: String = ""
+
+    private lateinit var transferFormat: TaskTransferFormat
+    private lateinit var tasks: List<TaskEntity>
+    private lateinit var encoded: ByteArray
+
+    @Setup
+    fun setUp() {
+        transferFormat = TaskTransferFormat.valueOf(format)
+        tasks = TaskDataset.generate(ROWS)
+        val bytes = ByteArrayOutputStream()
+        export(bytes)
+        encoded = bytes.toByteArray()
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    fun exportRows(): Long = export(OutputStream.nullOutputStream())
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    fun importRows(blackhole: Blackhole): Long = runBlocking {
+        val reader = TaskTransfer.openReader(InputStreamReader(ByteArrayInputStream(encoded), Charsets.UTF_8), TaskDataset.NOW)
+        TaskTransfer.import(reader, BATCH_SIZE, insertBatch = { blackhole.consume(it) }).imported
+    }
+
+    private fun export(out: OutputStream): Long = runBlocking {
+        val writer = transferFormat.newWriter(BufferedWriter(OutputStreamWriter(out, Charsets.UTF_8), BUFFER_SIZE))
+        // Chunks are views over the list, like a keyset query that returns rows already in memory
+        TaskTransfer.export(writer, BATCH_SIZE, loadChunk = { afterId, limit ->
+            val from = if (afterId == Int.MIN_VALUE) 0 else afterId
+            tasks.subList(from, minOf(from + limit, tasks.size))
+        })
+    }
+
+    private companion object {
+        const val ROWS = 100_000
+        const val BATCH_SIZE = 1_000
+        const val BUFFER_SIZE = 64 * 1024
+    }
+}
@@ -0,0 +1,31 @@
+plugins {
+    id("org.jetbrains.kotlin.jvm")
+    id("com.google.devtools.ksp")
+}
+
+// Plain Kotlin/JVM library: no Android dependencies so the task logic can be
+// unit tested, fuzzed and benchmarked (see :core-domain-jmh) on any JVM.
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+kotlin {
+    jvmToolchain(17)
+}
+
+dependencies {
+    // Room annotations only (pure Java artifact) - the Android runtime stays in :app
+    api("androidx.room:room-common:2.6.1")
+    
+    // Flow in the repository contract
+    api("org.jetbrains.kotlinx:kotlinx-coroutines-core:1.7.3")
+    
+    // @Inject constructors of the use cases
+    api("com.google.dagger:dagger:2.48")
+    ksp("com.google.dagger:dagger-compiler:2.48")
+    
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.jetbrains.kotlinx:kotlinx-coroutines-test:1.7.3")
+}
@@ -0,0 +1,36 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * One step of a task's checklist. Top-level steps hang off the task ([taskId] set,
+ * [parentId] null); sub-steps hang off another step ([parentId] set, [taskId] null), so a
+ * step's task is found by walking up, which is what the recursive rollups in ChecklistDao do.
+ *
+ * Only leaves count towards progress: a step with sub-steps is done when all of them are.
+ * Both foreign keys cascade, so deleting a task or a step removes everything below it.
+ */
+@Entity(
+    tableName = "checklist_items",
+    foreignKeys = [
+        ForeignKey(entity = TaskEntity::class, parentColumns = ["id"], childColumns = ["taskId"], onDelete = ForeignKey.CASCADE),
+        ForeignKey(entity = ChecklistItemEntity::class, parentColumns = ["id"], childColumns = ["parentId"], onDelete = ForeignKey.CASCADE)
+    ],
+    indices = [
+        Index(value = ["taskId", "position"]),
+        Index(value = ["parentId", "position"])
+    ]
+)
+data class ChecklistItemEntity(
+    @PrimaryKey(autoGenerate = true)
+    val id: Int = 0,
+    val taskId: Int? = null, // Set on top-level steps only
+    val parentId: Int? = null, // Set on sub-steps only
+    val title: String,
+    val position: Int = 0, // Order among siblings
+    val dueDateTime: Long? = null, // Also bounds every step below it
+    val completedAt: Long? = null
+)
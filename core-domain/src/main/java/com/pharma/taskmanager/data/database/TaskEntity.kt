@@ -0,0 +1,34 @@
+package com.pharma.taskmanager.data.database
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+@Entity(
+    tableName = "tasks",
+    // Every live query filters on deletedAt IS NULL first, so it leads both indices
+    indices = [
+        Index(value = ["deletedAt", "status", "dueDateTime"]),
+        Index(value = ["deletedAt", "reminderTime"]),
+        Index(value = ["syncId"], unique = true)
+    ]
+)
+data class TaskEntity(
+    @PrimaryKey(autoGenerate = true)
+    val id: Int = 0,
+    val title: String,
+    val description: String? = null,
+    val dueDateTime: Long? = null, // Timestamp
+    val priority: Int = 2, // 1=Low, 2=Medium, 3=High
+    val status: String = "pending", // "pending", "completed"
+    val reminderTime: Long? = null, // Timestamp for reminder
+    val createdAt: Long = System.currentTimeMillis(), // Creation timestamp
+    val deletedAt: Long? = null, // Tombstone: set on delete, cleared on undo, purged later
+    val completedAt: Long? = null, // Set when the task is completed; ArchiveWorker moves it out after N days
+    val recurrenceRule: String? = null, // RRULE subset anchored at dueDateTime (see RecurrenceRule)
+    @ColumnInfo(defaultValue = "")
+    val syncId: String = "", // Identity across devices; assigned by a trigger on insert when empty
+    @ColumnInfo(defaultValue = "0")
+    val updatedAt: Long = 0 // Last-writer-wins clock; bumped by a trigger on every local update
+)
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.pharma.taskmanager.data.database
+
+import com.pharma.taskmanager.domain.tags.TagBitmapIndex
+
+data class TaskFilter(
+    val status: String? = null,
+    val priority: Int? = null,
+    val hasDueDate: Boolean? = null,
+    val hasReminder: Boolean? = null,
+    val searchQuery: String? = null,
+    val isOverdue: Boolean? = null,
+    val anyOfTags: Set<Int> = emptySet(),
+    val allOfTags: Set<Int> = emptySet()
+) {
+    
+    val hasTagCriteria: Boolean get() = anyOfTags.isNotEmpty() || allOfTags.isNotEmpty()
+    
+    /**
+     * In-memory equivalent of the DAO filter queries. Every null criterion matches.
+     * Tags are not on the row, so tag criteria are applied by [apply] with a [TagBitmapIndex].
+     * @param now Reference time for the overdue check
+     */
+    fun matches(task: TaskEntity, now: Long): Boolean {
+        if (status != null && task.status != status) return false
+        if (priority != null && task.priority != priority) return false
+        if (hasDueDate != null && (task.dueDateTime != null) != hasDueDate) return false
+        if (hasReminder != null && (task.reminderTime != null) != hasReminder) return false
+        if (isOverdue != null) {
+            val overdue = task.dueDateTime != null && task.dueDateTime < now &&
+                task.status == TaskConstants.STATUS_PENDING
+            if (overdue != isOverdue) return false
+        }
+        if (!searchQuery.isNullOrBlank()) {
+            val inTitle = task.title.contains(searchQuery, ignoreCase = true)
+            val inDescription = task.description?.contains(searchQuery, ignoreCase = true) == true
+            if (!inTitle && !inDescription) return false
+        }
+        return true
+    }
+    
+    fun apply(tasks: List<TaskEntity>, now: Long): List<TaskEntity> {
+        require(!hasTagCriteria) { "Tag criteria need a TagBitmapIndex" }
+        return tasks.filter { matches(it, now) }
+    }
+    
+    // The tag bitmaps are combined once per call; each task is then a single bit test
+    fun apply(tasks: List<TaskEntity>, now: Long, tags: TagBitmapIndex): List<TaskEntity> {
+        if (!hasTagCriteria) return tasks.filter { matches(it, now) }
+        val tagged = tags.select(anyOfTags, allOfTags)
+        return tasks.filter { it.id in tagged && matches(it, now) }
+    }
+    
+    companion object {
+        fun pending() = TaskFilter(status = TaskConstants.STATUS_PENDING)
+        fun completed() = TaskFilter(status = TaskConstants.STATUS_COMPLETED)
+        fun highPriority() = TaskFilter(priority = TaskConstants.PRIORITY_HIGH)
+        fun mediumPriority() = TaskFilter(priority = TaskConstants.PRIORITY_MEDIUM)
+        fun lowPriority() = TaskFilter(priority = TaskConstants.PRIORITY_LOW)
+        fun withReminders() = TaskFilter(hasReminder = true)
+        fun overdue() = TaskFilter(isOverdue = true)
+    }
+}
@@ -0,0 +1,101 @@
+package com.pharma.taskmanager.domain.attachments
+
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.nio.channels.FileChannel
+
+/**
+ * A directory of derived files (thumbnails) kept under [maxBytes], evicting the least
+ * recently used. Recency is the file's modification time, so the order survives process
+ * death; the index is rebuilt from the directory on first use.
+ *
+ * Writes go to a temp file outside the lock and are renamed into place, so a reader never
+ * sees a partial entry. Keys must be safe file names.
+ */
+class BoundedFileCache(private val dir: File, private val maxBytes: Long) {
+
+    private val sizes = LinkedHashMap<String, Long>(16, 0.75f, true) // Access order: eldest first
+    private var totalBytes = 0L
+    private var loaded = false
+
+    val sizeBytes: Long
+        @Synchronized get() {
+            load()
+            return totalBytes
+        }
+
+    /** The cached file for [key], marked as recently used; null on a miss. */
+    @Synchronized
+    fun get(key: String): File? {
+        load()
+        if (sizes[checkKey(key)] == null) return null
+        val file = File(dir, key)
+        if (!file.setLastModified(System.currentTimeMillis()) && !file.exists()) {
+            totalBytes -= sizes.remove(key) ?: 0
+            return null
+        }
+        return file
+    }
+
+    /** Store the bytes [write] produces under [key], evicting old entries to stay in budget. */
+    fun put(key: String, write: (FileChannel) -> Unit): File {
+        checkKey(key)
+        synchronized(this) { load() } // Before our temp file exists: the first load clears stale ones
+        if (!dir.isDirectory && !dir.mkdirs() && !dir.isDirectory) throw IOException("Cannot create $dir")
+        val temp = File.createTempFile("put", TEMP_SUFFIX, dir)
+        try {
+            FileOutputStream(temp).use { write(it.channel) }
+            val file = File(dir, key)
+            synchronized(this) {
+                if (!temp.renameTo(file)) throw IOException("Cannot move $temp to $file")
+                totalBytes += file.length() - (sizes.put(key, file.length()) ?: 0)
+                trim()
+            }
+            return file
+        } finally {
+            temp.delete()
+        }
+    }
+
+    @Synchronized
+    fun remove(key: String) {
+        load()
+        totalBytes -= sizes.remove(checkKey(key)) ?: return
+        File(dir, key).delete()
+    }
+
+    private fun trim() {
+        val eldest = sizes.entries.iterator()
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            val (key, size) = eldest.next()
+            eldest.remove()
+            totalBytes -= size
+            File(dir, key).delete()
+        }
+    }
+
+    private fun load() {
+        if (loaded) return
+        loaded = true
+        val files = dir.listFiles().orEmpty()
+        files.filter { it.name.endsWith(TEMP_SUFFIX) }.forEach { it.delete() } // Writes cut short by a crash
+        files.filter { it.isFile && !it.name.endsWith(TEMP_SUFFIX) }
+            .sortedBy { it.lastModified() }
+            .forEach { file ->
+                sizes[file.name] = file.length()
+                totalBytes += file.length()
+            }
+        trim()
+    }
+
+    private fun checkKey(key: String): String {
+        val safe = key.all { it in 'a'..'z' || it in 'A'..'Z' || it in '0'..'9' || it == '_' || it == '-' || it == '.' }
+        require(safe && key.isNotEmpty() && !key.startsWith(".") && !key.endsWith(TEMP_SUFFIX)) { "Not a safe cache key: $key" }
+        return key
+    }
+
+    private companion object {
+        const val TEMP_SUFFIX = ".tmp"
+    }
+}
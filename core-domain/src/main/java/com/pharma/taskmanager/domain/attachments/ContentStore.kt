@@ -0,0 +1,115 @@
+package com.pharma.taskmanager.domain.attachments
+
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileNotFoundException
+import java.io.FileOutputStream
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.channels.ReadableByteChannel
+import java.security.MessageDigest
+
+/**
+ * Attachment bytes on disk, addressed by their SHA-256: a blob lives at
+ * `<root>/<first two hex digits>/<hash>`, so the same photo attached twice is stored once
+ * and the database only keeps the hash.
+ *
+ * [put] streams through a fixed direct buffer into a temp file while hashing, then renames
+ * it into place, so memory use does not depend on the file size and a blob is either
+ * complete or absent. Blobs are immutable; [sweep] removes the ones no row references.
+ * Built on File and FileChannel rather than java.nio.file, which needs API 26.
+ */
+class ContentStore(private val root: File) {
+
+    data class Blob(val sha256: String, val size: Long)
+
+    private val tempDir = File(root, TEMP_DIR)
+
+    /** Copy [source] into the store (it is read to the end, not closed). */
+    fun put(source: ReadableByteChannel): Blob {
+        ensureDirectory(tempDir)
+        val temp = File.createTempFile("put", ".tmp", tempDir)
+        try {
+            val digest = MessageDigest.getInstance("SHA-256")
+            val buffer = ByteBuffer.allocateDirect(BUFFER_SIZE)
+            var size = 0L
+            FileOutputStream(temp).use { stream ->
+                val out = stream.channel
+                while (source.read(buffer) >= 0) {
+                    buffer.flip()
+                    digest.update(buffer.duplicate())
+                    while (buffer.hasRemaining()) size += out.write(buffer)
+                    buffer.clear()
+                }
+                out.force(false)
+            }
+            val blob = Blob(digest.digest().toHex(), size)
+            val target = fileOf(blob.sha256)
+            if (target.exists()) {
+                // Same bytes already stored; refresh the age so a sweep cannot race the new row
+                temp.delete()
+                target.setLastModified(System.currentTimeMillis())
+            } else {
+                ensureDirectory(target.parentFile!!)
+                // Same filesystem, so the rename is atomic; losing a race to the same bytes is fine
+                if (!temp.renameTo(target) && !target.exists()) throw IOException("Cannot move blob to $target")
+                temp.delete()
+            }
+            return blob
+        } catch (e: Throwable) {
+            temp.delete()
+            throw e
+        }
+    }
+
+    fun contains(sha256: String): Boolean = fileOf(sha256).exists()
+
+    /** Read channel over the blob's bytes; throws [FileNotFoundException] if it is gone. */
+    fun open(sha256: String): FileChannel = FileInputStream(fileOf(sha256)).channel
+
+    fun fileOf(sha256: String): File {
+        require(sha256.length == 64 && sha256.all { it in '0'..'9' || it in 'a'..'f' }) { "Not a SHA-256: $sha256" }
+        return File(File(root, sha256.substring(0, 2)), sha256)
+    }
+
+    fun delete(sha256: String): Boolean = fileOf(sha256).delete()
+
+    /**
+     * Delete every blob not in [referenced] and last written before [olderThanMillis], plus
+     * temp files of puts abandoned before then. The age guard covers a put whose row is
+     * not inserted yet. Returns the number of blobs deleted.
+     */
+    fun sweep(referenced: Set<String>, olderThanMillis: Long): Int {
+        var deleted = 0
+        for (shard in root.listFiles().orEmpty()) {
+            if (!shard.isDirectory) continue
+            val isTemp = shard.name == TEMP_DIR
+            for (file in shard.listFiles().orEmpty()) {
+                if (!isTemp && file.name in referenced) continue
+                if (file.lastModified() >= olderThanMillis) continue
+                if (file.delete() && !isTemp) deleted++
+            }
+        }
+        return deleted
+    }
+
+    private fun ensureDirectory(dir: File) {
+        if (!dir.isDirectory && !dir.mkdirs() && !dir.isDirectory) throw IOException("Cannot create $dir")
+    }
+
+    private companion object {
+        const val TEMP_DIR = "tmp"
+        const val BUFFER_SIZE = 64 * 1024
+
+        fun ByteArray.toHex(): String {
+            val hex = "0123456789abcdef"
+            val chars = CharArray(size * 2)
+            forEachIndexed { i, byte ->
+                chars[i * 2] = hex[(byte.toInt() shr 4) and 0xF]
+                chars[i * 2 + 1] = hex[byte.toInt() and 0xF]
+            }
+            return String(chars)
+        }
+    }
+}
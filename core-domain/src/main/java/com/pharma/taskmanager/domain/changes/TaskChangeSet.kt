@@ -0,0 +1,27 @@
+package com.pharma.taskmanager.domain.changes
+
+import com.pharma.taskmanager.data.database.TaskEntity
+
+/** A visible task's id and clock; `updatedAt` moves on every write (see TaskChangeLog). */
+data class TaskStamp(val id: Int, val updatedAt: Long)
+
+/**
+ * What changed in the visible task set since the previous change set of the same stream.
+ * The first set of a stream is a [reset]: [inserted] holds every visible row and anything
+ * the receiver built from an earlier stream must be dropped.
+ */
+data class TaskChangeSet(
+    val inserted: List<TaskEntity>,
+    val updated: List<TaskEntity>,
+    val deletedIds: Set<Int>,
+    val reset: Boolean = false
+) {
+    val insertedIds: List<Int> get() = inserted.map { it.id }
+    val updatedIds: List<Int> get() = updated.map { it.id }
+
+    val isEmpty: Boolean get() = !reset && inserted.isEmpty() && updated.isEmpty() && deletedIds.isEmpty()
+
+    companion object {
+        fun reset(tasks: List<TaskEntity>) = TaskChangeSet(tasks, emptyList(), emptySet(), reset = true)
+    }
+}
@@ -0,0 +1,68 @@
+package com.pharma.taskmanager.domain.changes
+
+import com.pharma.taskmanager.data.database.TaskEntity
+
+/**
+ * Turns "the tasks table changed" into a [TaskChangeSet]. Every visible row's [TaskStamp] is
+ * compared with the one last emitted for it, so after a write only the rows whose id is new or
+ * whose updatedAt moved are read back in full; ids that stopped being visible are deletes.
+ *
+ * Reading is two steps so the caller can load rows in between: [diff] the current stamps,
+ * load [StampDiff.changedIds], then [commit] what was loaded. A row written again between the
+ * two reads is committed with the clock it was loaded at, and a row gone by then is a delete,
+ * so the next diff starts from exactly what the receiver holds.
+ *
+ * Not thread-safe: one tracker per stream.
+ */
+class TaskChangeTracker {
+
+    class StampDiff(val changedIds: List<Int>, val deletedIds: Set<Int>) {
+        val isEmpty: Boolean get() = changedIds.isEmpty() && deletedIds.isEmpty()
+    }
+
+    private val known = HashMap<Int, Long>()
+
+    val size: Int get() = known.size
+
+    /** Forget everything and start from [tasks], the full visible set. */
+    fun reset(tasks: List<TaskEntity>): TaskChangeSet {
+        known.clear()
+        tasks.forEach { known[it.id] = it.updatedAt }
+        return TaskChangeSet.reset(tasks)
+    }
+
+    fun diff(stamps: List<TaskStamp>): StampDiff {
+        val changed = ArrayList<Int>()
+        var matched = 0
+        for (stamp in stamps) {
+            val updatedAt = known[stamp.id]
+            if (updatedAt != null) matched++
+            if (updatedAt != stamp.updatedAt) changed.add(stamp.id)
+        }
+        // Only build the id set when something known is missing from the stamps
+        val deleted = if (matched == known.size) {
+            emptySet()
+        } else {
+            val visible = HashSet<Int>(stamps.size * 2)
+            stamps.forEach { visible.add(it.id) }
+            known.keys.filterTo(HashSet()) { it !in visible }
+        }
+        return StampDiff(changed, deleted)
+    }
+
+    /** Record [rows], loaded for [diff]'s changed ids, and describe the step as a change set. */
+    fun commit(diff: StampDiff, rows: List<TaskEntity>): TaskChangeSet {
+        val inserted = ArrayList<TaskEntity>()
+        val updated = ArrayList<TaskEntity>()
+        val deleted = HashSet<Int>()
+        for (row in rows) {
+            if (known.put(row.id, row.updatedAt) == null) inserted.add(row) else updated.add(row)
+        }
+        if (rows.size != diff.changedIds.size) {
+            val loaded = rows.mapTo(HashSet()) { it.id }
+            diff.changedIds.filterTo(deleted) { it !in loaded && known.remove(it) != null }
+        }
+        diff.deletedIds.filterTo(deleted) { known.remove(it) != null }
+        return TaskChangeSet(inserted, updated, deleted)
+    }
+}
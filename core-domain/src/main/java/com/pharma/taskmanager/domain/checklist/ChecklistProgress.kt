@@ -0,0 +1,16 @@
+package com.pharma.taskmanager.domain.checklist
+
+/**
+ * Checklist rollup for one task: leaf steps done out of all leaf steps, and the earliest
+ * due date among the steps still open. A step's due date bounds the steps below it.
+ */
+data class ChecklistProgress(
+    val taskId: Int,
+    val totalSteps: Int,
+    val doneSteps: Int,
+    val nextDueDateTime: Long?
+) {
+    val fraction: Float get() = if (totalSteps == 0) 0f else doneSteps.toFloat() / totalSteps
+
+    val isComplete: Boolean get() = totalSteps > 0 && doneSteps == totalSteps
+}
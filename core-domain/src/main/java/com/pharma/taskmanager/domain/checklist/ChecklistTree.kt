@@ -0,0 +1,78 @@
+package com.pharma.taskmanager.domain.checklist
+
+import com.pharma.taskmanager.data.database.ChecklistItemEntity
+
+/**
+ * Checklist steps as the detail screen shows them: depth-first, siblings by position, each
+ * row with the rollup of the leaves below it. Built from the flat rows ChecklistDao reads
+ * for one task; [progress] is the in-memory twin of ChecklistDao.observeProgress.
+ *
+ * Steps whose parent is not among [items] are unreachable and left out, as in SQL.
+ */
+class ChecklistTree(items: List<ChecklistItemEntity>) {
+
+    data class Row(
+        val item: ChecklistItemEntity,
+        val depth: Int,
+        val isLeaf: Boolean,
+        val doneSteps: Int,
+        val totalSteps: Int
+    ) {
+        // A leaf is done when checked, any other step when every leaf below it is
+        val isDone: Boolean get() = doneSteps == totalSteps
+    }
+
+    private class Rollup(var done: Int = 0, var total: Int = 0, var nextDue: Long? = null) {
+        fun add(other: Rollup) {
+            done += other.done
+            total += other.total
+            nextDue = earliest(nextDue, other.nextDue)
+        }
+    }
+
+    val rows: List<Row>
+
+    val progress: List<ChecklistProgress>
+
+    init {
+        val siblingOrder = compareBy<ChecklistItemEntity>({ it.position }, { it.id })
+        val children = HashMap<Int, MutableList<ChecklistItemEntity>>()
+        val topLevel = HashMap<Int, MutableList<ChecklistItemEntity>>()
+        for (item in items) {
+            when {
+                item.parentId != null -> children.getOrPut(item.parentId) { ArrayList() }.add(item)
+                item.taskId != null -> topLevel.getOrPut(item.taskId) { ArrayList() }.add(item)
+            }
+        }
+        children.values.forEach { it.sortWith(siblingOrder) }
+
+        val out = ArrayList<Row?>(items.size)
+
+        fun visit(item: ChecklistItemEntity, depth: Int, inheritedDue: Long?): Rollup {
+            val slot = out.size
+            out.add(null)
+            val due = earliest(item.dueDateTime, inheritedDue)
+            val below = children[item.id]
+            val rollup = Rollup()
+            if (below == null) {
+                rollup.total = 1
+                if (item.completedAt != null) rollup.done = 1 else rollup.nextDue = due
+            } else {
+                below.forEach { rollup.add(visit(it, depth + 1, due)) }
+            }
+            out[slot] = Row(item, depth, below == null, rollup.done, rollup.total)
+            return rollup
+        }
+
+        progress = topLevel.keys.sorted().map { taskId ->
+            val rollup = Rollup()
+            topLevel.getValue(taskId).sortedWith(siblingOrder).forEach { rollup.add(visit(it, 0, null)) }
+            ChecklistProgress(taskId, rollup.total, rollup.done, rollup.nextDue)
+        }
+        rows = out.filterNotNull()
+    }
+
+    private companion object {
+        fun earliest(a: Long?, b: Long?): Long? = if (a == null) b else if (b == null) a else minOf(a, b)
+    }
+}
@@ -0,0 +1,52 @@
+package com.pharma.taskmanager.domain.concurrency
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+
+/**
+ * The dispatchers coroutines in the app run on, injected instead of naming
+ * [Dispatchers] at each launch site, so a test can swap every pool for one
+ * StandardTestDispatcher (see [single]) and run on virtual time.
+ *
+ * The database pools are views of [Dispatchers.IO] with their own parallelism caps: reads
+ * run a few at a time, and writes one at a time, which is all SQLite's single writer
+ * allows anyway. Room's query and transaction executors run on them too
+ * (DatabaseModule), so a query a coroutine awaits and the coroutine's own follow-up
+ * work share one bound. Reminder delivery gets its own small pool so a burst of database
+ * work cannot hold up a notification.
+ */
+class AppDispatchers(
+    /** UI state and anything that must touch views or services' main-thread state. */
+    val main: CoroutineDispatcher,
+    val dbRead: CoroutineDispatcher,
+    /** Serial: at most one write in flight. */
+    val dbWrite: CoroutineDispatcher,
+    /** Receivers, alarms and the reminder service's background work. */
+    val reminders: CoroutineDispatcher,
+    /** Sorting, grouping, diffing: work that only needs a CPU. */
+    val cpu: CoroutineDispatcher,
+    /** Blocking file I/O outside the database: snapshots, attachments, thumbnails. */
+    val io: CoroutineDispatcher
+) {
+
+    companion object {
+        const val DB_READ_PARALLELISM = 4
+        const val REMINDER_PARALLELISM = 2
+
+        /** The production pools; the app provides one set per process through Hilt. */
+        @OptIn(ExperimentalCoroutinesApi::class)
+        fun create(main: CoroutineDispatcher): AppDispatchers = AppDispatchers(
+            main = main,
+            dbRead = Dispatchers.IO.limitedParallelism(DB_READ_PARALLELISM),
+            dbWrite = Dispatchers.IO.limitedParallelism(1),
+            reminders = Dispatchers.IO.limitedParallelism(REMINDER_PARALLELISM),
+            cpu = Dispatchers.Default,
+            io = Dispatchers.IO
+        )
+
+        /** Every pool on [dispatcher], e.g. a StandardTestDispatcher for deterministic tests. */
+        fun single(dispatcher: CoroutineDispatcher): AppDispatchers =
+            AppDispatchers(dispatcher, dispatcher, dispatcher, dispatcher, dispatcher, dispatcher)
+    }
+}
@@ -0,0 +1,139 @@
+package com.pharma.taskmanager.domain.grouping
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.changes.TaskChangeSet
+import java.util.Collections
+
+/**
+ * The task list's due-date groups kept sorted under [TaskChangeSet]s instead of being rebuilt
+ * from the full list after every write. A changed row costs a hash lookup and a binary search
+ * in its group (plus the array shift of the insert or remove), and [groups] copies only the
+ * groups a change touched: the others keep the list instance they were published with.
+ *
+ * Groups are those of [TaskGrouping.groupTasksByDueDate] at the time of the last [apply] or
+ * [advanceTo], with ties in a group's sort order broken by id. Not thread-safe.
+ */
+class TaskGroupIndex(now: Long) {
+
+    private var boundaries = TaskGrouping.DayBoundaries(now)
+    private val buckets = Array(GROUP_COUNT) { ArrayList<TaskEntity>() }
+    private val comparators = Array(GROUP_COUNT) { TaskGrouping.comparatorOf(it).thenBy { task -> task.id } }
+    private val rows = HashMap<Int, TaskEntity>()
+    private val groupOf = HashMap<Int, Int>()
+
+    // Last published group per index (null when empty); rebuilt only when dirty
+    private val published = arrayOfNulls<TaskGroup>(GROUP_COUNT)
+    private val dirty = BooleanArray(GROUP_COUNT) { true }
+    private var snapshot: List<TaskGroup>? = null
+
+    val size: Int get() = rows.size
+
+    operator fun get(id: Int): TaskEntity? = rows[id]
+
+    fun apply(changes: TaskChangeSet, now: Long) {
+        if (changes.reset) {
+            replaceAll(changes.inserted, now)
+            return
+        }
+        advanceTo(now)
+        changes.deletedIds.forEach { remove(it) }
+        changes.inserted.forEach { upsert(it) }
+        changes.updated.forEach { upsert(it) }
+    }
+
+    fun upsert(task: TaskEntity) {
+        remove(task.id)
+        val group = TaskGrouping.groupIndexOf(task, boundaries)
+        insertSorted(group, task)
+        rows[task.id] = task
+        groupOf[task.id] = group
+    }
+
+    fun remove(id: Int): Boolean {
+        val old = rows.remove(id) ?: return false
+        val group = groupOf.remove(id) ?: return false
+        val bucket = buckets[group]
+        bucket.removeAt(Collections.binarySearch(bucket, old, comparators[group]))
+        markDirty(group)
+        return true
+    }
+
+    fun replaceAll(tasks: Collection<TaskEntity>, now: Long) {
+        boundaries = TaskGrouping.DayBoundaries(now)
+        buckets.forEach { it.clear() }
+        rows.clear()
+        groupOf.clear()
+        for (task in tasks) {
+            val group = TaskGrouping.groupIndexOf(task, boundaries)
+            buckets[group].add(task)
+            rows[task.id] = task
+            groupOf[task.id] = group
+        }
+        for (group in 0 until GROUP_COUNT) {
+            buckets[group].sortWith(comparators[group])
+            markDirty(group)
+        }
+    }
+
+    /**
+     * Move rows whose group changed because time passed: tasks falling overdue, Tomorrow
+     * becoming Today at midnight. Within each dated group the rows that move are a prefix
+     * (groups are sorted by due date), so this touches only them. A clock set back is rare
+     * enough to simply regroup everything.
+     */
+    fun advanceTo(now: Long) {
+        if (now == boundaries.now) return
+        if (now < boundaries.now) {
+            replaceAll(rows.values.toList(), now)
+            return
+        }
+        boundaries = TaskGrouping.DayBoundaries(now)
+        for (group in TaskGrouping.GROUP_TODAY..TaskGrouping.GROUP_UPCOMING) {
+            val bucket = buckets[group]
+            var moving = 0
+            while (moving < bucket.size && TaskGrouping.groupIndexOf(bucket[moving], boundaries) != group) moving++
+            if (moving == 0) continue
+
+            val prefix = bucket.subList(0, moving)
+            val movers = ArrayList(prefix)
+            prefix.clear()
+            markDirty(group)
+            for (task in movers) {
+                val target = TaskGrouping.groupIndexOf(task, boundaries)
+                insertSorted(target, task)
+                groupOf[task.id] = target
+            }
+        }
+    }
+
+    /** Non-empty groups in display order. Same instance until the next change. */
+    fun groups(): List<TaskGroup> {
+        snapshot?.let { return it }
+        val groups = ArrayList<TaskGroup>(GROUP_COUNT)
+        for (group in 0 until GROUP_COUNT) {
+            if (dirty[group]) {
+                val bucket = buckets[group]
+                published[group] = if (bucket.isEmpty()) null else TaskGroup(TaskGrouping.titleOf(group), bucket.toList(), group)
+                dirty[group] = false
+            }
+            published[group]?.let { groups.add(it) }
+        }
+        return groups.also { snapshot = it }
+    }
+
+    private fun insertSorted(group: Int, task: TaskEntity) {
+        val bucket = buckets[group]
+        val at = Collections.binarySearch(bucket, task, comparators[group])
+        bucket.add(if (at < 0) -at - 1 else at, task)
+        markDirty(group)
+    }
+
+    private fun markDirty(group: Int) {
+        dirty[group] = true
+        snapshot = null
+    }
+
+    private companion object {
+        const val GROUP_COUNT = TaskGrouping.GROUP_COMPLETED + 1
+    }
+}
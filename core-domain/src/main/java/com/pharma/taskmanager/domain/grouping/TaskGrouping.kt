@@ -0,0 +1,88 @@
+package com.pharma.taskmanager.domain.grouping
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.utils.DateTimeUtils
+
+// Task group data class
+data class TaskGroup(
+    val title: String,
+    val tasks: List<TaskEntity>,
+    val priority: Int // For sorting groups
+)
+
+/**
+ * Groups tasks into the due-date sections shown on the task list
+ * (Overdue, Today, Tomorrow, Upcoming, No Due Date, Completed).
+ */
+object TaskGrouping {
+    
+    const val GROUP_OVERDUE = 0
+    const val GROUP_TODAY = 1
+    const val GROUP_TOMORROW = 2
+    const val GROUP_UPCOMING = 3
+    const val GROUP_NO_DUE_DATE = 4
+    const val GROUP_COMPLETED = 5
+    
+    /**
+     * Day boundaries for a reference time, computed once per grouping pass so
+     * classifying a task is a couple of comparisons instead of Calendar work.
+     */
+    class DayBoundaries(val now: Long) {
+        val startOfTomorrow: Long
+        val startOfDayAfterTomorrow: Long
+        
+        init {
+            val startOfToday = DateTimeUtils.getStartOfDay(now)
+            startOfTomorrow = DateTimeUtils.addDays(startOfToday, 1)
+            startOfDayAfterTomorrow = DateTimeUtils.addDays(startOfToday, 2)
+        }
+    }
+    
+    fun groupIndexOf(task: TaskEntity, boundaries: DayBoundaries): Int {
+        val due = task.dueDateTime
+        return when {
+            task.status == TaskConstants.STATUS_COMPLETED -> GROUP_COMPLETED
+            due == null -> GROUP_NO_DUE_DATE
+            due < boundaries.now -> GROUP_OVERDUE
+            due < boundaries.startOfTomorrow -> GROUP_TODAY
+            due < boundaries.startOfDayAfterTomorrow -> GROUP_TOMORROW
+            else -> GROUP_UPCOMING
+        }
+    }
+    
+    fun titleOf(groupIndex: Int): String = when (groupIndex) {
+        GROUP_OVERDUE -> "Overdue"
+        GROUP_TODAY -> "Today"
+        GROUP_TOMORROW -> "Tomorrow"
+        GROUP_UPCOMING -> "Upcoming"
+        GROUP_NO_DUE_DATE -> "No Due Date"
+        else -> "Completed"
+    }
+    
+    fun comparatorOf(groupIndex: Int): Comparator<TaskEntity> = when (groupIndex) {
+        GROUP_NO_DUE_DATE -> compareBy { it.title }
+        GROUP_COMPLETED -> compareByDescending { it.dueDateTime }
+        else -> compareBy { it.dueDateTime }
+    }
+    
+    /**
+     * Group tasks by due date. Empty groups are omitted.
+     * @param currentTime Reference time for overdue/today/tomorrow
+     */
+    fun groupTasksByDueDate(tasks: List<TaskEntity>, currentTime: Long): List<TaskGroup> {
+        val boundaries = DayBoundaries(currentTime)
+        val buckets = Array(GROUP_COMPLETED + 1) { mutableListOf<TaskEntity>() }
+        
+        tasks.forEach { task -> buckets[groupIndexOf(task, boundaries)].add(task) }
+        
+        return buckets.mapIndexedNotNull { index, bucket ->
+            if (bucket.isEmpty()) {
+                null
+            } else {
+                bucket.sortWith(comparatorOf(index))
+                TaskGroup(titleOf(index), bucket, index)
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.pharma.taskmanager.domain.metrics
+
+/**
+ * HDR-style latency histogram over non-negative millisecond values.
+ *
+ * Values below 2^subBucketBits are counted exactly; above that every power-of-two
+ * range is split into 2^subBucketBits linear sub-buckets, so any recorded value is
+ * reported with a relative error of at most 1 / 2^subBucketBits (~3% with the default)
+ * while the whole range up to Long.MAX_VALUE fits in a couple of thousand counters.
+ */
+class LatencyHistogram(private val subBucketBits: Int = 5) {
+    
+    private val subBucketCount = 1 shl subBucketBits
+    private val counts = LongArray((Long.SIZE_BITS - subBucketBits + 1) * subBucketCount)
+    
+    var totalCount: Long = 0
+        private set
+    var maxValue: Long = 0
+        private set
+    var minValue: Long = Long.MAX_VALUE
+        private set
+    
+    init {
+        require(subBucketBits in 1..16) { "subBucketBits must be in 1..16" }
+    }
+    
+    /**
+     * Record a latency. Negative values (e.g. an alarm that fired early) count as 0.
+     */
+    fun record(value: Long) {
+        val clamped = value.coerceAtLeast(0)
+        counts[indexOf(clamped)]++
+        totalCount++
+        if (clamped > maxValue) maxValue = clamped
+        if (clamped < minValue) minValue = clamped
+    }
+    
+    fun merge(other: LatencyHistogram) {
+        require(other.subBucketBits == subBucketBits) { "Cannot merge histograms with different precision" }
+        for (i in counts.indices) counts[i] += other.counts[i]
+        totalCount += other.totalCount
+        maxValue = maxOf(maxValue, other.maxValue)
+        minValue = minOf(minValue, other.minValue)
+    }
+    
+    /**
+     * Value at the given percentile (0..100): the highest value equivalent to the
+     * bucket holding that rank, capped at the largest recorded value. 0 when empty.
+     */
+    fun valueAtPercentile(percentile: Double): Long {
+        if (totalCount == 0L) return 0
+        val rank = Math.ceil(percentile.coerceIn(0.0, 100.0) / 100.0 * totalCount).toLong().coerceAtLeast(1)
+        var seen = 0L
+        for (i in counts.indices) {
+            seen += counts[i]
+            if (seen >= rank) return minOf(highestEquivalentValue(i), maxValue)
+        }
+        return maxValue
+    }
+    
+    private fun indexOf(value: Long): Int {
+        if (value < subBucketCount) return value.toInt()
+        val highestBit = Long.SIZE_BITS - 1 - java.lang.Long.numberOfLeadingZeros(value)
+        val shift = highestBit - subBucketBits
+        val subBucket = (value ushr shift).toInt() - subBucketCount
+        return (shift + 1) * subBucketCount + subBucket
+    }
+    
+    private fun lowestEquivalentValue(index: Int): Long {
+        if (index < subBucketCount) return index.toLong()
+        val shift = index / subBucketCount - 1
+        val subBucket = index % subBucketCount
+        return (subBucket + subBucketCount).toLong() shl shift
+    }
+    
+    private fun highestEquivalentValue(index: Int): Long {
+        if (index + 1 >= counts.size) return Long.MAX_VALUE
+        return lowestEquivalentValue(index + 1) - 1
+    }
+}
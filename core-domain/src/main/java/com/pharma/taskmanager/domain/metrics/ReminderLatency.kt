@@ -0,0 +1,93 @@
+package com.pharma.taskmanager.domain.metrics
+
+/**
+ * How a reminder fire reached the user.
+ */
+object ReminderDeliveryPath {
+    const val ALARM = "alarm"
+    const val WORK_MANAGER = "workmanager"
+    const val IMMEDIATE = "immediate"
+    
+    val ALL = listOf(ALARM, WORK_MANAGER, IMMEDIATE)
+}
+
+/**
+ * Timestamps of a single reminder fire. Every stage is optional because not every
+ * path goes through every component (WorkManager-only fires have no alarm receipt).
+ */
+data class ReminderFire(
+    val deliveryPath: String,
+    val scheduledTime: Long,
+    val alarmReceivedAt: Long?,
+    val workerStartedAt: Long?,
+    val notificationPostedAt: Long?,
+    val firstSoundAt: Long?
+)
+
+data class LatencySummary(
+    val count: Long,
+    val p50: Long,
+    val p95: Long,
+    val p99: Long,
+    val max: Long
+) {
+    companion object {
+        val EMPTY = LatencySummary(0, 0, 0, 0, 0)
+        
+        fun of(histogram: LatencyHistogram): LatencySummary {
+            if (histogram.totalCount == 0L) return EMPTY
+            return LatencySummary(
+                count = histogram.totalCount,
+                p50 = histogram.valueAtPercentile(50.0),
+                p95 = histogram.valueAtPercentile(95.0),
+                p99 = histogram.valueAtPercentile(99.0),
+                max = histogram.maxValue
+            )
+        }
+    }
+}
+
+/**
+ * Latency of each stage relative to the scheduled reminder time, for one delivery path.
+ */
+data class ReminderLatencyReport(
+    val deliveryPath: String,
+    val alarmReceipt: LatencySummary,
+    val workerStart: LatencySummary,
+    val notificationPost: LatencySummary,
+    val firstSound: LatencySummary
+)
+
+object ReminderLatencyAggregator {
+    
+    /**
+     * Build one report per delivery path (paths without fires are still reported, empty).
+     */
+    fun aggregate(fires: List<ReminderFire>): List<ReminderLatencyReport> {
+        val byPath = fires.groupBy { it.deliveryPath }
+        return (ReminderDeliveryPath.ALL + byPath.keys.filterNot { it in ReminderDeliveryPath.ALL })
+            .map { path -> report(path, byPath[path].orEmpty()) }
+    }
+    
+    private fun report(path: String, fires: List<ReminderFire>): ReminderLatencyReport {
+        val alarm = LatencyHistogram()
+        val worker = LatencyHistogram()
+        val posted = LatencyHistogram()
+        val sound = LatencyHistogram()
+        
+        for (fire in fires) {
+            fire.alarmReceivedAt?.let { alarm.record(it - fire.scheduledTime) }
+            fire.workerStartedAt?.let { worker.record(it - fire.scheduledTime) }
+            fire.notificationPostedAt?.let { posted.record(it - fire.scheduledTime) }
+            fire.firstSoundAt?.let { sound.record(it - fire.scheduledTime) }
+        }
+        
+        return ReminderLatencyReport(
+            deliveryPath = path,
+            alarmReceipt = LatencySummary.of(alarm),
+            workerStart = LatencySummary.of(worker),
+            notificationPost = LatencySummary.of(posted),
+            firstSound = LatencySummary.of(sound)
+        )
+    }
+}
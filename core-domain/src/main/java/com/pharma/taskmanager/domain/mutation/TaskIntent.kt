@@ -0,0 +1,44 @@
+package com.pharma.taskmanager.domain.mutation
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.recurrence.TaskOccurrences
+
+/**
+ * A user intent against a single task, queued on [TaskMutationDispatcher].
+ */
+sealed class TaskIntent {
+    
+    data class SetStatus(val status: String) : TaskIntent()
+    
+    data class SetReminder(val reminderTime: Long?) : TaskIntent()
+    
+    companion object {
+        
+        /**
+         * Fold a batch of intents into the row that should be written. Later intents supersede
+         * earlier ones, so toggle -> toggle comes back to [current] and the last reminder wins.
+         * Completing a recurring task rolls it to its next occurrence instead.
+         */
+        fun coalesce(current: TaskEntity, intents: List<TaskIntent>, now: Long = System.currentTimeMillis()): TaskEntity {
+            val folded = intents.fold(current) { task, intent ->
+                when (intent) {
+                    is SetStatus -> task.copy(status = intent.status)
+                    is SetReminder -> task.copy(reminderTime = intent.reminderTime)
+                }
+            }
+            if (current.status != TaskConstants.STATUS_COMPLETED && folded.status == TaskConstants.STATUS_COMPLETED) {
+                // A finished series (or a one-shot task) stays completed
+                TaskOccurrences.nextInstance(folded, now)?.let { return it }
+            }
+            return folded
+        }
+    }
+}
+
+/**
+ * Side effects of a written batch (reminder scheduling lives in :app).
+ */
+interface TaskMutationEffects {
+    fun onTaskMutated(before: TaskEntity, after: TaskEntity)
+}
@@ -0,0 +1,124 @@
+package com.pharma.taskmanager.domain.mutation
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.repository.TaskRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import java.util.concurrent.atomic.AtomicLong
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Serializes writes per task id. Intents submitted for the same task while a write is
+ * queued or running are collected into one batch, collapsed with [TaskIntent.coalesce] and
+ * written with a single update (or none at all when they cancel out). Different tasks are
+ * processed concurrently, interleaving on the serial [AppDispatchers.dbWrite] pool while
+ * they wait on the database.
+ */
+@Singleton
+class TaskMutationDispatcher internal constructor(
+    private val repository: TaskRepository,
+    private val effects: TaskMutationEffects,
+    private val coalesceWindowMs: Long,
+    private val scope: CoroutineScope
+) {
+    
+    @Inject
+    constructor(repository: TaskRepository, effects: TaskMutationEffects, dispatchers: AppDispatchers) : this(
+        repository,
+        effects,
+        DEFAULT_COALESCE_WINDOW_MS,
+        CoroutineScope(SupervisorJob() + dispatchers.dbWrite)
+    )
+    
+    data class Stats(
+        val submitted: Long,
+        val writes: Long,
+        val coalesced: Long
+    )
+    
+    private class Queued(val intent: TaskIntent, val done: CompletableDeferred<Result<Unit>>)
+    
+    // Guarded by `this`: queued intents per task, and the tasks that have a running drainer
+    private val queues = HashMap<Int, MutableList<Queued>>()
+    private val draining = HashSet<Int>()
+    
+    private val submitted = AtomicLong()
+    private val writes = AtomicLong()
+    private val coalesced = AtomicLong()
+    
+    /**
+     * Queue [intent] for [taskId]; completes when the batch containing it has been written.
+     */
+    suspend fun submit(taskId: Int, intent: TaskIntent): Result<Unit> {
+        if (intent is TaskIntent.SetStatus && !TaskConstants.isValidStatus(intent.status)) {
+            return Result.failure(IllegalArgumentException("Invalid status value"))
+        }
+        
+        submitted.incrementAndGet()
+        val queued = Queued(intent, CompletableDeferred())
+        val startDrainer = synchronized(this) {
+            queues.getOrPut(taskId) { mutableListOf() }.add(queued)
+            draining.add(taskId)
+        }
+        if (startDrainer) {
+            scope.launch { drain(taskId) }
+        }
+        return queued.done.await()
+    }
+    
+    fun stats(): Stats = Stats(submitted.get(), writes.get(), coalesced.get())
+    
+    private suspend fun drain(taskId: Int) {
+        while (true) {
+            // Give rapid repeated taps a chance to land in the same batch
+            if (coalesceWindowMs > 0) delay(coalesceWindowMs)
+            
+            val batch = synchronized(this) {
+                val queued = queues.remove(taskId)
+                if (queued.isNullOrEmpty()) {
+                    draining.remove(taskId)
+                    null
+                } else {
+                    queued
+                }
+            } ?: return
+            
+            val result = try {
+                DomainTrace.asyncSection("TaskMutationDispatcher.applyBatch") {
+                    applyBatch(taskId, batch.map { it.intent })
+                }
+            } catch (e: Exception) {
+                Result.failure(e)
+            }
+            batch.forEach { it.done.complete(result) }
+        }
+    }
+    
+    private suspend fun applyBatch(taskId: Int, intents: List<TaskIntent>): Result<Unit> {
+        val current = repository.getTaskById(taskId)
+            ?: return Result.failure(IllegalArgumentException("Task with ID $taskId not found"))
+        
+        val updated = TaskIntent.coalesce(current, intents)
+        if (updated == current) {
+            // Superseded intents cancelled out (e.g. toggle -> toggle): nothing to write
+            coalesced.addAndGet(intents.size.toLong())
+            return Result.success(Unit)
+        }
+        
+        repository.updateTask(updated)
+        writes.incrementAndGet()
+        coalesced.addAndGet(intents.size - 1L)
+        effects.onTaskMutated(current, updated)
+        return Result.success(Unit)
+    }
+    
+    companion object {
+        const val DEFAULT_COALESCE_WINDOW_MS = 120L
+    }
+}
@@ -0,0 +1,148 @@
+package com.pharma.taskmanager.domain.optimistic
+
+import com.pharma.taskmanager.data.database.TaskEntity
+
+/**
+ * A mutation that has been applied to the UI but is not (yet) visible in the database emission.
+ */
+sealed class PendingMutation {
+    abstract val opId: Long
+    abstract val taskId: Int
+    
+    /** Write finished successfully; waiting for the database emission to catch up. */
+    abstract val committed: Boolean
+    
+    /** Database emissions seen since the write committed. */
+    abstract val emissionsSinceCommit: Int
+    
+    data class SetStatus(
+        override val opId: Long,
+        override val taskId: Int,
+        val status: String,
+        override val committed: Boolean = false,
+        override val emissionsSinceCommit: Int = 0
+    ) : PendingMutation()
+    
+    data class Replace(
+        override val opId: Long,
+        val task: TaskEntity,
+        override val committed: Boolean = false,
+        override val emissionsSinceCommit: Int = 0
+    ) : PendingMutation() {
+        override val taskId: Int get() = task.id
+    }
+    
+    data class Delete(
+        override val opId: Long,
+        override val taskId: Int,
+        override val committed: Boolean = false,
+        override val emissionsSinceCommit: Int = 0
+    ) : PendingMutation()
+    
+    fun markCommitted(): PendingMutation = when (this) {
+        is SetStatus -> copy(committed = true)
+        is Replace -> copy(committed = true)
+        is Delete -> copy(committed = true)
+    }
+    
+    internal fun seenEmission(): PendingMutation = when (this) {
+        is SetStatus -> copy(emissionsSinceCommit = emissionsSinceCommit + 1)
+        is Replace -> copy(emissionsSinceCommit = emissionsSinceCommit + 1)
+        is Delete -> copy(emissionsSinceCommit = emissionsSinceCommit + 1)
+    }
+    
+    /** True when [row] (null = absent) already reflects this mutation. */
+    internal fun isVisibleIn(row: TaskEntity?): Boolean = when (this) {
+        is SetStatus -> row?.status == status
+        is Replace -> row == task
+        is Delete -> row == null
+    }
+}
+
+/**
+ * Applies pending mutations on top of the latest database emission so the UI reacts to a
+ * tap immediately, and drops them again once the database has caught up.
+ */
+object OptimisticOverlay {
+    
+    /**
+     * A committed mutation whose effect still is not visible after this many emissions was
+     * overwritten by another writer; the database wins.
+     */
+    const val MAX_EMISSIONS_AFTER_COMMIT = 2
+    
+    /**
+     * [tasks] with [pending] applied in op order. Preserves the emission's ordering.
+     */
+    fun apply(tasks: List<TaskEntity>, pending: Collection<PendingMutation>): List<TaskEntity> {
+        if (pending.isEmpty()) return tasks
+        
+        val byTask = pending.sortedBy { it.opId }.groupBy { it.taskId }
+        return tasks.mapNotNull { task ->
+            val mutations = byTask[task.id] ?: return@mapNotNull task
+            mutations.fold(task as TaskEntity?) { row, mutation -> applyOne(row, mutation) }
+        }
+    }
+    
+    /**
+     * One database row as the UI should show it under [pending]; null when a pending delete
+     * hides it. For receivers that hold rows by id rather than the emitted list.
+     */
+    fun apply(row: TaskEntity, pending: Collection<PendingMutation>): TaskEntity? {
+        if (pending.isEmpty()) return row
+        return pending.filter { it.taskId == row.id }
+            .sortedBy { it.opId }
+            .fold(row as TaskEntity?) { current, mutation -> applyOne(current, mutation) }
+    }
+    
+    private fun applyOne(row: TaskEntity?, mutation: PendingMutation): TaskEntity? {
+        if (row == null) return null
+        return when (mutation) {
+            is PendingMutation.SetStatus -> row.copy(status = mutation.status)
+            is PendingMutation.Replace -> mutation.task
+            is PendingMutation.Delete -> null
+        }
+    }
+    
+    /**
+     * Mark [opId] as written. Dropped right away if [tasks] (the latest emission) already
+     * shows it, since Room may have emitted before the write call returned.
+     */
+    fun commit(tasks: List<TaskEntity>, pending: Map<Long, PendingMutation>, opId: Long): Map<Long, PendingMutation> =
+        commit({ id -> tasks.firstOrNull { it.id == id } }, pending, opId)
+    
+    fun commit(rowOf: (Int) -> TaskEntity?, pending: Map<Long, PendingMutation>, opId: Long): Map<Long, PendingMutation> {
+        val mutation = pending[opId] ?: return pending
+        return if (mutation.isVisibleIn(rowOf(mutation.taskId))) {
+            pending - opId
+        } else {
+            pending + (opId to mutation.markCommitted())
+        }
+    }
+    
+    /**
+     * Called for every database emission: returns the mutations that still need overlaying.
+     * Uncommitted mutations are always kept; committed ones are dropped once visible.
+     */
+    fun reconcile(tasks: List<TaskEntity>, pending: Map<Long, PendingMutation>): Map<Long, PendingMutation> {
+        if (pending.isEmpty()) return pending
+        return reconcile(tasks.associateBy { it.id }::get, pending)
+    }
+    
+    fun reconcile(rowOf: (Int) -> TaskEntity?, pending: Map<Long, PendingMutation>): Map<Long, PendingMutation> {
+        if (pending.isEmpty()) return pending
+        
+        val remaining = LinkedHashMap<Long, PendingMutation>(pending.size)
+        for ((opId, mutation) in pending) {
+            if (!mutation.committed) {
+                remaining[opId] = mutation
+                continue
+            }
+            if (mutation.isVisibleIn(rowOf(mutation.taskId))) continue
+            
+            val seen = mutation.seenEmission()
+            if (seen.emissionsSinceCommit < MAX_EMISSIONS_AFTER_COMMIT) remaining[opId] = seen
+        }
+        return remaining
+    }
+}
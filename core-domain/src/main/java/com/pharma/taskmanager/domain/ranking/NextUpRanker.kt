@@ -0,0 +1,134 @@
+package com.pharma.taskmanager.domain.ranking
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.changes.TaskChangeSet
+import java.util.PriorityQueue
+import java.util.TreeSet
+
+/**
+ * The [size] most urgent actionable tasks by [TaskUrgency], kept under [TaskChangeSet]s
+ * instead of scoring and sorting the whole list after every write.
+ *
+ * Besides the score of every actionable row, the ranker holds the exact best few times
+ * [size] of them in a sorted set. A changed row costs a rescore and, only if it ranks in or
+ * ranked in that set, a log-time insert or remove. Rows leaving the set (completed, deleted,
+ * pushed out) eat into the slack; only when fewer than [size] remain is the set refilled by
+ * one bounded-heap pass over all scores. Ties go to the earlier due date, then the lower id.
+ *
+ * Scores are taken at the time of the last [replaceAll] or rescoring [advanceTo], so every
+ * row is ranked against the same clock. Not thread-safe.
+ */
+class NextUpRanker(private val size: Int = DEFAULT_SIZE, now: Long) {
+
+    private class Entry(val id: Int, val score: Long, val due: Long)
+
+    private val capacity = size * SLACK_FACTOR
+    private var scoredAt = now
+    private val rows = HashMap<Int, TaskEntity>()
+    private val entries = HashMap<Int, Entry>()
+    private val best = TreeSet(ORDER)
+    private var snapshot: List<RankedTask>? = null
+
+    /** Actionable rows known to the ranker. */
+    val candidates: Int get() = rows.size
+
+    fun apply(changes: TaskChangeSet, now: Long) {
+        if (changes.reset) {
+            replaceAll(changes.inserted, now)
+            return
+        }
+        advanceTo(now)
+        changes.deletedIds.forEach { remove(it) }
+        changes.inserted.forEach { upsert(it) }
+        changes.updated.forEach { upsert(it) }
+    }
+
+    /** Add or replace [task]; one that is no longer actionable is dropped. */
+    fun upsert(task: TaskEntity) {
+        detach(task.id)
+        if (TaskUrgency.isActionable(task)) {
+            val entry = Entry(task.id, TaskUrgency.score(task, scoredAt), task.dueDateTime ?: Long.MAX_VALUE)
+            val outside = rows.size - best.size
+            rows[task.id] = task
+            entries[task.id] = entry
+            // The set is the exact best of all rows, so the entry joins only by beating its worst
+            if (outside == 0 || (best.isNotEmpty() && ORDER.compare(entry, best.last()) < 0)) {
+                best.add(entry)
+                if (best.size > capacity) best.pollLast()
+                snapshot = null
+            }
+        }
+        refillIfShort()
+    }
+
+    fun remove(id: Int) {
+        detach(id)
+        refillIfShort()
+    }
+
+    fun replaceAll(tasks: Collection<TaskEntity>, now: Long) {
+        scoredAt = now
+        rows.clear()
+        entries.clear()
+        for (task in tasks) {
+            if (!TaskUrgency.isActionable(task)) continue
+            rows[task.id] = task
+            entries[task.id] = Entry(task.id, TaskUrgency.score(task, now), task.dueDateTime ?: Long.MAX_VALUE)
+        }
+        refill()
+    }
+
+    /**
+     * Rescore every row once [RESCORE_INTERVAL_MILLIS] has passed since the last scoring (or
+     * the clock went back): urgency changes with time for all rows at once, so this is the
+     * one full pass, paced by the caller's ticker rather than by writes.
+     */
+    fun advanceTo(now: Long) {
+        if (now - scoredAt in 0 until RESCORE_INTERVAL_MILLIS) return
+        replaceAll(rows.values.toList(), now)
+    }
+
+    /** The top [size] in rank order. Same instance until the top changes. */
+    fun top(): List<RankedTask> {
+        snapshot?.let { return it }
+        val top = best.asSequence().take(size).map { RankedTask(rows.getValue(it.id), it.score) }.toList()
+        snapshot = top
+        return top
+    }
+
+    private fun detach(id: Int) {
+        rows.remove(id)
+        val entry = entries.remove(id) ?: return
+        if (best.remove(entry)) snapshot = null
+    }
+
+    private fun refillIfShort() {
+        if (best.size < size && rows.size > best.size) refill()
+    }
+
+    // One pass with a heap of the current worst-kept entry on top, so it never grows past capacity
+    private fun refill() {
+        val heap = PriorityQueue(capacity + 1, ORDER.reversed())
+        for (entry in entries.values) {
+            if (heap.size < capacity) {
+                heap.add(entry)
+            } else if (ORDER.compare(entry, heap.peek()) < 0) {
+                heap.poll()
+                heap.add(entry)
+            }
+        }
+        best.clear()
+        best.addAll(heap)
+        snapshot = null
+    }
+
+    companion object {
+        const val DEFAULT_SIZE = 5
+        const val RESCORE_INTERVAL_MILLIS = 60 * 1000L
+
+        // How many ranked rows are kept per shown row: the refill pass runs once per that many departures
+        private const val SLACK_FACTOR = 4
+
+        private val ORDER = compareByDescending<Entry> { it.score }.thenBy { it.due }.thenBy { it.id }
+    }
+}
@@ -0,0 +1,6 @@
+package com.pharma.taskmanager.domain.ranking
+
+import com.pharma.taskmanager.data.database.TaskEntity
+
+/** A task on the "Next up" card, with the [TaskUrgency] score it was ranked by. */
+data class RankedTask(val task: TaskEntity, val score: Long)
@@ -0,0 +1,52 @@
+package com.pharma.taskmanager.domain.ranking
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+
+/**
+ * How pressing a pending task is at a given time, as a single comparable number. Due
+ * proximity dominates: a task due now scores 1000, one due in [HALF_LIFE_MINUTES] 500, and
+ * the score keeps falling with distance; overdue tasks climb from 1000 for up to
+ * [OVERDUE_CAP_MINUTES] and then hold, so a week-old miss does not bury today's work. A
+ * reminder that already fired, or fires within the hour, adds a bonus. The sum is scaled by
+ * priority, so a high-priority task due tomorrow can outrank a low one due this evening.
+ */
+object TaskUrgency {
+
+    private const val MINUTE = 60 * 1000L
+    private const val HALF_LIFE_MINUTES = 4 * 60L
+    private const val OVERDUE_CAP_MINUTES = 72 * 60L
+    private const val REMINDER_SOON_MINUTES = 60L
+
+    private const val DUE_NOW = 1000L
+    private const val NO_DUE_DATE = 10L
+    private const val REMINDER_FIRED = 300L
+    private const val REMINDER_SOON = 150L
+
+    /** Pending and not deleted: the only tasks "Next up" considers. */
+    fun isActionable(task: TaskEntity): Boolean =
+        task.status == TaskConstants.STATUS_PENDING && task.deletedAt == null
+
+    fun score(task: TaskEntity, now: Long): Long {
+        val due = task.dueDateTime
+        val urgency = when {
+            due == null -> NO_DUE_DATE
+            due <= now -> DUE_NOW + minOf((now - due) / MINUTE, OVERDUE_CAP_MINUTES) / 6
+            else -> DUE_NOW * HALF_LIFE_MINUTES / (HALF_LIFE_MINUTES + (due - now) / MINUTE)
+        }
+        val reminder = task.reminderTime
+        val bonus = when {
+            reminder == null -> 0L
+            reminder <= now -> REMINDER_FIRED
+            reminder - now <= REMINDER_SOON_MINUTES * MINUTE -> REMINDER_SOON
+            else -> 0L
+        }
+        return (urgency + bonus) * weightOf(task.priority)
+    }
+
+    private fun weightOf(priority: Int): Long = when (priority) {
+        TaskConstants.PRIORITY_HIGH -> 4
+        TaskConstants.PRIORITY_MEDIUM -> 3
+        else -> 2
+    }
+}
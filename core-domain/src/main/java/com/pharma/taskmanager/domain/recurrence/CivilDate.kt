@@ -0,0 +1,76 @@
+package com.pharma.taskmanager.domain.recurrence
+
+/**
+ * Proleptic Gregorian calendar arithmetic on epoch days (days since 1970-01-01).
+ * java.time needs API 26 (or desugaring) and Calendar allocates per call, so
+ * expansion does its date math on plain longs instead.
+ */
+internal object CivilDate {
+
+    const val DAY_MILLIS = 24L * 60 * 60 * 1000
+
+    /** Epoch day of [year]-[month]-[day] (month 1..12). */
+    fun daysFromCivil(year: Int, month: Int, day: Int): Long {
+        val y = if (month <= 2) year - 1L else year.toLong()
+        val era = Math.floorDiv(y, 400L)
+        val yoe = y - era * 400
+        val mp = (month + 9) % 12
+        val doy = (153 * mp + 2) / 5 + day - 1
+        val doe = yoe * 365 + yoe / 4 - yoe / 100 + doy
+        return era * 146097 + doe - 719468
+    }
+
+    /** Absolute month index (year * 12 + month - 1) of [epochDay]. */
+    fun monthIndexOf(epochDay: Long): Long {
+        val z = epochDay + 719468
+        val era = Math.floorDiv(z, 146097L)
+        val doe = z - era * 146097
+        val yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365
+        val doy = doe - (365 * yoe + yoe / 4 - yoe / 100)
+        val mp = (5 * doy + 2) / 153
+        val month = if (mp < 10) mp + 3 else mp - 9
+        val year = yoe + era * 400 + if (month <= 2) 1 else 0
+        return year * 12 + month - 1
+    }
+
+    fun dayOfMonth(epochDay: Long): Int =
+        (epochDay - firstDayOfMonth(monthIndexOf(epochDay))).toInt() + 1
+
+    fun firstDayOfMonth(monthIndex: Long): Long =
+        daysFromCivil(Math.floorDiv(monthIndex, 12L).toInt(), Math.floorMod(monthIndex, 12L).toInt() + 1, 1)
+
+    fun daysInMonth(monthIndex: Long): Int =
+        (firstDayOfMonth(monthIndex + 1) - firstDayOfMonth(monthIndex)).toInt()
+
+    /** 0 = Monday .. 6 = Sunday (1970-01-01 was a Thursday). */
+    fun dayOfWeek(epochDay: Long): Int = Math.floorMod(epochDay + 3, 7L).toInt()
+
+    /** "yyyyMMdd" -> epoch day. */
+    fun parseDate(text: String): Long {
+        require(text.length == 8 && text.all { it.isDigit() }) { "Bad date: $text" }
+        val month = text.substring(4, 6).toInt()
+        val day = text.substring(6, 8).toInt()
+        require(month in 1..12 && day in 1..31) { "Bad date: $text" }
+        return daysFromCivil(text.substring(0, 4).toInt(), month, day)
+    }
+
+    /** "yyyyMMdd'T'HHmmss'Z'" -> epoch millis. */
+    fun parseUtcDateTime(text: String): Long {
+        require(text.length == 16 && text[8] == 'T' && text[15] == 'Z') { "UNTIL must be yyyyMMdd or yyyyMMddTHHmmssZ: $text" }
+        val time = text.substring(9, 15)
+        require(time.all { it.isDigit() }) { "Bad time: $text" }
+        val seconds = time.substring(0, 2).toInt() * 3600 + time.substring(2, 4).toInt() * 60 + time.substring(4, 6).toInt()
+        return parseDate(text.substring(0, 8)) * DAY_MILLIS + seconds * 1000L
+    }
+
+    fun formatDate(epochDay: Long): String {
+        val monthIndex = monthIndexOf(epochDay)
+        return "%04d%02d%02d".format(Math.floorDiv(monthIndex, 12L), Math.floorMod(monthIndex, 12L) + 1, dayOfMonth(epochDay))
+    }
+
+    fun formatUtcDateTime(millis: Long): String {
+        val day = Math.floorDiv(millis, DAY_MILLIS)
+        val seconds = Math.floorMod(millis, DAY_MILLIS) / 1000
+        return formatDate(day) + "T%02d%02d%02dZ".format(seconds / 3600, seconds / 60 % 60, seconds % 60)
+    }
+}
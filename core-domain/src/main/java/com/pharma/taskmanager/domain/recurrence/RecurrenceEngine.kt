@@ -0,0 +1,204 @@
+package com.pharma.taskmanager.domain.recurrence
+
+import java.util.TimeZone
+
+/**
+ * Expands a [RecurrenceRule] into occurrence times on demand. Nothing is materialised:
+ * callers pull occurrences for the window they need, and rules jump straight to the window
+ * instead of walking from the series start (except COUNT rules whose skipped occurrences
+ * cannot be counted arithmetically: filtered DAILY and MONTHLY).
+ */
+object RecurrenceEngine {
+
+    /**
+     * Occurrences of the series anchored at [start], in ascending order, beginning with the
+     * first one at or after [from].
+     */
+    fun iterator(
+        rule: RecurrenceRule,
+        start: Long,
+        from: Long = start,
+        zone: TimeZone = TimeZone.getDefault()
+    ): OccurrenceIterator = OccurrenceIterator(rule, start, from, zone)
+
+    /** First occurrence strictly after [after], or null when the series has ended. */
+    fun nextOccurrence(
+        rule: RecurrenceRule,
+        start: Long,
+        after: Long,
+        zone: TimeZone = TimeZone.getDefault()
+    ): Long? {
+        val occurrences = iterator(rule, start, after + 1, zone)
+        return if (occurrences.hasNext()) occurrences.nextLong() else null
+    }
+
+    /** Occurrences in [from, to), at most [limit] of them. */
+    fun occurrencesBetween(
+        rule: RecurrenceRule,
+        start: Long,
+        from: Long,
+        to: Long,
+        zone: TimeZone = TimeZone.getDefault(),
+        limit: Int = Int.MAX_VALUE
+    ): List<Long> {
+        val result = ArrayList<Long>()
+        val occurrences = iterator(rule, start, from, zone)
+        while (result.size < limit && occurrences.hasNext()) {
+            val occurrence = occurrences.nextLong()
+            if (occurrence >= to) break
+            result.add(occurrence)
+        }
+        return result
+    }
+}
+
+/**
+ * Lazily walks one series. Each occurrence keeps the local wall-clock time of the start,
+ * so a daily 09:00 check stays at 09:00 across DST changes.
+ */
+class OccurrenceIterator internal constructor(
+    private val rule: RecurrenceRule,
+    private val start: Long,
+    private val from: Long,
+    private val zone: TimeZone
+) : LongIterator() {
+
+    private val startDay: Long
+    private val timeOfDay: Long
+    private val startMonday: Long
+    private val startMonth: Long
+    private val startDayOfMonth: Int
+
+    // Sorted day-of-week offsets (0 = Monday): WEEKLY emits these, DAILY filters on them
+    private val weekdays: IntArray
+    private val weekdayMask: Int
+
+    private var period: Long
+    private var slot = 0
+    private var emitted = 0L
+    private var nextValue = 0L
+    private var ready = false
+    private var done = false
+
+    init {
+        val startLocal = start + zone.getOffset(start)
+        startDay = Math.floorDiv(startLocal, CivilDate.DAY_MILLIS)
+        timeOfDay = Math.floorMod(startLocal, CivilDate.DAY_MILLIS)
+        startMonday = startDay - CivilDate.dayOfWeek(startDay)
+        startMonth = CivilDate.monthIndexOf(startDay)
+        startDayOfMonth = CivilDate.dayOfMonth(startDay)
+
+        val days = when {
+            rule.byDay.isNotEmpty() -> rule.byDay.map { it.ordinal }
+            rule.frequency == RecurrenceRule.Frequency.WEEKLY -> listOf(CivilDate.dayOfWeek(startDay))
+            else -> emptyList()
+        }
+        weekdays = days.sorted().toIntArray()
+        weekdayMask = days.fold(0) { mask, day -> mask or (1 shl day) }
+
+        // Skip the periods before the window; COUNT rules only where the skipped occurrences can be counted
+        period = if (from > start && canSkipAhead()) firstPeriodNear(localDay(from) - 1) else 0L
+        emitted = occurrencesBefore(period)
+    }
+
+    override fun hasNext(): Boolean {
+        if (!ready && !done) fetch()
+        return ready
+    }
+
+    override fun nextLong(): Long {
+        if (!hasNext()) throw NoSuchElementException()
+        ready = false
+        return nextValue
+    }
+
+    private fun fetch() {
+        var misses = 0
+        while (true) {
+            val day = nextCandidateDay()
+            if (day == NO_DAY) {
+                // Guard against rules whose candidates never match (e.g. DAILY;INTERVAL=7;BYDAY on another weekday)
+                if (++misses > MAX_CONSECUTIVE_MISSES) break
+                continue
+            }
+            misses = 0
+
+            if (rule.untilDate != null && day > rule.untilDate) break
+            val occurrence = toUtc(day)
+            if (rule.untilMillis != null && occurrence > rule.untilMillis) break
+            if (occurrence < start) continue
+
+            emitted++
+            if (rule.count != null && emitted > rule.count) break
+            if (occurrence < from) continue
+
+            nextValue = occurrence
+            ready = true
+            return
+        }
+        done = true
+    }
+
+    /** The next candidate day of the series, or [NO_DAY] if this step produced none. */
+    private fun nextCandidateDay(): Long = when (rule.frequency) {
+        RecurrenceRule.Frequency.DAILY -> {
+            val day = startDay + period * rule.interval
+            period++
+            if (weekdayMask == 0 || weekdayMask and (1 shl CivilDate.dayOfWeek(day)) != 0) day else NO_DAY
+        }
+        RecurrenceRule.Frequency.WEEKLY -> {
+            val day = startMonday + period * 7 * rule.interval + weekdays[slot]
+            if (++slot == weekdays.size) {
+                slot = 0
+                period++
+            }
+            day
+        }
+        RecurrenceRule.Frequency.MONTHLY -> {
+            val month = startMonth + period * rule.interval
+            period++
+            // RFC 5545: a month without the start's day of month has no occurrence
+            if (startDayOfMonth <= CivilDate.daysInMonth(month)) {
+                CivilDate.firstDayOfMonth(month) + startDayOfMonth - 1
+            } else {
+                NO_DAY
+            }
+        }
+    }
+
+    private fun canSkipAhead(): Boolean = rule.count == null ||
+        rule.frequency == RecurrenceRule.Frequency.WEEKLY ||
+        (rule.frequency == RecurrenceRule.Frequency.DAILY && weekdayMask == 0)
+
+    /** Occurrences in the periods before [period] (only called where [canSkipAhead] holds). */
+    private fun occurrencesBefore(period: Long): Long {
+        if (period == 0L || rule.count == null) return 0L
+        return when (rule.frequency) {
+            RecurrenceRule.Frequency.DAILY -> period
+            // Week 0 loses the weekdays before the start's weekday
+            else -> period * weekdays.size - weekdays.count { it < CivilDate.dayOfWeek(startDay) }
+        }
+    }
+
+    private fun firstPeriodNear(day: Long): Long {
+        val periods = when (rule.frequency) {
+            RecurrenceRule.Frequency.DAILY -> Math.floorDiv(day - startDay, rule.interval.toLong())
+            RecurrenceRule.Frequency.WEEKLY -> Math.floorDiv((day - CivilDate.dayOfWeek(day) - startMonday) / 7, rule.interval.toLong())
+            RecurrenceRule.Frequency.MONTHLY -> Math.floorDiv(CivilDate.monthIndexOf(day) - startMonth, rule.interval.toLong())
+        }
+        return maxOf(0L, periods)
+    }
+
+    private fun localDay(utc: Long): Long = Math.floorDiv(utc + zone.getOffset(utc), CivilDate.DAY_MILLIS)
+
+    private fun toUtc(day: Long): Long {
+        val local = day * CivilDate.DAY_MILLIS + timeOfDay
+        val guess = local - zone.getOffset(local)
+        return local - zone.getOffset(guess)
+    }
+
+    private companion object {
+        const val NO_DAY = Long.MIN_VALUE
+        const val MAX_CONSECUTIVE_MISSES = 1000
+    }
+}
@@ -0,0 +1,135 @@
+package com.pharma.taskmanager.domain.recurrence
+
+/**
+ * The subset of RFC 5545 RRULE that recurring tasks support:
+ * FREQ=DAILY|WEEKLY|MONTHLY, INTERVAL, BYDAY (plain weekdays, no ordinals), COUNT and UNTIL.
+ *
+ * The series is anchored at the task's due time: MONTHLY repeats on its day of month
+ * (skipping months that are too short), WEEKLY without BYDAY on its weekday, and
+ * BYDAY on a DAILY rule restricts it to those weekdays.
+ */
+data class RecurrenceRule(
+    val frequency: Frequency,
+    val interval: Int = 1,
+    val byDay: Set<Weekday> = emptySet(),
+    val count: Int? = null,
+    /** UNTIL given as a UTC date-time; inclusive. */
+    val untilMillis: Long? = null,
+    /** UNTIL given as a date (epoch day, local calendar); inclusive. */
+    val untilDate: Long? = null
+) {
+
+    enum class Frequency { DAILY, WEEKLY, MONTHLY }
+
+    /** Ordinal 0 = Monday, matching [RecurrenceEngine]'s day-of-week arithmetic. */
+    enum class Weekday(val code: String) {
+        MONDAY("MO"), TUESDAY("TU"), WEDNESDAY("WE"), THURSDAY("TH"), FRIDAY("FR"), SATURDAY("SA"), SUNDAY("SU");
+
+        companion object {
+            fun fromCode(code: String): Weekday =
+                values().firstOrNull { it.code == code }
+                    ?: throw IllegalArgumentException("Unsupported BYDAY value: $code")
+        }
+    }
+
+    init {
+        require(interval >= 1) { "INTERVAL must be at least 1" }
+        require(count == null || count >= 1) { "COUNT must be at least 1" }
+        require(count == null || (untilMillis == null && untilDate == null)) { "COUNT and UNTIL are mutually exclusive" }
+        require(untilMillis == null || untilDate == null) { "Only one UNTIL form allowed" }
+    }
+
+    /** Canonical RRULE text, as stored in the recurrenceRule column. */
+    fun format(): String = buildString {
+        append("FREQ=").append(frequency.name)
+        if (interval != 1) append(";INTERVAL=").append(interval)
+        if (byDay.isNotEmpty()) append(";BYDAY=").append(byDay.sorted().joinToString(",") { it.code })
+        count?.let { append(";COUNT=").append(it) }
+        untilMillis?.let { append(";UNTIL=").append(CivilDate.formatUtcDateTime(it)) }
+        untilDate?.let { append(";UNTIL=").append(CivilDate.formatDate(it)) }
+    }
+
+    override fun toString(): String = format()
+
+    /** Short human-readable form, e.g. "Every 2 weeks on Mon, Thu (5 times)". */
+    fun describe(): String {
+        val days = byDay.sorted().joinToString(", ") { day -> day.name.take(3).lowercase().replaceFirstChar { it.uppercase() } }
+        val base = when (frequency) {
+            Frequency.DAILY -> when {
+                byDay == WEEKDAYS && interval == 1 -> "Every weekday"
+                interval == 1 -> "Daily"
+                else -> "Every $interval days"
+            }.let { if (byDay.isNotEmpty() && byDay != WEEKDAYS) "$it on $days" else it }
+            Frequency.WEEKLY -> (if (interval == 1) "Weekly" else "Every $interval weeks")
+                .let { if (byDay.isNotEmpty()) "$it on $days" else it }
+            Frequency.MONTHLY -> if (interval == 1) "Monthly" else "Every $interval months"
+        }
+        return when {
+            count != null -> "$base ($count ${if (count == 1) "time" else "times"})"
+            untilDate != null -> "$base until ${CivilDate.formatDate(untilDate)}"
+            untilMillis != null -> "$base until ${CivilDate.formatUtcDateTime(untilMillis)}"
+            else -> base
+        }
+    }
+
+    companion object {
+
+        val WEEKDAYS = setOf(Weekday.MONDAY, Weekday.TUESDAY, Weekday.WEDNESDAY, Weekday.THURSDAY, Weekday.FRIDAY)
+
+        /**
+         * Parse RRULE text (with or without the "RRULE:" prefix).
+         * @throws IllegalArgumentException for malformed or unsupported rules
+         */
+        fun parse(text: String): RecurrenceRule {
+            val body = text.trim().removePrefix("RRULE:")
+            require(body.isNotEmpty()) { "Empty RRULE" }
+
+            var frequency: Frequency? = null
+            var interval = 1
+            var byDay = emptySet<Weekday>()
+            var count: Int? = null
+            var untilMillis: Long? = null
+            var untilDate: Long? = null
+
+            for (part in body.split(';')) {
+                if (part.isEmpty()) continue
+                val eq = part.indexOf('=')
+                require(eq > 0) { "Malformed RRULE part: $part" }
+                val value = part.substring(eq + 1)
+                when (part.substring(0, eq).uppercase()) {
+                    "FREQ" -> frequency = try {
+                        Frequency.valueOf(value.uppercase())
+                    } catch (e: IllegalArgumentException) {
+                        throw IllegalArgumentException("Unsupported FREQ: $value")
+                    }
+                    "INTERVAL" -> interval = value.toIntOrNull() ?: throw IllegalArgumentException("Bad INTERVAL: $value")
+                    "BYDAY" -> byDay = value.split(',').map { Weekday.fromCode(it.trim().uppercase()) }.toSet()
+                    "COUNT" -> count = value.toIntOrNull() ?: throw IllegalArgumentException("Bad COUNT: $value")
+                    "UNTIL" -> if (value.length == 8) {
+                        untilDate = CivilDate.parseDate(value)
+                    } else {
+                        untilMillis = CivilDate.parseUtcDateTime(value)
+                    }
+                    "WKST" -> Unit // Weeks always start on Monday here, which is the RFC default
+                    else -> throw IllegalArgumentException("Unsupported RRULE part: $part")
+                }
+            }
+
+            return RecurrenceRule(
+                frequency = frequency ?: throw IllegalArgumentException("RRULE without FREQ"),
+                interval = interval,
+                byDay = byDay,
+                count = count,
+                untilMillis = untilMillis,
+                untilDate = untilDate
+            )
+        }
+
+        fun parseOrNull(text: String?): RecurrenceRule? =
+            if (text.isNullOrBlank()) null else try {
+                parse(text)
+            } catch (e: IllegalArgumentException) {
+                null
+            }
+    }
+}
@@ -0,0 +1,99 @@
+package com.pharma.taskmanager.domain.recurrence
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import java.util.TimeZone
+
+/**
+ * One instance of a task inside a window. For recurring tasks the reminder keeps the
+ * same lead time before the due time as on the stored row.
+ */
+data class TaskOccurrence(
+    val task: TaskEntity,
+    val dueDateTime: Long,
+    val reminderTime: Long?
+)
+
+/**
+ * Recurring tasks are stored as a single row whose dueDateTime/reminderTime is the
+ * current occurrence; later occurrences only exist when a window asks for them.
+ */
+object TaskOccurrences {
+
+    /** The task's rule, or null if it does not recur (no rule, unparsable rule or no due time). */
+    fun ruleOf(task: TaskEntity): RecurrenceRule? =
+        if (task.dueDateTime == null) null else RecurrenceRule.parseOrNull(task.recurrenceRule)
+
+    /**
+     * All occurrences due in [from, to), ordered by due time. One-shot tasks appear once if
+     * their due time falls in the window.
+     */
+    fun expand(
+        tasks: List<TaskEntity>,
+        from: Long,
+        to: Long,
+        zone: TimeZone = TimeZone.getDefault()
+    ): List<TaskOccurrence> {
+        val result = ArrayList<TaskOccurrence>()
+        for (task in tasks) {
+            val due = task.dueDateTime ?: continue
+            val rule = ruleOf(task)
+            if (rule == null) {
+                if (due in from until to) result.add(TaskOccurrence(task, due, task.reminderTime))
+                continue
+            }
+            val occurrences = RecurrenceEngine.iterator(rule, due, from, zone)
+            while (occurrences.hasNext()) {
+                val occurrence = occurrences.nextLong()
+                if (occurrence >= to) break
+                result.add(TaskOccurrence(task, occurrence, shiftedReminder(task, due, occurrence)))
+            }
+        }
+        result.sortBy { it.dueDateTime }
+        return result
+    }
+
+    /**
+     * The row a recurring task becomes once its current occurrence is completed: pending
+     * again, due at the first occurrence after both the current one and [now], with the
+     * reminder moved along and COUNT reduced by the occurrences used up.
+     * Null if the task does not recur or the series has no further occurrence.
+     */
+    fun nextInstance(task: TaskEntity, now: Long, zone: TimeZone = TimeZone.getDefault()): TaskEntity? {
+        val due = task.dueDateTime ?: return null
+        val rule = ruleOf(task) ?: return null
+        val after = maxOf(due, now)
+
+        val next: Long
+        var remainingRule = rule
+        if (rule.count == null) {
+            next = RecurrenceEngine.nextOccurrence(rule, due, after, zone) ?: return null
+        } else {
+            // The current occurrence is the first of the remaining COUNT
+            var used = 0
+            var found: Long? = null
+            val occurrences = RecurrenceEngine.iterator(rule, due, due, zone)
+            while (occurrences.hasNext()) {
+                val occurrence = occurrences.nextLong()
+                if (occurrence > after) {
+                    found = occurrence
+                    break
+                }
+                used++
+            }
+            next = found ?: return null
+            remainingRule = rule.copy(count = rule.count - used)
+        }
+
+        return task.copy(
+            status = TaskConstants.STATUS_PENDING,
+            dueDateTime = next,
+            reminderTime = shiftedReminder(task, due, next),
+            recurrenceRule = remainingRule.format(),
+            completedAt = null
+        )
+    }
+
+    private fun shiftedReminder(task: TaskEntity, due: Long, occurrence: Long): Long? =
+        task.reminderTime?.let { occurrence - (due - it) }
+}
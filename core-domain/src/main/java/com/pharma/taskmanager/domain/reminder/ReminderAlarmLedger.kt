@@ -0,0 +1,125 @@
+package com.pharma.taskmanager.domain.reminder
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.EOFException
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.util.zip.CRC32
+
+/**
+ * What the last re-arm pass registered with AlarmManager, and how long it took. The alarms
+ * only outlive the process, not the device, so [bootCount] ties them to the boot they were
+ * set in; a ledger from an earlier boot says nothing is armed.
+ */
+data class ReminderAlarmLedger(
+    val bootCount: Int,
+    val armed: List<ArmedReminder>,
+    val lastPass: Pass
+) {
+
+    data class Pass(
+        val reason: String,
+        val finishedAt: Long,
+        val durationMillis: Long,
+        val armed: Int,
+        val skipped: Int,
+        val refillAt: Long?
+    )
+
+    /** The alarms still registered in boot [currentBootCount]; unknown boots count as new. */
+    fun armedIn(currentBootCount: Int): List<ArmedReminder> =
+        if (currentBootCount >= 0 && currentBootCount == bootCount) armed else emptyList()
+}
+
+/**
+ * A [ReminderAlarmLedger] on disk, in the same shape as the widget snapshot: magic, version
+ * byte, fields, CRC32, written whole through a temp file and a rename. A damaged or missing
+ * ledger reads as null, which only costs re-registering the window.
+ */
+class ReminderAlarmLedgerFile(private val file: File) {
+
+    fun read(): ReminderAlarmLedger? {
+        if (!file.isFile) return null
+        return try {
+            decode(file.readBytes())
+        } catch (e: IOException) {
+            null
+        }
+    }
+
+    fun write(ledger: ReminderAlarmLedger) {
+        val dir = file.parentFile!!
+        if (!dir.isDirectory && !dir.mkdirs() && !dir.isDirectory) throw IOException("Cannot create $dir")
+        val temp = File(dir, "${file.name}.tmp")
+        try {
+            FileOutputStream(temp).use { out ->
+                out.write(encode(ledger))
+                out.fd.sync()
+            }
+            if (!temp.renameTo(file)) throw IOException("Cannot move $temp to $file")
+        } finally {
+            temp.delete()
+        }
+    }
+
+    companion object {
+        private const val MAGIC = 0x544D524C // "TMRL"
+        private const val VERSION = 1
+        private const val NO_REFILL = -1L
+
+        fun encode(ledger: ReminderAlarmLedger): ByteArray {
+            val bytes = ByteArrayOutputStream(64 + ledger.armed.size * 12)
+            DataOutputStream(bytes).use { out ->
+                out.writeInt(MAGIC)
+                out.writeByte(VERSION)
+                out.writeInt(ledger.bootCount)
+                val pass = ledger.lastPass
+                out.writeUTF(pass.reason)
+                out.writeLong(pass.finishedAt)
+                out.writeLong(pass.durationMillis)
+                out.writeInt(pass.armed)
+                out.writeInt(pass.skipped)
+                out.writeLong(pass.refillAt ?: NO_REFILL)
+                out.writeInt(ledger.armed.size)
+                for (reminder in ledger.armed) {
+                    out.writeInt(reminder.taskId)
+                    out.writeLong(reminder.reminderTime)
+                }
+                val crc = CRC32().apply { update(bytes.toByteArray()) }
+                out.writeInt(crc.value.toInt())
+            }
+            return bytes.toByteArray()
+        }
+
+        fun decode(bytes: ByteArray): ReminderAlarmLedger {
+            if (bytes.size < 4) throw IOException("Truncated alarm ledger")
+            val crc = CRC32().apply { update(bytes, 0, bytes.size - 4) }
+            val input = DataInputStream(ByteArrayInputStream(bytes))
+            try {
+                if (input.readInt() != MAGIC) throw IOException("Not an alarm ledger")
+                val version = input.readUnsignedByte()
+                if (version != VERSION) throw IOException("Unsupported alarm ledger version $version")
+                val bootCount = input.readInt()
+                val pass = ReminderAlarmLedger.Pass(
+                    reason = input.readUTF(),
+                    finishedAt = input.readLong(),
+                    durationMillis = input.readLong(),
+                    armed = input.readInt(),
+                    skipped = input.readInt(),
+                    refillAt = input.readLong().takeIf { it != NO_REFILL }
+                )
+                val count = input.readInt()
+                if (count < 0 || count > bytes.size / 12) throw IOException("Damaged alarm ledger")
+                val armed = List(count) { ArmedReminder(input.readInt(), input.readLong()) }
+                if (input.readInt() != crc.value.toInt() || input.read() != -1) throw IOException("Damaged alarm ledger")
+                return ReminderAlarmLedger(bootCount, armed, pass)
+            } catch (e: EOFException) {
+                throw IOException("Truncated alarm ledger")
+            }
+        }
+    }
+}
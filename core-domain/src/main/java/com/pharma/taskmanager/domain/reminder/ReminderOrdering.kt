@@ -0,0 +1,29 @@
+package com.pharma.taskmanager.domain.reminder
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+
+/**
+ * Decides which reminder rings first when several fall due at the same time:
+ * highest priority first, then earliest due date, then oldest task.
+ */
+object ReminderOrdering {
+    
+    val COMPARATOR: Comparator<TaskEntity> =
+        compareByDescending<TaskEntity> { it.priority }
+            .thenBy { it.dueDateTime ?: Long.MAX_VALUE }
+            .thenBy { it.createdAt }
+    
+    /**
+     * Pending tasks whose reminder is due at [reminderTime], in ringing order.
+     */
+    fun order(tasks: List<TaskEntity>, reminderTime: Long): List<TaskEntity> {
+        return tasks
+            .filter { task ->
+                task.status == TaskConstants.STATUS_PENDING &&
+                task.reminderTime != null &&
+                task.reminderTime <= reminderTime
+            }
+            .sortedWith(COMPARATOR)
+    }
+}
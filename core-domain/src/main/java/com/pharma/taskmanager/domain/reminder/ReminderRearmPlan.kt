@@ -0,0 +1,52 @@
+package com.pharma.taskmanager.domain.reminder
+
+/** A reminder alarm: the task it rings for and when. */
+data class ArmedReminder(val taskId: Int, val reminderTime: Long)
+
+/**
+ * One pass of putting reminder alarms back after the set AlarmManager holds may have
+ * changed under us: a reboot clears every alarm, and clock changes and app updates are
+ * cheap to double-check.
+ *
+ * AlarmManager caps an app at a few hundred concurrent alarms and every registration is an
+ * IPC, so a pass covers at most [window] of the nearest reminders, however many exist. When
+ * more are waiting beyond the window, another pass is due at [refillAt], halfway through it,
+ * leaving slack for a late worker. Alarms the ledger records as set for the same time are
+ * not registered again. Ledger entries that left the window are forgotten but not cancelled:
+ * the receiver rechecks the database when an alarm fires, and the app may have moved that
+ * alarm to a new time since.
+ */
+class ReminderRearmPlan(
+    /** The nearest reminders, in ringing order; what the ledger holds after the pass. */
+    val window: List<ArmedReminder>,
+    /** The part of [window] that needs registering. */
+    val toArm: List<ArmedReminder>,
+    /** When to run the next pass, or null if the window holds every upcoming reminder. */
+    val refillAt: Long?
+) {
+
+    val skipped: Int get() = window.size - toArm.size
+
+    companion object {
+        const val DEFAULT_WINDOW = 200
+
+        /**
+         * [upcoming] must be sorted by time, then task id, and may stop one past [window]
+         * (that extra row is how a truncated window is detected). [armed] is the ledger of
+         * the previous pass; pass an empty list when every alarm is known to be gone.
+         */
+        fun plan(
+            upcoming: List<ArmedReminder>,
+            armed: List<ArmedReminder>,
+            window: Int = DEFAULT_WINDOW
+        ): ReminderRearmPlan {
+            require(window > 0) { "window must be positive" }
+            val nearest = if (upcoming.size > window) upcoming.subList(0, window).toList() else upcoming
+            val armedAt = HashMap<Int, Long>(armed.size * 2)
+            for (reminder in armed) armedAt[reminder.taskId] = reminder.reminderTime
+            val toArm = nearest.filter { armedAt[it.taskId] != it.reminderTime }
+            val refillAt = if (upcoming.size > window) nearest[window / 2].reminderTime else null
+            return ReminderRearmPlan(nearest, toArm, refillAt)
+        }
+    }
+}
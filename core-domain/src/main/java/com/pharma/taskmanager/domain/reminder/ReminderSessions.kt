@@ -0,0 +1,62 @@
+package com.pharma.taskmanager.domain.reminder
+
+/**
+ * The reminders ringing at once in the persistent reminder service, keyed by task. Every
+ * session rings for the same [durationMillis], so insertion order is expiry order: the
+ * first session expires soonest and the last one ends the ringing. The service therefore
+ * needs one expiry timer and one fade-out timer however many sessions are active.
+ * Re-triggering a task that is still ringing restarts its session at the back.
+ * All times come from the caller's clock; the service passes elapsedRealtime.
+ */
+class ReminderSessions(private val durationMillis: Long) {
+
+    data class Session(val taskId: Int, val title: String, val startedAt: Long, val expiresAt: Long)
+
+    private val sessions = LinkedHashMap<Int, Session>()
+
+    val size: Int get() = sessions.size
+
+    /** In expiry order. */
+    val active: List<Session> get() = sessions.values.toList()
+
+    /** When the next session ends, or null if none is ringing. */
+    val nextExpiry: Long? get() = sessions.values.firstOrNull()?.expiresAt
+
+    /** When the last session ends: the ringing as a whole stops then. */
+    val lastExpiry: Long? get() = sessions.values.lastOrNull()?.expiresAt
+
+    fun isEmpty(): Boolean = sessions.isEmpty()
+
+    operator fun contains(taskId: Int): Boolean = taskId in sessions
+
+    /** Start [taskId]'s session, or restart it if it is ringing. True if it was not ringing. */
+    fun start(taskId: Int, title: String, now: Long): Boolean {
+        val restarted = sessions.remove(taskId) != null
+        sessions[taskId] = Session(taskId, title, now, now + durationMillis)
+        return !restarted
+    }
+
+    /** Replace the title of a session still ringing; false if it has ended. */
+    fun rename(taskId: Int, title: String): Boolean {
+        val session = sessions[taskId] ?: return false
+        sessions[taskId] = session.copy(title = title) // Replacing a value keeps its position
+        return true
+    }
+
+    fun stop(taskId: Int): Session? = sessions.remove(taskId)
+
+    fun stopAll(): List<Session> = active.also { sessions.clear() }
+
+    /** Remove and return the sessions that have ended by [now]. */
+    fun expire(now: Long): List<Session> {
+        val expired = mutableListOf<Session>()
+        val iterator = sessions.values.iterator()
+        while (iterator.hasNext()) {
+            val session = iterator.next()
+            if (session.expiresAt > now) break
+            expired += session
+            iterator.remove()
+        }
+        return expired
+    }
+}
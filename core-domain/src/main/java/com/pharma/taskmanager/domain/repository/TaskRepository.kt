@@ -1,6 +1,7 @@
 package com.pharma.taskmanager.domain.repository
 
 import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.changes.TaskChangeSet
 import kotlinx.coroutines.flow.Flow
 
 interface TaskRepository {
@@ -8,6 +9,9 @@ interface TaskRepository {
     // Observing tasks with Flow
     fun getAllTasks(): Flow<List<TaskEntity>>
     
+    // Same rows as getAllTasks, as deltas: a reset first, then only what each write changed
+    fun observeTaskChanges(): Flow<TaskChangeSet>
+    
     fun getTasksByStatus(status: String): Flow<List<TaskEntity>>
     
     fun getTasksByPriority(priority: Int): Flow<List<TaskEntity>>
@@ -27,8 +31,14 @@ interface TaskRepository {
     
     suspend fun updateTask(task: TaskEntity)
     
+    // Soft delete: the row is hidden from every query until restored or purged
     suspend fun deleteTask(task: TaskEntity)
     
+    suspend fun restoreTask(id: Int)
+    
+    // Hard-delete up to batchSize tombstones older than the cutoff; returns the purged ids
+    suspend fun purgeDeletedTasks(olderThan: Long, batchSize: Int): List<Int>
+    
     suspend fun getTaskById(id: Int): TaskEntity?
     
     // Additional operations
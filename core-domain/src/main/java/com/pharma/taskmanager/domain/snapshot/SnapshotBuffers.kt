@@ -0,0 +1,124 @@
+package com.pharma.taskmanager.domain.snapshot
+
+import java.nio.BufferUnderflowException
+import java.nio.ByteBuffer
+import java.util.zip.CRC32
+
+/** Growable byte array that one column is encoded into before it is written out. */
+internal class ByteSink(initialCapacity: Int = 1024) {
+
+    var bytes = ByteArray(initialCapacity)
+        private set
+    var size = 0
+        private set
+
+    fun writeByte(value: Int) {
+        ensure(1)
+        bytes[size++] = value.toByte()
+    }
+
+    fun writeVarLong(value: Long) {
+        ensure(MAX_VARLONG_BYTES)
+        var v = value
+        while (v and 0x7FL.inv() != 0L) {
+            bytes[size++] = ((v and 0x7F) or 0x80).toByte()
+            v = v ushr 7
+        }
+        bytes[size++] = v.toByte()
+    }
+
+    fun writeZigZag(value: Long) = writeVarLong((value shl 1) xor (value shr 63))
+
+    /** Varint byte length followed by the UTF-8 bytes. */
+    fun writeString(value: String) {
+        val encoded = value.toByteArray(Charsets.UTF_8)
+        writeVarLong(encoded.size.toLong())
+        ensure(encoded.size)
+        System.arraycopy(encoded, 0, bytes, size, encoded.size)
+        size += encoded.size
+    }
+
+    fun crc32(): Int = CRC32().apply { update(bytes, 0, size) }.value.toInt()
+
+    fun asBuffer(): ByteBuffer = ByteBuffer.wrap(bytes, 0, size)
+
+    private fun ensure(extra: Int) {
+        if (size + extra <= bytes.size) return
+        bytes = bytes.copyOf(maxOf(bytes.size * 2, size + extra))
+    }
+
+    private companion object {
+        const val MAX_VARLONG_BYTES = 10
+    }
+}
+
+/**
+ * Bounds-checked reads over one block. Every malformed input (overlong varint, length past
+ * the end, bad UTF-8 length) surfaces as [SnapshotFormatException], never as an index or
+ * allocation error.
+ */
+internal class ByteSource(private val buffer: ByteBuffer, private val column: String) {
+
+    private var scratch = ByteArray(64)
+
+    val remaining: Int get() = buffer.remaining()
+
+    fun readByte(): Int = guard { buffer.get().toInt() and 0xFF }
+
+    fun readVarLong(): Long {
+        var result = 0L
+        var shift = 0
+        while (shift < 64) {
+            val b = readByte()
+            result = result or ((b and 0x7F).toLong() shl shift)
+            if (b and 0x80 == 0) return result
+            shift += 7
+        }
+        throw SnapshotFormatException("$column: varint too long")
+    }
+
+    fun readZigZag(): Long {
+        val raw = readVarLong()
+        return (raw ushr 1) xor -(raw and 1)
+    }
+
+    /** A varint that must fit in [0, limit]. */
+    fun readCount(limit: Int): Int {
+        val value = readVarLong()
+        if (value < 0 || value > limit) throw SnapshotFormatException("$column: count $value out of range")
+        return value.toInt()
+    }
+
+    fun readString(): String {
+        // The bound is what is left after the length varint itself
+        val length = readVarLong()
+        if (length < 0 || length > buffer.remaining()) throw SnapshotFormatException("$column: string length $length out of range")
+        val size = length.toInt()
+        if (scratch.size < size) scratch = ByteArray(maxOf(size, scratch.size * 2))
+        buffer.get(scratch, 0, size)
+        return String(scratch, 0, size, Charsets.UTF_8)
+    }
+
+    fun expectEnd() {
+        if (buffer.hasRemaining()) throw SnapshotFormatException("$column: ${buffer.remaining()} trailing bytes")
+    }
+
+    private inline fun <T> guard(read: () -> T): T = try {
+        read()
+    } catch (e: BufferUnderflowException) {
+        throw SnapshotFormatException("$column: truncated")
+    }
+}
+
+/** CRC32 of the remaining bytes of [buffer], without moving its position (API 24 has no update(ByteBuffer)). */
+internal fun crc32Of(buffer: ByteBuffer): Int {
+    val view = buffer.duplicate()
+    val crc = CRC32()
+    val chunk = ByteArray(minOf(view.remaining(), 64 * 1024).coerceAtLeast(1))
+    while (view.hasRemaining()) {
+        val n = minOf(chunk.size, view.remaining())
+        view.get(chunk, 0, n)
+        crc.update(chunk, 0, n)
+    }
+    return crc.value.toInt()
+}
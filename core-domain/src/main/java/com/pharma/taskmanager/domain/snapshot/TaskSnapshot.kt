@@ -0,0 +1,347 @@
+package com.pharma.taskmanager.domain.snapshot
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.channels.GatheringByteChannel
+
+class SnapshotFormatException(message: String) : IOException(message)
+
+/**
+ * Versioned, columnar binary snapshot of the tasks table, for backup and restore.
+ *
+ * Layout (big-endian):
+ * - header: magic "TSNP", u16 version, u16 column count, i32 row count, i64 createdAt,
+ *   i32 CRC32 of the preceding 20 bytes
+ * - one block per column: u8 column id, u8 encoding, u16 reserved, i32 payload length,
+ *   i32 CRC32 of the payload, payload
+ *
+ * Strings are varint length-prefixed UTF-8, ids and timestamps are zigzag varint deltas
+ * from the previous row, and nullable columns carry a presence bitmap. Status and
+ * recurrenceRule repeat heavily, so they are dictionary encoded. Every checksum is verified
+ * before anything is decoded; readers skip column ids they do not know.
+ */
+object TaskSnapshot {
+
+    const val VERSION = 1
+
+    data class Header(val version: Int, val rowCount: Int, val createdAt: Long)
+
+    data class Snapshot(val createdAt: Long, val tasks: List<TaskEntity>)
+
+    /** Write [tasks] to [channel]. Returns the number of bytes written. */
+    fun write(channel: GatheringByteChannel, tasks: List<TaskEntity>, createdAt: Long): Long {
+        val blocks = Column.values().map { column -> column to encode(column, tasks) }
+
+        val header = ByteBuffer.allocate(HEADER_SIZE)
+        header.put(MAGIC).putShort(VERSION.toShort()).putShort(blocks.size.toShort())
+            .putInt(tasks.size).putLong(createdAt)
+        header.putInt(crc32Of(ByteBuffer.wrap(header.array(), 0, HEADER_SIZE - 4)))
+        header.flip()
+
+        val buffers = ArrayList<ByteBuffer>(1 + blocks.size * 2)
+        buffers.add(header)
+        for ((column, payload) in blocks) {
+            val blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE)
+            blockHeader.put(column.id.toByte()).put(column.encoding.code.toByte()).putShort(0)
+                .putInt(payload.size).putInt(payload.crc32())
+            blockHeader.flip()
+            buffers.add(blockHeader)
+            buffers.add(payload.asBuffer())
+        }
+
+        val all = buffers.toTypedArray()
+        // Counted rather than checked on the last buffer, which is empty for an empty table
+        val total = all.sumOf { it.remaining().toLong() }
+        var written = 0L
+        while (written < total) written += channel.write(all)
+        return written
+    }
+
+    /**
+     * Write a snapshot file: to a temporary sibling first, synced, then renamed over [file],
+     * so a crash mid-write never leaves a truncated snapshot behind.
+     */
+    fun writeFile(file: File, tasks: List<TaskEntity>, createdAt: Long): Long {
+        file.parentFile?.mkdirs()
+        val temp = File(file.parentFile, file.name + ".tmp")
+        val written = FileOutputStream(temp).use { out ->
+            val channel = out.channel
+            write(channel, tasks, createdAt).also { channel.force(true) }
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete()
+            throw IOException("Cannot replace $file")
+        }
+        return written
+    }
+
+    /** Decode a whole snapshot from [buffer] (starting at its position). */
+    fun read(buffer: ByteBuffer): Snapshot {
+        val input = buffer.slice()
+        val header = readHeader(input)
+        if (header.rowCount > input.remaining()) {
+            // Every row takes at least one byte in the id column
+            throw SnapshotFormatException("Row count ${header.rowCount} exceeds file size")
+        }
+        val columnCount = input.getShort(6).toInt() and 0xFFFF
+        input.position(HEADER_SIZE)
+
+        val payloads = HashMap<Column, ByteBuffer>()
+        repeat(columnCount) {
+            if (input.remaining() < BLOCK_HEADER_SIZE) throw SnapshotFormatException("Truncated block header")
+            val id = input.get().toInt() and 0xFF
+            val encoding = input.get().toInt() and 0xFF
+            // Outside the payload CRC, so anything but zero counts as corruption
+            if (input.getShort() != 0.toShort()) throw SnapshotFormatException("Block $id: reserved bytes set")
+            val length = input.getInt()
+            val crc = input.getInt()
+            if (length < 0 || length > input.remaining()) throw SnapshotFormatException("Block $id length $length out of range")
+
+            val payload = input.slice()
+            payload.limit(length)
+            input.position(input.position() + length)
+            if (crc32Of(payload) != crc) throw SnapshotFormatException("Checksum mismatch in block $id")
+
+            val column = Column.forId(id) ?: return@repeat // Newer writer; not needed to rebuild tasks
+            if (column.encoding.code != encoding) throw SnapshotFormatException("${column.name}: unexpected encoding $encoding")
+            if (payloads.put(column, payload) != null) throw SnapshotFormatException("${column.name}: duplicate block")
+        }
+        if (input.hasRemaining()) throw SnapshotFormatException("${input.remaining()} trailing bytes")
+
+        return Snapshot(header.createdAt, decode(payloads, header.rowCount))
+    }
+
+    /** Map [file] read-only and decode it. */
+    fun readFile(file: File): Snapshot = RandomAccessFile(file, "r").use { raf ->
+        val channel = raf.channel
+        if (channel.size() > Int.MAX_VALUE) throw SnapshotFormatException("Snapshot too large: ${channel.size()} bytes")
+        read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()))
+    }
+
+    /** Just the header, e.g. to show when the last backup was taken. */
+    fun readHeader(file: File): Header = RandomAccessFile(file, "r").use { raf ->
+        if (raf.length() < HEADER_SIZE) throw SnapshotFormatException("Not a task snapshot")
+        val bytes = ByteArray(HEADER_SIZE)
+        raf.readFully(bytes)
+        readHeader(ByteBuffer.wrap(bytes))
+    }
+
+    private fun readHeader(input: ByteBuffer): Header {
+        if (input.remaining() < HEADER_SIZE) throw SnapshotFormatException("Not a task snapshot")
+        val magic = ByteArray(MAGIC.size)
+        input.duplicate().get(magic)
+        if (!magic.contentEquals(MAGIC)) throw SnapshotFormatException("Not a task snapshot")
+        val checked = input.duplicate()
+        checked.limit(input.position() + HEADER_SIZE - 4)
+        if (crc32Of(checked) != input.getInt(input.position() + HEADER_SIZE - 4)) {
+            throw SnapshotFormatException("Header checksum mismatch")
+        }
+        val version = input.getShort(input.position() + 4).toInt() and 0xFFFF
+        if (version != VERSION) throw SnapshotFormatException("Unsupported snapshot version $version")
+        val rowCount = input.getInt(input.position() + 8)
+        if (rowCount < 0) throw SnapshotFormatException("Negative row count")
+        return Header(version, rowCount, input.getLong(input.position() + 12))
+    }
+
+    private fun encode(column: Column, tasks: List<TaskEntity>): ByteSink {
+        val sink = ByteSink(tasks.size * 4 + 16)
+        when (column) {
+            Column.ID -> writeDeltas(sink, tasks) { it.id.toLong() }
+            Column.TITLE -> tasks.forEach { sink.writeString(it.title) }
+            Column.DESCRIPTION -> writeNullableStrings(sink, tasks) { it.description }
+            Column.DUE_DATE_TIME -> writeNullableDeltas(sink, tasks) { it.dueDateTime }
+            Column.PRIORITY -> tasks.forEach { sink.writeZigZag(it.priority.toLong()) }
+            Column.STATUS -> writeDictionary(sink, tasks) { it.status }
+            Column.REMINDER_TIME -> writeNullableDeltas(sink, tasks) { it.reminderTime }
+            Column.CREATED_AT -> writeDeltas(sink, tasks) { it.createdAt }
+            Column.DELETED_AT -> writeNullableDeltas(sink, tasks) { it.deletedAt }
+            Column.COMPLETED_AT -> writeNullableDeltas(sink, tasks) { it.completedAt }
+            Column.RECURRENCE_RULE -> writeDictionary(sink, tasks) { it.recurrenceRule }
+            Column.SYNC_ID -> tasks.forEach { sink.writeString(it.syncId) }
+            Column.UPDATED_AT -> writeDeltas(sink, tasks) { it.updatedAt }
+        }
+        return sink
+    }
+
+    private fun decode(payloads: Map<Column, ByteBuffer>, rows: Int): List<TaskEntity> {
+        fun source(column: Column) = ByteSource(
+            payloads[column] ?: throw SnapshotFormatException("${column.name}: missing block"),
+            column.name
+        )
+
+        val ids = readDeltas(source(Column.ID), rows)
+        val titles = readStrings(source(Column.TITLE), rows)
+        val descriptions = readNullableStrings(source(Column.DESCRIPTION), rows)
+        val dueDateTimes = readNullableDeltas(source(Column.DUE_DATE_TIME), rows)
+        val priorities = source(Column.PRIORITY).let { src -> LongArray(rows) { src.readZigZag() }.also { src.expectEnd() } }
+        val statuses = readDictionary(source(Column.STATUS), rows)
+        val reminderTimes = readNullableDeltas(source(Column.REMINDER_TIME), rows)
+        val createdAts = readDeltas(source(Column.CREATED_AT), rows)
+        val deletedAts = readNullableDeltas(source(Column.DELETED_AT), rows)
+        val completedAts = readNullableDeltas(source(Column.COMPLETED_AT), rows)
+        val recurrenceRules = readDictionary(source(Column.RECURRENCE_RULE), rows)
+        val syncIds = readStrings(source(Column.SYNC_ID), rows)
+        val updatedAts = readDeltas(source(Column.UPDATED_AT), rows)
+
+        return List(rows) { i ->
+            val id = ids[i]
+            val priority = priorities[i]
+            if (id !in Int.MIN_VALUE..Int.MAX_VALUE) throw SnapshotFormatException("ID: $id out of range")
+            if (priority !in Int.MIN_VALUE..Int.MAX_VALUE) throw SnapshotFormatException("PRIORITY: $priority out of range")
+            TaskEntity(
+                id = id.toInt(),
+                title = titles[i],
+                description = descriptions[i],
+                dueDateTime = dueDateTimes[i],
+                priority = priority.toInt(),
+                status = statuses[i] ?: throw SnapshotFormatException("STATUS: null in row $i"),
+                reminderTime = reminderTimes[i],
+                createdAt = createdAts[i],
+                deletedAt = deletedAts[i],
+                completedAt = completedAts[i],
+                recurrenceRule = recurrenceRules[i],
+                syncId = syncIds[i],
+                updatedAt = updatedAts[i]
+            )
+        }
+    }
+
+    private inline fun writeDeltas(sink: ByteSink, tasks: List<TaskEntity>, value: (TaskEntity) -> Long) {
+        var previous = 0L
+        for (task in tasks) {
+            val v = value(task)
+            sink.writeZigZag(v - previous)
+            previous = v
+        }
+    }
+
+    private fun readDeltas(source: ByteSource, rows: Int): LongArray {
+        var previous = 0L
+        val values = LongArray(rows) {
+            previous += source.readZigZag()
+            previous
+        }
+        source.expectEnd()
+        return values
+    }
+
+    private inline fun writeNullableDeltas(sink: ByteSink, tasks: List<TaskEntity>, value: (TaskEntity) -> Long?) {
+        writePresence(sink, tasks) { value(it) != null }
+        var previous = 0L
+        for (task in tasks) {
+            val v = value(task) ?: continue
+            sink.writeZigZag(v - previous)
+            previous = v
+        }
+    }
+
+    private fun readNullableDeltas(source: ByteSource, rows: Int): Array<Long?> {
+        val present = readPresence(source, rows)
+        var previous = 0L
+        val values = Array(rows) { i ->
+            if (present[i]) {
+                previous += source.readZigZag()
+                previous
+            } else {
+                null
+            }
+        }
+        source.expectEnd()
+        return values
+    }
+
+    private fun readStrings(source: ByteSource, rows: Int): Array<String> {
+        val values = Array(rows) { source.readString() }
+        source.expectEnd()
+        return values
+    }
+
+    private inline fun writeNullableStrings(sink: ByteSink, tasks: List<TaskEntity>, value: (TaskEntity) -> String?) {
+        writePresence(sink, tasks) { value(it) != null }
+        for (task in tasks) value(task)?.let(sink::writeString)
+    }
+
+    private fun readNullableStrings(source: ByteSource, rows: Int): Array<String?> {
+        val present = readPresence(source, rows)
+        val values = Array(rows) { i -> if (present[i]) source.readString() else null }
+        source.expectEnd()
+        return values
+    }
+
+    /** Distinct values, then one varint per row: 0 for null, otherwise the entry index + 1. */
+    private inline fun writeDictionary(sink: ByteSink, tasks: List<TaskEntity>, value: (TaskEntity) -> String?) {
+        val indices = LinkedHashMap<String, Int>()
+        for (task in tasks) value(task)?.let { indices.getOrPut(it) { indices.size } }
+        sink.writeVarLong(indices.size.toLong())
+        indices.keys.forEach(sink::writeString)
+        for (task in tasks) sink.writeVarLong(value(task)?.let { indices.getValue(it) + 1L } ?: 0L)
+    }
+
+    private fun readDictionary(source: ByteSource, rows: Int): Array<String?> {
+        val entries = Array(source.readCount(source.remaining)) { source.readString() }
+        val values = Array(rows) {
+            val index = source.readCount(entries.size)
+            if (index == 0) null else entries[index - 1]
+        }
+        source.expectEnd()
+        return values
+    }
+
+    private inline fun writePresence(sink: ByteSink, tasks: List<TaskEntity>, present: (TaskEntity) -> Boolean) {
+        var bits = 0
+        tasks.forEachIndexed { i, task ->
+            if (present(task)) bits = bits or (1 shl (i and 7))
+            if (i and 7 == 7) {
+                sink.writeByte(bits)
+                bits = 0
+            }
+        }
+        if (tasks.size and 7 != 0) sink.writeByte(bits)
+    }
+
+    private fun readPresence(source: ByteSource, rows: Int): BooleanArray {
+        val present = BooleanArray(rows)
+        var bits = 0
+        for (i in 0 until rows) {
+            if (i and 7 == 0) bits = source.readByte()
+            present[i] = bits and (1 shl (i and 7)) != 0
+        }
+        return present
+    }
+
+    internal enum class Encoding(val code: Int) {
+        DELTAS(1), VARINTS(2), STRINGS(3), NULLABLE_STRINGS(4), NULLABLE_DELTAS(5), DICTIONARY(6)
+    }
+
+    /** Column ids are part of the file format: never renumber, only add. */
+    internal enum class Column(val id: Int, val encoding: Encoding) {
+        ID(1, Encoding.DELTAS),
+        TITLE(2, Encoding.STRINGS),
+        DESCRIPTION(3, Encoding.NULLABLE_STRINGS),
+        DUE_DATE_TIME(4, Encoding.NULLABLE_DELTAS),
+        PRIORITY(5, Encoding.VARINTS),
+        STATUS(6, Encoding.DICTIONARY),
+        REMINDER_TIME(7, Encoding.NULLABLE_DELTAS),
+        CREATED_AT(8, Encoding.DELTAS),
+        DELETED_AT(9, Encoding.NULLABLE_DELTAS),
+        COMPLETED_AT(10, Encoding.NULLABLE_DELTAS),
+        RECURRENCE_RULE(11, Encoding.DICTIONARY),
+        SYNC_ID(12, Encoding.STRINGS),
+        UPDATED_AT(13, Encoding.DELTAS);
+
+        companion object {
+            private val byId = values().associateBy { it.id }
+
+            fun forId(id: Int): Column? = byId[id]
+        }
+    }
+
+    private val MAGIC = byteArrayOf('T'.code.toByte(), 'S'.code.toByte(), 'N'.code.toByte(), 'P'.code.toByte())
+    private const val HEADER_SIZE = 24
+    private const val BLOCK_HEADER_SIZE = 12
+}
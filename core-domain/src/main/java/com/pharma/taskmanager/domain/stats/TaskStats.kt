@@ -0,0 +1,44 @@
+package com.pharma.taskmanager.domain.stats
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+
+data class TaskStats(
+    val total: Int = 0,
+    val pending: Int = 0,
+    val completed: Int = 0,
+    val highPriority: Int = 0,
+    val overdue: Int = 0
+) {
+    companion object {
+        /**
+         * Aggregate all counters in a single pass over the list.
+         * @param now Reference time for the overdue counter
+         */
+        fun from(tasks: List<TaskEntity>, now: Long): TaskStats {
+            var pending = 0
+            var completed = 0
+            var highPriority = 0
+            var overdue = 0
+            
+            for (task in tasks) {
+                when (task.status) {
+                    TaskConstants.STATUS_PENDING -> {
+                        pending++
+                        if (task.dueDateTime != null && task.dueDateTime < now) overdue++
+                    }
+                    TaskConstants.STATUS_COMPLETED -> completed++
+                }
+                if (task.priority == TaskConstants.PRIORITY_HIGH) highPriority++
+            }
+            
+            return TaskStats(
+                total = tasks.size,
+                pending = pending,
+                completed = completed,
+                highPriority = highPriority,
+                overdue = overdue
+            )
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.pharma.taskmanager.domain.sync
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import java.util.UUID
+
+/**
+ * [SyncStore] over plain collections: the reference for what the Room store does with
+ * triggers, and the device in loopback tests and benchmarks. [save] and [delete] are the
+ * local writes that the change log records.
+ */
+class InMemorySyncStore(
+    private val clock: () -> Long = System::currentTimeMillis
+) : SyncStore {
+
+    private class Change(val seq: Long, val syncId: String, val deleted: Boolean, val changedAt: Long)
+
+    private val tasks = LinkedHashMap<String, TaskEntity>()
+    private val changes = ArrayDeque<Change>()
+    // Hard deletes not pushed yet: the row is gone, but its clock still counts against remote deltas
+    private val pendingDeletes = HashMap<String, Change>()
+    private var nextSeq = 1L
+    private var nextId = 1
+    private var pushedSeq = 0L
+    private var pullCursor = 0L
+
+    /**
+     * Insert or update [task] as a local edit: it gets a syncId if it has none, and an
+     * updatedAt past its previous one, as the database triggers would give it.
+     */
+    @Synchronized
+    fun save(task: TaskEntity): TaskEntity {
+        val syncId = task.syncId.ifEmpty { UUID.randomUUID().toString() }
+        val previous = tasks[syncId]
+        val now = clock()
+        val saved = task.copy(
+            id = previous?.id ?: nextId++,
+            syncId = syncId,
+            updatedAt = if (previous == null) now else maxOf(previous.updatedAt + 1, now)
+        )
+        tasks[syncId] = saved
+        log(syncId, deleted = false, saved.updatedAt)
+        return saved
+    }
+
+    /** Delete the task outright (not a tombstone) as a local edit. */
+    @Synchronized
+    fun delete(syncId: String) {
+        val previous = tasks.remove(syncId) ?: return
+        pendingDeletes[syncId] = log(syncId, deleted = true, maxOf(previous.updatedAt + 1, clock()))
+    }
+
+    @Synchronized
+    fun get(syncId: String): TaskEntity? = tasks[syncId]
+
+    @Synchronized
+    fun tasks(): List<TaskEntity> = tasks.values.toList()
+
+    @Synchronized
+    fun pendingChangeCount(): Int = changes.size
+
+    override suspend fun checkpoint(): SyncCheckpoint = synchronized(this) { SyncCheckpoint(pushedSeq, pullCursor) }
+
+    override suspend fun pendingChanges(afterSeq: Long, limit: Int): PendingChanges = synchronized(this) {
+        val batch = changes.asSequence().dropWhile { it.seq <= afterSeq }.take(limit).toList()
+        if (batch.isEmpty()) return@synchronized PendingChanges(emptyList(), afterSeq)
+        // Latest change per task wins within the batch; the delta carries the current row
+        val latest = LinkedHashMap<String, Change>()
+        for (change in batch) latest[change.syncId] = change
+        val deltas = latest.values.mapNotNull { change ->
+            val task = tasks[change.syncId]
+            when {
+                task != null -> TaskDelta.upsert(task)
+                change.deleted -> TaskDelta.delete(change.syncId, change.changedAt)
+                else -> null // Deleted by a later change, which a later batch carries
+            }
+        }
+        PendingChanges(deltas, batch.last().seq)
+    }
+
+    override suspend fun markPushed(seq: Long): Unit = synchronized(this) {
+        pushedSeq = maxOf(pushedSeq, seq)
+        while (changes.isNotEmpty() && changes.first().seq <= seq) changes.removeFirst()
+        pendingDeletes.values.removeAll { it.seq <= seq }
+    }
+
+    override suspend fun applyRemote(deltas: List<TaskDelta>, pullCursor: Long?): Int = synchronized(this) {
+        var applied = 0
+        for (delta in deltas) {
+            val local = tasks[delta.syncId]
+            val localUpdatedAt = local?.updatedAt ?: pendingDeletes[delta.syncId]?.changedAt
+            if (!delta.winsOver(localUpdatedAt)) continue
+            val task = delta.task
+            if (task == null) {
+                if (tasks.remove(delta.syncId) == null) continue
+            } else {
+                tasks[delta.syncId] = task.copy(id = local?.id ?: nextId++)
+            }
+            applied++
+        }
+        if (pullCursor != null) this.pullCursor = pullCursor
+        applied
+    }
+
+    private fun log(syncId: String, deleted: Boolean, changedAt: Long): Change =
+        Change(nextSeq++, syncId, deleted, changedAt).also { changes.add(it) }
+}
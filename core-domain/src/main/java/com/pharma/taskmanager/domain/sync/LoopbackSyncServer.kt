@@ -0,0 +1,78 @@
+package com.pharma.taskmanager.domain.sync
+
+/**
+ * In-process stand-in for the sync server, for tests, benchmarks and single-device builds.
+ * It decodes and re-encodes every body like a real server would, so the codec and the
+ * byte counts are exercised end to end.
+ *
+ * The server keeps an append-only log of accepted deltas (a pull cursor is a position in
+ * it) and, per task, the entry that currently wins. A push is accepted only if it is strictly newer than the winner, so on
+ * equal clocks the first copy to arrive stays and is sent back to the losing device.
+ */
+class LoopbackSyncServer : SyncTransport {
+
+    private class Entry(val origin: String, val delta: TaskDelta)
+
+    private val log = ArrayList<Entry>()
+    private val latest = HashMap<String, Entry>()
+
+    @Volatile
+    var bytesReceived = 0L
+        private set
+
+    @Volatile
+    var bytesSent = 0L
+        private set
+
+    override suspend fun push(deviceId: String, batch: ByteArray): PushResponse {
+        val deltas = SyncCodec.decode(batch)
+        val rejected = ArrayList<TaskDelta>()
+        synchronized(this) {
+            bytesReceived += batch.size
+            for (delta in deltas) {
+                val current = latest[delta.syncId]
+                when {
+                    current == null || delta.updatedAt > current.delta.updatedAt -> {
+                        val entry = Entry(deviceId, delta)
+                        log.add(entry)
+                        latest[delta.syncId] = entry
+                    }
+                    // A re-sent delta the server already has (push retried after a lost reply)
+                    current.delta == delta -> Unit
+                    else -> rejected.add(current.delta)
+                }
+            }
+        }
+        val body = SyncCodec.encode(rejected)
+        synchronized(this) { bytesSent += body.size }
+        return PushResponse(body)
+    }
+
+    override suspend fun pull(deviceId: String, cursor: Long, limit: Int): PullResponse {
+        require(limit > 0) { "limit must be positive" }
+        val deltas = ArrayList<TaskDelta>()
+        val next: Long
+        val hasMore: Boolean
+        synchronized(this) {
+            var index = cursor.coerceIn(0L, log.size.toLong()).toInt()
+            while (index < log.size && deltas.size < limit) {
+                val entry = log[index++]
+                // Superseded entries are skipped: the later one is in the log too
+                if (entry.origin != deviceId && latest[entry.delta.syncId] === entry) deltas.add(entry.delta)
+            }
+            next = index.toLong()
+            hasMore = index < log.size
+        }
+        val body = SyncCodec.encode(deltas)
+        synchronized(this) { bytesSent += body.size }
+        return PullResponse(body, next, hasMore)
+    }
+
+    /** The version of the task the server currently holds, if any. */
+    @Synchronized
+    fun current(syncId: String): TaskDelta? = latest[syncId]?.delta
+
+    /** Number of tasks the server knows about, deleted ones included. */
+    @Synchronized
+    fun size(): Int = latest.size
+}
@@ -0,0 +1,80 @@
+package com.pharma.taskmanager.domain.sync
+
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import kotlinx.coroutines.ensureActive
+import kotlin.coroutines.coroutineContext
+
+/**
+ * Two-way delta sync between a [SyncStore] and a server behind a [SyncTransport].
+ *
+ * Push first: local changes since the pushed checkpoint go up in batches of [batchSize],
+ * and the checkpoint moves after each acknowledged batch. Deltas the server rejected come
+ * back with the winning version, which is applied locally. Then pull: other devices'
+ * changes since the pull cursor come down in batches, each applied together with the
+ * cursor it leads to. A sync cut short resumes from the last checkpoint; repeating a batch
+ * is harmless because applying the same delta twice changes nothing.
+ */
+class SyncEngine(
+    private val store: SyncStore,
+    private val transport: SyncTransport,
+    private val deviceId: String,
+    private val batchSize: Int = DEFAULT_BATCH_SIZE
+) {
+
+    init {
+        require(batchSize > 0) { "batchSize must be positive" }
+    }
+
+    data class SyncResult(
+        val pushed: Int,
+        val pulled: Int,
+        /** Local changes the server rejected in favour of a newer (or first-arrived) version. */
+        val conflicts: Int,
+        val bytesSent: Long,
+        val bytesReceived: Long
+    )
+
+    suspend fun sync(): SyncResult = DomainTrace.asyncSection("SyncEngine.sync") {
+        var pushed = 0
+        var pulled = 0
+        var conflicts = 0
+        var bytesSent = 0L
+        var bytesReceived = 0L
+
+        val checkpoint = store.checkpoint()
+        var seq = checkpoint.pushedSeq
+        while (true) {
+            coroutineContext.ensureActive()
+            val pending = store.pendingChanges(seq, batchSize)
+            if (pending.lastSeq == seq) break
+            if (pending.deltas.isNotEmpty()) {
+                val body = SyncCodec.encode(pending.deltas)
+                val response = transport.push(deviceId, body)
+                bytesSent += body.size
+                bytesReceived += response.rejected.size
+                val rejected = SyncCodec.decode(response.rejected)
+                if (rejected.isNotEmpty()) store.applyRemote(rejected, pullCursor = null)
+                pushed += pending.deltas.size - rejected.size
+                conflicts += rejected.size
+            }
+            store.markPushed(pending.lastSeq)
+            seq = pending.lastSeq
+        }
+
+        var cursor = checkpoint.pullCursor
+        do {
+            coroutineContext.ensureActive()
+            val response = transport.pull(deviceId, cursor, batchSize)
+            bytesReceived += response.batch.size
+            val deltas = SyncCodec.decode(response.batch)
+            pulled += store.applyRemote(deltas, response.cursor)
+            cursor = response.cursor
+        } while (response.hasMore)
+
+        SyncResult(pushed, pulled, conflicts, bytesSent, bytesReceived)
+    }
+
+    companion object {
+        const val DEFAULT_BATCH_SIZE = 500
+    }
+}
@@ -0,0 +1,33 @@
+package com.pharma.taskmanager.domain.sync
+
+/**
+ * The local side of sync: a change log with increasing sequence numbers, the checkpoints,
+ * and last-writer-wins application of remote deltas. The app implements it over the
+ * task_changes table; [InMemorySyncStore] is the reference implementation.
+ */
+interface SyncStore {
+
+    /** Where the last sync stopped: the last change pushed and the server's pull cursor. */
+    suspend fun checkpoint(): SyncCheckpoint
+
+    /**
+     * Changes logged after [afterSeq], reading at most [limit] log entries, coalesced to the
+     * current state of each task. [PendingChanges.lastSeq] is the last entry read, or
+     * [afterSeq] when the log has nothing newer.
+     */
+    suspend fun pendingChanges(afterSeq: Long, limit: Int): PendingChanges
+
+    /** Record that every change up to [seq] reached the server; the log may drop them. */
+    suspend fun markPushed(seq: Long)
+
+    /**
+     * Apply [deltas] where they win over the local row ([TaskDelta.winsOver]), without
+     * logging them as local changes, and save [pullCursor] in the same transaction (unless
+     * null). Returns the number of deltas applied.
+     */
+    suspend fun applyRemote(deltas: List<TaskDelta>, pullCursor: Long?): Int
+}
+
+data class SyncCheckpoint(val pushedSeq: Long, val pullCursor: Long)
+
+data class PendingChanges(val deltas: List<TaskDelta>, val lastSeq: Long)
@@ -0,0 +1,32 @@
+package com.pharma.taskmanager.domain.sync
+
+/**
+ * Carries encoded [SyncCodec] batches to and from a sync server. Bodies stay opaque bytes
+ * here so an HTTP implementation can pass them straight through as request and response
+ * bodies; [LoopbackSyncServer] is the in-process implementation.
+ */
+interface SyncTransport {
+
+    /**
+     * Offer a batch of local changes. The server keeps each delta that is newer than its
+     * copy of the task and answers with its own copy of every task where the delta lost.
+     */
+    suspend fun push(deviceId: String, batch: ByteArray): PushResponse
+
+    /**
+     * Changes other devices pushed after [cursor], at most [limit] of them, with the cursor
+     * to resume from. Only the latest version of each task is sent.
+     */
+    suspend fun pull(deviceId: String, cursor: Long, limit: Int): PullResponse
+}
+
+class PushResponse(
+    /** Encoded batch of the server's winning versions (an empty batch when every delta was kept). */
+    val rejected: ByteArray
+)
+
+class PullResponse(
+    val batch: ByteArray,
+    val cursor: Long,
+    val hasMore: Boolean
+)
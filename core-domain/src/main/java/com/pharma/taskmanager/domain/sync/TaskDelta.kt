@@ -0,0 +1,30 @@
+package com.pharma.taskmanager.domain.sync
+
+import com.pharma.taskmanager.data.database.TaskEntity
+
+/**
+ * One task's state as it travels between devices: the full row for an insert or update
+ * (tombstones included), or no row at all when the task was deleted outright.
+ * [updatedAt] is the last-writer-wins clock; local ids never leave the device.
+ */
+data class TaskDelta(
+    val syncId: String,
+    val updatedAt: Long,
+    val task: TaskEntity?
+) {
+    val isDelete: Boolean get() = task == null
+
+    /** True if this delta should replace a local row last written at [localUpdatedAt]. */
+    fun winsOver(localUpdatedAt: Long?): Boolean =
+        // Ties go to the incoming side: the server settles ties, so every device ends up with its copy
+        localUpdatedAt == null || updatedAt >= localUpdatedAt
+
+    companion object {
+        fun upsert(task: TaskEntity): TaskDelta {
+            require(task.syncId.isNotEmpty()) { "Task ${task.id} has no syncId" }
+            return TaskDelta(task.syncId, task.updatedAt, task.copy(id = 0))
+        }
+
+        fun delete(syncId: String, deletedAt: Long): TaskDelta = TaskDelta(syncId, deletedAt, null)
+    }
+}
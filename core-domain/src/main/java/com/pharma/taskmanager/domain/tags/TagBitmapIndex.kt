@@ -0,0 +1,138 @@
+package com.pharma.taskmanager.domain.tags
+
+import java.util.BitSet
+
+/**
+ * Which tasks carry which tags, as one bitmap per tag over dense task ordinals. Combining
+ * filter chips is then a word-wise OR (any-of) or AND (all-of) of a few bitmaps, with no
+ * join against task_tags per keystroke.
+ *
+ * Ordinals are handed out as a task gains its first tag and recycled when it loses its last,
+ * so the bitmaps are only as wide as the number of tagged tasks. Not thread-safe: build one
+ * per task_tags emission, or confine updates to one thread.
+ */
+class TagBitmapIndex {
+
+    /**
+     * Tasks picked by a tag filter. Reads the index's ordinals, so it is only valid until
+     * the next change to the index.
+     */
+    inner class Selection internal constructor(private val bits: BitSet) {
+        val size: Int get() = bits.cardinality()
+
+        operator fun contains(taskId: Int): Boolean {
+            val ordinal = ordinalOf[taskId] ?: return false
+            return bits[ordinal]
+        }
+
+        fun taskIds(): IntArray {
+            val ids = IntArray(bits.cardinality())
+            var next = 0
+            var ordinal = bits.nextSetBit(0)
+            while (ordinal >= 0) {
+                ids[next++] = taskAt[ordinal]
+                ordinal = bits.nextSetBit(ordinal + 1)
+            }
+            return ids
+        }
+    }
+
+    private val bitmaps = HashMap<Int, BitSet>()
+    private val ordinalOf = HashMap<Int, Int>()
+    private var taskAt = IntArray(INITIAL_CAPACITY)
+    private var tagsAt = IntArray(INITIAL_CAPACITY) // tags per ordinal, to know when it frees up
+    private val freeOrdinals = ArrayDeque<Int>()
+    private var nextOrdinal = 0
+
+    val tagIds: Set<Int> get() = bitmaps.keys
+
+    val taggedTaskCount: Int get() = ordinalOf.size
+
+    fun add(taskId: Int, tagId: Int) {
+        val ordinal = ordinalOf[taskId] ?: allocate(taskId)
+        val bitmap = bitmaps.getOrPut(tagId) { BitSet() }
+        if (!bitmap[ordinal]) {
+            bitmap.set(ordinal)
+            tagsAt[ordinal]++
+        }
+    }
+
+    fun remove(taskId: Int, tagId: Int) {
+        val ordinal = ordinalOf[taskId] ?: return
+        val bitmap = bitmaps[tagId] ?: return
+        if (bitmap[ordinal]) {
+            bitmap.clear(ordinal)
+            if (bitmap.isEmpty) bitmaps.remove(tagId)
+            if (--tagsAt[ordinal] == 0) release(taskId, ordinal)
+        }
+    }
+
+    /** Replace [taskId]'s tags with [tagIds]. */
+    fun setTags(taskId: Int, tagIds: Collection<Int>) {
+        tagsOf(taskId).filter { it !in tagIds }.forEach { remove(taskId, it) }
+        tagIds.forEach { add(taskId, it) }
+    }
+
+    fun removeTask(taskId: Int) {
+        tagsOf(taskId).forEach { remove(taskId, it) }
+    }
+
+    fun removeTag(tagId: Int) {
+        val bitmap = bitmaps.remove(tagId) ?: return
+        var ordinal = bitmap.nextSetBit(0)
+        while (ordinal >= 0) {
+            if (--tagsAt[ordinal] == 0) release(taskAt[ordinal], ordinal)
+            ordinal = bitmap.nextSetBit(ordinal + 1)
+        }
+    }
+
+    fun tagsOf(taskId: Int): List<Int> {
+        val ordinal = ordinalOf[taskId] ?: return emptyList()
+        return bitmaps.filter { (_, bitmap) -> bitmap[ordinal] }.keys.toList()
+    }
+
+    /** Tasks carrying at least one of [tagIds]. */
+    fun anyOf(tagIds: Collection<Int>): Selection = select(anyOf = tagIds, allOf = emptyList())
+
+    /** Tasks carrying every one of [tagIds]; no tasks for an empty set. */
+    fun allOf(tagIds: Collection<Int>): Selection = select(anyOf = emptyList(), allOf = tagIds)
+
+    /**
+     * Tasks carrying every tag in [allOf] and, if [anyOf] is not empty, at least one in it.
+     * With both empty nothing is selected; callers skip tag filtering in that case.
+     */
+    fun select(anyOf: Collection<Int>, allOf: Collection<Int>): Selection {
+        var bits: BitSet? = null
+        for (tagId in allOf) {
+            val bitmap = bitmaps[tagId] ?: return Selection(BitSet())
+            bits = bits?.apply { and(bitmap) } ?: bitmap.clone() as BitSet
+        }
+        if (anyOf.isNotEmpty()) {
+            val union = BitSet()
+            anyOf.forEach { tagId -> bitmaps[tagId]?.let { union.or(it) } }
+            bits = bits?.apply { and(union) } ?: union
+        }
+        return Selection(bits ?: BitSet())
+    }
+
+    private fun allocate(taskId: Int): Int {
+        val ordinal = freeOrdinals.removeLastOrNull() ?: nextOrdinal++
+        if (ordinal == taskAt.size) {
+            taskAt = taskAt.copyOf(ordinal * 2)
+            tagsAt = tagsAt.copyOf(ordinal * 2)
+        }
+        taskAt[ordinal] = taskId
+        tagsAt[ordinal] = 0
+        ordinalOf[taskId] = ordinal
+        return ordinal
+    }
+
+    private fun release(taskId: Int, ordinal: Int) {
+        ordinalOf.remove(taskId)
+        freeOrdinals.addLast(ordinal)
+    }
+
+    private companion object {
+        const val INITIAL_CAPACITY = 64
+    }
+}
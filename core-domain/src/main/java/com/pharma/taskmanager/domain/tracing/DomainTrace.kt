@@ -0,0 +1,64 @@
+package com.pharma.taskmanager.domain.tracing
+
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Receiver of trace events. The app installs an implementation backed by
+ * androidx.tracing; on a plain JVM (tests, benchmarks) nothing is recorded.
+ */
+interface TraceSink {
+    fun beginSection(name: String)
+    fun endSection()
+    fun beginAsyncSection(name: String, cookie: Int)
+    fun endAsyncSection(name: String, cookie: Int)
+}
+
+/**
+ * Tracing entry point usable from both the domain layer and the app.
+ *
+ * Use [section] for work that starts and ends on the same thread and [asyncSection]
+ * for suspending work, which may resume on another thread. For work handed over to
+ * another component (alarm -> worker -> notification) take a cookie with [nextCookie],
+ * pass it along and close the slice with [endAsync] on the other side.
+ */
+object DomainTrace {
+    
+    private object NoOpSink : TraceSink {
+        override fun beginSection(name: String) = Unit
+        override fun endSection() = Unit
+        override fun beginAsyncSection(name: String, cookie: Int) = Unit
+        override fun endAsyncSection(name: String, cookie: Int) = Unit
+    }
+    
+    @Volatile
+    var sink: TraceSink = NoOpSink
+    
+    private val cookies = AtomicInteger()
+    
+    fun nextCookie(): Int = cookies.incrementAndGet()
+    
+    fun beginAsync(name: String, cookie: Int) = sink.beginAsyncSection(name, cookie)
+    
+    fun endAsync(name: String, cookie: Int) = sink.endAsyncSection(name, cookie)
+    
+    inline fun <T> section(name: String, block: () -> T): T {
+        val currentSink = sink
+        currentSink.beginSection(name)
+        try {
+            return block()
+        } finally {
+            currentSink.endSection()
+        }
+    }
+    
+    inline fun <T> asyncSection(name: String, block: () -> T): T {
+        val currentSink = sink
+        val cookie = nextCookie()
+        currentSink.beginAsyncSection(name, cookie)
+        try {
+            return block()
+        } finally {
+            currentSink.endAsyncSection(name, cookie)
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.pharma.taskmanager.domain.tracing
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+
+/**
+ * Traces a (Room) flow: an async slice from collection start to the first emission,
+ * and a "<name>.emit" section around downstream processing of every emission.
+ */
+fun <T> Flow<T>.traceEmissions(name: String): Flow<T> {
+    val upstream = this
+    return flow {
+        val cookie = DomainTrace.nextCookie()
+        var first = true
+        DomainTrace.beginAsync(name, cookie)
+        try {
+            upstream.collect { value ->
+                if (first) {
+                    first = false
+                    DomainTrace.endAsync(name, cookie)
+                }
+                DomainTrace.asyncSection("$name.emit") { emit(value) }
+            }
+        } finally {
+            if (first) DomainTrace.endAsync(name, cookie)
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.pharma.taskmanager.domain.transfer
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import java.io.IOException
+import java.io.Reader
+import java.io.Writer
+
+/**
+ * RFC 4180 CSV with a header row. Timestamps are epoch milliseconds and an empty cell is
+ * null, so a file opened and re-saved in a spreadsheet still imports.
+ */
+class CsvTaskWriter(private val out: Writer) : TaskRecordWriter {
+
+    init {
+        out.write(TaskField.ALL.joinToString(",") { it.key })
+        out.write(LINE_END)
+    }
+
+    override fun write(task: TaskEntity) {
+        out.write(task.id.toString())
+        out.write(','.code)
+        writeText(task.title)
+        out.write(','.code)
+        writeText(task.description)
+        out.write(','.code)
+        writeLong(task.dueDateTime)
+        out.write(','.code)
+        out.write(task.priority.toString())
+        out.write(','.code)
+        writeText(task.status)
+        out.write(','.code)
+        writeLong(task.reminderTime)
+        out.write(','.code)
+        out.write(task.createdAt.toString())
+        out.write(','.code)
+        writeLong(task.completedAt)
+        out.write(','.code)
+        writeText(task.recurrenceRule)
+        out.write(LINE_END)
+    }
+
+    override fun flush() = out.flush()
+
+    override fun close() = out.close()
+
+    private fun writeLong(value: Long?) {
+        if (value != null) out.write(value.toString())
+    }
+
+    private fun writeText(value: String?) {
+        if (value == null) return
+        if (value.none { it == ',' || it == '"' || it == '\n' || it == '\r' }) {
+            out.write(value)
+            return
+        }
+        out.write('"'.code)
+        out.write(value.replace("\"", "\"\""))
+        out.write('"'.code)
+    }
+
+    private companion object {
+        const val LINE_END = "\r\n"
+    }
+}
+
+/**
+ * Reads CSV with a header row naming the columns (in any order; unknown ones are ignored).
+ * Quoted cells may span lines. Input is consumed through a fixed buffer, one row at a time.
+ */
+class CsvTaskReader(
+    private val input: Reader,
+    private val now: Long = System.currentTimeMillis()
+) : TaskRecordReader {
+
+    private val buffer = CharArray(BUFFER_SIZE)
+    private var bufferPos = 0
+    private var bufferEnd = 0
+
+    private val cells = ArrayList<String?>()
+    private val cell = StringBuilder()
+    private val values = arrayOfNulls<String>(TaskField.ALL.size)
+    private var columns: Array<TaskField?>? = null
+
+    override var recordNumber = 0L
+        private set
+
+    override fun read(): TaskEntity? {
+        val header = columns ?: readHeader() ?: return null
+        while (true) {
+            if (!readRow()) return null
+            // Header is row 1, so data rows are numbered as a spreadsheet shows them
+            recordNumber++
+            if (cells.size == 1 && cells[0] == null) continue
+            break
+        }
+        values.fill(null)
+        for (i in 0 until minOf(cells.size, header.size)) {
+            header[i]?.let { values[it.ordinal] = cells[i] }
+        }
+        return try {
+            TaskRecords.toTask(values, now)
+        } catch (e: IllegalArgumentException) {
+            throw MalformedRecordException(recordNumber, e.message ?: "invalid row")
+        }
+    }
+
+    override fun close() = input.close()
+
+    private fun readHeader(): Array<TaskField?>? {
+        if (!readRow()) return null
+        recordNumber++
+        // A UTF-8 BOM survives decoding as U+FEFF; spreadsheets like to add one
+        val names = cells.map { it?.removePrefix("\uFEFF")?.trim() }
+        val header = names.map { name -> name?.let { TaskField.forKey(it) } }.toTypedArray()
+        if (TaskField.TITLE !in header) throw IOException("CSV header has no title column: ${names.joinToString(",")}")
+        columns = header
+        return header
+    }
+
+    /** Reads one row into [cells]; false at end of input. Empty cells become null. */
+    private fun readRow(): Boolean {
+        cells.clear()
+        if (!fill()) return false
+        cell.setLength(0)
+        var quoted = false
+        while (true) {
+            if (!fill()) {
+                if (quoted) throw IOException("Unterminated quoted cell in row ${recordNumber + 1}")
+                endCell()
+                return true
+            }
+            val c = buffer[bufferPos++]
+            if (quoted) {
+                if (c == '"') {
+                    if (fill() && buffer[bufferPos] == '"') {
+                        cell.append('"')
+                        bufferPos++
+                    } else {
+                        quoted = false
+                    }
+                } else {
+                    cell.append(c)
+                }
+                continue
+            }
+            when (c) {
+                ',' -> endCell()
+                '\n' -> {
+                    endCell()
+                    return true
+                }
+                '\r' -> {
+                    if (fill() && buffer[bufferPos] == '\n') bufferPos++
+                    endCell()
+                    return true
+                }
+                '"' -> if (cell.isEmpty()) quoted = true else cell.append(c)
+                else -> cell.append(c)
+            }
+        }
+    }
+
+    private fun endCell() {
+        cells.add(if (cell.isEmpty()) null else cell.toString())
+        cell.setLength(0)
+    }
+
+    private fun fill(): Boolean {
+        if (bufferPos < bufferEnd) return true
+        val read = input.read(buffer)
+        if (read <= 0) return false
+        bufferPos = 0
+        bufferEnd = read
+        return true
+    }
+
+    private companion object {
+        const val BUFFER_SIZE = 64 * 1024
+    }
+}
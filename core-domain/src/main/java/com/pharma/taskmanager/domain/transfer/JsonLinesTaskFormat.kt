@@ -0,0 +1,207 @@
+package com.pharma.taskmanager.domain.transfer
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import java.io.BufferedReader
+import java.io.Reader
+import java.io.Writer
+
+/**
+ * One flat JSON object per line (JSON Lines). Each line is written and parsed on its own,
+ * so neither side ever holds more than one task.
+ */
+class JsonLinesTaskWriter(private val out: Writer) : TaskRecordWriter {
+
+    override fun write(task: TaskEntity) {
+        out.write("{\"id\":")
+        out.write(task.id.toString())
+        out.write(",\"title\":")
+        writeString(task.title)
+        out.write(",\"description\":")
+        writeString(task.description)
+        out.write(",\"dueDateTime\":")
+        writeLong(task.dueDateTime)
+        out.write(",\"priority\":")
+        out.write(task.priority.toString())
+        out.write(",\"status\":")
+        writeString(task.status)
+        out.write(",\"reminderTime\":")
+        writeLong(task.reminderTime)
+        out.write(",\"createdAt\":")
+        out.write(task.createdAt.toString())
+        out.write(",\"completedAt\":")
+        writeLong(task.completedAt)
+        out.write(",\"recurrenceRule\":")
+        writeString(task.recurrenceRule)
+        out.write("}\n")
+    }
+
+    override fun flush() = out.flush()
+
+    override fun close() = out.close()
+
+    private fun writeLong(value: Long?) {
+        out.write(value?.toString() ?: "null")
+    }
+
+    private fun writeString(value: String?) {
+        if (value == null) {
+            out.write("null")
+            return
+        }
+        out.write('"'.code)
+        var runStart = 0
+        for (i in value.indices) {
+            val c = value[i]
+            val escape = when {
+                c == '"' -> "\\\""
+                c == '\\' -> "\\\\"
+                c == '\n' -> "\\n"
+                c == '\r' -> "\\r"
+                c == '\t' -> "\\t"
+                c < ' ' -> "\\u%04x".format(c.code)
+                else -> continue
+            }
+            out.write(value, runStart, i - runStart)
+            out.write(escape)
+            runStart = i + 1
+        }
+        out.write(value, runStart, value.length - runStart)
+        out.write('"'.code)
+    }
+}
+
+/**
+ * Reads what [JsonLinesTaskWriter] writes, and any other flat objects with the same keys.
+ * Unknown keys are ignored; blank lines are skipped. Nested objects and arrays are rejected.
+ */
+class JsonLinesTaskReader(
+    input: Reader,
+    private val now: Long = System.currentTimeMillis()
+) : TaskRecordReader {
+
+    private val lines = input as? BufferedReader ?: BufferedReader(input, BUFFER_SIZE)
+    private val values = arrayOfNulls<String>(TaskField.ALL.size)
+    private val text = StringBuilder()
+
+    private var line = ""
+    private var pos = 0
+
+    override var recordNumber = 0L
+        private set
+
+    override fun read(): TaskEntity? {
+        while (true) {
+            line = lines.readLine() ?: return null
+            recordNumber++
+            if (recordNumber == 1L) line = line.removePrefix("\uFEFF")
+            if (line.isNotBlank()) break
+        }
+        return try {
+            parseLine()
+            TaskRecords.toTask(values, now)
+        } catch (e: IllegalArgumentException) {
+            throw MalformedRecordException(recordNumber, e.message ?: "invalid record")
+        }
+    }
+
+    override fun close() = lines.close()
+
+    private fun parseLine() {
+        values.fill(null)
+        pos = 0
+        skipWhitespace()
+        expect('{')
+        skipWhitespace()
+        if (peek() == '}') {
+            pos++
+        } else {
+            while (true) {
+                skipWhitespace()
+                val key = readString()
+                skipWhitespace()
+                expect(':')
+                skipWhitespace()
+                val value = readScalar()
+                TaskField.forKey(key)?.let { values[it.ordinal] = value }
+                skipWhitespace()
+                if (peek() == ',') {
+                    pos++
+                } else {
+                    expect('}')
+                    break
+                }
+            }
+        }
+        skipWhitespace()
+        require(pos == line.length) { "trailing characters after object" }
+    }
+
+    /** String, number, boolean or null; numbers and booleans come back as their text. */
+    private fun readScalar(): String? = when (val c = peek()) {
+        '"' -> readString()
+        '{', '[' -> throw IllegalArgumentException("nested values are not supported")
+        else -> {
+            val start = pos
+            while (pos < line.length && line[pos] != ',' && line[pos] != '}' && !line[pos].isWhitespace()) pos++
+            require(pos > start) { "missing value at column ${start + 1}" }
+            when (val token = line.substring(start, pos)) {
+                "null" -> null
+                "true", "false" -> token
+                else -> {
+                    require(c == '-' || c in '0'..'9') { "unexpected '$token'" }
+                    token
+                }
+            }
+        }
+    }
+
+    private fun readString(): String {
+        expect('"')
+        text.setLength(0)
+        while (true) {
+            require(pos < line.length) { "unterminated string" }
+            val c = line[pos++]
+            when (c) {
+                '"' -> return text.toString()
+                '\\' -> {
+                    require(pos < line.length) { "unterminated escape" }
+                    when (val e = line[pos++]) {
+                        '"', '\\', '/' -> text.append(e)
+                        'n' -> text.append('\n')
+                        'r' -> text.append('\r')
+                        't' -> text.append('\t')
+                        'b' -> text.append('\b')
+                        'f' -> text.append('\u000C')
+                        'u' -> {
+                            require(pos + 4 <= line.length) { "truncated \\u escape" }
+                            val code = line.substring(pos, pos + 4).toIntOrNull(16)
+                                ?: throw IllegalArgumentException("bad \\u escape")
+                            text.append(code.toChar())
+                            pos += 4
+                        }
+                        else -> throw IllegalArgumentException("bad escape \\$e")
+                    }
+                }
+                else -> text.append(c)
+            }
+        }
+    }
+
+    private fun peek(): Char {
+        require(pos < line.length) { "unexpected end of line" }
+        return line[pos]
+    }
+
+    private fun expect(c: Char) {
+        require(pos < line.length && line[pos] == c) { "expected '$c' at column ${pos + 1}" }
+        pos++
+    }
+
+    private fun skipWhitespace() {
+        while (pos < line.length && line[pos].isWhitespace()) pos++
+    }
+
+    private companion object {
+        const val BUFFER_SIZE = 64 * 1024
+    }
+}
@@ -0,0 +1,101 @@
+package com.pharma.taskmanager.domain.transfer
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.recurrence.RecurrenceRule
+import java.io.Closeable
+import java.io.Flushable
+
+/** Writes tasks one at a time; nothing is held beyond the underlying buffer. */
+interface TaskRecordWriter : Closeable, Flushable {
+    fun write(task: TaskEntity)
+}
+
+/** Reads tasks one record at a time. */
+interface TaskRecordReader : Closeable {
+
+    /** 1-based number of the record (JSON line or CSV row) last returned or rejected. */
+    val recordNumber: Long
+
+    /**
+     * The next task, or null at the end of the input. Imported tasks always have id 0 so
+     * they are inserted as new rows.
+     * @throws MalformedRecordException for a record that cannot be imported; the reader
+     * has consumed it and can keep going
+     */
+    fun read(): TaskEntity?
+}
+
+class MalformedRecordException(val recordNumber: Long, message: String) :
+    IllegalArgumentException("Record $recordNumber: $message")
+
+/**
+ * The exported columns, in file order. deletedAt is not among them: only live tasks are
+ * exported, and tombstones are not something to bring back on import.
+ */
+internal enum class TaskField(val key: String) {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    DUE_DATE_TIME("dueDateTime"),
+    PRIORITY("priority"),
+    STATUS("status"),
+    REMINDER_TIME("reminderTime"),
+    CREATED_AT("createdAt"),
+    COMPLETED_AT("completedAt"),
+    RECURRENCE_RULE("recurrenceRule");
+
+    companion object {
+        val ALL = values()
+        private val byKey = ALL.associateBy { it.key }
+
+        fun forKey(key: String): TaskField? = byKey[key]
+    }
+}
+
+internal object TaskRecords {
+
+    /**
+     * Build a task from raw field text, indexed by [TaskField.ordinal]. Missing timestamps
+     * fall back to [now] the same way a task created in the app would get them.
+     * @throws IllegalArgumentException describing the first bad field
+     */
+    fun toTask(values: Array<String?>, now: Long): TaskEntity {
+        val title = values[TaskField.TITLE.ordinal]
+        require(!title.isNullOrBlank()) { "title is required" }
+
+        val status = values[TaskField.STATUS.ordinal] ?: TaskConstants.STATUS_PENDING
+        require(status == TaskConstants.STATUS_PENDING || status == TaskConstants.STATUS_COMPLETED) {
+            "unknown status '$status'"
+        }
+
+        val priority = long(values, TaskField.PRIORITY)?.toInt() ?: TaskConstants.PRIORITY_MEDIUM
+        require(priority in TaskConstants.PRIORITY_LOW..TaskConstants.PRIORITY_HIGH) { "priority $priority out of range" }
+
+        val dueDateTime = long(values, TaskField.DUE_DATE_TIME)
+        val recurrenceRule = values[TaskField.RECURRENCE_RULE.ordinal]?.let { text ->
+            require(dueDateTime != null) { "recurrenceRule needs a dueDateTime" }
+            val rule = RecurrenceRule.parseOrNull(text) ?: throw IllegalArgumentException("unsupported recurrenceRule '$text'")
+            rule.format()
+        }
+
+        val completedAt = long(values, TaskField.COMPLETED_AT)
+        return TaskEntity(
+            id = 0,
+            title = title,
+            description = values[TaskField.DESCRIPTION.ordinal],
+            dueDateTime = dueDateTime,
+            priority = priority,
+            status = status,
+            reminderTime = long(values, TaskField.REMINDER_TIME),
+            createdAt = long(values, TaskField.CREATED_AT) ?: now,
+            completedAt = if (status == TaskConstants.STATUS_COMPLETED) completedAt ?: now else null,
+            recurrenceRule = recurrenceRule
+        )
+    }
+
+    private fun long(values: Array<String?>, field: TaskField): Long? {
+        val text = values[field.ordinal] ?: return null
+        return text.toLongOrNull() ?: throw IllegalArgumentException("${field.key} is not a number: '$text'")
+    }
+}
@@ -0,0 +1,132 @@
+package com.pharma.taskmanager.domain.transfer
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import kotlinx.coroutines.ensureActive
+import java.io.BufferedReader
+import java.io.Reader
+import java.io.Writer
+import kotlin.coroutines.coroutineContext
+
+enum class TaskTransferFormat(val extension: String, val mimeType: String) {
+    JSON_LINES("jsonl", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    fun newWriter(out: Writer): TaskRecordWriter = when (this) {
+        JSON_LINES -> JsonLinesTaskWriter(out)
+        CSV -> CsvTaskWriter(out)
+    }
+
+    fun newReader(input: Reader, now: Long = System.currentTimeMillis()): TaskRecordReader = when (this) {
+        JSON_LINES -> JsonLinesTaskReader(input, now)
+        CSV -> CsvTaskReader(input, now)
+    }
+}
+
+/**
+ * Streams tasks between the database and a file. Export pulls fixed-size chunks keyed on
+ * the last id seen; import hands fixed-size batches to the caller. Memory stays flat
+ * whether the file has a hundred rows or a million.
+ */
+object TaskTransfer {
+
+    data class ImportResult(
+        val imported: Long,
+        val skipped: Long,
+        /** The first few rejected records, for showing to the user. */
+        val errors: List<String>
+    )
+
+    /**
+     * Write every task [loadChunk] returns, [chunkSize] at a time in ascending id order.
+     * [loadChunk] gets the last id written (Int.MIN_VALUE first) and must return tasks with
+     * a greater id. [onProgress] is called with the running row count after each chunk.
+     * Returns the number of tasks written.
+     */
+    suspend fun export(
+        writer: TaskRecordWriter,
+        chunkSize: Int,
+        loadChunk: suspend (afterId: Int, limit: Int) -> List<TaskEntity>,
+        onProgress: suspend (written: Long) -> Unit = {}
+    ): Long {
+        require(chunkSize > 0) { "chunkSize must be positive" }
+        var afterId = Int.MIN_VALUE
+        var written = 0L
+        while (true) {
+            coroutineContext.ensureActive()
+            val chunk = loadChunk(afterId, chunkSize)
+            for (task in chunk) writer.write(task)
+            written += chunk.size
+            onProgress(written)
+            if (chunk.size < chunkSize) break
+            afterId = chunk.last().id
+        }
+        writer.flush()
+        return written
+    }
+
+    /**
+     * Read every record and pass valid tasks to [insertBatch], [batchSize] at a time.
+     * Malformed records are counted and skipped; I/O errors propagate, leaving the batches
+     * already inserted in place. [onProgress] is called after each batch.
+     */
+    suspend fun import(
+        reader: TaskRecordReader,
+        batchSize: Int,
+        insertBatch: suspend (List<TaskEntity>) -> Unit,
+        onProgress: suspend (ImportResult) -> Unit = {}
+    ): ImportResult {
+        require(batchSize > 0) { "batchSize must be positive" }
+        var batch = ArrayList<TaskEntity>(batchSize)
+        var imported = 0L
+        var skipped = 0L
+        val errors = ArrayList<String>()
+
+        suspend fun flushBatch() {
+            if (batch.isEmpty()) return
+            insertBatch(batch)
+            imported += batch.size
+            batch = ArrayList(batchSize)
+            onProgress(ImportResult(imported, skipped, errors.toList()))
+        }
+
+        while (true) {
+            val task = try {
+                reader.read() ?: break
+            } catch (e: MalformedRecordException) {
+                skipped++
+                if (errors.size < MAX_REPORTED_ERRORS) errors.add(e.message.orEmpty())
+                continue
+            }
+            batch.add(task)
+            if (batch.size == batchSize) {
+                coroutineContext.ensureActive()
+                flushBatch()
+            }
+        }
+        flushBatch()
+        return ImportResult(imported, skipped, errors)
+    }
+
+    /**
+     * A reader for [input], picking the format from its first non-blank character:
+     * JSON Lines starts with '{', anything else is taken as a CSV header.
+     */
+    fun openReader(input: Reader, now: Long = System.currentTimeMillis()): TaskRecordReader {
+        val buffered = input as? BufferedReader ?: BufferedReader(input, SNIFF_BUFFER_SIZE)
+        buffered.mark(SNIFF_LIMIT)
+        var first: Int
+        var scanned = 0
+        do {
+            first = buffered.read()
+            scanned++
+        } while (first != -1 && scanned < SNIFF_LIMIT && (Character.isWhitespace(first) || first == BOM))
+        buffered.reset()
+        val format = if (first == '{'.code) TaskTransferFormat.JSON_LINES else TaskTransferFormat.CSV
+        return format.newReader(buffered, now)
+    }
+
+    private const val MAX_REPORTED_ERRORS = 20
+    private const val SNIFF_BUFFER_SIZE = 64 * 1024
+    private const val SNIFF_LIMIT = 4096
+    private const val BOM = 0xFEFF
+}
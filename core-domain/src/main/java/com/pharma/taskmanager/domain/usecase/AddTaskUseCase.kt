@@ -0,0 +1,83 @@
+package com.pharma.taskmanager.domain.usecase
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.recurrence.RecurrenceRule
+import com.pharma.taskmanager.domain.repository.TaskRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import javax.inject.Inject
+
+class AddTaskUseCase @Inject constructor(
+    private val repository: TaskRepository
+) {
+    
+    suspend operator fun invoke(
+        title: String,
+        description: String? = null,
+        dueDateTime: Long? = null,
+        priority: Int = TaskConstants.PRIORITY_MEDIUM,
+        reminderTime: Long? = null,
+        recurrenceRule: String? = null
+    ): Result<Long> {
+        return DomainTrace.asyncSection("AddTaskUseCase.invoke") {
+            try {
+                // Validate input
+                if (title.isBlank()) {
+                    return Result.failure(IllegalArgumentException("Title cannot be empty"))
+                }
+            
+                if (!TaskConstants.isValidPriority(priority)) {
+                    return Result.failure(IllegalArgumentException("Invalid priority value"))
+                }
+            
+                // A series is anchored at the due time and stored in canonical form
+                val rule = recurrenceRule?.let {
+                    if (dueDateTime == null) {
+                        return Result.failure(IllegalArgumentException("A recurring task needs a due date"))
+                    }
+                    RecurrenceRule.parse(it).format()
+                }
+            
+                // Create task entity
+                val task = TaskEntity(
+                    title = title.trim(),
+                    description = description?.trim(),
+                    dueDateTime = dueDateTime,
+                    priority = priority,
+                    status = TaskConstants.STATUS_PENDING,
+                    reminderTime = reminderTime,
+                    recurrenceRule = rule
+                )
+            
+                val taskId = repository.addTask(task)
+                Result.success(taskId)
+            } catch (e: Exception) {
+                Result.failure(e)
+            }
+        }
+    }
+    
+    suspend fun invoke(task: TaskEntity): Result<Long> {
+        return DomainTrace.asyncSection("AddTaskUseCase.invoke") {
+            try {
+                // Validate task
+                if (task.title.isBlank()) {
+                    return Result.failure(IllegalArgumentException("Title cannot be empty"))
+                }
+            
+                if (!TaskConstants.isValidPriority(task.priority)) {
+                    return Result.failure(IllegalArgumentException("Invalid priority value"))
+                }
+            
+                if (!TaskConstants.isValidStatus(task.status)) {
+                    return Result.failure(IllegalArgumentException("Invalid status value"))
+                }
+            
+                val taskId = repository.addTask(task)
+                Result.success(taskId)
+            } catch (e: Exception) {
+                Result.failure(e)
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.pharma.taskmanager.domain.usecase
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.repository.TaskRepository
+import com.pharma.taskmanager.domain.tracing.DomainTrace
+import javax.inject.Inject
+
+class DeleteTaskUseCase @Inject constructor(
+    private val repository: TaskRepository
+) {
+    
+    suspend operator fun invoke(task: TaskEntity): Result<Unit> {
+        return DomainTrace.asyncSection("DeleteTaskUseCase.invoke") {
+            try {
+                // Check if task exists
+                val existingTask = repository.getTaskById(task.id)
+                if (existingTask == null) {
+                    return Result.failure(IllegalArgumentException("Task with ID ${task.id} not found"))
+                }
+            
+                repository.deleteTask(task)
+                Result.success(Unit)
+            } catch (e: Exception) {
+                Result.failure(e)
+            }
+        }
+    }
+    
+    suspend fun deleteById(taskId: Int): Result<Unit> {
+        return DomainTrace.asyncSection("DeleteTaskUseCase.deleteById") {
+            try {
+                // Get task first to ensure it exists
+                val existingTask = repository.getTaskById(taskId)
+                if (existingTask == null) {
+                    return Result.failure(IllegalArgumentException("Task with ID $taskId not found"))
+                }
+            
+                repository.deleteTask(existingTask)
+                Result.success(Unit)
+            } catch (e: Exception) {
+                Result.failure(e)
+            }
+        }
+    }
+    
+    // Undo a delete: the tombstoned row comes back with its original id and ordering
+    suspend fun restore(taskId: Int): Result<Unit> {
+        return DomainTrace.asyncSection("DeleteTaskUseCase.restore") {
+            try {
+                repository.restoreTask(taskId)
+                Result.success(Unit)
+            } catch (e: Exception) {
+                Result.failure(e)
+            }
+        }
+    }
+    
+    suspend fun deleteCompletedTasks(): Result<Unit> {
+        return DomainTrace.asyncSection("DeleteTaskUseCase.deleteCompletedTasks") {
+            try {
+                repository.deleteCompletedTasks()
+                Result.success(Unit)
+            } catch (e: Exception) {
+                Result.failure(e)
+            }
+        }
+    }
+    
+    suspend fun deleteMultipleTasks(tasks: List<TaskEntity>): Result<Unit> {
+        return DomainTrace.asyncSection("DeleteTaskUseCase.deleteMultipleTasks") {
+            try {
+                tasks.forEach { task ->
+                    val existingTask = repository.getTaskById(task.id)
+                    if (existingTask != null) {
+                        repository.deleteTask(task)
+                    }
+                }
+                Result.success(Unit)
+            } catch (e: Exception) {
+                Result.failure(e)
+            }
+        }
+    }
+    
+    suspend fun deleteTasksByIds(taskIds: List<Int>): Result<Unit> {
+        return DomainTrace.asyncSection("DeleteTaskUseCase.deleteTasksByIds") {
+            try {
+                taskIds.forEach { taskId ->
+                    val existingTask = repository.getTaskById(taskId)
+                    if (existingTask != null) {
+                        repository.deleteTask(existingTask)
+                    }
+                }
+                Result.success(Unit)
+            } catch (e: Exception) {
+                Result.failure(e)
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,10 +1,16 @@
 package com.pharma.taskmanager.domain.usecase
 
 import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.changes.TaskChangeSet
 import com.pharma.taskmanager.domain.repository.TaskRepository
 import kotlinx.coroutines.flow.Flow
 import javax.inject.Inject
 
+/**
+ * Read-side entry point for task lists. Not traced here: the repository flows already
+ * trace time to first emission and every emission (traceEmissions), and a section around
+ * building a cold flow would time nothing.
+ */
 class GetTasksUseCase @Inject constructor(
     private val repository: TaskRepository
 ) {
@@ -13,6 +19,10 @@ class GetTasksUseCase @Inject constructor(
         return repository.getAllTasks()
     }
     
+    fun changes(): Flow<TaskChangeSet> {
+        return repository.observeTaskChanges()
+    }
+    
     fun getPendingTasks(): Flow<List<TaskEntity>> {
         return repository.getPendingTasks()
     }
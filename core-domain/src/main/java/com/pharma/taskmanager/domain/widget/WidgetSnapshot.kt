@@ -0,0 +1,70 @@
+package com.pharma.taskmanager.domain.widget
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+
+/**
+ * What the home-screen widget shows, precomputed so the widget renders from a small file
+ * without opening the database: pending tasks due by the end of today (overdue first, then
+ * by due time), the first [MAX_ITEMS] of them with just the columns a row needs.
+ */
+data class WidgetSnapshot(
+    val generatedAt: Long,
+    val validUntil: Long, // End of the day it was built for; a later day needs a rebuild
+    val overdue: Int,
+    val dueToday: Int,
+    val items: List<Item>
+) {
+
+    data class Item(
+        val id: Int,
+        val title: String,
+        val dueDateTime: Long,
+        val priority: Int,
+        val recurring: Boolean,
+        val hasReminder: Boolean
+    )
+
+    /** The snapshot with [taskId] gone, as the widget shows it right after completing it. */
+    fun without(taskId: Int): WidgetSnapshot {
+        val item = items.find { it.id == taskId } ?: return this
+        val wasOverdue = item.dueDateTime < generatedAt
+        return copy(
+            items = items - item,
+            overdue = if (wasOverdue) overdue - 1 else overdue,
+            dueToday = if (wasOverdue) dueToday else dueToday - 1
+        )
+    }
+
+    companion object {
+        const val MAX_ITEMS = 10
+        const val MAX_TITLE_LENGTH = 80
+
+        /** Build from the pending tasks due by [endOfDay]; other rows are skipped. */
+        fun from(tasks: List<TaskEntity>, now: Long, endOfDay: Long): WidgetSnapshot {
+            val due = tasks
+                .filter { task ->
+                    task.status == TaskConstants.STATUS_PENDING && task.deletedAt == null &&
+                        task.dueDateTime != null && task.dueDateTime <= endOfDay
+                }
+                .sortedWith(compareBy<TaskEntity> { it.dueDateTime }.thenByDescending { it.priority }.thenBy { it.id })
+            val overdue = due.count { it.dueDateTime!! < now }
+            return WidgetSnapshot(
+                generatedAt = now,
+                validUntil = endOfDay,
+                overdue = overdue,
+                dueToday = due.size - overdue,
+                items = due.take(MAX_ITEMS).map { task ->
+                    Item(
+                        id = task.id,
+                        title = task.title.take(MAX_TITLE_LENGTH),
+                        dueDateTime = task.dueDateTime!!,
+                        priority = task.priority,
+                        recurring = task.recurrenceRule != null,
+                        hasReminder = task.reminderTime != null
+                    )
+                }
+            )
+        }
+    }
+}
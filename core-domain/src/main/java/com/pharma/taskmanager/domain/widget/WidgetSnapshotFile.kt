@@ -0,0 +1,105 @@
+package com.pharma.taskmanager.domain.widget
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.EOFException
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.util.zip.CRC32
+
+/**
+ * A [WidgetSnapshot] on disk: a magic number, a version byte, the fields, and a CRC32 of
+ * everything before it. The file is a few hundred bytes, so it is read and written whole;
+ * writes go to a temp file that is renamed over the old one, so the widget never reads a
+ * half-written snapshot. Anything unreadable (missing, damaged, an older version) reads as
+ * null and the widget falls back to asking for a rebuild.
+ */
+class WidgetSnapshotFile(private val file: File) {
+
+    fun read(): WidgetSnapshot? {
+        if (!file.isFile) return null
+        return try {
+            decode(file.readBytes())
+        } catch (e: IOException) {
+            null
+        }
+    }
+
+    fun write(snapshot: WidgetSnapshot) {
+        val dir = file.parentFile!!
+        if (!dir.isDirectory && !dir.mkdirs() && !dir.isDirectory) throw IOException("Cannot create $dir")
+        val temp = File(dir, "${file.name}.tmp")
+        try {
+            FileOutputStream(temp).use { out ->
+                out.write(encode(snapshot))
+                out.fd.sync()
+            }
+            if (!temp.renameTo(file)) throw IOException("Cannot move $temp to $file")
+        } finally {
+            temp.delete()
+        }
+    }
+
+    fun delete(): Boolean = file.delete()
+
+    companion object {
+        private const val MAGIC = 0x544D5753 // "TMWS"
+        private const val VERSION = 1
+
+        fun encode(snapshot: WidgetSnapshot): ByteArray {
+            val bytes = ByteArrayOutputStream(64 + snapshot.items.size * 48)
+            DataOutputStream(bytes).use { out ->
+                out.writeInt(MAGIC)
+                out.writeByte(VERSION)
+                out.writeLong(snapshot.generatedAt)
+                out.writeLong(snapshot.validUntil)
+                out.writeInt(snapshot.overdue)
+                out.writeInt(snapshot.dueToday)
+                out.writeByte(snapshot.items.size)
+                for (item in snapshot.items) {
+                    out.writeInt(item.id)
+                    out.writeUTF(item.title)
+                    out.writeLong(item.dueDateTime)
+                    out.writeByte(item.priority)
+                    out.writeBoolean(item.recurring)
+                    out.writeBoolean(item.hasReminder)
+                }
+                val crc = CRC32().apply { update(bytes.toByteArray()) }
+                out.writeInt(crc.value.toInt())
+            }
+            return bytes.toByteArray()
+        }
+
+        fun decode(bytes: ByteArray): WidgetSnapshot {
+            if (bytes.size < 4) throw IOException("Truncated widget snapshot")
+            val crc = CRC32().apply { update(bytes, 0, bytes.size - 4) }
+            val input = DataInputStream(ByteArrayInputStream(bytes))
+            try {
+                if (input.readInt() != MAGIC) throw IOException("Not a widget snapshot")
+                val version = input.readUnsignedByte()
+                if (version != VERSION) throw IOException("Unsupported widget snapshot version $version")
+                val generatedAt = input.readLong()
+                val validUntil = input.readLong()
+                val overdue = input.readInt()
+                val dueToday = input.readInt()
+                val items = List(input.readUnsignedByte()) {
+                    WidgetSnapshot.Item(
+                        id = input.readInt(),
+                        title = input.readUTF(),
+                        dueDateTime = input.readLong(),
+                        priority = input.readUnsignedByte(),
+                        recurring = input.readBoolean(),
+                        hasReminder = input.readBoolean()
+                    )
+                }
+                if (input.readInt() != crc.value.toInt() || input.read() != -1) throw IOException("Damaged widget snapshot")
+                return WidgetSnapshot(generatedAt, validUntil, overdue, dueToday, items)
+            } catch (e: EOFException) {
+                throw IOException("Truncated widget snapshot")
+            }
+        }
+    }
+}
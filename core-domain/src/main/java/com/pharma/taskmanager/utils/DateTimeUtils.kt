@@ -94,4 +94,11 @@ object DateTimeUtils {
         calendar.set(Calendar.MILLISECOND, 999)
         return calendar.timeInMillis
     }
+    
+    fun addDays(timestamp: Long, days: Int): Long {
+        val calendar = Calendar.getInstance()
+        calendar.timeInMillis = timestamp
+        calendar.add(Calendar.DAY_OF_YEAR, days)
+        return calendar.timeInMillis
+    }
 }
\ No newline at end of file
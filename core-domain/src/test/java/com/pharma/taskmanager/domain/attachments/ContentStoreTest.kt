@@ -0,0 +1,90 @@
+package com.pharma.taskmanager.domain.attachments
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.ByteArrayInputStream
+import java.io.File
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+import java.security.MessageDigest
+import kotlin.random.Random
+
+class ContentStoreTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private fun channelOf(bytes: ByteArray) = Channels.newChannel(ByteArrayInputStream(bytes))
+
+    @Test
+    fun `put streams large content and stores identical bytes once`() {
+        val root = folder.newFolder("attachments")
+        val store = ContentStore(root)
+        val bytes = Random(1).nextBytes(3 * 1024 * 1024 + 17) // Not a multiple of the buffer
+
+        val first = store.put(channelOf(bytes))
+        val second = store.put(channelOf(bytes.copyOf()))
+
+        val expectedHash = MessageDigest.getInstance("SHA-256").digest(bytes).joinToString("") { "%02x".format(it) }
+        assertEquals(expectedHash, first.sha256)
+        assertEquals(bytes.size.toLong(), first.size)
+        assertEquals(first, second)
+        assertEquals(File(File(root, expectedHash.take(2)), expectedHash), store.fileOf(first.sha256))
+        assertEquals(0, File(root, "tmp").listFiles()!!.size)
+
+        val read = ByteBuffer.allocate(bytes.size)
+        store.open(first.sha256).use { channel -> while (read.hasRemaining() && channel.read(read) >= 0) Unit }
+        assertArrayEquals(bytes, read.array())
+    }
+
+    @Test
+    fun `sweep removes old unreferenced blobs only`() {
+        val store = ContentStore(folder.newFolder("attachments"))
+        val kept = store.put(channelOf("kept".toByteArray()))
+        val orphan = store.put(channelOf("orphan".toByteArray()))
+        val fresh = store.put(channelOf("fresh".toByteArray()))
+        val old = System.currentTimeMillis() - 60_000
+        listOf(kept, orphan).forEach { store.fileOf(it.sha256).setLastModified(old) }
+
+        val deleted = store.sweep(referenced = setOf(kept.sha256), olderThanMillis = System.currentTimeMillis() - 1_000)
+
+        assertEquals(1, deleted)
+        assertTrue(store.contains(kept.sha256))
+        assertFalse(store.contains(orphan.sha256))
+        assertTrue(store.contains(fresh.sha256)) // Young: its row may not be inserted yet
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `hashes are validated before touching the file system`() {
+        ContentStore(folder.root).fileOf("../../etc/passwd")
+    }
+
+    @Test
+    fun `file cache evicts least recently used entries over budget`() {
+        val dir = folder.newFolder("thumbs")
+        val cache = BoundedFileCache(dir, maxBytes = 250)
+        fun put(key: String) = cache.put(key) { it.write(ByteBuffer.wrap(ByteArray(100))) }
+
+        put("a")
+        put("b")
+        assertTrue(cache.get("a") != null) // a is now more recent than b
+        put("c")
+
+        assertEquals(null, cache.get("b"))
+        assertTrue(cache.get("a") != null)
+        assertTrue(cache.get("c") != null)
+        assertEquals(200, cache.sizeBytes)
+
+        // A new instance rebuilds the index from the directory
+        File(dir, "c").setLastModified(System.currentTimeMillis() - 60_000)
+        val reopened = BoundedFileCache(dir, maxBytes = 150)
+        assertEquals(100, reopened.sizeBytes)
+        assertEquals(null, reopened.get("c"))
+        assertTrue(reopened.get("a") != null)
+    }
+}
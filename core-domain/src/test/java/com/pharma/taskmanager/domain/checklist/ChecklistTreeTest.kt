@@ -0,0 +1,74 @@
+package com.pharma.taskmanager.domain.checklist
+
+import com.pharma.taskmanager.data.database.ChecklistItemEntity
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.random.Random
+
+class ChecklistTreeTest {
+
+    @Test
+    fun `rows are depth-first with siblings by position and leaf rollups`() {
+        val items = listOf(
+            ChecklistItemEntity(id = 1, taskId = 7, title = "Prepare", position = 1),
+            ChecklistItemEntity(id = 2, taskId = 7, title = "Clean", position = 0, completedAt = 10),
+            ChecklistItemEntity(id = 3, parentId = 1, title = "Weigh", position = 1),
+            ChecklistItemEntity(id = 4, parentId = 1, title = "Label", position = 0, completedAt = 20),
+            ChecklistItemEntity(id = 5, parentId = 3, title = "Tare", completedAt = 30),
+            ChecklistItemEntity(id = 6, parentId = 99, title = "Orphan")
+        )
+
+        val tree = ChecklistTree(items)
+
+        assertEquals(listOf(2, 1, 4, 3, 5), tree.rows.map { it.item.id })
+        assertEquals(listOf(0, 0, 1, 1, 2), tree.rows.map { it.depth })
+        val prepare = tree.rows.single { it.item.id == 1 }
+        assertFalse(prepare.isLeaf)
+        assertEquals(2, prepare.doneSteps)
+        assertEquals(2, prepare.totalSteps)
+        assertTrue(prepare.isDone)
+        assertEquals(listOf(ChecklistProgress(7, 3, 3, null)), tree.progress)
+    }
+
+    @Test
+    fun `progress matches a brute-force walk on random forests`() {
+        val random = Random(11)
+        val items = ArrayList<ChecklistItemEntity>()
+        repeat(2_000) { index ->
+            val id = index + 1
+            val parent = if (items.isEmpty() || random.nextInt(5) == 0) null else items[random.nextInt(items.size)]
+            items += ChecklistItemEntity(
+                id = id,
+                taskId = if (parent == null) random.nextInt(1, 20) else null,
+                parentId = parent?.id,
+                title = "Step $id",
+                position = random.nextInt(5),
+                dueDateTime = if (random.nextInt(3) == 0) random.nextLong(1_000) else null,
+                completedAt = if (random.nextBoolean()) 1L else null
+            )
+        }
+
+        val byId = items.associateBy { it.id }
+        val parents = items.mapNotNullTo(HashSet()) { it.parentId }
+        fun rootTask(item: ChecklistItemEntity): Int = item.taskId ?: rootTask(byId.getValue(item.parentId!!))
+        fun effectiveDue(item: ChecklistItemEntity): Long? {
+            val inherited = item.parentId?.let { effectiveDue(byId.getValue(it)) }
+            return listOfNotNull(item.dueDateTime, inherited).minOrNull()
+        }
+        val expected = items.filter { it.id !in parents }.groupBy(::rootTask).map { (taskId, leaves) ->
+            ChecklistProgress(
+                taskId = taskId,
+                totalSteps = leaves.size,
+                doneSteps = leaves.count { it.completedAt != null },
+                nextDueDateTime = leaves.filter { it.completedAt == null }.mapNotNull(::effectiveDue).minOrNull()
+            )
+        }.sortedBy { it.taskId }
+
+        val tree = ChecklistTree(items.shuffled(random))
+
+        assertEquals(expected, tree.progress)
+        assertEquals(items.size, tree.rows.size)
+    }
+}
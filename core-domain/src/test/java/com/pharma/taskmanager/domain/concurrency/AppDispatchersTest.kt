@@ -0,0 +1,39 @@
+package com.pharma.taskmanager.domain.concurrency
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withContext
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.atomic.AtomicInteger
+
+class AppDispatchersTest {
+
+    // Blocks the thread it runs on, like a SQLite call, and reports the peak overlap
+    private fun peakConcurrency(pool: CoroutineDispatcher, jobs: Int): Int = runBlocking {
+        val running = AtomicInteger()
+        val peak = AtomicInteger()
+        List(jobs) {
+            async(Dispatchers.Default) {
+                withContext(pool) {
+                    peak.accumulateAndGet(running.incrementAndGet(), ::maxOf)
+                    Thread.sleep(5)
+                    running.decrementAndGet()
+                }
+            }
+        }.awaitAll()
+        peak.get()
+    }
+
+    @Test
+    fun `database pools cap how many blocking calls overlap`() {
+        val dispatchers = AppDispatchers.create(main = Dispatchers.Unconfined)
+
+        assertEquals(1, peakConcurrency(dispatchers.dbWrite, jobs = 32))
+        assertTrue(peakConcurrency(dispatchers.dbRead, jobs = 32) in 2..AppDispatchers.DB_READ_PARALLELISM)
+    }
+}
@@ -0,0 +1,131 @@
+package com.pharma.taskmanager.domain.grouping
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.changes.TaskChangeTracker
+import com.pharma.taskmanager.domain.changes.TaskStamp
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.random.Random
+
+class TaskGroupIndexTest {
+
+    private val now = 1_760_000_000_000L
+    private val hour = 60 * 60 * 1000L
+
+    private fun task(id: Int, due: Long?, status: String = TaskConstants.STATUS_PENDING, updatedAt: Long = 1) =
+        TaskEntity(id = id, title = "Task $id", dueDateTime = due, status = status, createdAt = 0, updatedAt = updatedAt)
+
+    private fun randomTask(random: Random, id: Int, updatedAt: Long) = task(
+        id = id,
+        due = if (random.nextInt(5) == 0) null else now + random.nextLong(-72 * hour, 72 * hour),
+        status = if (random.nextInt(4) == 0) TaskConstants.STATUS_COMPLETED else TaskConstants.STATUS_PENDING,
+        updatedAt = updatedAt
+    )
+
+    // The full rebuild the index replaces; id order makes its stable sort break ties by id too
+    private fun regroup(rows: Collection<TaskEntity>, at: Long) =
+        TaskGrouping.groupTasksByDueDate(rows.sortedBy { it.id }, at)
+
+    @Test
+    fun `change sets from the tracker keep the index equal to a full regroup`() {
+        val random = Random(7)
+        val table = HashMap<Int, TaskEntity>()
+        var clock = 1L
+        repeat(200) { id -> table[id + 1] = randomTask(random, id + 1, clock++) }
+
+        val tracker = TaskChangeTracker()
+        val index = TaskGroupIndex(now)
+        index.apply(tracker.reset(table.values.toList()), now)
+        assertEquals(regroup(table.values, now), index.groups())
+
+        var nextId = table.size + 1
+        repeat(300) {
+            val inserted = HashSet<Int>()
+            val updated = HashSet<Int>()
+            val deleted = HashSet<Int>()
+            repeat(random.nextInt(1, 6)) {
+                when (random.nextInt(3)) {
+                    0 -> nextId++.let { table[it] = randomTask(random, it, clock++); inserted.add(it) }
+                    1 -> table.keys.randomOrNull(random)?.let {
+                        table[it] = randomTask(random, it, clock++)
+                        if (it !in inserted) updated.add(it)
+                    }
+                    else -> table.keys.randomOrNull(random)?.let {
+                        table.remove(it)
+                        if (!inserted.remove(it)) deleted.add(it)
+                        updated.remove(it)
+                    }
+                }
+            }
+
+            val diff = tracker.diff(table.values.map { TaskStamp(it.id, it.updatedAt) })
+            val changes = tracker.commit(diff, diff.changedIds.mapNotNull { table[it] })
+            assertEquals(inserted, changes.insertedIds.toSet())
+            assertEquals(updated, changes.updatedIds.toSet())
+            assertEquals(deleted, changes.deletedIds)
+
+            index.apply(changes, now)
+            assertEquals(regroup(table.values, now), index.groups())
+        }
+        assertEquals(table.size, index.size)
+    }
+
+    @Test
+    fun `tracker commits what was loaded, not what was diffed`() {
+        val tracker = TaskChangeTracker()
+        tracker.reset(listOf(task(1, now, updatedAt = 1), task(2, now, updatedAt = 1)))
+
+        val diff = tracker.diff(listOf(TaskStamp(1, 2), TaskStamp(2, 2)))
+        assertEquals(listOf(1, 2), diff.changedIds)
+
+        // Task 1 was written again before the load, task 2 deleted
+        val changes = tracker.commit(diff, listOf(task(1, now, updatedAt = 3)))
+        assertEquals(listOf(1), changes.updatedIds)
+        assertEquals(setOf(2), changes.deletedIds)
+
+        assertTrue(tracker.diff(listOf(TaskStamp(1, 3))).isEmpty)
+        assertEquals(1, tracker.size)
+    }
+
+    @Test
+    fun `advancing time moves only the rows whose group changed`() {
+        val rows = listOf(
+            task(1, now + hour),
+            task(2, now + 2 * hour),
+            task(3, now + 26 * hour),
+            task(4, now + 50 * hour),
+            task(5, null),
+            task(6, now - hour, TaskConstants.STATUS_COMPLETED)
+        )
+        val index = TaskGroupIndex(now)
+        index.replaceAll(rows, now)
+        val before = index.groups()
+
+        for (later in listOf(now + 90 * 60 * 1000L, now + 25 * hour, now + 49 * hour)) {
+            index.advanceTo(later)
+            assertEquals(regroup(rows, later), index.groups())
+        }
+        val noDueDate = before.first { it.priority == TaskGrouping.GROUP_NO_DUE_DATE }
+        assertSame(noDueDate, index.groups().first { it.priority == TaskGrouping.GROUP_NO_DUE_DATE })
+
+        // A clock set back regroups everything
+        index.advanceTo(now)
+        assertEquals(regroup(rows, now), index.groups())
+    }
+
+    @Test
+    fun `groups a change does not touch keep their published instance`() {
+        val index = TaskGroupIndex(now)
+        index.replaceAll(listOf(task(1, now + hour), task(2, null), task(3, null)), now)
+        val before = index.groups()
+        assertSame(before, index.groups())
+
+        index.upsert(task(2, null).copy(title = "Renamed"))
+        val after = index.groups()
+        assertSame(before.first { it.priority == TaskGrouping.GROUP_TODAY }, after.first { it.priority == TaskGrouping.GROUP_TODAY })
+        assertEquals(listOf("Renamed", "Task 3"), after.first { it.priority == TaskGrouping.GROUP_NO_DUE_DATE }.tasks.map { it.title })
+    }
+}
@@ -0,0 +1,63 @@
+package com.pharma.taskmanager.domain.metrics
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class LatencyHistogramTest {
+
+    @Test
+    fun `small values are exact`() {
+        val histogram = LatencyHistogram()
+        (1L..20L).forEach { histogram.record(it) }
+
+        assertEquals(10L, histogram.valueAtPercentile(50.0))
+        assertEquals(19L, histogram.valueAtPercentile(95.0))
+        assertEquals(20L, histogram.valueAtPercentile(100.0))
+    }
+
+    @Test
+    fun `large values stay within relative error`() {
+        val histogram = LatencyHistogram()
+        (1L..100_000L).forEach { histogram.record(it) }
+
+        listOf(50.0 to 50_000L, 95.0 to 95_000L, 99.0 to 99_000L).forEach { (percentile, expected) ->
+            val actual = histogram.valueAtPercentile(percentile)
+            val error = Math.abs(actual - expected).toDouble() / expected
+            assertTrue("p$percentile=$actual expected ~$expected", error <= 1.0 / 32)
+        }
+        assertEquals(100_000L, histogram.maxValue)
+    }
+
+    @Test
+    fun `negative latencies count as zero`() {
+        val histogram = LatencyHistogram()
+        histogram.record(-500)
+
+        assertEquals(0L, histogram.valueAtPercentile(99.0))
+    }
+
+    @Test
+    fun `merge adds counts`() {
+        val a = LatencyHistogram().apply { (1L..10L).forEach { record(it) } }
+        val b = LatencyHistogram().apply { (11L..20L).forEach { record(it) } }
+        a.merge(b)
+
+        assertEquals(20L, a.totalCount)
+        assertEquals(10L, a.valueAtPercentile(50.0))
+    }
+
+    @Test
+    fun `aggregator reports every path`() {
+        val fires = listOf(
+            ReminderFire(ReminderDeliveryPath.ALARM, 1_000, 1_050, 1_200, 1_300, 1_400),
+            ReminderFire(ReminderDeliveryPath.WORK_MANAGER, 1_000, null, 61_000, 61_100, null)
+        )
+
+        val reports = ReminderLatencyAggregator.aggregate(fires).associateBy { it.deliveryPath }
+
+        assertEquals(300L, reports.getValue(ReminderDeliveryPath.ALARM).notificationPost.p50)
+        assertEquals(0L, reports.getValue(ReminderDeliveryPath.WORK_MANAGER).alarmReceipt.count)
+        assertEquals(0L, reports.getValue(ReminderDeliveryPath.IMMEDIATE).notificationPost.count)
+    }
+}
@@ -0,0 +1,148 @@
+package com.pharma.taskmanager.domain.mutation
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.changes.TaskChangeSet
+import com.pharma.taskmanager.domain.concurrency.AppDispatchers
+import com.pharma.taskmanager.domain.repository.TaskRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+class TaskMutationDispatcherTest {
+
+    private val repository = FakeTaskRepository()
+    private val mutations = mutableListOf<Pair<TaskEntity, TaskEntity>>()
+    private val effects = object : TaskMutationEffects {
+        override fun onTaskMutated(before: TaskEntity, after: TaskEntity) {
+            synchronized(mutations) { mutations.add(before to after) }
+        }
+    }
+
+    private fun dispatcher(windowMs: Long = 50) = TaskMutationDispatcher(
+        repository, effects, windowMs, CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    )
+
+    @Test
+    fun `toggle toggle cancels out without a write`() = runBlocking {
+        repository.put(TaskEntity(id = 1, title = "a", status = TaskConstants.STATUS_PENDING))
+        val dispatcher = dispatcher()
+
+        listOf(TaskConstants.STATUS_COMPLETED, TaskConstants.STATUS_PENDING)
+            .map { status -> async { dispatcher.submit(1, TaskIntent.SetStatus(status)) } }
+            .awaitAll()
+            .forEach { assertTrue(it.isSuccess) }
+
+        assertEquals(0, repository.updates.get())
+        assertEquals(TaskMutationDispatcher.Stats(submitted = 2, writes = 0, coalesced = 2), dispatcher.stats())
+        assertTrue(mutations.isEmpty())
+    }
+
+    @Test
+    fun `last reminder time wins in a single write`() = runBlocking {
+        repository.put(TaskEntity(id = 1, title = "a"))
+        val dispatcher = dispatcher()
+
+        (1L..5L).map { time -> async { dispatcher.submit(1, TaskIntent.SetReminder(time * 1000)) } }.awaitAll()
+
+        assertEquals(1, repository.updates.get())
+        assertEquals(5000L, repository.get(1)?.reminderTime)
+        assertEquals(4L, dispatcher.stats().coalesced)
+        assertEquals(1, mutations.size)
+    }
+
+    @Test
+    fun `writes for one task are serialized and never lost`() = runBlocking {
+        (1..4).forEach { repository.put(TaskEntity(id = it, title = "t$it")) }
+        val dispatcher = dispatcher(windowMs = 0)
+
+        (1..200).map { n ->
+            async(Dispatchers.Default) { dispatcher.submit(n % 4 + 1, TaskIntent.SetReminder(n.toLong())) }
+        }.awaitAll()
+
+        // Each task ends up with the reminder of its highest submission
+        assertEquals(200L, repository.get(1)?.reminderTime)
+        assertEquals(197L, repository.get(2)?.reminderTime)
+        assertEquals(198L, repository.get(3)?.reminderTime)
+        assertEquals(199L, repository.get(4)?.reminderTime)
+        assertEquals(0, repository.concurrentWritesDetected.get())
+    }
+
+    @OptIn(ExperimentalCoroutinesApi::class)
+    @Test
+    fun `coalesce window runs on virtual time with test dispatchers`() = runTest {
+        repository.put(TaskEntity(id = 1, title = "a"))
+        val dispatcher = TaskMutationDispatcher(repository, effects, AppDispatchers.single(StandardTestDispatcher(testScheduler)))
+
+        val first = async { dispatcher.submit(1, TaskIntent.SetReminder(1000)) }
+        runCurrent()
+        advanceTimeBy(TaskMutationDispatcher.DEFAULT_COALESCE_WINDOW_MS - 1)
+        val second = async { dispatcher.submit(1, TaskIntent.SetReminder(2000)) }
+        runCurrent()
+        assertEquals(0, repository.updates.get()) // Still inside the window
+
+        advanceTimeBy(2)
+        listOf(first, second).awaitAll().forEach { assertTrue(it.isSuccess) }
+        assertEquals(1, repository.updates.get())
+        assertEquals(2000L, repository.get(1)?.reminderTime)
+    }
+
+    @Test
+    fun `invalid status is rejected without queueing`() = runBlocking {
+        val result = dispatcher().submit(1, TaskIntent.SetStatus("archived"))
+
+        assertTrue(result.isFailure)
+    }
+
+    private class FakeTaskRepository : TaskRepository {
+        private val rows = ConcurrentHashMap<Int, TaskEntity>()
+        private val writing = ConcurrentHashMap<Int, Boolean>()
+        val updates = AtomicInteger()
+        val concurrentWritesDetected = AtomicInteger()
+
+        fun put(task: TaskEntity) { rows[task.id] = task }
+        fun get(id: Int) = rows[id]
+
+        override suspend fun getTaskById(id: Int): TaskEntity? = rows[id]
+
+        override suspend fun updateTask(task: TaskEntity) {
+            if (writing.putIfAbsent(task.id, true) != null) concurrentWritesDetected.incrementAndGet()
+            Thread.sleep(1)
+            rows[task.id] = task
+            updates.incrementAndGet()
+            writing.remove(task.id)
+        }
+
+        override fun getAllTasks(): Flow<List<TaskEntity>> = flowOf(rows.values.toList())
+        override fun observeTaskChanges(): Flow<TaskChangeSet> = flowOf(TaskChangeSet.reset(rows.values.toList()))
+        override fun getTasksByStatus(status: String): Flow<List<TaskEntity>> = flowOf(emptyList())
+        override fun getTasksByPriority(priority: Int): Flow<List<TaskEntity>> = flowOf(emptyList())
+        override fun getPendingTasks(): Flow<List<TaskEntity>> = flowOf(emptyList())
+        override fun getCompletedTasks(): Flow<List<TaskEntity>> = flowOf(emptyList())
+        override fun getDueTasks(timestamp: Long): Flow<List<TaskEntity>> = flowOf(emptyList())
+        override fun getTasksWithReminders(): Flow<List<TaskEntity>> = flowOf(emptyList())
+        override fun searchTasks(query: String): Flow<List<TaskEntity>> = flowOf(emptyList())
+        override suspend fun addTask(task: TaskEntity): Long = task.id.toLong().also { put(task) }
+        override suspend fun deleteTask(task: TaskEntity) { rows.remove(task.id) }
+        override suspend fun restoreTask(id: Int) {}
+        override suspend fun purgeDeletedTasks(olderThan: Long, batchSize: Int): List<Int> = emptyList()
+        override suspend fun updateTaskStatus(id: Int, status: String) { rows.computeIfPresent(id) { _, t -> t.copy(status = status) } }
+        override suspend fun deleteCompletedTasks() {}
+        override suspend fun getTaskCountByStatus(status: String): Int = 0
+    }
+}
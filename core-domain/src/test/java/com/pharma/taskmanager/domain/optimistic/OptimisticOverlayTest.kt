@@ -0,0 +1,59 @@
+package com.pharma.taskmanager.domain.optimistic
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class OptimisticOverlayTest {
+
+    private val tasks = listOf(
+        TaskEntity(id = 1, title = "a", createdAt = 0),
+        TaskEntity(id = 2, title = "b", createdAt = 0)
+    )
+
+    @Test
+    fun `pending mutations are applied in op order`() {
+        val pending = listOf(
+            PendingMutation.SetStatus(opId = 2, taskId = 1, status = TaskConstants.STATUS_PENDING),
+            PendingMutation.SetStatus(opId = 1, taskId = 1, status = TaskConstants.STATUS_COMPLETED),
+            PendingMutation.Delete(opId = 3, taskId = 2)
+        )
+
+        val result = OptimisticOverlay.apply(tasks, pending)
+
+        assertEquals(listOf(1), result.map { it.id })
+        assertEquals(TaskConstants.STATUS_PENDING, result.single().status)
+    }
+
+    @Test
+    fun `uncommitted mutations survive emissions`() {
+        val pending = mapOf(1L to PendingMutation.Delete(opId = 1, taskId = 2))
+
+        assertEquals(pending, OptimisticOverlay.reconcile(tasks, pending))
+    }
+
+    @Test
+    fun `committed mutation is dropped once the emission reflects it`() {
+        val pending = mapOf(
+            1L to PendingMutation.SetStatus(opId = 1, taskId = 1, status = TaskConstants.STATUS_COMPLETED).markCommitted()
+        )
+        val emitted = listOf(tasks[0].copy(status = TaskConstants.STATUS_COMPLETED), tasks[1])
+
+        assertTrue(OptimisticOverlay.reconcile(emitted, pending).isEmpty())
+    }
+
+    @Test
+    fun `committed mutation overwritten elsewhere eventually yields to the database`() {
+        var pending: Map<Long, PendingMutation> = mapOf(
+            1L to PendingMutation.SetStatus(opId = 1, taskId = 1, status = TaskConstants.STATUS_COMPLETED).markCommitted()
+        )
+
+        repeat(OptimisticOverlay.MAX_EMISSIONS_AFTER_COMMIT) {
+            pending = OptimisticOverlay.reconcile(tasks, pending)
+        }
+
+        assertTrue(pending.isEmpty())
+    }
+}
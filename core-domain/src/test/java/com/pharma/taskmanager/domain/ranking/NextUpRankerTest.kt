@@ -0,0 +1,88 @@
+package com.pharma.taskmanager.domain.ranking
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.random.Random
+
+class NextUpRankerTest {
+
+    private val now = 1_760_000_000_000L
+    private val hour = 60 * 60 * 1000L
+
+    private fun randomTask(random: Random, id: Int) = TaskEntity(
+        id = id,
+        title = "Task $id",
+        dueDateTime = if (random.nextInt(5) == 0) null else now + random.nextLong(-96 * hour, 96 * hour),
+        priority = random.nextInt(TaskConstants.PRIORITY_LOW, TaskConstants.PRIORITY_HIGH + 1),
+        status = if (random.nextInt(4) == 0) TaskConstants.STATUS_COMPLETED else TaskConstants.STATUS_PENDING,
+        reminderTime = if (random.nextInt(3) == 0) now + random.nextLong(-2 * hour, 2 * hour) else null,
+        createdAt = 0,
+        deletedAt = if (random.nextInt(20) == 0) now else null
+    )
+
+    // What the card would otherwise do per emission: score everything, sort, take five
+    private fun fullRank(rows: Collection<TaskEntity>, at: Long) = rows
+        .filter { TaskUrgency.isActionable(it) }
+        .map { RankedTask(it, TaskUrgency.score(it, at)) }
+        .sortedWith(compareByDescending<RankedTask> { it.score }
+            .thenBy { it.task.dueDateTime ?: Long.MAX_VALUE }
+            .thenBy { it.task.id })
+        .take(NextUpRanker.DEFAULT_SIZE)
+
+    @Test
+    fun `incremental updates keep the top equal to a full ranking`() {
+        val random = Random(11)
+        val table = HashMap<Int, TaskEntity>()
+        repeat(300) { id -> table[id + 1] = randomTask(random, id + 1) }
+        val ranker = NextUpRanker(now = now).apply { replaceAll(table.values, now) }
+        assertEquals(fullRank(table.values, now), ranker.top())
+
+        var nextId = table.size + 1
+        repeat(2_000) {
+            when (random.nextInt(4)) {
+                0 -> nextId++.let { table[it] = randomTask(random, it); ranker.upsert(table.getValue(it)) }
+                1 -> table.keys.randomOrNull(random)?.let { table[it] = randomTask(random, it); ranker.upsert(table.getValue(it)) }
+                // Complete or delete the current leader: the case that drains the kept set
+                2 -> ranker.top().firstOrNull()?.let { ranked ->
+                    val done = ranked.task.copy(status = TaskConstants.STATUS_COMPLETED)
+                    table[done.id] = done
+                    ranker.upsert(done)
+                }
+                else -> table.keys.randomOrNull(random)?.let { table.remove(it); ranker.remove(it) }
+            }
+            assertEquals(fullRank(table.values, now), ranker.top())
+        }
+        assertEquals(table.values.count { TaskUrgency.isActionable(it) }, ranker.candidates)
+    }
+
+    @Test
+    fun `time passing rescores once per interval`() {
+        val soon = TaskEntity(id = 1, title = "Soon", dueDateTime = now + 30 * 60 * 1000, createdAt = 0)
+        val later = TaskEntity(id = 2, title = "Later", dueDateTime = now + 2 * hour, createdAt = 0,
+            priority = TaskConstants.PRIORITY_HIGH)
+        val ranker = NextUpRanker(now = now).apply { replaceAll(listOf(soon, later), now) }
+        assertEquals(listOf(1, 2), ranker.top().map { it.task.id })
+        val before = ranker.top()
+
+        // Within the interval nothing is rescored, so the published list stays the same instance
+        ranker.advanceTo(now + NextUpRanker.RESCORE_INTERVAL_MILLIS - 1)
+        assertTrue(before === ranker.top())
+
+        // Both overdue after three hours: the high-priority one now leads
+        ranker.advanceTo(now + 3 * hour)
+        assertEquals(listOf(2, 1), ranker.top().map { it.task.id })
+        assertEquals(fullRank(listOf(soon, later), now + 3 * hour), ranker.top())
+    }
+
+    @Test
+    fun `reminders that fired outrank undated work of the same priority`() {
+        val fired = TaskEntity(id = 1, title = "Fired", reminderTime = now - hour, createdAt = 0)
+        val plain = TaskEntity(id = 2, title = "Plain", createdAt = 0)
+        val dueFar = TaskEntity(id = 3, title = "Due next week", dueDateTime = now + 7 * 24 * hour, createdAt = 0)
+        assertTrue(TaskUrgency.score(fired, now) > TaskUrgency.score(dueFar, now))
+        assertTrue(TaskUrgency.score(dueFar, now) > TaskUrgency.score(plain, now))
+    }
+}
@@ -0,0 +1,124 @@
+package com.pharma.taskmanager.domain.recurrence
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.domain.mutation.TaskIntent
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import java.util.Calendar
+import java.util.TimeZone
+
+class RecurrenceEngineTest {
+
+    private val utc = TimeZone.getTimeZone("UTC")
+    private val london = TimeZone.getTimeZone("Europe/London")
+
+    @Test
+    fun `weekly BYDAY with interval skips the off weeks`() {
+        // 2026-01-01 is a Thursday
+        val start = at(utc, 2026, 1, 1, 9)
+        val rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH")
+
+        val occurrences = RecurrenceEngine.occurrencesBetween(rule, start, start, at(utc, 2026, 2, 1, 0), utc)
+
+        assertEquals(
+            listOf(at(utc, 2026, 1, 1, 9), at(utc, 2026, 1, 12, 9), at(utc, 2026, 1, 15, 9), at(utc, 2026, 1, 26, 9), at(utc, 2026, 1, 29, 9)),
+            occurrences
+        )
+    }
+
+    @Test
+    fun `monthly on the 31st skips short months`() {
+        val start = at(utc, 2026, 1, 31, 8)
+        val rule = RecurrenceRule.parse("FREQ=MONTHLY;COUNT=4")
+
+        val occurrences = RecurrenceEngine.occurrencesBetween(rule, start, start, Long.MAX_VALUE, utc)
+
+        assertEquals(
+            listOf(at(utc, 2026, 1, 31, 8), at(utc, 2026, 3, 31, 8), at(utc, 2026, 5, 31, 8), at(utc, 2026, 7, 31, 8)),
+            occurrences
+        )
+    }
+
+    @Test
+    fun `jumping to a late window matches walking from the start`() {
+        val start = at(london, 2024, 2, 29, 7)
+        val from = at(london, 2031, 6, 3, 12)
+        val to = at(london, 2031, 9, 1, 0)
+
+        val rules = listOf(
+            "FREQ=DAILY;INTERVAL=3", "FREQ=DAILY;BYDAY=MO,WE,FR", "FREQ=WEEKLY;INTERVAL=3;BYDAY=SU,TU", "FREQ=MONTHLY;INTERVAL=5",
+            // COUNT rules that skip ahead arithmetically (2024-02-29 is a Thursday, so week 0 loses Monday)
+            "FREQ=DAILY;INTERVAL=2;COUNT=1340", "FREQ=WEEKLY;BYDAY=MO,FR;COUNT=770"
+        )
+        for (text in rules) {
+            val rule = RecurrenceRule.parse(text)
+            val walked = RecurrenceEngine.occurrencesBetween(rule, start, start, to, london).filter { it >= from }
+
+            assertEquals(text, walked, RecurrenceEngine.occurrencesBetween(rule, start, from, to, london))
+        }
+    }
+
+    @Test
+    fun `daily occurrences keep local time across DST`() {
+        // UK clocks go forward on 2026-03-29
+        val start = at(london, 2026, 3, 27, 9)
+        val rule = RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260330")
+
+        val hours = RecurrenceEngine.occurrencesBetween(rule, start, start, Long.MAX_VALUE, london).map { millis ->
+            Calendar.getInstance(london).apply { timeInMillis = millis }.get(Calendar.HOUR_OF_DAY)
+        }
+
+        assertEquals(listOf(9, 9, 9, 9), hours)
+    }
+
+    @Test
+    fun `rules round trip and unsupported parts are rejected`() {
+        val text = "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;UNTIL=20261231T170000Z"
+        assertEquals(text, RecurrenceRule.parse("RRULE:FREQ=weekly;BYDAY=TH,MO;INTERVAL=2;UNTIL=20261231T170000Z").format())
+
+        assertNull(RecurrenceRule.parseOrNull("FREQ=YEARLY"))
+        assertNull(RecurrenceRule.parseOrNull("FREQ=WEEKLY;BYDAY=1MO"))
+        assertNull(RecurrenceRule.parseOrNull("FREQ=DAILY;COUNT=3;UNTIL=20260101"))
+    }
+
+    @Test
+    fun `completing a recurring task rolls it to the next occurrence`() {
+        val due = at(TimeZone.getDefault(), 2026, 1, 5, 9)
+        val task = TaskEntity(
+            id = 1,
+            title = "Fridge temperature",
+            dueDateTime = due,
+            reminderTime = due - 15 * MINUTE,
+            recurrenceRule = "FREQ=DAILY;COUNT=3",
+            createdAt = 0
+        )
+
+        // Completed two days late: the occurrences of the 5th and 6th are used up
+        val now = due + 2 * DAY - HOUR
+        val next = TaskIntent.coalesce(task, listOf(TaskIntent.SetStatus(TaskConstants.STATUS_COMPLETED)), now)
+
+        assertEquals(TaskConstants.STATUS_PENDING, next.status)
+        assertEquals(due + 2 * DAY, next.dueDateTime)
+        assertEquals(due + 2 * DAY - 15 * MINUTE, next.reminderTime)
+        assertEquals("FREQ=DAILY;COUNT=1", next.recurrenceRule)
+
+        // The last occurrence completes the series
+        val last = TaskIntent.coalesce(next, listOf(TaskIntent.SetStatus(TaskConstants.STATUS_COMPLETED)), now)
+        assertEquals(TaskConstants.STATUS_COMPLETED, last.status)
+        assertEquals(next.dueDateTime, last.dueDateTime)
+    }
+
+    private fun at(zone: TimeZone, year: Int, month: Int, day: Int, hour: Int): Long =
+        Calendar.getInstance(zone).apply {
+            clear()
+            set(year, month - 1, day, hour, 0, 0)
+        }.timeInMillis
+
+    private companion object {
+        const val MINUTE = 60_000L
+        const val HOUR = 60 * MINUTE
+        const val DAY = 24 * HOUR
+    }
+}
@@ -0,0 +1,60 @@
+package com.pharma.taskmanager.domain.reminder
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class ReminderRearmPlanTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val upcoming = List(11) { ArmedReminder(taskId = 100 + it, reminderTime = 1_000L * (it + 1)) }
+
+    @Test
+    fun `plan arms the nearest window and skips alarms already set for the same time`() {
+        val armed = listOf(
+            ArmedReminder(100, 1_000L), // Unchanged
+            ArmedReminder(101, 999L), // Moved since
+            ArmedReminder(7, 500L) // Gone: forgotten, not armed
+        )
+
+        val plan = ReminderRearmPlan.plan(upcoming, armed, window = 10)
+
+        assertEquals(upcoming.take(10), plan.window)
+        assertEquals(upcoming.subList(1, 10), plan.toArm)
+        assertEquals(1, plan.skipped)
+        assertEquals(6_000L, plan.refillAt) // Halfway through the window
+
+        val everything = ReminderRearmPlan.plan(upcoming, emptyList(), window = 20)
+        assertEquals(11, everything.toArm.size)
+        assertNull(everything.refillAt)
+    }
+
+    @Test
+    fun `ledger round-trips and only counts alarms from the same boot`() {
+        val file = ReminderAlarmLedgerFile(File(folder.root, "reminders/alarms.ledger"))
+        assertNull(file.read())
+
+        val ledger = ReminderAlarmLedger(
+            bootCount = 42,
+            armed = upcoming.take(3),
+            lastPass = ReminderAlarmLedger.Pass("boot", 5_000L, 37L, armed = 3, skipped = 0, refillAt = null)
+        )
+        file.write(ledger)
+
+        val read = file.read()!!
+        assertEquals(ledger, read)
+        assertEquals(upcoming.take(3), read.armedIn(42))
+        assertEquals(emptyList<ArmedReminder>(), read.armedIn(43))
+        assertEquals(emptyList<ArmedReminder>(), read.armedIn(-1))
+
+        val bytes = ReminderAlarmLedgerFile.encode(ledger)
+        bytes[bytes.size / 2] = (bytes[bytes.size / 2] + 1).toByte()
+        File(folder.root, "reminders/alarms.ledger").writeBytes(bytes)
+        assertNull(file.read())
+    }
+}
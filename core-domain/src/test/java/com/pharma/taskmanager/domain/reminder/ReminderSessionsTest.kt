@@ -0,0 +1,49 @@
+package com.pharma.taskmanager.domain.reminder
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class ReminderSessionsTest {
+
+    @Test
+    fun `overlapping sessions expire independently in start order`() {
+        val sessions = ReminderSessions(durationMillis = 60_000L)
+        assertTrue(sessions.start(1, "Insulin", now = 0L))
+        assertTrue(sessions.start(2, "Call pharmacy", now = 10_000L))
+        assertEquals(60_000L, sessions.nextExpiry)
+        assertEquals(70_000L, sessions.lastExpiry)
+
+        // Ringing again restarts the session and moves it behind the others
+        assertFalse(sessions.start(1, "Insulin", now = 20_000L))
+        assertEquals(70_000L, sessions.nextExpiry)
+        assertEquals(80_000L, sessions.lastExpiry)
+
+        assertTrue(sessions.rename(2, "Call the pharmacy"))
+        assertEquals(listOf(2, 1), sessions.active.map { it.taskId })
+
+        assertEquals(emptyList<ReminderSessions.Session>(), sessions.expire(69_999L))
+        assertEquals(listOf("Call the pharmacy"), sessions.expire(70_000L).map { it.title })
+        assertEquals(1, sessions.size)
+        assertFalse(sessions.rename(2, "Gone"))
+    }
+
+    @Test
+    fun `stopping one session leaves the others untouched`() {
+        val sessions = ReminderSessions(durationMillis = 60_000L)
+        sessions.start(1, "A", now = 0L)
+        sessions.start(2, "B", now = 5_000L)
+        sessions.start(3, "C", now = 9_000L)
+
+        assertEquals(5_000L, sessions.stop(2)!!.startedAt)
+        assertNull(sessions.stop(2))
+        assertEquals(listOf(1, 3), sessions.active.map { it.taskId })
+        assertEquals(60_000L, sessions.nextExpiry)
+
+        assertEquals(listOf(1, 3), sessions.stopAll().map { it.taskId })
+        assertTrue(sessions.isEmpty())
+        assertNull(sessions.nextExpiry)
+    }
+}
@@ -0,0 +1,193 @@
+package com.pharma.taskmanager.domain.sync
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+import java.io.IOException
+import kotlin.random.Random
+
+class SyncEngineTest {
+
+    private var now = 1_760_000_000_000L
+    private val server = LoopbackSyncServer()
+    private val phone = InMemorySyncStore { now }
+    private val tablet = InMemorySyncStore { now }
+    private val phoneSync = SyncEngine(phone, server, "phone", batchSize = 7)
+    private val tabletSync = SyncEngine(tablet, server, "tablet", batchSize = 7)
+
+    @Test
+    fun `changes on one device reach the other`() = runTest {
+        val created = List(20) { phone.save(TaskEntity(title = "Task $it", createdAt = now)) }
+        phone.delete(created[3].syncId)
+        phone.save(created[5].copy(deletedAt = now, title = "Tombstoned"))
+
+        phoneSync.sync()
+        val pulled = tabletSync.sync()
+
+        assertEquals(19, pulled.pulled)
+        assertEquals(0, phone.pendingChangeCount())
+        assertSameTasks(phone, tablet)
+        assertEquals("Tombstoned", tablet.get(created[5].syncId)?.title)
+    }
+
+    @Test
+    fun `the later write wins on both devices`() = runTest {
+        val task = phone.save(TaskEntity(title = "Count CDs", createdAt = now))
+        phoneSync.sync()
+        tabletSync.sync()
+
+        now += 1_000
+        tablet.save(tablet.get(task.syncId)!!.copy(title = "Count CDs (tablet)"))
+        now += 1_000
+        phone.save(phone.get(task.syncId)!!.copy(priority = TaskConstants.PRIORITY_HIGH, title = "Count CDs (phone)"))
+
+        // The tablet pushes first, but the phone's edit is newer
+        tabletSync.sync()
+        val phoneResult = phoneSync.sync()
+        val tabletResult = tabletSync.sync()
+
+        assertEquals(0, phoneResult.conflicts)
+        assertEquals(1, tabletResult.pulled)
+        assertEquals("Count CDs (phone)", tablet.get(task.syncId)?.title)
+        assertSameTasks(phone, tablet)
+    }
+
+    @Test
+    fun `an older write is rejected and replaced by the server copy`() = runTest {
+        val task = phone.save(TaskEntity(title = "Fridge log", createdAt = now))
+        phoneSync.sync()
+        tabletSync.sync()
+
+        now += 1_000
+        val phoneEdit = phone.save(phone.get(task.syncId)!!.copy(title = "Fridge log (phone)"))
+        // Same clock on both sides: the first copy to reach the server wins
+        tablet.save(tablet.get(task.syncId)!!.copy(title = "Fridge log (tablet)"))
+        phoneSync.sync()
+        val result = tabletSync.sync()
+
+        assertEquals(1, result.conflicts)
+        assertEquals(phoneEdit, tablet.get(task.syncId)?.copy(id = phoneEdit.id))
+        assertSameTasks(phone, tablet)
+    }
+
+    @Test
+    fun `deletes win over older edits and lose to newer ones`() = runTest {
+        val kept = phone.save(TaskEntity(title = "Kept", createdAt = now))
+        val removed = phone.save(TaskEntity(title = "Removed", createdAt = now))
+        phoneSync.sync()
+        tabletSync.sync()
+
+        now += 1_000
+        tablet.save(tablet.get(kept.syncId)!!.copy(title = "Kept, edited before the delete"))
+        tablet.save(tablet.get(removed.syncId)!!.copy(title = "Edited before the delete"))
+        now += 1_000
+        phone.delete(removed.syncId)
+        phone.delete(kept.syncId)
+        now += 1_000
+        tablet.save(tablet.get(kept.syncId)!!.copy(title = "Kept, edited last"))
+
+        phoneSync.sync()
+        tabletSync.sync()
+        phoneSync.sync()
+
+        assertNull(tablet.get(removed.syncId))
+        assertEquals("Kept, edited last", phone.get(kept.syncId)?.title)
+        assertSameTasks(phone, tablet)
+    }
+
+    @Test
+    fun `a second sync moves nothing and an interrupted push can be repeated`() = runTest {
+        repeat(30) { phone.save(TaskEntity(title = "Task $it", createdAt = now)) }
+        // The server stores the first batch, but the reply never arrives
+        val flaky = object : SyncTransport by server {
+            override suspend fun push(deviceId: String, batch: ByteArray): PushResponse {
+                server.push(deviceId, batch)
+                throw IOException("Connection reset")
+            }
+        }
+        try {
+            SyncEngine(phone, flaky, "phone", batchSize = 7).sync()
+            fail("sync should have failed")
+        } catch (e: IOException) {
+            // expected
+        }
+        assertEquals(SyncCheckpoint(0, 0), phone.checkpoint())
+
+        val retry = phoneSync.sync()
+        val again = phoneSync.sync()
+
+        assertEquals(0, retry.conflicts)
+        assertEquals(0, again.pushed + again.pulled + again.conflicts)
+        assertEquals(30, server.size())
+        assertEquals(0, phone.pendingChangeCount())
+    }
+
+    @Test
+    fun `devices converge after random concurrent edits`() = runTest {
+        val random = Random(5)
+        val devices = List(3) { InMemorySyncStore { now } }
+        val engines = devices.mapIndexed { i, store -> SyncEngine(store, server, "device-$i", batchSize = 5) }
+
+        repeat(300) {
+            now += random.nextLong(0, 3)
+            val device = devices[random.nextInt(devices.size)]
+            val existing = device.tasks()
+            when {
+                existing.isEmpty() || random.nextInt(4) == 0 -> device.save(TaskEntity(title = "New $it", createdAt = now))
+                random.nextInt(6) == 0 -> device.delete(existing.random(random).syncId)
+                else -> device.save(existing.random(random).copy(title = "Edit $it", priority = random.nextInt(1, 4)))
+            }
+            if (random.nextInt(10) == 0) engines[random.nextInt(engines.size)].sync()
+        }
+        // Two full rounds: the first spreads every device's changes, the second settles conflicts
+        repeat(2) { engines.forEach { it.sync() } }
+
+        assertSameTasks(devices[0], devices[1])
+        assertSameTasks(devices[0], devices[2])
+    }
+
+    @Test
+    fun `batches compress and damaged bodies are never misread`() {
+        val deltas = List(500) { i ->
+            TaskDelta.upsert(
+                TaskEntity(
+                    title = "Check fridge temperature ward ${i % 12}",
+                    description = if (i % 3 == 0) null else "Record min/max in the log",
+                    dueDateTime = now + i * 60_000L,
+                    createdAt = now,
+                    recurrenceRule = if (i % 4 == 0) "FREQ=DAILY" else null,
+                    syncId = "%032x".format(i),
+                    updatedAt = now + i
+                )
+            )
+        } + TaskDelta.delete("f".repeat(32), now)
+        val body = SyncCodec.encode(deltas)
+
+        assertEquals(deltas, SyncCodec.decode(body))
+        assertTrue("batch is ${body.size} bytes", body.size < deltas.size * 40)
+
+        val random = Random(9)
+        repeat(2_000) {
+            val damaged = body.copyOf()
+            val at = random.nextInt(damaged.size)
+            damaged[at] = (damaged[at].toInt() xor (1 shl random.nextInt(8))).toByte()
+            try {
+                // Padding bits after the last deflate block carry nothing, so a flip there is harmless
+                assertEquals(deltas, SyncCodec.decode(damaged))
+            } catch (e: SyncFormatException) {
+                // expected
+            }
+        }
+    }
+
+    private fun assertSameTasks(expected: InMemorySyncStore, actual: InMemorySyncStore) {
+        // Local ids differ between devices; everything else must match
+        fun contents(store: InMemorySyncStore) = store.tasks().map { it.copy(id = 0) }.sortedBy { it.syncId }
+        assertEquals(contents(expected), contents(actual))
+    }
+}
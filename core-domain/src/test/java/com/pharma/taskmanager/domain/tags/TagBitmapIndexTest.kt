@@ -0,0 +1,87 @@
+package com.pharma.taskmanager.domain.tags
+
+import com.pharma.taskmanager.data.database.TaskEntity
+import com.pharma.taskmanager.data.database.TaskFilter
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.random.Random
+
+class TagBitmapIndexTest {
+
+    @Test
+    fun `any-of and all-of match a set-based reference under random edits`() {
+        val random = Random(3)
+        val index = TagBitmapIndex()
+        val reference = HashMap<Int, MutableSet<Int>>()
+
+        repeat(5_000) {
+            val taskId = random.nextInt(1, 300)
+            val tagId = random.nextInt(1, 20)
+            when (random.nextInt(10)) {
+                in 0..5 -> {
+                    index.add(taskId, tagId)
+                    reference.getOrPut(taskId) { HashSet() }.add(tagId)
+                }
+                in 6..7 -> {
+                    index.remove(taskId, tagId)
+                    reference[taskId]?.remove(tagId)
+                }
+                8 -> {
+                    index.removeTask(taskId)
+                    reference.remove(taskId)
+                }
+                else -> {
+                    index.removeTag(tagId)
+                    reference.values.forEach { it.remove(tagId) }
+                }
+            }
+            reference.values.removeAll { it.isEmpty() }
+
+            val chips = List(random.nextInt(1, 4)) { random.nextInt(1, 20) }.toSet()
+            assertEquals(
+                reference.filterValues { tags -> chips.any { it in tags } }.keys,
+                index.anyOf(chips).taskIds().toSet()
+            )
+            assertEquals(
+                reference.filterValues { tags -> tags.containsAll(chips) }.keys,
+                index.allOf(chips).taskIds().toSet()
+            )
+        }
+        // Ordinals of untagged tasks are released, so the bitmaps stay as wide as the tagged set
+        assertEquals(reference.size, index.taggedTaskCount)
+    }
+
+    @Test
+    fun `select combines all-of and any-of`() {
+        val index = TagBitmapIndex()
+        index.setTags(1, listOf(10, 20))
+        index.setTags(2, listOf(10, 30))
+        index.setTags(3, listOf(20, 30))
+        index.setTags(4, listOf(10))
+
+        val selection = index.select(anyOf = listOf(20, 30), allOf = listOf(10))
+        assertEquals(setOf(1, 2), selection.taskIds().toSet())
+        assertTrue(1 in selection)
+        assertFalse(4 in selection)
+        assertFalse(99 in selection)
+
+        index.setTags(1, listOf(30))
+        assertEquals(listOf(30), index.tagsOf(1))
+        assertEquals(0, index.allOf(listOf(10, 99)).size)
+    }
+
+    @Test
+    fun `task filter applies tag criteria through the index`() {
+        val tasks = List(4) { TaskEntity(id = it + 1, title = "Task ${it + 1}", createdAt = 0) }
+        val index = TagBitmapIndex()
+        index.setTags(1, listOf(10))
+        index.setTags(2, listOf(10, 20))
+        index.setTags(3, listOf(20))
+
+        assertEquals(listOf(2), TaskFilter(allOfTags = setOf(10, 20)).apply(tasks, 0, index).map { it.id })
+        assertEquals(listOf(1, 2, 3), TaskFilter(anyOfTags = setOf(10, 20)).apply(tasks, 0, index).map { it.id })
+        assertEquals(tasks, TaskFilter().apply(tasks, 0, index))
+    }
+}
@@ -0,0 +1,113 @@
+package com.pharma.taskmanager.domain.transfer
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.StringReader
+import java.io.StringWriter
+
+class TaskTransferTest {
+
+    private val tasks = listOf(
+        TaskEntity(
+            id = 3,
+            title = "Check \"cold chain\", fridge 2",
+            description = "Line one\r\nline two\twith tab, comma and \\ backslash \u0001",
+            dueDateTime = 1_767_600_000_000,
+            priority = TaskConstants.PRIORITY_HIGH,
+            reminderTime = 1_767_599_100_000,
+            createdAt = 1_767_500_000_000,
+            recurrenceRule = "FREQ=WEEKLY;BYDAY=MO,TH"
+        ),
+        TaskEntity(
+            id = 7,
+            title = "Reorder insulin ✓",
+            status = TaskConstants.STATUS_COMPLETED,
+            createdAt = 1_767_400_000_000,
+            completedAt = 1_767_450_000_000
+        )
+    )
+
+    @Test
+    fun `both formats round trip every exported field`() = runTest {
+        for (format in TaskTransferFormat.values()) {
+            val out = StringWriter()
+            TaskTransfer.export(format.newWriter(out), chunkSize = 10, loadChunk = { afterId, _ -> tasks.filter { it.id > afterId } })
+
+            val imported = readAll(TaskTransfer.openReader(StringReader(out.toString()), now = NOW))
+
+            assertEquals(format.name, tasks.map { it.copy(id = 0) }, imported)
+        }
+    }
+
+    @Test
+    fun `export pages through the source by id`() = runTest {
+        val source = (1..25).map { TaskEntity(id = it * 2, title = "Task $it", createdAt = 0) }
+        val requests = mutableListOf<Int>()
+        val out = StringWriter()
+
+        val written = TaskTransfer.export(TaskTransferFormat.CSV.newWriter(out), chunkSize = 10, loadChunk = { afterId, limit ->
+            requests.add(afterId)
+            source.filter { it.id > afterId }.take(limit)
+        })
+
+        assertEquals(25L, written)
+        assertEquals(listOf(Int.MIN_VALUE, 20, 40), requests)
+        assertEquals(26, out.toString().lines().count { it.isNotEmpty() })
+    }
+
+    @Test
+    fun `import batches rows and skips malformed records`() = runTest {
+        val csv = """
+            |status,title,priority,dueDateTime,recurrenceRule,notes
+            |pending,Count stock,3,1767600000000,,ignored column
+            |,,2,,,
+            |done,Bad status,2,,,
+            |pending,"Multi
+            |line title",1,,,
+            |pending,No due date,2,,FREQ=DAILY,
+            |completed,Filed,2,,,
+            |pending,Late row,x,,,
+        """.trimMargin()
+        val batches = mutableListOf<Int>()
+
+        val result = TaskTransfer.import(CsvTaskReader(StringReader(csv), now = NOW), batchSize = 2, insertBatch = { batches.add(it.size) })
+
+        assertEquals(3L, result.imported)
+        assertEquals(4L, result.skipped)
+        assertEquals(listOf(2, 1), batches)
+        assertEquals(
+            listOf(
+                "Record 3: title is required",
+                "Record 4: unknown status 'done'",
+                "Record 6: recurrenceRule needs a dueDateTime",
+                "Record 8: priority is not a number: 'x'"
+            ),
+            result.errors
+        )
+    }
+
+    @Test
+    fun `json lines reader tolerates foreign producers`() {
+        val jsonl = "\uFEFF{ \"title\" : \"A\\u00e9\", \"extra\": true, \"priority\": 1 }\n\n" +
+            "{\"title\":\"Nested\",\"tags\":[\"x\"]}\n" +
+            "{\"title\":\"Done\",\"status\":\"completed\"}\n"
+        val reader = TaskTransfer.openReader(StringReader(jsonl), now = NOW)
+
+        assertEquals(TaskEntity(title = "Aé", priority = 1, createdAt = NOW), reader.read())
+        val error = runCatching { reader.read() }.exceptionOrNull()
+        assertTrue(error is MalformedRecordException && error.recordNumber == 3L)
+        assertEquals(NOW, reader.read()?.completedAt)
+        assertEquals(null, reader.read())
+    }
+
+    private fun readAll(reader: TaskRecordReader): List<TaskEntity> =
+        generateSequence { reader.read() }.toList()
+
+    private companion object {
+        const val NOW = 1_767_800_000_000
+    }
+}
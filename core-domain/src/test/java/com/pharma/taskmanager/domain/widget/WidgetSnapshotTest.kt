@@ -0,0 +1,69 @@
+package com.pharma.taskmanager.domain.widget
+
+import com.pharma.taskmanager.data.database.TaskConstants
+import com.pharma.taskmanager.data.database.TaskEntity
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class WidgetSnapshotTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val now = 1_760_000_000_000L
+    private val hour = 60 * 60 * 1000L
+    private val endOfDay = now + 6 * hour
+
+    private fun task(id: Int, due: Long?, status: String = TaskConstants.STATUS_PENDING, priority: Int = TaskConstants.PRIORITY_MEDIUM) =
+        TaskEntity(id = id, title = "Task $id", dueDateTime = due, status = status, priority = priority, createdAt = 0)
+
+    @Test
+    fun `snapshot keeps pending tasks due by the end of the day, overdue first`() {
+        val tasks = listOf(
+            task(1, now + 2 * hour),
+            task(2, now - hour),
+            task(3, now + 2 * hour, priority = TaskConstants.PRIORITY_HIGH),
+            task(4, now + 7 * hour), // Tomorrow
+            task(5, now - hour, status = TaskConstants.STATUS_COMPLETED),
+            task(6, null),
+            task(7, now - 30 * hour).copy(deletedAt = now)
+        )
+
+        val snapshot = WidgetSnapshot.from(tasks, now, endOfDay)
+
+        assertEquals(listOf(2, 3, 1), snapshot.items.map { it.id })
+        assertEquals(1, snapshot.overdue)
+        assertEquals(2, snapshot.dueToday)
+
+        val completed = snapshot.without(2)
+        assertEquals(listOf(3, 1), completed.items.map { it.id })
+        assertEquals(0, completed.overdue)
+        assertEquals(2, completed.dueToday)
+    }
+
+    @Test
+    fun `file round trips and rejects damage`() {
+        val file = File(folder.root, "widget/today.snapshot")
+        val store = WidgetSnapshotFile(file)
+        assertNull(store.read())
+
+        val tasks = List(15) { task(it + 1, now - hour + it * 10 * 60 * 1000L).copy(recurrenceRule = if (it == 0) "FREQ=DAILY" else null) }
+        val snapshot = WidgetSnapshot.from(tasks, now, endOfDay)
+        store.write(snapshot)
+        assertEquals(snapshot, store.read())
+        assertEquals(WidgetSnapshot.MAX_ITEMS, snapshot.items.size)
+        assertEquals(15, snapshot.overdue + snapshot.dueToday)
+
+        val bytes = file.readBytes()
+        bytes[bytes.size / 2] = (bytes[bytes.size / 2] + 1).toByte()
+        file.writeBytes(bytes)
+        assertNull(store.read())
+
+        file.writeBytes(bytes.copyOf(10))
+        assertNull(store.read())
+    }
+}
@@ -15,4 +15,6 @@ dependencyResolutionManagement {
 }
 
 rootProject.name = "Personal Task Manager"
-include(":app")
\ No newline at end of file
+include(":app")
+include(":core-domain")
+include(":core-domain-jmh")
\ No newline at end of file